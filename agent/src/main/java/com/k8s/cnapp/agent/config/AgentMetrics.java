@@ -0,0 +1,95 @@
+package com.k8s.cnapp.agent.config;
+
+import com.k8s.cnapp.agent.queue.MappedSegmentSpool;
+import com.k8s.cnapp.agent.queue.SnapshotQueue;
+import com.k8s.cnapp.agent.service.AdaptiveRateController;
+import com.k8s.cnapp.agent.service.ChangeFingerprinter;
+import com.k8s.cnapp.agent.service.DegradationController;
+import com.k8s.cnapp.agent.service.EventFilter;
+import com.k8s.cnapp.agent.service.ShardCoordinator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * 이미 각 컴포넌트가 집계하고 있는 상태 값을 Micrometer 게이지/카운터로 노출합니다.
+ * (전송 지연, 전송량 등 호출 시점에 기록하는 지표는 해당 컴포넌트에서 직접 기록)
+ * /actuator/prometheus 에서 조회할 수 있습니다.
+ */
+@Component
+public class AgentMetrics implements MeterBinder {
+
+    private final SnapshotQueue queue;
+    private final ChangeFingerprinter changeFingerprinter;
+    private final EventFilter eventFilter;
+    private final AdaptiveRateController rateController;
+    private final ShardCoordinator shardCoordinator;
+    private final DegradationController degradationController;
+
+    public AgentMetrics(SnapshotQueue queue, ChangeFingerprinter changeFingerprinter, EventFilter eventFilter,
+                        AdaptiveRateController rateController, ShardCoordinator shardCoordinator,
+                        DegradationController degradationController) {
+        this.queue = queue;
+        this.changeFingerprinter = changeFingerprinter;
+        this.eventFilter = eventFilter;
+        this.rateController = rateController;
+        this.shardCoordinator = shardCoordinator;
+        this.degradationController = degradationController;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("agent.queue.depth", queue, SnapshotQueue::size)
+                .description("Snapshots waiting to be taken by the forwarder")
+                .register(registry);
+
+        if (queue instanceof MappedSegmentSpool spool) {
+            Gauge.builder("agent.spool.size", spool, MappedSegmentSpool::getSizeBytes)
+                    .description("Disk space used by spool segments")
+                    .baseUnit("bytes")
+                    .register(registry);
+            FunctionCounter.builder("agent.spool.dropped", spool, MappedSegmentSpool::getDroppedCount)
+                    .description("Unsent snapshots dropped because the spool exceeded its size limit")
+                    .register(registry);
+        }
+
+        FunctionCounter.builder("agent.fingerprint.checked", changeFingerprinter, ChangeFingerprinter::getCheckedCount)
+                .description("Updates checked against the last sent fingerprint")
+                .register(registry);
+        FunctionCounter.builder("agent.fingerprint.suppressed", changeFingerprinter, ChangeFingerprinter::getSuppressedCount)
+                .description("Updates skipped because the sent fields did not change")
+                .register(registry);
+
+        FunctionCounter.builder("agent.events.filtered", eventFilter, EventFilter::getFilteredCount)
+                .description("Kubernetes events dropped by type/reason/namespace filters")
+                .register(registry);
+        FunctionCounter.builder("agent.events.rate.limited", eventFilter, EventFilter::getRateLimitedCount)
+                .description("Kubernetes event updates dropped by the per-object rate limit")
+                .register(registry);
+
+        Gauge.builder("agent.rate.control.rate", rateController, AdaptiveRateController::currentRate)
+                .description("Current send rate factor adjusted by server overload responses (1.0 = full rate)")
+                .register(registry);
+
+        Gauge.builder("agent.shard.members", shardCoordinator, c -> c.current().getMembers().size())
+                .description("Live agent replicas in the shard group (0 when sharding is disabled)")
+                .register(registry);
+        Gauge.builder("agent.shard.leader", shardCoordinator, c -> c.current().isLeader() ? 1 : 0)
+                .description("1 if this replica owns cluster-scoped resources")
+                .register(registry);
+
+        Gauge.builder("agent.degradation.level", degradationController, c -> c.currentLevel().ordinal())
+                .description("Load shedding level (0 normal, 1 events dropped, 2 coalescing widened, 3 low-priority types paused)")
+                .register(registry);
+        Gauge.builder("agent.resource.pressure", degradationController, DegradationController::getMemoryRatio)
+                .description("Usage relative to the container/heap limit used for load shedding")
+                .tag("resource", "memory")
+                .register(registry);
+        Gauge.builder("agent.resource.pressure", degradationController, DegradationController::getCpuRatio)
+                .description("Usage relative to the container/heap limit used for load shedding")
+                .tag("resource", "cpu")
+                .register(registry);
+    }
+}
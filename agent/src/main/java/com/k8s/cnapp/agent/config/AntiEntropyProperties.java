@@ -0,0 +1,68 @@
+package com.k8s.cnapp.agent.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Agent-서버 간 주기적 Anti-entropy 동기화 설정.
+ * 대상 타입의 리소스는 전송 시 지문을 함께 보내고, interval-ms마다 (리소스 키, 지문) 해시 트리를 서버와 비교합니다.
+ * Event는 필터/빈도 제한으로 일부러 보내지 않는 업데이트가 있어 대상에서 제외하는 것을 권장합니다.
+ */
+@Component
+@ConfigurationProperties(prefix = "agent.anti-entropy")
+public class AntiEntropyProperties {
+
+    private boolean enabled = true;
+    private long intervalMs = 600000;
+    private long initialDelayMs = 300000;
+    private int bucketCount = 256;
+    private Set<String> types = new LinkedHashSet<>(List.of("Pod", "Service", "Node", "Namespace", "Deployment"));
+
+    public boolean isTracked(String type) {
+        return enabled && types.contains(type);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    public void setIntervalMs(long intervalMs) {
+        this.intervalMs = intervalMs;
+    }
+
+    public long getInitialDelayMs() {
+        return initialDelayMs;
+    }
+
+    public void setInitialDelayMs(long initialDelayMs) {
+        this.initialDelayMs = initialDelayMs;
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    public void setBucketCount(int bucketCount) {
+        this.bucketCount = bucketCount;
+    }
+
+    public Set<String> getTypes() {
+        return types;
+    }
+
+    public void setTypes(Set<String> types) {
+        this.types = types;
+    }
+}
@@ -0,0 +1,85 @@
+package com.k8s.cnapp.agent.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Informer 업데이트 병합(Coalescing) 설정.
+ * 리소스 타입별 설정(types)이 없으면 기본값(flushIntervalMs, maxBatchSize)을 사용합니다.
+ */
+@Component
+@ConfigurationProperties(prefix = "agent.coalescing")
+public class CoalescingProperties {
+
+    private long flushIntervalMs = 1000;
+    private int maxBatchSize = 500;
+    private Map<String, TypeSettings> types = new HashMap<>();
+
+    public long flushIntervalMs(String type) {
+        TypeSettings settings = settingsFor(type);
+        return (settings != null && settings.getFlushIntervalMs() != null) ? settings.getFlushIntervalMs() : flushIntervalMs;
+    }
+
+    public int maxBatchSize(String type) {
+        TypeSettings settings = settingsFor(type);
+        return (settings != null && settings.getMaxBatchSize() != null) ? settings.getMaxBatchSize() : maxBatchSize;
+    }
+
+    // YAML 키 대소문자에 상관없이 "Pod", "pod" 모두 매칭
+    private TypeSettings settingsFor(String type) {
+        for (Map.Entry<String, TypeSettings> entry : types.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(type)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Map<String, TypeSettings> getTypes() {
+        return types;
+    }
+
+    public void setTypes(Map<String, TypeSettings> types) {
+        this.types = types;
+    }
+
+    public static class TypeSettings {
+        private Long flushIntervalMs;
+        private Integer maxBatchSize;
+
+        public Long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(Long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public Integer getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(Integer maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.k8s.cnapp.agent.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 컨테이너 자원 압박 시 단계적 부하 감소(Degradation) 설정.
+ * 비율은 모두 cgroup 제한(또는 최대 힙) 대비 사용량이며, high를 넘으면 한 단계씩 올리고
+ * 모든 지표가 low 아래로 recover-samples번 연속 유지되면 한 단계씩 내립니다.
+ * 메모리가 critical을 넘으면 바로 최고 단계로 올립니다.
+ */
+@Component
+@ConfigurationProperties(prefix = "agent.degradation")
+public class DegradationProperties {
+
+    private boolean enabled = true;
+    private double memoryHighRatio = 0.85;
+    private double memoryLowRatio = 0.70;
+    private double memoryCriticalRatio = 0.95;
+    private double cpuHighRatio = 0.90;
+    private double cpuLowRatio = 0.60;
+    private double gcHighRatio = 0.15;
+    private double gcLowRatio = 0.05;
+    private int recoverSamples = 3;
+    private double coalescingWidenFactor = 4.0;
+    private Set<String> pausedTypes = new LinkedHashSet<>(List.of("ReplicaSet"));
+    // 어떤 단계에서도 멈추지 않는 보안 핵심 타입
+    private Set<String> protectedTypes = new LinkedHashSet<>(List.of("Pod", "Service", "Node"));
+
+    public boolean isPausable(String type) {
+        return pausedTypes.contains(type) && !protectedTypes.contains(type);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getMemoryHighRatio() {
+        return memoryHighRatio;
+    }
+
+    public void setMemoryHighRatio(double memoryHighRatio) {
+        this.memoryHighRatio = memoryHighRatio;
+    }
+
+    public double getMemoryLowRatio() {
+        return memoryLowRatio;
+    }
+
+    public void setMemoryLowRatio(double memoryLowRatio) {
+        this.memoryLowRatio = memoryLowRatio;
+    }
+
+    public double getMemoryCriticalRatio() {
+        return memoryCriticalRatio;
+    }
+
+    public void setMemoryCriticalRatio(double memoryCriticalRatio) {
+        this.memoryCriticalRatio = memoryCriticalRatio;
+    }
+
+    public double getCpuHighRatio() {
+        return cpuHighRatio;
+    }
+
+    public void setCpuHighRatio(double cpuHighRatio) {
+        this.cpuHighRatio = cpuHighRatio;
+    }
+
+    public double getCpuLowRatio() {
+        return cpuLowRatio;
+    }
+
+    public void setCpuLowRatio(double cpuLowRatio) {
+        this.cpuLowRatio = cpuLowRatio;
+    }
+
+    public double getGcHighRatio() {
+        return gcHighRatio;
+    }
+
+    public void setGcHighRatio(double gcHighRatio) {
+        this.gcHighRatio = gcHighRatio;
+    }
+
+    public double getGcLowRatio() {
+        return gcLowRatio;
+    }
+
+    public void setGcLowRatio(double gcLowRatio) {
+        this.gcLowRatio = gcLowRatio;
+    }
+
+    public int getRecoverSamples() {
+        return recoverSamples;
+    }
+
+    public void setRecoverSamples(int recoverSamples) {
+        this.recoverSamples = recoverSamples;
+    }
+
+    public double getCoalescingWidenFactor() {
+        return coalescingWidenFactor;
+    }
+
+    public void setCoalescingWidenFactor(double coalescingWidenFactor) {
+        this.coalescingWidenFactor = coalescingWidenFactor;
+    }
+
+    public Set<String> getPausedTypes() {
+        return pausedTypes;
+    }
+
+    public void setPausedTypes(Set<String> pausedTypes) {
+        this.pausedTypes = pausedTypes;
+    }
+
+    public Set<String> getProtectedTypes() {
+        return protectedTypes;
+    }
+
+    public void setProtectedTypes(Set<String> protectedTypes) {
+        this.protectedTypes = protectedTypes;
+    }
+}
@@ -0,0 +1,105 @@
+package com.k8s.cnapp.agent.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kubernetes Event 전송 필터 설정.
+ * 목록이 비어 있으면 해당 조건은 적용하지 않습니다. (types/include-reasons가 비어 있으면 전체 허용)
+ * rate-limit은 같은 대상 객체(involvedObject)에 대한 이벤트 전송 빈도를 토큰 버킷으로 제한합니다.
+ */
+@Component
+@ConfigurationProperties(prefix = "agent.event-filter")
+public class EventFilterProperties {
+
+    private boolean enabled = true;
+    private List<String> types = new ArrayList<>();
+    private List<String> includeReasons = new ArrayList<>();
+    private List<String> excludeReasons = new ArrayList<>();
+    private List<String> excludeNamespaces = new ArrayList<>();
+    private RateLimit rateLimit = new RateLimit();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getTypes() {
+        return types;
+    }
+
+    public void setTypes(List<String> types) {
+        this.types = types;
+    }
+
+    public List<String> getIncludeReasons() {
+        return includeReasons;
+    }
+
+    public void setIncludeReasons(List<String> includeReasons) {
+        this.includeReasons = includeReasons;
+    }
+
+    public List<String> getExcludeReasons() {
+        return excludeReasons;
+    }
+
+    public void setExcludeReasons(List<String> excludeReasons) {
+        this.excludeReasons = excludeReasons;
+    }
+
+    public List<String> getExcludeNamespaces() {
+        return excludeNamespaces;
+    }
+
+    public void setExcludeNamespaces(List<String> excludeNamespaces) {
+        this.excludeNamespaces = excludeNamespaces;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(RateLimit rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    /**
+     * 대상 객체별 토큰 버킷. burst개까지 연속 전송 후 refill-interval-ms마다 1개씩 보충됩니다.
+     */
+    public static class RateLimit {
+        private boolean enabled = true;
+        private int burst = 5;
+        private long refillIntervalMs = 60000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+
+        public long getRefillIntervalMs() {
+            return refillIntervalMs;
+        }
+
+        public void setRefillIntervalMs(long refillIntervalMs) {
+            this.refillIntervalMs = refillIntervalMs;
+        }
+    }
+}
@@ -4,12 +4,14 @@ import io.kubernetes.client.openapi.ApiClient;
 import io.kubernetes.client.openapi.Configuration;
 import io.kubernetes.client.util.ClientBuilder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
 import java.io.IOException;
 
 @org.springframework.context.annotation.Configuration
 public class KubernetesClientConfig {
 
     @Bean
+    @Primary
     public ApiClient kubernetesApiClient() throws IOException {
         // This will attempt to load the in-cluster configuration first.
         // If that fails (e.g., not running inside a pod), it will fall back to
@@ -18,4 +20,16 @@ public class KubernetesClientConfig {
         Configuration.setDefaultApiClient(client);
         return client;
     }
+
+    /**
+     * Informer(LIST/WATCH) 전용 클라이언트. Watch 연결은 이벤트가 없으면 오래 유휴 상태이므로 읽기 제한 시간을 두지 않습니다.
+     * SharedInformerFactory도 전달받은 클라이언트의 제한 시간을 0으로 바꾸므로, 일반 API 호출(Lease, 메트릭, 페이지 LIST)용
+     * 클라이언트와 분리해 그쪽의 제한 시간이 유지되도록 합니다.
+     */
+    @Bean
+    public ApiClient informerApiClient() throws IOException {
+        ApiClient client = ClientBuilder.standard().build();
+        client.setReadTimeout(0);
+        return client;
+    }
 }
@@ -0,0 +1,58 @@
+package com.k8s.cnapp.agent.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 전송 전 리소스 필드 축소(Projection) 설정.
+ * 리소스 타입별로 남길 필드 경로("spec.containers.image" 형식, 배열은 각 원소에 적용)를 선언합니다.
+ * 설정이 없는 타입은 그대로 전송되고, 식별/Delta에 필요한 metadata 필드(keep-always)는 항상 유지됩니다.
+ */
+@Component
+@ConfigurationProperties(prefix = "agent.projection")
+public class ProjectionProperties {
+
+    private boolean enabled = true;
+    private List<String> keepAlways = new ArrayList<>(List.of(
+            "metadata.name", "metadata.namespace", "metadata.uid", "metadata.resourceVersion"));
+    private Map<String, List<String>> types = new HashMap<>();
+
+    // YAML 키 대소문자에 상관없이 "Pod", "pod" 모두 매칭
+    public List<String> fieldsFor(String type) {
+        for (Map.Entry<String, List<String>> entry : types.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(type)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getKeepAlways() {
+        return keepAlways;
+    }
+
+    public void setKeepAlways(List<String> keepAlways) {
+        this.keepAlways = keepAlways;
+    }
+
+    public Map<String, List<String>> getTypes() {
+        return types;
+    }
+
+    public void setTypes(Map<String, List<String>> types) {
+        this.types = types;
+    }
+}
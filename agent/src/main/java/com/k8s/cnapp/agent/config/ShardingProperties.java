@@ -0,0 +1,81 @@
+package com.k8s.cnapp.agent.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Agent 수평 분할(Sharding) 설정.
+ * 각 복제본은 자신의 멤버 Lease를 갱신하고, 살아 있는 멤버 목록으로 만든 해시 링에서 네임스페이스 담당을 나눕니다.
+ * cluster-scoped 리소스(Node, Namespace)는 리더 Lease를 가진 복제본만 전송합니다.
+ */
+@Component
+@ConfigurationProperties(prefix = "agent.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+    // 이 복제본의 식별자 (Pod 이름). 멤버 Lease 이름에 사용되므로 DNS-1123 형식이어야 함
+    private String identity;
+    // Lease를 만들 네임스페이스 (Agent가 실행 중인 네임스페이스)
+    private String leaseNamespace = "default";
+    private String leaseName = "cnapp-agent";
+    private int leaseDurationSeconds = 15;
+    private long renewIntervalMs = 5000;
+    // 멤버당 해시 링의 가상 노드 수 (클수록 고르게 분배)
+    private int virtualNodes = 128;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getIdentity() {
+        return identity;
+    }
+
+    public void setIdentity(String identity) {
+        this.identity = identity;
+    }
+
+    public String getLeaseNamespace() {
+        return leaseNamespace;
+    }
+
+    public void setLeaseNamespace(String leaseNamespace) {
+        this.leaseNamespace = leaseNamespace;
+    }
+
+    public String getLeaseName() {
+        return leaseName;
+    }
+
+    public void setLeaseName(String leaseName) {
+        this.leaseName = leaseName;
+    }
+
+    public int getLeaseDurationSeconds() {
+        return leaseDurationSeconds;
+    }
+
+    public void setLeaseDurationSeconds(int leaseDurationSeconds) {
+        this.leaseDurationSeconds = leaseDurationSeconds;
+    }
+
+    public long getRenewIntervalMs() {
+        return renewIntervalMs;
+    }
+
+    public void setRenewIntervalMs(long renewIntervalMs) {
+        this.renewIntervalMs = renewIntervalMs;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+}
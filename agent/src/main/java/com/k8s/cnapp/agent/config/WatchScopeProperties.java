@@ -0,0 +1,71 @@
+package com.k8s.cnapp.agent.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LIST/WATCH 범위 설정. API 서버가 전송 전에 거르도록 field/label selector로 변환되어 요청에 포함됩니다.
+ * include-namespaces가 비어 있으면 모든 네임스페이스, exclude-namespaces는 include보다 우선합니다.
+ * types의 label-selector/field-selector는 Kubernetes selector 문법 그대로 해당 타입의 요청에 추가됩니다.
+ */
+@Component
+@ConfigurationProperties(prefix = "agent.watch-scope")
+public class WatchScopeProperties {
+
+    private List<String> includeNamespaces = new ArrayList<>();
+    private List<String> excludeNamespaces = new ArrayList<>();
+    private Map<String, Selector> types = new HashMap<>();
+
+    public List<String> getIncludeNamespaces() {
+        return includeNamespaces;
+    }
+
+    public void setIncludeNamespaces(List<String> includeNamespaces) {
+        this.includeNamespaces = includeNamespaces;
+    }
+
+    public List<String> getExcludeNamespaces() {
+        return excludeNamespaces;
+    }
+
+    public void setExcludeNamespaces(List<String> excludeNamespaces) {
+        this.excludeNamespaces = excludeNamespaces;
+    }
+
+    public Map<String, Selector> getTypes() {
+        return types;
+    }
+
+    public void setTypes(Map<String, Selector> types) {
+        this.types = types;
+    }
+
+    /**
+     * 타입별 selector. 예) Pod: label-selector "!job-name", field-selector "status.phase!=Succeeded"
+     */
+    public static class Selector {
+        private String labelSelector;
+        private String fieldSelector;
+
+        public String getLabelSelector() {
+            return labelSelector;
+        }
+
+        public void setLabelSelector(String labelSelector) {
+            this.labelSelector = labelSelector;
+        }
+
+        public String getFieldSelector() {
+            return fieldSelector;
+        }
+
+        public void setFieldSelector(String fieldSelector) {
+            this.fieldSelector = fieldSelector;
+        }
+    }
+}
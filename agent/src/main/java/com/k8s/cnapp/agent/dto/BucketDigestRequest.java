@@ -0,0 +1,11 @@
+package com.k8s.cnapp.agent.dto;
+
+/**
+ * Anti-entropy 2단계: 루트가 다른 리소스 타입의 버킷별 해시.
+ * @param bucketHashes 버킷 번호 순서의 해시 (길이 = bucketCount)
+ */
+public record BucketDigestRequest(
+        String type,
+        int bucketCount,
+        long[] bucketHashes
+) {}
@@ -1,6 +1,9 @@
 package com.k8s.cnapp.agent.dto;
 
+import io.kubernetes.client.common.KubernetesObject;
 import io.kubernetes.client.openapi.models.*;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,5 +26,118 @@ public record ClusterSnapshot(
         List<V1Ingress> ingresses,
 
         // 4. 삭제 리소스 (Watcher 전 전용)
-        Map<String, List<String>> deletedResources
-) {}
\ No newline at end of file
+        Map<String, List<String>> deletedResources,
+
+        // 5. 변경분만 전송하는 리소스 (JSON Merge Patch)
+        List<ResourcePatch> patches,
+
+        // 6. 전송한 리소스의 지문 (타입 -> 리소스 키 -> 지문). 서버가 보관해 Anti-entropy 비교에 사용
+        Map<String, Map<String, Long>> fingerprints,
+
+        // 7. Agent에서 평가한 정책 버전과 위반 목록. 버전이 서버의 현재 정책과 같으면 서버는 바로 Alert를 기록하고 정밀 스캔을 생략
+        String policyVersion,
+        List<EdgeViolation> violations,
+
+        // 8. 분할 전송된 전체 스냅샷의 조각 정보 (Informer 변경분 등 일반 스냅샷은 null)
+        SnapshotChunk chunk,
+
+        // 9. 전체 스냅샷 조각에 본문 없이 키만 담은 리소스 (타입 -> 리소스 키).
+        //    마지막 전송본과 지문이 같아 본문을 생략한 리소스로, 서버는 해당 행을 이 스냅샷에서 확인된 것으로 표시
+        Map<String, List<String>> unchangedResources,
+
+        // 10. 이 스냅샷이 속한 전체 스냅샷 ID (조각은 자기 스냅샷, 변경분은 큐에 넣을 때 가장 최근에 시작한 스냅샷).
+        //     서버는 이 ID에 발급한 세대로 저장하는 행을 표시
+        String inventoryId
+) {
+
+    /**
+     * 리소스 타입("Pod", "Service" ...)별로 모인 객체 목록으로 스냅샷을 조립합니다.
+     * 비어 있는 타입은 null로 두어 직렬화 시 필드 자체가 생략되도록 합니다.
+     */
+    public static ClusterSnapshot of(Map<String, List<Object>> updates, Map<String, List<String>> deletes, List<ResourcePatch> patches) {
+        return of(updates, deletes, patches, Collections.emptyMap());
+    }
+
+    public static ClusterSnapshot of(Map<String, List<Object>> updates, Map<String, List<String>> deletes, List<ResourcePatch> patches,
+                                     Map<String, Map<String, Long>> fingerprints) {
+        return of(updates, deletes, patches, fingerprints, null, Collections.emptyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    public static ClusterSnapshot of(Map<String, List<Object>> updates, Map<String, List<String>> deletes, List<ResourcePatch> patches,
+                                     Map<String, Map<String, Long>> fingerprints, String policyVersion, List<EdgeViolation> violations) {
+        return new ClusterSnapshot(
+                (List<V1Pod>) (List<?>) updates.get("Pod"),
+                (List<V1Service>) (List<?>) updates.get("Service"),
+                (List<V1Node>) (List<?>) updates.get("Node"),
+                (List<V1Namespace>) (List<?>) updates.get("Namespace"),
+                (List<CoreV1Event>) (List<?>) updates.get("Event"),
+                (List<V1Deployment>) (List<?>) updates.get("Deployment"),
+                (List<V1StatefulSet>) (List<?>) updates.get("StatefulSet"),
+                (List<V1DaemonSet>) (List<?>) updates.get("DaemonSet"),
+                (List<V1ReplicaSet>) (List<?>) updates.get("ReplicaSet"),
+                (List<V1NetworkPolicy>) (List<?>) updates.get("NetworkPolicy"),
+                (List<V1Ingress>) (List<?>) updates.get("Ingress"),
+                deletes.isEmpty() ? Collections.emptyMap() : deletes,
+                patches.isEmpty() ? null : patches,
+                fingerprints.isEmpty() ? null : fingerprints,
+                policyVersion,
+                violations.isEmpty() ? null : violations,
+                null,
+                null,
+                null
+        );
+    }
+
+    /**
+     * 같은 내용에 조각 정보만 붙인 스냅샷을 반환합니다.
+     */
+    public ClusterSnapshot withChunk(SnapshotChunk chunk) {
+        return new ClusterSnapshot(pods, services, nodes, namespaces, events, deployments, statefulSets, daemonSets, replicaSets,
+                networkPolicies, ingresses, deletedResources, patches, fingerprints, policyVersion, violations, chunk,
+                unchangedResources, inventoryId);
+    }
+
+    /**
+     * 같은 내용에 본문을 생략한 리소스 키만 붙인 스냅샷을 반환합니다.
+     */
+    public ClusterSnapshot withUnchangedResources(Map<String, List<String>> unchangedResources) {
+        return new ClusterSnapshot(pods, services, nodes, namespaces, events, deployments, statefulSets, daemonSets, replicaSets,
+                networkPolicies, ingresses, deletedResources, patches, fingerprints, policyVersion, violations, chunk,
+                unchangedResources.isEmpty() ? null : unchangedResources, inventoryId);
+    }
+
+    /**
+     * 같은 내용에 전체 스냅샷 ID만 붙인 스냅샷을 반환합니다.
+     */
+    public ClusterSnapshot withInventoryId(String inventoryId) {
+        return new ClusterSnapshot(pods, services, nodes, namespaces, events, deployments, statefulSets, daemonSets, replicaSets,
+                networkPolicies, ingresses, deletedResources, patches, fingerprints, policyVersion, violations, chunk,
+                unchangedResources, inventoryId);
+    }
+
+    /**
+     * of()의 역변환. 비어 있지 않은 리소스 목록을 타입("Pod", "Service" ...)별로 반환합니다.
+     */
+    public Map<String, List<? extends KubernetesObject>> resourcesByType() {
+        Map<String, List<? extends KubernetesObject>> result = new LinkedHashMap<>();
+        putIfPresent(result, "Pod", pods);
+        putIfPresent(result, "Service", services);
+        putIfPresent(result, "Node", nodes);
+        putIfPresent(result, "Namespace", namespaces);
+        putIfPresent(result, "Event", events);
+        putIfPresent(result, "Deployment", deployments);
+        putIfPresent(result, "StatefulSet", statefulSets);
+        putIfPresent(result, "DaemonSet", daemonSets);
+        putIfPresent(result, "ReplicaSet", replicaSets);
+        putIfPresent(result, "NetworkPolicy", networkPolicies);
+        putIfPresent(result, "Ingress", ingresses);
+        return result;
+    }
+
+    private static void putIfPresent(Map<String, List<? extends KubernetesObject>> result, String type, List<? extends KubernetesObject> items) {
+        if (items != null && !items.isEmpty()) {
+            result.put(type, items);
+        }
+    }
+}
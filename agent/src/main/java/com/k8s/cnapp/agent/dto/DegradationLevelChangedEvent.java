@@ -0,0 +1,11 @@
+package com.k8s.cnapp.agent.dto;
+
+import com.k8s.cnapp.agent.service.DegradationLevel;
+
+/**
+ * 자원 압박으로 부하 감소 단계가 바뀌었음을 알리는 Spring 애플리케이션 이벤트
+ */
+public record DegradationLevelChangedEvent(
+        DegradationLevel previous,
+        DegradationLevel current
+) {}
@@ -0,0 +1,13 @@
+package com.k8s.cnapp.agent.dto;
+
+import java.util.Map;
+
+/**
+ * Anti-entropy 1단계: 리소스 타입별 해시 트리 루트.
+ * @param bucketCount 트리의 버킷 수 (서버도 같은 버킷 수로 계산)
+ * @param roots       리소스 타입 -> 루트 해시
+ */
+public record DigestRootsRequest(
+        int bucketCount,
+        Map<String, Long> roots
+) {}
@@ -0,0 +1,17 @@
+package com.k8s.cnapp.agent.dto;
+
+/**
+ * 서버가 컴파일한 단일 객체 정책 규칙.
+ * @param resourceType    "POD", "SERVICE" (서버 Policy.ResourceType)
+ * @param ruleType        규칙 종류 (PRIVILEGED_DENY, PORT_BLACKLIST ...)
+ * @param value           정책 값 ("true", "22,3306" ...)
+ * @param severity        위반 시 Alert 심각도
+ * @param messageTemplate 위반 메시지 (String.format 형식, 서버 정책과 같은 문구)
+ */
+public record EdgePolicyRule(
+        String resourceType,
+        String ruleType,
+        String value,
+        String severity,
+        String messageTemplate
+) {}
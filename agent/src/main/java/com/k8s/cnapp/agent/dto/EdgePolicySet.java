@@ -0,0 +1,11 @@
+package com.k8s.cnapp.agent.dto;
+
+import java.util.List;
+
+/**
+ * 테넌트의 Agent 평가용 정책 묶음. version은 규칙 내용의 해시로, 정책이 바뀌면 달라집니다.
+ */
+public record EdgePolicySet(
+        String version,
+        List<EdgePolicyRule> rules
+) {}
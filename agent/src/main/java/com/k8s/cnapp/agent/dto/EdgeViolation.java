@@ -0,0 +1,15 @@
+package com.k8s.cnapp.agent.dto;
+
+/**
+ * Agent에서 평가한 정책 위반.
+ * @param resourceType 리소스 타입 ("Pod", "Service")
+ * @param resourceKey  ResourceKeys 형식의 리소스 키
+ * @param ruleType     위반한 규칙
+ * @param message      규칙의 메시지 템플릿을 채운 위반 메시지
+ */
+public record EdgeViolation(
+        String resourceType,
+        String resourceKey,
+        String ruleType,
+        String message
+) {}
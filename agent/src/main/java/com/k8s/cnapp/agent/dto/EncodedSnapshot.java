@@ -0,0 +1,20 @@
+package com.k8s.cnapp.agent.dto;
+
+import java.util.List;
+
+/**
+ * 큐에 넣을 때 전송 형식으로 직렬화해 둔 (레인별) 부분 스냅샷. 전송기는 본문을 다시 직렬화하지 않고 그대로 전송합니다.
+ * @param lane  전송 레인. 같은 리소스 키는 항상 같은 레인으로 갑니다.
+ * @param chunk 전체 스냅샷 조각 정보 (일반 스냅샷은 null). 요청 헤더로 전달
+ * @param cbor  본문이 CBOR이면 true, JSON이면 false
+ * @param sent  본문에 담긴 Delta 대상 리소스 (전송 확인/거부 시 DeltaEncoder에 전달)
+ * @param body  직렬화된 본문 (압축 전)
+ */
+public record EncodedSnapshot(
+        int lane,
+        SnapshotChunk chunk,
+        boolean cbor,
+        List<SentResource> sent,
+        byte[] body
+) {
+}
@@ -0,0 +1,14 @@
+package com.k8s.cnapp.agent.dto;
+
+import java.util.List;
+
+/**
+ * 같은 집계 구간의 Pod 사용량 묶음 (인벤토리 스냅샷과 별도로 /api/v1/ingestion/usage로 전송)
+ * @param windowStart   구간 시작 시각 (epoch ms, window-seconds 단위로 정렬)
+ * @param windowSeconds 구간 길이
+ */
+public record PodUsageReport(
+        long windowStart,
+        int windowSeconds,
+        List<PodUsageRollup> pods
+) {}
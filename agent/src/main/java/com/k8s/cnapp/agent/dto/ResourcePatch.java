@@ -0,0 +1,20 @@
+package com.k8s.cnapp.agent.dto;
+
+/**
+ * 이전 전송본 대비 변경분 (RFC 7386 JSON Merge Patch).
+ * @param baseVersion patch가 기준으로 삼는 이전 전송본의 metadata.resourceVersion
+ * @param version     patch를 적용한 결과의 metadata.resourceVersion (전송 확인 시 Agent의 기준 전송본 갱신에 사용)
+ * @param patch       JSON Merge Patch 문서. 삭제 필드를 null로 표현해야 하므로
+ *                    (Gson은 null 필드를 생략) 문자열로 전달합니다.
+ */
+public record ResourcePatch(
+        String type,
+        String key,
+        String baseVersion,
+        String version,
+        String patch
+) {
+    public boolean isEmpty() {
+        return "{}".equals(patch);
+    }
+}
@@ -0,0 +1,11 @@
+package com.k8s.cnapp.agent.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 서버가 전체 재전송을 요청한 리소스 목록 (Spring 애플리케이션 이벤트)
+ */
+public record ResyncRequestedEvent(
+        Map<String, List<String>> resources
+) {}
@@ -0,0 +1,12 @@
+package com.k8s.cnapp.agent.dto;
+
+/**
+ * 스냅샷에 담겨 전송되는 Delta 대상 리소스 한 건. 전송 결과(확인/거부)를 DeltaEncoder에 알릴 때 사용합니다.
+ * @param version 전송본의 metadata.resourceVersion (patch는 적용 결과의 버전)
+ */
+public record SentResource(
+        String type,
+        String key,
+        String version
+) {
+}
@@ -0,0 +1,11 @@
+package com.k8s.cnapp.agent.dto;
+
+import com.k8s.cnapp.agent.service.ShardAssignment;
+
+/**
+ * 멤버 구성이나 리더가 바뀌어 이 Agent의 담당 범위가 달라졌음을 알리는 Spring 애플리케이션 이벤트
+ */
+public record ShardAssignmentChangedEvent(
+        ShardAssignment previous,
+        ShardAssignment current
+) {}
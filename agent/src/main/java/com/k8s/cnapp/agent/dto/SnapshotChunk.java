@@ -0,0 +1,23 @@
+package com.k8s.cnapp.agent.dto;
+
+/**
+ * 전체 스냅샷을 나눠 보낸 조각의 식별 정보. 서버는 (snapshotId, seq)로 중복 수신을 거르고 수신한 seq를 응답으로 확인합니다.
+ * @param snapshotId 전체 스냅샷 식별자 (최초 인벤토리 수집마다 새로 발급). 서버는 처음 본 스냅샷 ID에 세대를 발급하고
+ *                   이 스냅샷의 조각과 이후 변경분으로 저장한 행에 그 세대를 기록합니다.
+ * @param full       스냅샷이 테넌트 전체를 담는지 여부. 서버는 전체 스냅샷이 완료되면 더 오래된 세대의 행을 정리합니다.
+ *                   복제본마다 일부 네임스페이스만 수집하는 샤드 분할에서는 false
+ * @param seq        0부터 시작하는 조각 순번
+ * @param last       마지막 조각 여부. 마지막 조각은 리소스 없이 전체 조각 수(seq + 1)만 알리며,
+ *                   모든 타입을 빠짐없이 수집한 경우에만 전송됩니다.
+ */
+public record SnapshotChunk(
+        String snapshotId,
+        boolean full,
+        int seq,
+        boolean last
+) {
+    public static final String ID_HEADER = "X-Snapshot-Id";
+    public static final String FULL_HEADER = "X-Snapshot-Full";
+    public static final String SEQ_HEADER = "X-Snapshot-Seq";
+    public static final String LAST_HEADER = "X-Snapshot-Last";
+}
@@ -0,0 +1,301 @@
+package com.k8s.cnapp.agent.queue;
+
+import com.k8s.cnapp.agent.config.AntiEntropyProperties;
+import com.k8s.cnapp.agent.config.CoalescingProperties;
+import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.dto.EdgeViolation;
+import com.k8s.cnapp.agent.dto.ResourcePatch;
+import com.k8s.cnapp.agent.service.AdaptiveRateController;
+import com.k8s.cnapp.agent.service.ChangeFingerprinter;
+import com.k8s.cnapp.agent.service.DegradationController;
+import com.k8s.cnapp.agent.service.DeltaEncoder;
+import com.k8s.cnapp.agent.service.EdgePolicyEvaluator;
+import io.kubernetes.client.common.KubernetesObject;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Informer 콜백을 리소스 키 단위로 병합한 뒤, 시간 창(flush interval) 또는 크기 제한(max batch size)에 도달하면
+ * 하나의 ClusterSnapshot으로 묶어 SnapshotQueue에 넣습니다.
+ * - 같은 키의 업데이트는 마지막 값만 유지 (last write wins)
+ * - 삭제는 대기 중인 업데이트를 취소
+ * Informer 스레드는 버퍼에만 기록하므로 큐가 가득 차도 블로킹되지 않습니다.
+ * 꺼낸 항목을 큐에 넣지 못하면(스풀 I/O 오류, 인터럽트) 그 사이 새 값이 없는 키만 버퍼에 되돌려 다음 flush에서 다시 보냅니다.
+ * (ChangeFingerprinter가 이미 지문을 기록했으므로 버리면 같은 내용의 이후 업데이트도 생략되어 서버가 갱신되지 않음)
+ * flush 시점에 DeltaEncoder를 거쳐 이전 전송본이 있는 리소스는 변경분(patch)만 담습니다.
+ * Anti-entropy 대상 타입은 전송하는 리소스의 지문도 함께 담아 서버가 보관하도록 합니다.
+ * Pod/Service는 EdgePolicyEvaluator로 정책을 평가해 위반 목록과 정책 버전을 함께 담습니다.
+ */
+@Component
+public class CoalescingSnapshotBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescingSnapshotBuffer.class);
+    private static final long TICK_MS = 100;
+
+    private final SnapshotQueue queue;
+    private final CoalescingProperties properties;
+    private final DeltaEncoder deltaEncoder;
+    private final AdaptiveRateController rateController;
+    private final ChangeFingerprinter changeFingerprinter;
+    private final AntiEntropyProperties antiEntropyProperties;
+    private final EdgePolicyEvaluator edgePolicyEvaluator;
+    private final DegradationController degradationController;
+    private final Map<String, TypeBuffer> buffers = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "snapshot-coalescer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CoalescingSnapshotBuffer(SnapshotQueue queue, CoalescingProperties properties, DeltaEncoder deltaEncoder,
+                                    AdaptiveRateController rateController, ChangeFingerprinter changeFingerprinter,
+                                    AntiEntropyProperties antiEntropyProperties, EdgePolicyEvaluator edgePolicyEvaluator,
+                                    DegradationController degradationController) {
+        this.queue = queue;
+        this.properties = properties;
+        this.deltaEncoder = deltaEncoder;
+        this.rateController = rateController;
+        this.changeFingerprinter = changeFingerprinter;
+        this.antiEntropyProperties = antiEntropyProperties;
+        this.edgePolicyEvaluator = edgePolicyEvaluator;
+        this.degradationController = degradationController;
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(() -> flush(false), TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        flush(true);
+        abandonPending();
+    }
+
+    public void update(String type, String key, Object obj) {
+        TypeBuffer buffer = buffers.computeIfAbsent(type, t -> new TypeBuffer());
+        int size = buffer.update(key, obj);
+        requestFlushIfFull(type, size);
+    }
+
+    public void delete(String type, String key) {
+        TypeBuffer buffer = buffers.computeIfAbsent(type, t -> new TypeBuffer());
+        int size = buffer.delete(key);
+        requestFlushIfFull(type, size);
+    }
+
+    private void requestFlushIfFull(String type, int size) {
+        if (size >= maxBatchSize(type) && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> flush(false));
+        }
+    }
+
+    /**
+     * 기한이 지났거나 가득 찬 타입들을 모아 하나의 스냅샷으로 전송합니다.
+     * @param force true이면 기한과 상관없이 모든 대기 항목을 비웁니다 (종료 시).
+     */
+    private void flush(boolean force) {
+        flushRequested.set(false);
+        try {
+            boolean drained;
+            do {
+                drained = false;
+                long now = System.nanoTime();
+                Map<String, Map<String, Object>> updates = new HashMap<>();
+                Map<String, List<String>> deletes = new HashMap<>();
+
+                for (Map.Entry<String, TypeBuffer> entry : buffers.entrySet()) {
+                    String type = entry.getKey();
+                    TypeBuffer buffer = entry.getValue();
+                    int maxBatchSize = maxBatchSize(type);
+                    long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs(type));
+                    if (force ? buffer.size() > 0 : buffer.isDue(now, intervalNanos, maxBatchSize)) {
+                        buffer.drainTo(type, maxBatchSize, updates, deletes);
+                        drained = true;
+                    }
+                }
+
+                if (drained) {
+                    try {
+                        ClusterSnapshot snapshot = encode(updates, deletes);
+                        if (snapshot != null) {
+                            queue.put(snapshot);
+                            logger.debug("Flushed coalesced snapshot - updates: {}, deletes: {}", updates.keySet(), deletes.keySet());
+                        }
+                    } catch (InterruptedException | RuntimeException e) {
+                        restore(updates, deletes);
+                        throw e;
+                    }
+                }
+            } while (drained && !force && hasFullBuffer());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Coalescing flush was interrupted. Pending changes were kept for the next flush.");
+        } catch (Exception e) {
+            logger.error("Failed to flush coalesced snapshot: {}. Pending changes were kept for the next flush.", e.getMessage(), e);
+        }
+    }
+
+    // 큐에 넣지 못한 항목을 되돌림. 그 사이 같은 키에 새 업데이트/삭제가 들어왔으면 새 값을 유지
+    private void restore(Map<String, Map<String, Object>> updates, Map<String, List<String>> deletes) {
+        updates.forEach((type, entries) -> buffers.computeIfAbsent(type, t -> new TypeBuffer()).restore(entries, List.of()));
+        deletes.forEach((type, keys) -> buffers.computeIfAbsent(type, t -> new TypeBuffer()).restore(Map.of(), keys));
+    }
+
+    // 종료 시 보내지 못한 항목은 지문/Delta 기준을 버려, 재시작 후 같은 내용이어도 전체 객체로 다시 보내게 함
+    private void abandonPending() {
+        buffers.forEach((type, buffer) -> {
+            Set<String> keys = buffer.pendingKeys();
+            if (keys.isEmpty()) return;
+            logger.warn("{} pending {} changes could not be queued before shutdown. They will be resent after restart.", keys.size(), type);
+            for (String key : keys) {
+                changeFingerprinter.forget(type, key);
+                deltaEncoder.forget(type, key);
+            }
+        });
+    }
+
+    /**
+     * 병합된 업데이트를 전체 객체 또는 patch로 변환해 스냅샷을 만듭니다. 보낼 내용이 없으면 null.
+     */
+    private ClusterSnapshot encode(Map<String, Map<String, Object>> updates, Map<String, List<String>> deletes) {
+        Map<String, List<Object>> fullObjects = new HashMap<>();
+        List<ResourcePatch> patches = new ArrayList<>();
+        Map<String, Map<String, Long>> fingerprints = new HashMap<>();
+
+        for (Map.Entry<String, Map<String, Object>> typeEntry : updates.entrySet()) {
+            String type = typeEntry.getKey();
+            boolean tracked = antiEntropyProperties.isTracked(type);
+            for (Map.Entry<String, Object> entry : typeEntry.getValue().entrySet()) {
+                if (tracked) {
+                    fingerprints.computeIfAbsent(type, t -> new HashMap<>()).put(entry.getKey(),
+                            changeFingerprinter.fingerprintOf(type, entry.getKey(), (KubernetesObject) entry.getValue()));
+                }
+                ResourcePatch patch = deltaEncoder.encode(type, entry.getKey(), entry.getValue());
+                if (patch == null) {
+                    fullObjects.computeIfAbsent(type, t -> new ArrayList<>()).add(entry.getValue());
+                } else if (!patch.isEmpty()) {
+                    patches.add(patch);
+                }
+            }
+        }
+        deletes.forEach((type, keys) -> keys.forEach(key -> deltaEncoder.forget(type, key)));
+
+        if (fullObjects.isEmpty() && patches.isEmpty() && deletes.isEmpty()) return null;
+        // patch로 보내는 리소스도 병합된 전체 객체로 평가
+        List<EdgeViolation> violations = new ArrayList<>();
+        String policyVersion = edgePolicyEvaluator.evaluate(updates, violations);
+        return ClusterSnapshot.of(fullObjects, deletes, patches, fingerprints, policyVersion, violations);
+    }
+
+    private boolean hasFullBuffer() {
+        for (Map.Entry<String, TypeBuffer> entry : buffers.entrySet()) {
+            if (entry.getValue().size() >= maxBatchSize(entry.getKey())) return true;
+        }
+        return false;
+    }
+
+    // 서버 과부하 시 AIMD로 조절된 전송 속도를 반영한 flush 간격/배치 크기. Agent 자원 압박 시 flush 간격을 더 넓힘
+    private long flushIntervalMs(String type) {
+        return degradationController.scaleFlushInterval(rateController.scaleFlushInterval(properties.flushIntervalMs(type)));
+    }
+
+    private int maxBatchSize(String type) {
+        return rateController.scaleBatchSize(properties.maxBatchSize(type));
+    }
+
+    /**
+     * 리소스 타입 하나에 대한 병합 버퍼. 모든 접근은 인스턴스 락으로 보호됩니다.
+     */
+    private static class TypeBuffer {
+        private final LinkedHashMap<String, Object> updates = new LinkedHashMap<>();
+        private final Set<String> deletes = new LinkedHashSet<>();
+        private long firstPendingAt;
+
+        synchronized int update(String key, Object obj) {
+            markPending();
+            deletes.remove(key);
+            updates.put(key, obj);
+            return updates.size() + deletes.size();
+        }
+
+        synchronized int delete(String key) {
+            markPending();
+            updates.remove(key);
+            deletes.add(key);
+            return updates.size() + deletes.size();
+        }
+
+        synchronized int size() {
+            return updates.size() + deletes.size();
+        }
+
+        synchronized boolean isDue(long now, long intervalNanos, int maxBatchSize) {
+            int size = updates.size() + deletes.size();
+            return size > 0 && (size >= maxBatchSize || now - firstPendingAt >= intervalNanos);
+        }
+
+        synchronized Set<String> pendingKeys() {
+            Set<String> keys = new LinkedHashSet<>(updates.keySet());
+            keys.addAll(deletes);
+            return keys;
+        }
+
+        synchronized void restore(Map<String, Object> drainedUpdates, List<String> drainedDeletes) {
+            markPending();
+            drainedUpdates.forEach((key, obj) -> {
+                if (!updates.containsKey(key) && !deletes.contains(key)) updates.put(key, obj);
+            });
+            for (String key : drainedDeletes) {
+                if (!updates.containsKey(key)) deletes.add(key);
+            }
+        }
+
+        synchronized void drainTo(String type, int limit, Map<String, Map<String, Object>> updateOut, Map<String, List<String>> deleteOut) {
+            Map<String, Object> drainedUpdates = new LinkedHashMap<>();
+            List<String> drainedDeletes = new ArrayList<>();
+
+            Iterator<String> deleteIt = deletes.iterator();
+            while (deleteIt.hasNext() && drainedDeletes.size() < limit) {
+                drainedDeletes.add(deleteIt.next());
+                deleteIt.remove();
+            }
+            Iterator<Map.Entry<String, Object>> updateIt = updates.entrySet().iterator();
+            while (updateIt.hasNext() && drainedDeletes.size() + drainedUpdates.size() < limit) {
+                Map.Entry<String, Object> entry = updateIt.next();
+                drainedUpdates.put(entry.getKey(), entry.getValue());
+                updateIt.remove();
+            }
+
+            if (!drainedUpdates.isEmpty()) updateOut.put(type, drainedUpdates);
+            if (!drainedDeletes.isEmpty()) deleteOut.put(type, drainedDeletes);
+            // 남은 항목은 새 창으로 간주
+            firstPendingAt = System.nanoTime();
+        }
+
+        private void markPending() {
+            if (updates.isEmpty() && deletes.isEmpty()) {
+                firstPendingAt = System.nanoTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,572 @@
+package com.k8s.cnapp.agent.queue;
+
+import com.google.gson.Gson;
+import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.dto.EncodedSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * 메모리 매핑된 세그먼트 파일 기반의 디스크 스풀.
+ * - 스냅샷은 레인별 부분 스냅샷으로 나뉘어 [길이(4) | CRC32(4) | 머리 길이(4) | 머리 | 본문] 레코드로 현재 세그먼트 끝에 추가됩니다.
+ *   본문은 전송 형식(JSON | CBOR) 그대로 매핑된 세그먼트에 바로 직렬화되며(중간 String/byte[] 없음), 전송기는 이를 다시 직렬화하지 않고 보냅니다.
+ *   머리에는 레인, 조각 정보, Delta 확인용 리소스 목록이 담깁니다.
+ * - 세그먼트가 가득 차면 새 세그먼트로 넘어가고(rollover), 전체 크기가 max-bytes를 넘으면 가장 오래된 세그먼트를 버립니다.
+ *   따라서 put()은 디스크 용량 때문에 블로킹되지 않습니다. 버리거나 전송이 끝난 세그먼트는 매핑을 바로 해제합니다.
+ * - take()는 다음 레코드를 꺼내는 읽기 위치만 전진시키고, 확인 위치(cursor)는 acknowledge() 시점에 꺼낸 순서대로 전진하며
+ *   파일로 저장됩니다. 따라서 여러 스냅샷을 동시에 전송 중이어도 재시작하면 확인되지 않은 스냅샷부터 다시 전송합니다.
+ */
+@Component
+@ConditionalOnProperty(name = "agent.queue.type", havingValue = "spool", matchIfMissing = true)
+public class MappedSegmentSpool implements SnapshotQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedSegmentSpool.class);
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String CURSOR_FILE = "cursor";
+    private static final MethodHandle INVOKE_CLEANER = findCleaner();
+
+    private final Gson gson;
+    private final SnapshotEncoder encoder;
+    // 레코드 본문 직렬화는 lock 밖에서 하므로 쓰기끼리만 직렬화 (take()가 직렬화 시간만큼 기다리지 않도록)
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private final Timer putTimer;
+
+    @Value("${agent.spool.dir:/var/lib/cnapp-agent/spool}")
+    private String directoryPath;
+
+    @Value("${agent.spool.segment-size-bytes:16777216}")
+    private int segmentSizeBytes;
+
+    @Value("${agent.spool.max-bytes:536870912}")
+    private long maxBytes;
+
+    private Path directory;
+    private Segment writeSegment;
+
+    // 다음 take() 위치
+    private long readSegment;
+    private int readOffset;
+
+    // 확인된 위치 (cursor 파일에 저장)
+    private long ackSegment;
+    private int ackOffset;
+
+    // 아직 take()로 꺼내지 않은 레코드 수
+    private long backlog;
+
+    // take()로 꺼냈지만 아직 확인되지 않은 레코드들의 다음 위치 {segment, offset} (꺼낸 순서)
+    private final Deque<long[]> pending = new ArrayDeque<>();
+
+    public MappedSegmentSpool(Gson gson, SnapshotEncoder encoder, MeterRegistry meterRegistry) {
+        this.gson = gson;
+        this.encoder = encoder;
+        this.putTimer = Timer.builder("agent.queue.put")
+                .description("Time spent in put(), including serialization and waiting for the spool lock")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = Paths.get(directoryPath);
+        Files.createDirectories(directory);
+        long[] cursor = readCursor();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                long seq = segmentSeq(path);
+                if (cursor != null && seq < cursor[0]) {
+                    Files.deleteIfExists(path); // 이미 전송 확인된 세그먼트
+                    continue;
+                }
+                segments.put(seq, Segment.open(path, seq, (int) Files.size(path)));
+            }
+        }
+
+        if (segments.isEmpty()) {
+            long seq = cursor != null ? cursor[0] : 0;
+            writeSegment = createSegment(seq, segmentSizeBytes);
+        } else {
+            writeSegment = segments.lastEntry().getValue();
+            writeSegment.writeOffset = writeSegment.scanEnd();
+        }
+
+        if (cursor != null && segments.containsKey(cursor[0])) {
+            ackSegment = cursor[0];
+            ackOffset = (int) cursor[1];
+        } else {
+            ackSegment = segments.firstKey();
+            ackOffset = 0;
+        }
+        readSegment = ackSegment;
+        readOffset = ackOffset;
+        for (Segment segment : segments.tailMap(readSegment).values()) {
+            backlog += segment.countRecords(segment.seq == readSegment ? readOffset : 0);
+        }
+        logger.info("Opened snapshot spool at {} ({} segments, {} bytes on disk, read cursor: {}@{})",
+                directory, segments.size(), totalBytes(), readSegment, readOffset);
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            segments.values().forEach(Segment::force);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(ClusterSnapshot snapshot) {
+        long start = System.nanoTime();
+        appendLock.lock();
+        try {
+            encoder.partition(snapshot).forEach(this::append);
+        } finally {
+            appendLock.unlock();
+            putTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * appendLock 보유 상태에서 호출. 레코드를 현재 세그먼트의 쓰기 위치 뒤에 바로 직렬화하고, 길이를 기록(공개)할 때만 lock을 잡습니다.
+     * 남은 공간에 들어가지 않으면 필요한 크기만 센 뒤 새 세그먼트에 다시 직렬화합니다. (세그먼트가 넘어갈 때만 발생)
+     */
+    private void append(int lane, ClusterSnapshot part) {
+        byte[] header = gson.toJson(encoder.header(lane, part)).getBytes(StandardCharsets.UTF_8);
+        boolean cbor = encoder.codec().isCbor();
+        try {
+            RecordOutputStream record = writeRecord(writeSegment, header, part, cbor);
+            if (!record.fits()) {
+                lock.lock();
+                try {
+                    roll(HEADER_BYTES + record.length());
+                } finally {
+                    lock.unlock();
+                }
+                record = writeRecord(writeSegment, header, part, cbor);
+            }
+
+            lock.lock();
+            try {
+                writeSegment.commit(record.length(), record.crc());
+                backlog++;
+                notEmpty.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append snapshot to spool", e);
+        }
+    }
+
+    private RecordOutputStream writeRecord(Segment segment, byte[] header, ClusterSnapshot part, boolean cbor) throws IOException {
+        RecordOutputStream out = segment.recordStream();
+        out.writeInt(header.length);
+        out.write(header);
+        encoder.codec().write(part, out, cbor);
+        return out;
+    }
+
+    @Override
+    public EncodedSnapshot take() throws InterruptedException {
+        byte[] header;
+        byte[] body;
+        lock.lockInterruptibly();
+        try {
+            int offset = nextRecord();
+            Segment segment = segments.get(readSegment);
+            int length = segment.buffer.getInt(offset); // nextRecord()가 CRC를 확인한 레코드
+            int headerLength = segment.buffer.getInt(offset + HEADER_BYTES);
+            header = segment.read(offset + HEADER_BYTES + Integer.BYTES, headerLength);
+            body = segment.read(offset + HEADER_BYTES + Integer.BYTES + headerLength, length - Integer.BYTES - headerLength);
+        } finally {
+            lock.unlock();
+        }
+        EncodedSnapshot meta = gson.fromJson(new String(header, StandardCharsets.UTF_8), EncodedSnapshot.class);
+        return new EncodedSnapshot(meta.lane(), meta.chunk(), meta.cbor(), meta.sent() != null ? meta.sent() : List.of(), body);
+    }
+
+    @Override
+    public void acknowledge() {
+        lock.lock();
+        try {
+            long[] next = pending.pollFirst();
+            if (next == null) return;
+            ackSegment = next[0];
+            ackOffset = (int) next[1];
+
+            // 확인 위치보다 앞선 세그먼트는 모두 전송 완료
+            while (segments.firstKey() < ackSegment) {
+                segments.pollFirstEntry().getValue().delete();
+            }
+            writeCursor();
+        } catch (IOException e) {
+            logger.warn("Failed to persist spool cursor: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long size() {
+        lock.lock();
+        try {
+            return backlog;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getDroppedCount() {
+        return droppedRecords.get();
+    }
+
+    public long getSizeBytes() {
+        lock.lock();
+        try {
+            return totalBytes();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // lock 보유 상태에서 호출. 읽을 레코드가 생길 때까지 대기하고, 읽기 위치를 넘긴 뒤 레코드의 위치를 반환
+    private int nextRecord() throws InterruptedException {
+        while (true) {
+            Segment segment = segments.get(readSegment);
+            if (segment == null) {
+                readSegment = segments.firstKey();
+                readOffset = 0;
+                continue;
+            }
+
+            int length = segment.recordLength(readOffset);
+            if (length > 0) {
+                int offset = readOffset;
+                readOffset += HEADER_BYTES + length;
+                backlog = Math.max(0, backlog - 1);
+                if (!segment.hasHeader(offset, length)) {
+                    // 머리가 없는 레코드 (이전 형식 등) -> 건너뛰고 다음 확인 시 함께 확인 처리
+                    logger.error("Unreadable record in spool segment {} at offset {}. Skipping it.", segment.seq, offset);
+                    continue;
+                }
+                pending.addLast(new long[]{segment.seq, readOffset});
+                return offset;
+            }
+
+            if (segment != writeSegment) {
+                // 봉인된 세그먼트를 다 읽음 -> 다음 세그먼트로 (삭제는 확인 위치가 넘어갈 때)
+                readSegment = segments.higherKey(segment.seq);
+                readOffset = 0;
+                continue;
+            }
+            if (readOffset < writeSegment.writeOffset) {
+                logger.error("Corrupted record in spool segment {} at offset {}. Skipping to end of segment.", segment.seq, readOffset);
+                readOffset = writeSegment.writeOffset;
+                continue;
+            }
+            notEmpty.await();
+        }
+    }
+
+    private void roll(int required) throws IOException {
+        writeSegment = createSegment(writeSegment.seq + 1, Math.max(segmentSizeBytes, required + Integer.BYTES));
+        enforceLimit();
+    }
+
+    // 디스크 사용량 상한 초과 시 가장 오래된 세그먼트부터 버림 (쓰기 측이 블로킹되지 않도록)
+    private void enforceLimit() {
+        long total = totalBytes();
+        while (total > maxBytes && segments.size() > 1) {
+            Segment oldest = segments.pollFirstEntry().getValue();
+            int dropped = oldest.countRecords(oldest.seq == readSegment ? readOffset : 0);
+            droppedRecords.addAndGet(dropped);
+            if (oldest.seq >= readSegment) {
+                backlog = Math.max(0, backlog - dropped);
+            }
+            total -= oldest.capacity;
+            oldest.delete();
+
+            if (readSegment <= oldest.seq) {
+                readSegment = segments.firstKey();
+                readOffset = 0;
+            }
+            if (ackSegment <= oldest.seq) {
+                ackSegment = segments.firstKey();
+                ackOffset = 0;
+            }
+            // 버린 세그먼트의 레코드는 확인해도 위치를 되돌리지 않도록 다음 세그먼트 시작으로 맞춤
+            for (long[] next : pending) {
+                if (next[0] <= oldest.seq) {
+                    next[0] = ackSegment;
+                    next[1] = ackOffset;
+                }
+            }
+            logger.warn("Snapshot spool exceeded {} bytes. Dropped segment {} with {} unsent snapshots.", maxBytes, oldest.seq, dropped);
+        }
+    }
+
+    private Segment createSegment(long seq, int capacity) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, seq, SEGMENT_SUFFIX));
+        Segment segment = Segment.open(path, seq, capacity);
+        segments.put(seq, segment);
+        return segment;
+    }
+
+    private long totalBytes() {
+        long total = 0;
+        for (Segment segment : segments.values()) {
+            total += segment.capacity;
+        }
+        return total;
+    }
+
+    private long[] readCursor() throws IOException {
+        Path path = directory.resolve(CURSOR_FILE);
+        if (!Files.exists(path)) return null;
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < Long.BYTES + Integer.BYTES) return null;
+        return new long[]{buffer.getLong(), buffer.getInt()};
+    }
+
+    // 임시 파일에 쓴 뒤 교체하여 중간 상태의 cursor 파일이 남지 않도록 함
+    private void writeCursor() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES).putLong(ackSegment).putInt(ackOffset);
+        Path tmp = directory.resolve(CURSOR_FILE + ".tmp");
+        Files.write(tmp, buffer.array());
+        Files.move(tmp, directory.resolve(CURSOR_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private long segmentSeq(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * 하나의 세그먼트 파일. 생성 시 전체 크기로 매핑되며, 비어 있는 영역은 0으로 채워져 있어 길이 0이 레코드의 끝을 뜻합니다.
+     */
+    private static final class Segment {
+        private final long seq;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private int writeOffset;
+
+        private Segment(long seq, Path path, MappedByteBuffer buffer, int capacity) {
+            this.seq = seq;
+            this.path = path;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        static Segment open(Path path, long seq, int capacity) throws IOException {
+            // 매핑은 채널을 닫은 뒤에도 유효
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return new Segment(seq, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity), capacity);
+            }
+        }
+
+        /**
+         * 쓰기 위치 뒤에 레코드 본문을 기록하는 스트림. 길이가 기록되기 전에는 읽는 쪽에서 레코드의 끝으로 보입니다.
+         */
+        RecordOutputStream recordStream() {
+            if (writeOffset + Integer.BYTES <= capacity) {
+                buffer.putInt(writeOffset, 0);
+            }
+            return new RecordOutputStream(buffer, writeOffset + HEADER_BYTES, capacity - writeOffset - HEADER_BYTES);
+        }
+
+        // lock 보유 상태에서 호출. 길이를 기록해 레코드를 읽을 수 있게 함
+        void commit(int length, int crc) {
+            int offset = writeOffset;
+            buffer.putInt(offset + Integer.BYTES, crc);
+            writeOffset += HEADER_BYTES + length;
+            // 재시작 후 덮어쓴 영역 뒤에 남은 이전 레코드를 읽지 않도록 종료 표시
+            if (writeOffset + Integer.BYTES <= capacity) {
+                buffer.putInt(writeOffset, 0);
+            }
+            buffer.putInt(offset, length);
+        }
+
+        /**
+         * @return offset 위치의 유효한 레코드 본문 길이. 레코드가 없거나 손상되었으면 -1
+         */
+        int recordLength(int offset) {
+            if (offset + HEADER_BYTES > capacity) return -1;
+            int length = buffer.getInt(offset);
+            if (length <= 0 || length > capacity - offset - HEADER_BYTES) return -1;
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice(offset + HEADER_BYTES, length));
+            return (int) crc.getValue() == buffer.getInt(offset + Integer.BYTES) ? length : -1;
+        }
+
+        byte[] read(int offset, int length) {
+            byte[] data = new byte[length];
+            buffer.get(offset, data);
+            return data;
+        }
+
+        // 본문 앞에 머리 길이와 머리가 있는지 (record는 recordLength로 확인된 레코드)
+        boolean hasHeader(int offset, int length) {
+            if (length < Integer.BYTES) return false;
+            int headerLength = buffer.getInt(offset + HEADER_BYTES);
+            return headerLength > 0 && headerLength <= length - Integer.BYTES;
+        }
+
+        int scanEnd() {
+            int offset = 0;
+            int length;
+            while ((length = recordLength(offset)) > 0) {
+                offset += HEADER_BYTES + length;
+            }
+            return offset;
+        }
+
+        int countRecords(int from) {
+            int count = 0;
+            int offset = from;
+            int length;
+            while ((length = recordLength(offset)) > 0) {
+                offset += HEADER_BYTES + length;
+                count++;
+            }
+            return count;
+        }
+
+        void force() {
+            buffer.force();
+        }
+
+        // 매핑을 GC 시점까지 남겨 두지 않고 바로 해제한 뒤 파일을 삭제. 해제 후에는 buffer에 접근하면 안 됨
+        void delete() {
+            unmap(buffer);
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.warn("Failed to delete spool segment {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    private static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) return;
+        try {
+            INVOKE_CLEANER.invoke(buffer);
+        } catch (Throwable e) {
+            logger.warn("Failed to unmap spool segment: {}", e.getMessage());
+        }
+    }
+
+    // sun.misc.Unsafe.invokeCleaner(ByteBuffer). 사용할 수 없는 런타임에서는 GC가 매핑을 해제
+    private static MethodHandle findCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("Mapped segments cannot be unmapped explicitly ({}). Deleted segments are unmapped by GC.", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 매핑된 세그먼트의 지정 위치부터 레코드 본문을 기록하며 CRC를 함께 계산합니다.
+     * 남은 공간(limit)을 넘는 바이트는 기록하지 않고 길이만 세므로, 직렬화가 끝난 뒤 필요한 레코드 크기를 알 수 있습니다.
+     */
+    private static final class RecordOutputStream extends OutputStream {
+        private final MappedByteBuffer buffer;
+        private final int start;
+        private final int limit;
+        private final CRC32 crc = new CRC32();
+        private long count;
+
+        RecordOutputStream(MappedByteBuffer buffer, int start, int limit) {
+            this.buffer = buffer;
+            this.start = start;
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) {
+            if (count < limit) {
+                buffer.put(start + (int) count, (byte) b);
+                crc.update(b);
+            }
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            int fit = (int) Math.max(0, Math.min(len, limit - count));
+            if (fit > 0) {
+                buffer.put(start + (int) count, b, off, fit);
+                crc.update(b, off, fit);
+            }
+            count += len;
+        }
+
+        void writeInt(int value) {
+            write(new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value}, 0, Integer.BYTES);
+        }
+
+        boolean fits() {
+            return count <= limit;
+        }
+
+        int length() {
+            if (count > Integer.MAX_VALUE - HEADER_BYTES - Integer.BYTES) {
+                throw new IllegalStateException("Snapshot record is too large for the spool: " + count + " bytes");
+            }
+            return (int) count;
+        }
+
+        int crc() {
+            return (int) crc.getValue();
+        }
+    }
+}
@@ -1,33 +1,69 @@
 package com.k8s.cnapp.agent.queue;
 
 import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.dto.EncodedSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 @Component
-public class SnapshotBlockingQueue {
+@ConditionalOnProperty(name = "agent.queue.type", havingValue = "memory")
+public class SnapshotBlockingQueue implements SnapshotQueue {
 
     // Set a capacity for the queue to prevent excessive memory usage.
-    private final BlockingQueue<ClusterSnapshot> queue = new LinkedBlockingQueue<>(100);
+    private final BlockingQueue<EncodedSnapshot> queue = new LinkedBlockingQueue<>(100);
+    private final SnapshotEncoder encoder;
+    private final Timer putTimer;
+
+    public SnapshotBlockingQueue(SnapshotEncoder encoder, MeterRegistry meterRegistry) {
+        this.encoder = encoder;
+        this.putTimer = Timer.builder("agent.queue.put")
+                .description("Time spent in put(), including time blocked on a full queue")
+                .register(meterRegistry);
+    }
 
     /**
-     * Puts a cluster snapshot into the queue.
+     * Encodes a cluster snapshot per sender lane and puts the parts into the queue.
      * This method will block if the queue is full.
      * @param snapshot The ClusterSnapshot object.
      * @throws InterruptedException if interrupted while waiting.
      */
+    @Override
     public void put(ClusterSnapshot snapshot) throws InterruptedException {
-        queue.put(snapshot);
+        long start = System.nanoTime();
+        try {
+            for (EncodedSnapshot part : encoder.encode(snapshot)) {
+                queue.put(part);
+            }
+        } finally {
+            putTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     /**
-     * Takes a cluster snapshot from the queue.
+     * Takes an encoded snapshot part from the queue.
      * This method will block if the queue is empty.
-     * @return The ClusterSnapshot object.
+     * @return The EncodedSnapshot object.
      * @throws InterruptedException if interrupted while waiting.
      */
-    public ClusterSnapshot take() throws InterruptedException {
+    @Override
+    public EncodedSnapshot take() throws InterruptedException {
         return queue.take();
     }
+
+    /**
+     * Items are removed on take(), so there is nothing to acknowledge.
+     */
+    @Override
+    public void acknowledge() {
+    }
+
+    @Override
+    public long size() {
+        return queue.size();
+    }
 }
@@ -0,0 +1,83 @@
+package com.k8s.cnapp.agent.queue;
+
+import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.dto.EncodedSnapshot;
+import com.k8s.cnapp.agent.sender.SnapshotCodec;
+import com.k8s.cnapp.agent.service.DeltaEncoder;
+import com.k8s.cnapp.agent.service.SnapshotChunker;
+import com.k8s.cnapp.agent.service.SnapshotPartitioner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 큐에 넣을 스냅샷을 전송 레인별 부분 스냅샷으로 나누고 전송 형식으로 직렬화합니다.
+ * - 리소스는 리소스 키 해시로 레인에 나뉘므로 같은 키의 업데이트/patch/삭제는 항상 같은 레인에서 순서대로 전송됩니다.
+ * - 전체 스냅샷의 조각은 서버가 (스냅샷 ID, 순번)으로 중복을 거르므로 나누지 않고 순번으로 레인을 정합니다.
+ * 레인을 큐에 넣을 때 정해 두므로 전송기는 본문을 다시 읽거나 직렬화하지 않습니다.
+ * 변경분에는 큐에 넣는 시점의 최근 전체 스냅샷 ID를 붙여, 서버가 수집 이후 저장된 행을 그 스냅샷에서 확인된 것으로 표시하게 합니다.
+ */
+@Component
+public class SnapshotEncoder {
+
+    private final SnapshotCodec codec;
+    private final DeltaEncoder deltaEncoder;
+    private final SnapshotChunker snapshotChunker;
+
+    @Value("${agent.forwarder.lanes:4}")
+    private int laneCount;
+
+    public SnapshotEncoder(SnapshotCodec codec, DeltaEncoder deltaEncoder, SnapshotChunker snapshotChunker) {
+        this.codec = codec;
+        this.deltaEncoder = deltaEncoder;
+        this.snapshotChunker = snapshotChunker;
+    }
+
+    /**
+     * @return 레인 -> 부분 스냅샷. 빈 스냅샷도 순서 확인을 위해 한 번은 전송합니다.
+     */
+    public Map<Integer, ClusterSnapshot> partition(ClusterSnapshot snapshot) {
+        snapshot = tagInventory(snapshot);
+        if (laneCount <= 1) return Map.of(0, snapshot);
+        if (snapshot.chunk() != null) return Map.of(Math.floorMod(snapshot.chunk().seq(), laneCount), snapshot);
+
+        Map<Integer, ClusterSnapshot> parts = SnapshotPartitioner.partition(snapshot,
+                (type, key) -> Math.floorMod(key == null ? 0 : key.hashCode(), laneCount));
+        return parts.isEmpty() ? Map.of(0, snapshot) : parts;
+    }
+
+    /**
+     * 레인별로 나눠 메모리에 직렬화합니다. (메모리 큐)
+     */
+    public List<EncodedSnapshot> encode(ClusterSnapshot snapshot) {
+        List<EncodedSnapshot> encoded = new ArrayList<>();
+        partition(snapshot).forEach((lane, part) -> encoded.add(encode(lane, part)));
+        return encoded;
+    }
+
+    public EncodedSnapshot encode(int lane, ClusterSnapshot part) {
+        boolean cbor = codec.isCbor();
+        return new EncodedSnapshot(lane, part.chunk(), cbor, deltaEncoder.sentResources(part), codec.encode(part, cbor));
+    }
+
+    /**
+     * 본문 없이 전송 정보만 담은 레코드 머리. 본문은 호출자가 write()로 직접 기록합니다. (디스크 스풀)
+     */
+    public EncodedSnapshot header(int lane, ClusterSnapshot part) {
+        return new EncodedSnapshot(lane, part.chunk(), codec.isCbor(), deltaEncoder.sentResources(part), null);
+    }
+
+    // 조각은 자기 스냅샷, 변경분은 가장 최근에 시작한 스냅샷 (Kafka 등 조각 정보가 없는 경로에서도 서버가 세대를 알 수 있도록 조각에도 붙임)
+    private ClusterSnapshot tagInventory(ClusterSnapshot snapshot) {
+        if (snapshot.inventoryId() != null) return snapshot;
+        String inventoryId = snapshot.chunk() != null ? snapshot.chunk().snapshotId() : snapshotChunker.currentSnapshotId();
+        return inventoryId != null ? snapshot.withInventoryId(inventoryId) : snapshot;
+    }
+
+    public SnapshotCodec codec() {
+        return codec;
+    }
+}
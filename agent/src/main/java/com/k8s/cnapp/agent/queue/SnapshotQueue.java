@@ -0,0 +1,34 @@
+package com.k8s.cnapp.agent.queue;
+
+import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.dto.EncodedSnapshot;
+
+/**
+ * 수집된 스냅샷을 전송기(DataForwarderService)로 넘기는 큐.
+ * agent.queue.type 으로 구현을 선택합니다. (spool: 디스크 스풀, memory: 메모리 큐)
+ */
+public interface SnapshotQueue {
+
+    /**
+     * 스냅샷을 전송 레인별로 나누고 전송 형식으로 직렬화해 큐에 넣습니다. (SnapshotEncoder)
+     * @throws InterruptedException 대기 중 인터럽트된 경우 (메모리 큐가 가득 찬 경우에만 대기)
+     */
+    void put(ClusterSnapshot snapshot) throws InterruptedException;
+
+    /**
+     * 다음 (레인별 부분) 스냅샷을 직렬화된 본문 그대로 꺼냅니다. 비어 있으면 대기합니다.
+     * 확인(acknowledge) 전에 여러 개를 꺼낼 수 있으며, 확인은 꺼낸 순서대로 이루어집니다.
+     */
+    EncodedSnapshot take() throws InterruptedException;
+
+    /**
+     * 꺼낸 스냅샷 중 아직 확인되지 않은 가장 오래된 것이 서버에 전달되었음을 확인합니다.
+     * 확인된 항목은 재시작 후에도 다시 전송되지 않습니다.
+     */
+    void acknowledge();
+
+    /**
+     * @return 아직 꺼내지 않은 (레인별 부분) 스냅샷 수 (전송 대기열 깊이)
+     */
+    long size();
+}
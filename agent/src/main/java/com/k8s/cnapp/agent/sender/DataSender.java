@@ -1,7 +1,7 @@
 package com.k8s.cnapp.agent.sender;
 
-import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.dto.EncodedSnapshot;
 
 public interface DataSender {
-    void send(ClusterSnapshot snapshot);
+    void send(EncodedSnapshot snapshot);
 }
@@ -1,25 +1,39 @@
 package com.k8s.cnapp.agent.sender;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.TypeAdapter;
-import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonWriter;
-import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.dto.EncodedSnapshot;
+import com.k8s.cnapp.agent.dto.IngestionResponse;
+import com.k8s.cnapp.agent.dto.ResyncRequestedEvent;
+import com.k8s.cnapp.agent.dto.SnapshotChunk;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Component
 @ConditionalOnProperty(name = "agent.sender.type", havingValue = "http", matchIfMissing = true)
@@ -29,6 +43,13 @@ public class HttpDataSender implements DataSender {
 
     private final Gson gson;
     private final RestTemplate restTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary serializedBytes;
+    private final DistributionSummary sentBytes;
+    private final SnapshotCodec codec;
+    // 서버가 CBOR를 415로 거절하면 이후 전송은 JSON으로 고정
+    private final AtomicBoolean binaryRejected = new AtomicBoolean(false);
 
     @Value("${cnapp.server.url:http://localhost:8080/api/v1/ingestion/raw}")
     private String serverUrl;
@@ -36,41 +57,102 @@ public class HttpDataSender implements DataSender {
     @Value("${cnapp.agent.api-key:}") // API Key 설정 추가 (기본값은 빈 문자열)
     private String apiKey;
 
-    public HttpDataSender() {
-        this.restTemplate = new RestTemplate();
-        this.gson = new GsonBuilder()
-                .setLenient()
-                .registerTypeAdapter(OffsetDateTime.class, new TypeAdapter<OffsetDateTime>() {
-                    @Override
-                    public void write(JsonWriter out, OffsetDateTime value) throws IOException {
-                        if (value == null) {
-                            out.nullValue();
-                        } else {
-                            out.value(value.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME));
-                        }
-                    }
-
-                    @Override
-                    public OffsetDateTime read(JsonReader in) throws IOException {
-                        if (in.peek() == com.google.gson.stream.JsonToken.NULL) {
-                            in.nextNull();
-                            return null;
-                        }
-                        return OffsetDateTime.parse(in.nextString(), DateTimeFormatter.ISO_OFFSET_DATE_TIME);
-                    }
-                })
-                .create();
+    // 본문이 임계값을 넘으면 압축 후 Content-Encoding 헤더와 함께 전송 (gzip | zstd | none)
+    @Value("${agent.sender.compression.codec:gzip}")
+    private String compressionCodec;
+
+    @Value("${agent.sender.compression.threshold-bytes:8192}")
+    private int compressionThresholdBytes;
+
+    // true이면 압축본을 따로 만들지 않고 요청 본문 스트림에 바로 압축해 씀 (chunked 전송, 압축 임계값 미적용)
+    @Value("${agent.sender.streaming:true}")
+    private boolean streaming;
+
+    public HttpDataSender(Gson gson, SnapshotCodec codec, ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                          @Value("${agent.sender.connect-timeout-ms:5000}") long connectTimeoutMs,
+                          @Value("${agent.sender.read-timeout-ms:60000}") long readTimeoutMs) {
+        this.gson = gson;
+        this.codec = codec;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.serializedBytes = DistributionSummary.builder("agent.sender.payload")
+                .description("Snapshot size per send")
+                .baseUnit("bytes")
+                .tag("stage", "serialized")
+                .register(meterRegistry);
+        this.sentBytes = DistributionSummary.builder("agent.sender.payload")
+                .description("Snapshot size per send")
+                .baseUnit("bytes")
+                .tag("stage", "sent")
+                .register(meterRegistry);
+        // keep-alive 커넥션을 재사용하는 JDK HttpClient (여러 전송 레인이 동시에 사용)
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        this.restTemplate = new RestTemplate(requestFactory);
     }
 
+    /**
+     * 큐에 넣을 때 직렬화해 둔 본문을 그대로 전송합니다. (압축만 전송 시점에 적용)
+     */
     @Override
-    public void send(ClusterSnapshot snapshot) {
-        String snapshotJson = gson.toJson(snapshot);
-        logger.info("Sending snapshot via HTTP to {} (JSON size: {} bytes)", serverUrl, snapshotJson.length());
-        logger.debug("Snapshot JSON: {}", snapshotJson);
+    public void send(EncodedSnapshot snapshot) {
+        boolean cbor = snapshot.cbor() && !binaryRejected.get();
+        try {
+            send(snapshot, cbor);
+        } catch (HttpClientErrorException.UnsupportedMediaType e) {
+            if (!cbor) throw e;
+            // CBOR를 지원하지 않는 서버 -> JSON으로 협상 후 같은 스냅샷 재전송
+            if (binaryRejected.compareAndSet(false, true)) {
+                logger.warn("Server rejected CBOR payload ({}). Falling back to JSON.", e.getStatusText());
+            }
+            send(snapshot, false);
+        }
+    }
+
+    /**
+     * 전송 1회의 지연 시간(성공/실패별 히스토그램)과 실패 원인(HTTP 상태 코드 또는 io)을 기록합니다.
+     */
+    private void send(EncodedSnapshot snapshot, boolean cbor) {
+        // CBOR로 저장된 본문을 JSON으로 보내야 하면 객체로 되돌리지 않고 옮겨 씀
+        byte[] body = snapshot.cbor() && !cbor ? codec.toJson(snapshot.body()) : snapshot.body();
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            if (streaming) {
+                sendStreaming(body, snapshot.chunk(), cbor);
+            } else {
+                sendBuffered(body, snapshot.chunk(), cbor);
+            }
+        } catch (RestClientException e) {
+            outcome = "failure";
+            String status = e instanceof RestClientResponseException responseException
+                    ? String.valueOf(responseException.getStatusCode().value()) : "io";
+            meterRegistry.counter("agent.sender.failures", "status", status).increment();
+            throw e;
+        } finally {
+            Timer.builder("agent.sender.requests")
+                    .description("Snapshot send latency")
+                    .tags("format", cbor ? "cbor" : "json", "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void sendBuffered(byte[] body, SnapshotChunk chunk, boolean cbor) {
+        logger.info("Sending snapshot via HTTP to {} ({} size: {} bytes)", serverUrl, cbor ? "CBOR" : "JSON", body.length);
+        if (!cbor && logger.isDebugEnabled()) {
+            logger.debug("Snapshot JSON: {}", new String(body, StandardCharsets.UTF_8));
+        }
+        serializedBytes.record(body.length);
 
         try {
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON);
             
             // API Key 헤더 추가
             if (apiKey != null && !apiKey.isEmpty()) {
@@ -78,16 +160,119 @@ public class HttpDataSender implements DataSender {
             } else {
                 logger.warn("API Key is not configured. Server might reject the request.");
             }
+            setChunkHeaders(headers, chunk);
 
-            HttpEntity<String> entity = new HttpEntity<>(snapshotJson, headers);
+            PayloadCompression compression = PayloadCompression.from(compressionCodec);
+            if (compression != PayloadCompression.NONE && body.length >= compressionThresholdBytes) {
+                int originalSize = body.length;
+                body = compress(body, compression);
+                headers.set(HttpHeaders.CONTENT_ENCODING, compression.contentEncoding());
+                logger.info("Compressed snapshot with {}: {} -> {} bytes", compression.contentEncoding(), originalSize, body.length);
+            }
+
+            sentBytes.record(body.length);
+            HttpEntity<byte[]> entity = new HttpEntity<>(body, headers);
             
             // 실제 전송
-            restTemplate.postForObject(serverUrl, entity, String.class);
+            String responseBody = restTemplate.postForObject(serverUrl, entity, String.class);
             
             logger.info("Successfully sent snapshot to server.");
+            handleResponse(responseBody, chunk);
+        } catch (RestClientException e) {
+            logger.error("Failed to send snapshot to server: {}", e.getMessage());
+            throw e; // 상위 서비스에서 재시도 등을 처리할 수 있도록 예외 전파
+        }
+    }
+
+    /**
+     * 본문을 요청 본문 스트림에 바로 압축해 씁니다. 압축 후 길이를 미리 알 수 없으므로 chunked 전송이 되며,
+     * 압축본은 메모리에 만들어지지 않습니다. 전송량은 압축 전/후 바이트 수로 기록합니다.
+     */
+    private void sendStreaming(byte[] body, SnapshotChunk chunk, boolean cbor) {
+        PayloadCompression compression = PayloadCompression.from(compressionCodec);
+        CountingOutputStream[] counters = new CountingOutputStream[1]; // 전송 바이트
+
+        try {
+            String responseBody = restTemplate.execute(serverUrl, HttpMethod.POST, request -> {
+                HttpHeaders headers = request.getHeaders();
+                headers.setContentType(cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON);
+                if (apiKey != null && !apiKey.isEmpty()) {
+                    headers.set("X-API-KEY", apiKey);
+                } else {
+                    logger.warn("API Key is not configured. Server might reject the request.");
+                }
+                setChunkHeaders(headers, chunk);
+                if (compression != PayloadCompression.NONE) {
+                    headers.set(HttpHeaders.CONTENT_ENCODING, compression.contentEncoding());
+                }
+
+                if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+                    streamingRequest.setBody(out -> writeBody(body, out, compression, counters));
+                } else {
+                    writeBody(body, request.getBody(), compression, counters);
+                }
+            }, response -> StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8));
+            serializedBytes.record(body.length);
+            sentBytes.record(counters[0].getCount());
+
+            logger.info("Successfully streamed snapshot to {} ({}: {} bytes, sent: {} bytes, compression: {})",
+                    serverUrl, cbor ? "CBOR" : "JSON", body.length, counters[0].getCount(), compression);
+            handleResponse(responseBody, chunk);
         } catch (RestClientException e) {
             logger.error("Failed to send snapshot to server: {}", e.getMessage());
             throw e; // 상위 서비스에서 재시도 등을 처리할 수 있도록 예외 전파
         }
     }
+
+    private void writeBody(byte[] body, OutputStream out, PayloadCompression compression,
+                           CountingOutputStream[] counters) throws IOException {
+        // 압축 스트림을 닫아야 trailer가 기록되므로, 요청 스트림 자체는 닫히지 않도록 보호
+        counters[0] = new CountingOutputStream(StreamUtils.nonClosing(out));
+        try (OutputStream compressed = compression.wrap(counters[0])) {
+            compressed.write(body);
+        }
+    }
+
+    private byte[] compress(byte[] body, PayloadCompression compression) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4);
+        try (OutputStream out = compression.wrap(buffer)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to compress snapshot payload", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    // 서버가 본문을 큐에 넣기 전에 중복 조각을 거를 수 있도록 조각 정보를 헤더로도 전달
+    private void setChunkHeaders(HttpHeaders headers, SnapshotChunk chunk) {
+        if (chunk == null) return;
+        headers.set(SnapshotChunk.ID_HEADER, chunk.snapshotId());
+        headers.set(SnapshotChunk.FULL_HEADER, String.valueOf(chunk.full()));
+        headers.set(SnapshotChunk.SEQ_HEADER, String.valueOf(chunk.seq()));
+        headers.set(SnapshotChunk.LAST_HEADER, String.valueOf(chunk.last()));
+    }
+
+    /**
+     * 서버가 Delta 적용에 실패한 리소스의 전체 재전송을 요청한 경우 이벤트로 전달합니다.
+     * 조각 전송은 서버가 같은 순번을 확인해야 성공으로 보며, 다른 순번이 확인되면 예외로 재전송하게 합니다.
+     * (확인 필드가 없는 이전 버전 서버는 HTTP 성공을 확인으로 간주)
+     */
+    private void handleResponse(String responseBody, SnapshotChunk chunk) {
+        if (responseBody == null || responseBody.isBlank()) return;
+        IngestionResponse response;
+        try {
+            response = gson.fromJson(responseBody, IngestionResponse.class);
+        } catch (Exception e) {
+            logger.warn("Failed to parse ingestion response: {}", e.getMessage());
+            return;
+        }
+        if (response == null) return;
+        if (chunk != null && response.acknowledgedSeq() != null && response.acknowledgedSeq() != chunk.seq()) {
+            throw new IllegalStateException("Server acknowledged chunk " + response.acknowledgedSeq() + " of snapshot "
+                    + chunk.snapshotId() + " instead of " + chunk.seq());
+        }
+        if (response.resyncRequests() != null && !response.resyncRequests().isEmpty()) {
+            eventPublisher.publishEvent(new ResyncRequestedEvent(response.resyncRequests()));
+        }
+    }
 }
@@ -0,0 +1,147 @@
+package com.k8s.cnapp.agent.sender;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.dto.EncodedSnapshot;
+import com.k8s.cnapp.agent.service.SnapshotPartitioner;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * HTTP(Ingestion 서버)를 거치지 않고 Kafka 토픽(k8s.resource.ingestion)에 바로 전송합니다.
+ * - 스냅샷을 리소스 단위로 나눠 "tenantId|타입|리소스 키"를 메시지 키로 사용 (같은 리소스는 같은 파티션에서 순서 보장)
+ * - 메시지 묶음 전송(linger.ms, batch.size)과 압축은 프로듀서가 처리하고, 멱등 프로듀서(acks=all)로 중복 없이 전달
+ * - 값은 msa-ingestion이 보내는 것과 같은 IngestionRequestMessage JSON + 타입 헤더 (msa-analysis가 그대로 소비)
+ * 응답이 없으므로 서버의 재전송 요청을 받을 수 없어, Delta(patch) 전송은 끄고 사용해야 합니다. (agent.delta.enabled=false)
+ */
+@Component
+@ConditionalOnProperty(name = "agent.sender.type", havingValue = "kafka")
+public class KafkaDataSender implements DataSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaDataSender.class);
+    private static final String TYPE_ID_HEADER = "__TypeId__";
+
+    private final Gson gson;
+    private final SnapshotCodec codec;
+    private final KafkaProducer<String, String> producer;
+    private final MeterRegistry meterRegistry;
+    private final String topic;
+    private final long tenantId;
+    private final byte[] typeId;
+    private final long sendTimeoutMs;
+
+    public KafkaDataSender(Gson gson, SnapshotCodec codec, MeterRegistry meterRegistry,
+                           @Value("${agent.sender.kafka.bootstrap-servers:localhost:9092}") String bootstrapServers,
+                           @Value("${agent.sender.kafka.topic:k8s.resource.ingestion}") String topic,
+                           @Value("${agent.sender.kafka.tenant-id:1}") long tenantId,
+                           @Value("${agent.sender.kafka.type-id:com.k8s.cnapp.msa.common.dto.IngestionRequestMessage}") String typeId,
+                           @Value("${agent.sender.kafka.compression:zstd}") String compression,
+                           @Value("${agent.sender.kafka.linger-ms:50}") int lingerMs,
+                           @Value("${agent.sender.kafka.batch-size:262144}") int batchSize,
+                           @Value("${agent.sender.kafka.delivery-timeout-ms:120000}") int deliveryTimeoutMs,
+                           @Value("${agent.delta.enabled:true}") boolean deltaEnabled) {
+        this.gson = gson;
+        this.codec = codec;
+        this.meterRegistry = meterRegistry;
+        this.topic = topic;
+        this.tenantId = tenantId;
+        this.typeId = typeId.getBytes(StandardCharsets.UTF_8);
+        this.sendTimeoutMs = deliveryTimeoutMs + 5000L;
+
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+        props.put(ProducerConfig.CLIENT_ID_CONFIG, "cnapp-agent");
+        this.producer = new KafkaProducer<>(props);
+
+        if (deltaEnabled) {
+            logger.warn("Kafka sender cannot receive resync requests. Set agent.delta.enabled=false to send full objects only.");
+        }
+        logger.info("Kafka data sender initialized (topic: {}, compression: {}, linger: {} ms)", topic, compression, lingerMs);
+    }
+
+    /**
+     * 리소스별 메시지를 모두 보낸 뒤 브로커 확인을 기다립니다. 일부라도 실패하면 예외를 던져 스냅샷 전체를 재전송하게 합니다.
+     * (이미 기록된 메시지가 다시 전송되어도 같은 리소스의 덮어쓰기이므로 결과는 같음)
+     * 메시지는 리소스별이므로 큐에 저장된 본문을 객체로 되돌려 나눕니다.
+     */
+    @Override
+    public void send(EncodedSnapshot encoded) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            ClusterSnapshot snapshot = codec.decode(encoded.body(), encoded.cbor());
+            Map<String, ClusterSnapshot> parts = SnapshotPartitioner.partition(snapshot,
+                    (type, key) -> tenantId + "|" + type + "|" + key);
+            List<Future<RecordMetadata>> results = new ArrayList<>(parts.size());
+            parts.forEach((key, part) -> {
+                ProducerRecord<String, String> record = new ProducerRecord<>(topic, key, toMessage(part));
+                record.headers().add(TYPE_ID_HEADER, typeId);
+                results.add(producer.send(record));
+            });
+
+            for (Future<RecordMetadata> result : results) {
+                result.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            }
+            logger.debug("Produced {} resource messages to {}", results.size(), topic);
+        } catch (InterruptedException e) {
+            outcome = "failure";
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while producing snapshot to Kafka", e);
+        } catch (ExecutionException | TimeoutException e) {
+            outcome = "failure";
+            meterRegistry.counter("agent.sender.failures", "status", "kafka").increment();
+            throw new IllegalStateException("Failed to produce snapshot to Kafka: " + e.getMessage(), e);
+        } finally {
+            Timer.builder("agent.sender.requests")
+                    .description("Snapshot send latency")
+                    .tags("format", "kafka", "outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        producer.close(Duration.ofSeconds(10));
+    }
+
+    // IngestionRequestMessage(tenantId, rawData)
+    private String toMessage(ClusterSnapshot part) {
+        JsonObject message = new JsonObject();
+        message.addProperty("tenantId", tenantId);
+        message.addProperty("rawData", gson.toJson(part));
+        return message.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.k8s.cnapp.agent.sender;
+
+import com.github.luben.zstd.ZstdOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 전송 본문 압축 코덱. HTTP Content-Encoding 헤더 값과 1:1로 대응합니다.
+ */
+public enum PayloadCompression {
+    NONE(null),
+    GZIP("gzip"),
+    ZSTD("zstd");
+
+    private final String contentEncoding;
+
+    PayloadCompression(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    public String contentEncoding() {
+        return contentEncoding;
+    }
+
+    /**
+     * 주어진 스트림을 압축 스트림으로 감쌉니다. 반환된 스트림을 close해야 압축 trailer가 기록됩니다.
+     */
+    public OutputStream wrap(OutputStream out) throws IOException {
+        return switch (this) {
+            case NONE -> out;
+            case GZIP -> new GZIPOutputStream(out, 8192);
+            case ZSTD -> new ZstdOutputStream(out);
+        };
+    }
+
+    public static PayloadCompression from(String name) {
+        if (name == null || name.isBlank()) return NONE;
+        return PayloadCompression.valueOf(name.trim().toUpperCase());
+    }
+}
@@ -0,0 +1,101 @@
+package com.k8s.cnapp.agent.sender;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 스냅샷의 전송 형식(JSON | CBOR) 인코딩. 큐에 넣을 때 한 번 직렬화한 본문을 전송기가 그대로 보냅니다.
+ * 두 형식 모두 같은 Gson 빈(타입 어댑터, 필드 규칙)으로 직렬화하므로 같은 스키마의 문서가 됩니다.
+ */
+@Component
+public class SnapshotCodec {
+
+    private final Gson gson;
+    private final CBORFactory cborFactory = new CBORFactory();
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    // 전송 형식 (json | cbor). cbor는 같은 스키마를 Content-Type: application/cbor로 전송
+    @Value("${agent.sender.format:json}")
+    private String format;
+
+    public SnapshotCodec(Gson gson) {
+        this.gson = gson;
+    }
+
+    public boolean isCbor() {
+        return "cbor".equalsIgnoreCase(format);
+    }
+
+    /**
+     * 스냅샷을 주어진 스트림에 직렬화합니다. 전체 문서를 String/byte[]로 만들지 않으며, 스트림은 닫지 않습니다.
+     */
+    public void write(ClusterSnapshot snapshot, OutputStream out, boolean cbor) throws IOException {
+        OutputStream body = StreamUtils.nonClosing(out);
+        if (cbor) {
+            try (JsonWriter writer = new CborJsonWriter(cborFactory.createGenerator(body))) {
+                gson.toJson(snapshot, ClusterSnapshot.class, writer);
+            }
+            return;
+        }
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8))) {
+            gson.toJson(snapshot, ClusterSnapshot.class, gson.newJsonWriter(writer));
+        }
+    }
+
+    public byte[] encode(ClusterSnapshot snapshot, boolean cbor) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            write(snapshot, buffer, cbor);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode snapshot", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 본문을 객체로 되돌립니다. 본문을 나눠야 하는 경우(413 분할, Kafka 리소스별 메시지)에만 사용합니다.
+     */
+    public ClusterSnapshot decode(byte[] body, boolean cbor) {
+        byte[] json = cbor ? toJson(body) : body;
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, ClusterSnapshot.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode snapshot", e);
+        }
+    }
+
+    /**
+     * CBOR 본문을 객체로 되돌리지 않고 같은 문서의 JSON으로 옮겨 씁니다. (서버가 CBOR를 거절한 경우)
+     */
+    public byte[] toJson(byte[] cborBody) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(cborBody.length * 2);
+        try (JsonParser parser = cborFactory.createParser(cborBody);
+             JsonGenerator generator = jsonFactory.createGenerator(buffer)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to transcode CBOR snapshot to JSON", e);
+        }
+        return buffer.toByteArray();
+    }
+}
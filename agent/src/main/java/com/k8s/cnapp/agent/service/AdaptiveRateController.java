@@ -0,0 +1,65 @@
+package com.k8s.cnapp.agent.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 서버의 과부하 신호(429/503)에 따라 전송 속도를 AIMD(additive-increase / multiplicative-decrease)로 조절합니다.
+ * 속도 비율(rate, min-rate ~ 1.0)은 병합 버퍼의 flush 간격(= 기본값 / rate)과 배치 크기(= 기본값 × rate)에 반영됩니다.
+ * - 과부하 응답: rate × decrease-factor (여러 레인이 동시에 받은 신호는 cooldown 동안 한 번만 반영)
+ * - 전송 성공: rate + increase-step
+ */
+@Component
+public class AdaptiveRateController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveRateController.class);
+
+    @Value("${agent.rate-control.enabled:true}")
+    private boolean enabled;
+
+    @Value("${agent.rate-control.min-rate:0.05}")
+    private double minRate;
+
+    @Value("${agent.rate-control.increase-step:0.05}")
+    private double increaseStep;
+
+    @Value("${agent.rate-control.decrease-factor:0.5}")
+    private double decreaseFactor;
+
+    @Value("${agent.rate-control.decrease-cooldown-ms:1000}")
+    private long decreaseCooldownMs;
+
+    private double rate = 1.0;
+    private long lastDecreaseAt;
+
+    public synchronized void onSuccess() {
+        if (!enabled || rate >= 1.0) return;
+        rate = Math.min(1.0, rate + increaseStep);
+        if (rate >= 1.0) {
+            logger.info("Server load recovered. Send rate restored to 100%.");
+        }
+    }
+
+    public synchronized void onOverload(int status, long retryAfterSeconds) {
+        if (!enabled) return;
+        long now = System.currentTimeMillis();
+        if (now - lastDecreaseAt < Math.max(decreaseCooldownMs, retryAfterSeconds * 1000)) return;
+        lastDecreaseAt = now;
+        rate = Math.max(minRate, rate * decreaseFactor);
+        logger.warn("Server overloaded (status {}, Retry-After {}s). Send rate reduced to {}%.", status, retryAfterSeconds, Math.round(rate * 100));
+    }
+
+    public long scaleFlushInterval(long flushIntervalMs) {
+        return (long) (flushIntervalMs / currentRate());
+    }
+
+    public int scaleBatchSize(int maxBatchSize) {
+        return Math.max(1, (int) (maxBatchSize * currentRate()));
+    }
+
+    public synchronized double currentRate() {
+        return enabled ? rate : 1.0;
+    }
+}
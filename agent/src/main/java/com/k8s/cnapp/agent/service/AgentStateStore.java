@@ -0,0 +1,161 @@
+package com.k8s.cnapp.agent.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 재시작 후 클러스터 전체를 다시 보내지 않도록 타입별 마지막 resourceVersion과 전송 지문을 로컬 파일에 저장합니다.
+ * 1. 시작 시 파일을 읽어 ChangeFingerprinter에 지문을 복원 -> 최초 캐시 스냅샷 중 바뀌지 않은 리소스는 전송 생략
+ * 2. Informer의 첫 LIST는 저장된 resourceVersion 이후(NotOlderThan)로 요청 -> API 서버 Watch 캐시에서 응답, 이미 보낸 상태보다 오래된 데이터 없음
+ * 3. 캐시 동기화 후 복원된 키 중 캐시에 없는 리소스(중단 중 삭제)는 삭제로 전송
+ * 파일은 임시 파일에 쓴 뒤 원자적으로 교체하므로 저장 중 종료되어도 이전 상태가 남습니다.
+ */
+@Component
+public class AgentStateStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentStateStore.class);
+    private static final int FORMAT_VERSION = 1;
+
+    private final Gson gson;
+    private final ChangeFingerprinter changeFingerprinter;
+    // Informer가 마지막으로 처리한 resourceVersion (LIST 응답, WATCH 이벤트)
+    private final Map<String, String> resourceVersions = new ConcurrentHashMap<>();
+    // 파일에서 읽은 resourceVersion (첫 LIST에 한 번 사용)
+    private final Map<String, String> restoredVersions = new ConcurrentHashMap<>();
+    // 파일에서 복원한 리소스 키 (캐시 동기화 후 삭제 확인에 한 번 사용)
+    private final Map<String, Set<String>> restoredKeys = new ConcurrentHashMap<>();
+
+    @Value("${agent.state.enabled:true}")
+    private boolean enabled;
+
+    @Value("${agent.state.file:/var/lib/cnapp-agent/state/state.json}")
+    private String filePath;
+
+    public AgentStateStore(Gson gson, ChangeFingerprinter changeFingerprinter) {
+        this.gson = gson;
+        this.changeFingerprinter = changeFingerprinter;
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!enabled) return;
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            logger.info("No agent state at {}. Starting with a full snapshot.", path);
+            return;
+        }
+
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            State state = gson.fromJson(reader, State.class);
+            if (state == null || state.version != FORMAT_VERSION || state.types == null) {
+                logger.warn("Ignoring agent state at {} (unsupported format).", path);
+                return;
+            }
+            int resources = 0;
+            for (Map.Entry<String, TypeState> entry : state.types.entrySet()) {
+                TypeState typeState = entry.getValue();
+                if (typeState.resourceVersion != null) {
+                    restoredVersions.put(entry.getKey(), typeState.resourceVersion);
+                }
+                if (typeState.fingerprints != null) {
+                    changeFingerprinter.restore(entry.getKey(), typeState.fingerprints);
+                    restoredKeys.put(entry.getKey(), new HashSet<>(typeState.fingerprints.keySet()));
+                    resources += typeState.fingerprints.size();
+                }
+            }
+            logger.info("Restored agent state from {} ({} types, {} resources).", path, state.types.size(), resources);
+        } catch (IOException | JsonParseException e) {
+            logger.warn("Failed to read agent state at {}: {}. Starting with a full snapshot.", path, e.getMessage());
+            restoredVersions.clear();
+            restoredKeys.clear();
+        }
+    }
+
+    public boolean isRestored() {
+        return !restoredKeys.isEmpty();
+    }
+
+    /**
+     * @return 재시작 전에 저장한 resourceVersion. 첫 LIST에서만 사용하도록 한 번 꺼내면 지워집니다.
+     */
+    public String takeRestoredResourceVersion(String type) {
+        return restoredVersions.remove(type);
+    }
+
+    /**
+     * @return 재시작 전에 전송했던 리소스 키. 한 번 꺼내면 지워집니다.
+     */
+    public Set<String> takeRestoredKeys(String type) {
+        Set<String> keys = restoredKeys.remove(type);
+        return keys != null ? keys : Collections.emptySet();
+    }
+
+    public void recordResourceVersion(String type, String resourceVersion) {
+        if (resourceVersion != null && !resourceVersion.isEmpty()) {
+            resourceVersions.put(type, resourceVersion);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${agent.state.save-interval-ms:30000}", initialDelayString = "${agent.state.save-interval-ms:30000}")
+    public void save() {
+        if (!enabled || resourceVersions.isEmpty()) return;
+
+        State state = new State();
+        Map<String, Map<String, Long>> fingerprints = changeFingerprinter.export();
+        resourceVersions.forEach((type, resourceVersion) -> {
+            TypeState typeState = new TypeState();
+            typeState.resourceVersion = resourceVersion;
+            typeState.fingerprints = fingerprints.getOrDefault(type, Collections.emptyMap());
+            state.types.put(type, typeState);
+        });
+
+        Path path = Paths.get(filePath);
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                gson.toJson(state, writer);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to persist agent state to {}: {}", path, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        save();
+    }
+
+    private static class State {
+        int version = FORMAT_VERSION;
+        Map<String, TypeState> types = new HashMap<>();
+    }
+
+    private static class TypeState {
+        String resourceVersion;
+        Map<String, Long> fingerprints;
+    }
+}
@@ -0,0 +1,146 @@
+package com.k8s.cnapp.agent.service;
+
+import com.k8s.cnapp.agent.config.AntiEntropyProperties;
+import com.k8s.cnapp.agent.dto.BucketDigestRequest;
+import com.k8s.cnapp.agent.dto.BucketDigestResponse;
+import com.k8s.cnapp.agent.dto.DigestRootsRequest;
+import com.k8s.cnapp.agent.dto.DigestRootsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 전송 실패/유실로 서버 상태가 클러스터와 어긋난 경우를 주기적으로 찾아 고칩니다. (Anti-entropy)
+ * 1. 타입별 (리소스 키, 지문) 해시 트리의 루트를 서버와 비교
+ * 2. 루트가 다른 타입만 버킷 해시를 보내고, 서버는 다른 버킷의 (키, 지문) 목록을 돌려줌
+ * 3. 해당 버킷에서 지문이 다르거나 서버에 없는 리소스는 전체 재전송, 클러스터에 없는 리소스는 삭제 전송
+ * 일치하는 경우 타입당 루트 해시 하나만 오가므로 전체 스냅샷 재전송 없이 수렴합니다.
+ */
+@Service
+public class AntiEntropyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AntiEntropyService.class);
+
+    private final ClusterSnapshotService clusterSnapshotService;
+    private final AntiEntropyProperties properties;
+    private final ShardCoordinator shardCoordinator;
+    private final RestTemplate restTemplate;
+
+    @Value("${cnapp.server.url:http://localhost:8080/api/v1/ingestion/raw}")
+    private String serverUrl;
+
+    // 비어 있으면 Ingestion URL의 마지막 경로를 sync로 바꿔 사용 (.../api/v1/ingestion/sync)
+    @Value("${cnapp.server.sync-url:}")
+    private String syncUrl;
+
+    @Value("${cnapp.agent.api-key:}")
+    private String apiKey;
+
+    // Kafka 직접 전송은 비교할 Ingestion 서버(지문 저장소)가 없으므로 Anti-entropy를 수행하지 않음
+    @Value("${agent.sender.type:http}")
+    private String senderType;
+
+    public AntiEntropyService(ClusterSnapshotService clusterSnapshotService, AntiEntropyProperties properties,
+                              ShardCoordinator shardCoordinator, RestTemplate restTemplate) {
+        this.clusterSnapshotService = clusterSnapshotService;
+        this.properties = properties;
+        this.shardCoordinator = shardCoordinator;
+        this.restTemplate = restTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${agent.anti-entropy.interval-ms:600000}",
+            initialDelayString = "${agent.anti-entropy.initial-delay-ms:300000}")
+    public void synchronize() {
+        if (!properties.isEnabled() || "kafka".equalsIgnoreCase(senderType)) return;
+        // 샤드 분할 시 서버의 지문은 모든 복제본이 보낸 전체 리소스 기준이므로, 전체 캐시를 가진 리더 한 곳에서만 비교
+        if (!shardCoordinator.current().isLeader()) return;
+        int bucketCount = properties.getBucketCount();
+
+        Map<String, long[]> bucketsByType = new LinkedHashMap<>();
+        Map<String, Map<String, Long>> fingerprintsByType = new LinkedHashMap<>();
+        Map<String, Long> roots = new LinkedHashMap<>();
+        for (String type : properties.getTypes()) {
+            Map<String, Long> fingerprints = clusterSnapshotService.currentFingerprints(type);
+            if (fingerprints == null) continue; // 아직 캐시 동기화 전
+            long[] buckets = MerkleBuckets.bucketHashes(fingerprints, bucketCount);
+            fingerprintsByType.put(type, fingerprints);
+            bucketsByType.put(type, buckets);
+            roots.put(type, MerkleBuckets.root(buckets));
+        }
+        if (roots.isEmpty()) return;
+
+        try {
+            DigestRootsResponse response = restTemplate.postForObject(url("/roots"),
+                    entity(new DigestRootsRequest(bucketCount, roots)), DigestRootsResponse.class);
+            if (response == null || response.mismatchedTypes() == null || response.mismatchedTypes().isEmpty()) {
+                logger.debug("Anti-entropy check passed for {}", roots.keySet());
+                return;
+            }
+            for (String type : response.mismatchedTypes()) {
+                if (!bucketsByType.containsKey(type)) continue;
+                repair(type, bucketsByType.get(type), fingerprintsByType.get(type), bucketCount);
+            }
+        } catch (RestClientException e) {
+            logger.warn("Anti-entropy check failed: {}", e.getMessage());
+        }
+    }
+
+    private void repair(String type, long[] buckets, Map<String, Long> local, int bucketCount) {
+        BucketDigestResponse response = restTemplate.postForObject(url("/buckets"),
+                entity(new BucketDigestRequest(type, bucketCount, buckets)), BucketDigestResponse.class);
+        if (response == null || response.mismatchedBuckets() == null || response.mismatchedBuckets().isEmpty()) return;
+
+        Set<Integer> mismatched = new HashSet<>(response.mismatchedBuckets());
+        Map<String, Long> remote = response.entries() != null ? response.entries() : Map.of();
+
+        List<String> resend = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : local.entrySet()) {
+            if (!mismatched.contains(MerkleBuckets.bucketOf(entry.getKey(), bucketCount))) continue;
+            if (!Objects.equals(remote.get(entry.getKey()), entry.getValue())) {
+                resend.add(entry.getKey());
+            }
+        }
+        List<String> delete = new ArrayList<>();
+        for (String key : remote.keySet()) {
+            if (!local.containsKey(key)) {
+                delete.add(key);
+            }
+        }
+
+        logger.info("Anti-entropy repair for {}: {} mismatched buckets, resending {}, deleting {}",
+                type, mismatched.size(), resend.size(), delete.size());
+        clusterSnapshotService.resend(type, resend);
+        clusterSnapshotService.sendDeletes(type, delete);
+    }
+
+    private HttpEntity<Object> entity(Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (apiKey != null && !apiKey.isEmpty()) {
+            headers.set("X-API-KEY", apiKey);
+        }
+        return new HttpEntity<>(body, headers);
+    }
+
+    private String url(String path) {
+        String base = (syncUrl == null || syncUrl.isBlank())
+                ? serverUrl.substring(0, serverUrl.lastIndexOf('/')) + "/sync"
+                : syncUrl;
+        return base + path;
+    }
+}
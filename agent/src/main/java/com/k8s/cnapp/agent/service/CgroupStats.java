@@ -0,0 +1,93 @@
+package com.k8s.cnapp.agent.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * 컨테이너의 cgroup 제한과 사용량을 읽습니다. cgroup v2(통합 계층)를 우선 확인하고 없으면 v1 경로를 사용합니다.
+ * 제한이 없거나 파일을 읽을 수 없으면 -1을 반환하므로 호출 측은 JVM 값으로 대체합니다.
+ * 메모리 사용량은 kubelet의 eviction/OOM 판단과 같은 working set(사용량 - inactive file 캐시)입니다.
+ */
+final class CgroupStats {
+
+    private static final Path ROOT = Paths.get("/sys/fs/cgroup");
+    // v1에서 제한이 없으면 페이지 크기로 내림한 Long.MAX_VALUE 근처 값이 기록됨
+    private static final long UNLIMITED_V1 = 1L << 60;
+
+    private final boolean v2;
+
+    CgroupStats() {
+        this.v2 = Files.exists(ROOT.resolve("cgroup.controllers"));
+    }
+
+    long memoryLimitBytes() {
+        if (v2) {
+            String max = read("memory.max");
+            return max == null || "max".equals(max) ? -1 : parseLong(max);
+        }
+        long limit = parseLong(read("memory/memory.limit_in_bytes"));
+        return limit >= UNLIMITED_V1 ? -1 : limit;
+    }
+
+    long memoryWorkingSetBytes() {
+        long usage = parseLong(read(v2 ? "memory.current" : "memory/memory.usage_in_bytes"));
+        if (usage < 0) return -1;
+        long inactiveFile = statValue(v2 ? "memory.stat" : "memory/memory.stat", v2 ? "inactive_file" : "total_inactive_file");
+        return inactiveFile > 0 && inactiveFile < usage ? usage - inactiveFile : usage;
+    }
+
+    /**
+     * @return CPU 제한(코어 수, quota / period). 제한이 없으면 -1
+     */
+    double cpuLimitCores() {
+        long quota;
+        long period;
+        if (v2) {
+            // "quota period" 또는 "max period"
+            String cpuMax = read("cpu.max");
+            if (cpuMax == null) return -1;
+            String[] parts = cpuMax.split("\\s+");
+            if (parts.length != 2 || "max".equals(parts[0])) return -1;
+            quota = parseLong(parts[0]);
+            period = parseLong(parts[1]);
+        } else {
+            quota = parseLong(read("cpu/cpu.cfs_quota_us"));
+            period = parseLong(read("cpu/cpu.cfs_period_us"));
+        }
+        return quota > 0 && period > 0 ? (double) quota / period : -1;
+    }
+
+    private long statValue(String file, String name) {
+        try {
+            List<String> lines = Files.readAllLines(ROOT.resolve(file));
+            for (String line : lines) {
+                if (line.startsWith(name + " ")) {
+                    return parseLong(line.substring(name.length() + 1));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // 통계가 없으면 보정하지 않음
+        }
+        return -1;
+    }
+
+    private static String read(String file) {
+        try {
+            return Files.readString(ROOT.resolve(file)).trim();
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) return -1;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.k8s.cnapp.agent.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import io.kubernetes.client.common.KubernetesObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 전송 대상 필드(Projection 이후)에 대한 64비트 지문(FNV-1a)을 리소스 키별로 보관하고,
+ * 지문이 같은 업데이트(동일 resourceVersion 재동기화, 하트비트/프로브 시각 변경 등)는 전송 전에 걸러냅니다.
+ * metadata.resourceVersion은 의미 있는 변경이 없어도 바뀌므로 지문 계산에서 제외합니다.
+ */
+@Component
+public class ChangeFingerprinter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFingerprinter.class);
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Gson gson;
+    private final Map<String, Long> lastSent = new ConcurrentHashMap<>();
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    @Value("${agent.fingerprint.enabled:true}")
+    private boolean enabled;
+
+    public ChangeFingerprinter(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * @return 마지막 전송본과 지문이 다르면 true (지문 갱신), 같으면 false (전송 생략)
+     */
+    public boolean isChanged(String type, String key, KubernetesObject obj) {
+        if (!enabled) return true;
+        checked.incrementAndGet();
+
+        long fingerprint = fingerprint(obj);
+        Long previous = lastSent.put(stateKey(type, key), fingerprint);
+        if (previous != null && previous == fingerprint) {
+            suppressed.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 지문을 버려 다음 업데이트가 반드시 전송되도록 합니다. (삭제, 서버 재전송 요청 시)
+     */
+    public void forget(String type, String key) {
+        lastSent.remove(stateKey(type, key));
+    }
+
+    /**
+     * @return 마지막으로 확인한 지문. 없으면(지문 비교 비활성화 등) 객체로부터 새로 계산
+     */
+    public long fingerprintOf(String type, String key, KubernetesObject obj) {
+        Long fingerprint = lastSent.get(stateKey(type, key));
+        return fingerprint != null ? fingerprint : fingerprint(obj);
+    }
+
+    /**
+     * 재시작 전에 저장한 타입별 지문을 복원합니다. 복원된 리소스는 최초 캐시 스냅샷에서 바뀌지 않았으면 전송되지 않습니다.
+     */
+    public void restore(String type, Map<String, Long> fingerprints) {
+        fingerprints.forEach((key, fingerprint) -> lastSent.put(stateKey(type, key), fingerprint));
+    }
+
+    /**
+     * @return 타입 -> (리소스 키 -> 마지막 전송 지문) 사본 (상태 파일 저장용)
+     */
+    public Map<String, Map<String, Long>> export() {
+        Map<String, Map<String, Long>> result = new HashMap<>();
+        lastSent.forEach((stateKey, fingerprint) -> {
+            int sep = stateKey.indexOf('|');
+            result.computeIfAbsent(stateKey.substring(0, sep), t -> new HashMap<>()).put(stateKey.substring(sep + 1), fingerprint);
+        });
+        return result;
+    }
+
+    public long getCheckedCount() {
+        return checked.get();
+    }
+
+    public long getSuppressedCount() {
+        return suppressed.get();
+    }
+
+    public double getSuppressionRatio() {
+        long total = checked.get();
+        return total == 0 ? 0.0 : (double) suppressed.get() / total;
+    }
+
+    @Scheduled(fixedRateString = "${agent.fingerprint.report-interval-ms:60000}")
+    public void report() {
+        if (!enabled || checked.get() == 0) return;
+        logger.info("Change suppression - checked: {}, suppressed: {} ({}%), tracked keys: {}",
+                checked.get(), suppressed.get(), String.format("%.1f", getSuppressionRatio() * 100), lastSent.size());
+    }
+
+    long fingerprint(KubernetesObject obj) {
+        return hash(gson.toJsonTree(obj), FNV_OFFSET, true);
+    }
+
+    private long hash(JsonElement element, long h, boolean root) {
+        if (element == null || element.isJsonNull()) {
+            return mix(h, (byte) 'n');
+        }
+        if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            h = mix(h, (byte) (primitive.isString() ? 's' : 'p'));
+            return mix(h, primitive.getAsString());
+        }
+        if (element.isJsonArray()) {
+            h = mix(h, (byte) '[');
+            for (JsonElement item : element.getAsJsonArray()) {
+                h = hash(item, h, false);
+            }
+            return mix(h, (byte) ']');
+        }
+
+        h = mix(h, (byte) '{');
+        for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+            JsonElement value = entry.getValue();
+            if (root && "metadata".equals(entry.getKey()) && value.isJsonObject()) {
+                h = mix(h, "metadata");
+                h = mix(h, (byte) '{');
+                for (Map.Entry<String, JsonElement> meta : value.getAsJsonObject().entrySet()) {
+                    if ("resourceVersion".equals(meta.getKey())) continue;
+                    h = hash(meta.getValue(), mix(h, meta.getKey()), false);
+                }
+                h = mix(h, (byte) '}');
+                continue;
+            }
+            h = hash(value, mix(h, entry.getKey()), false);
+        }
+        return mix(h, (byte) '}');
+    }
+
+    private long mix(long h, String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h = mix(h, b);
+        }
+        return mix(h, (byte) 0);
+    }
+
+    private long mix(long h, byte b) {
+        return (h ^ (b & 0xff)) * FNV_PRIME;
+    }
+
+    private String stateKey(String type, String key) {
+        return type + "|" + key;
+    }
+}
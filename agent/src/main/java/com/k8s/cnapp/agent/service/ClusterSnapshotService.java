@@ -1,7 +1,13 @@
 package com.k8s.cnapp.agent.service;
 
+import com.k8s.cnapp.agent.config.AntiEntropyProperties;
 import com.k8s.cnapp.agent.dto.ClusterSnapshot;
-import com.k8s.cnapp.agent.queue.SnapshotBlockingQueue;
+import com.k8s.cnapp.agent.dto.DegradationLevelChangedEvent;
+import com.k8s.cnapp.agent.dto.ResyncRequestedEvent;
+import com.k8s.cnapp.agent.dto.ShardAssignmentChangedEvent;
+import com.k8s.cnapp.agent.queue.CoalescingSnapshotBuffer;
+import com.k8s.cnapp.agent.queue.SnapshotQueue;
+import io.kubernetes.client.common.KubernetesListObject;
 import io.kubernetes.client.common.KubernetesObject;
 import io.kubernetes.client.informer.ResourceEventHandler;
 import io.kubernetes.client.informer.SharedIndexInformer;
@@ -12,85 +18,344 @@ import io.kubernetes.client.openapi.apis.AppsV1Api;
 import io.kubernetes.client.openapi.apis.CoreV1Api;
 import io.kubernetes.client.openapi.apis.NetworkingV1Api;
 import io.kubernetes.client.openapi.models.*;
+import io.kubernetes.client.util.CallGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class ClusterSnapshotService implements CommandLineRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(ClusterSnapshotService.class);
 
-    private final SnapshotBlockingQueue queue;
-    private final ApiClient apiClient;
+    private final SnapshotQueue queue;
+    private final CoalescingSnapshotBuffer buffer;
+    private final DeltaEncoder deltaEncoder;
+    private final WireProjection wireProjection;
+    private final InformerCachePruner cachePruner;
+    private final ChangeFingerprinter changeFingerprinter;
+    private final EventFilter eventFilter;
+    private final ShardCoordinator shardCoordinator;
+    private final WatchScope watchScope;
+    private final AgentStateStore stateStore;
+    private final SnapshotChunker snapshotChunker;
+    private final AntiEntropyProperties antiEntropyProperties;
+    private final DegradationController degradationController;
+    private final MeterRegistry meterRegistry;
+    private final ApiClient informerApiClient;
     private final CoreV1Api coreV1Api;
     private final AppsV1Api appsV1Api;
     private final NetworkingV1Api networkingV1Api;
+    // Informer LIST/WATCH 호출은 읽기 제한 시간이 없는 전용 클라이언트로 생성
+    private final CoreV1Api informerCoreV1Api;
+    private final AppsV1Api informerAppsV1Api;
+    private final NetworkingV1Api informerNetworkingV1Api;
     private final SharedInformerFactory informerFactory;
+    private final Map<String, SharedIndexInformer<? extends KubernetesObject>> informers = new ConcurrentHashMap<>();
     private final ExecutorService executorService = Executors.newSingleThreadExecutor();
 
-    public ClusterSnapshotService(ApiClient apiClient, SnapshotBlockingQueue queue) {
+    @Value("${agent.inventory.page-size:500}")
+    private int pageSize;
+
+    @Value("${agent.inventory.parallelism:4}")
+    private int parallelism;
+
+    // informer: Informer 캐시 동기화 후 캐시로 최초 스냅샷 구성 (LIST 1회) | list: 별도 페이지 조회 후 Informer 시작
+    @Value("${agent.inventory.mode:informer}")
+    private String inventoryMode;
+
+    @Value("${agent.inventory.sync-timeout-seconds:300}")
+    private long syncTimeoutSeconds;
+
+    // 최초 스냅샷을 이미 캐시에서 보낸 타입. 그 전의 onAdd/onUpdate는 캐시 스냅샷에 포함되므로 무시
+    private final Set<String> syncedTypes = ConcurrentHashMap.newKeySet();
+
+    // 최초 스냅샷을 Informer 캐시로 구성하는지 여부 (informer 모드, 또는 저장된 상태로 재시작한 list 모드)
+    private volatile boolean cacheSnapshot;
+
+    public ClusterSnapshotService(ApiClient apiClient, @Qualifier("informerApiClient") ApiClient informerApiClient,
+                                  SnapshotQueue queue, CoalescingSnapshotBuffer buffer,
+                                  DeltaEncoder deltaEncoder, WireProjection wireProjection, InformerCachePruner cachePruner,
+                                  ChangeFingerprinter changeFingerprinter, EventFilter eventFilter, ShardCoordinator shardCoordinator,
+                                  WatchScope watchScope, AgentStateStore stateStore, SnapshotChunker snapshotChunker,
+                                  AntiEntropyProperties antiEntropyProperties, DegradationController degradationController,
+                                  MeterRegistry meterRegistry) {
         this.queue = queue;
-        this.apiClient = apiClient;
+        this.buffer = buffer;
+        this.deltaEncoder = deltaEncoder;
+        this.wireProjection = wireProjection;
+        this.cachePruner = cachePruner;
+        this.changeFingerprinter = changeFingerprinter;
+        this.eventFilter = eventFilter;
+        this.shardCoordinator = shardCoordinator;
+        this.watchScope = watchScope;
+        this.stateStore = stateStore;
+        this.snapshotChunker = snapshotChunker;
+        this.antiEntropyProperties = antiEntropyProperties;
+        this.degradationController = degradationController;
+        this.meterRegistry = meterRegistry;
+        this.informerApiClient = informerApiClient;
         this.coreV1Api = new CoreV1Api(apiClient);
         this.appsV1Api = new AppsV1Api(apiClient);
         this.networkingV1Api = new NetworkingV1Api(apiClient);
-        this.informerFactory = new SharedInformerFactory(apiClient);
+        this.informerCoreV1Api = new CoreV1Api(informerApiClient);
+        this.informerAppsV1Api = new AppsV1Api(informerApiClient);
+        this.informerNetworkingV1Api = new NetworkingV1Api(informerApiClient);
+        this.informerFactory = new SharedInformerFactory(informerApiClient);
     }
 
     @Override
     public void run(String... args) {
+        Timer.Sample initialSnapshot = Timer.start(meterRegistry);
+        // 저장된 상태로 재시작하면 list 모드여도 별도 페이지 조회 없이 캐시와 복원된 지문을 비교해 바뀐 리소스만 전송
+        cacheSnapshot = isInformerMode() || stateStore.isRestored();
+        if (cacheSnapshot) {
+            // Informer의 LIST 결과(캐시)로 최초 스냅샷을 만들고 이후 변경도 같은 캐시에서 전송
+            startInformers();
+            queueSnapshotFromInformerCache();
+            recordInitialSnapshot(initialSnapshot);
+            return;
+        }
+
         // 1. 최초 1회 전체 스냅샷 전송
         createAndQueueSnapshot();
+        recordInitialSnapshot(initialSnapshot);
 
         // 2. Watcher(Informer) 시작
         startInformers();
     }
 
+    /**
+     * 각 Informer가 동기화(hasSynced)되기를 기다린 뒤 Indexer의 객체들을 하나의 전체 스냅샷 업로드로 보냅니다.
+     * 복원된 지문과 같은 리소스는 본문 없이 키만 조각에 담아, 서버가 해당 행도 이 스냅샷에서 확인된 것으로 표시하게 합니다.
+     * 모든 타입이 동기화된 경우에만 마지막 조각을 보내므로, 서버는 완료된 스냅샷에 없던 행을 정리할 수 있습니다.
+     * 동기화 제한 시간을 넘긴 타입은 캐시 스냅샷 없이 이후 onAdd 이벤트로 전송합니다. (스냅샷은 불완전)
+     */
+    private void queueSnapshotFromInformerCache() {
+        logger.info("Waiting for informer caches to sync before sending initial snapshot...");
+        SnapshotUpload upload = snapshotChunker.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(syncTimeoutSeconds);
+        int total = 0;
+        int unchanged = 0;
+        try {
+            for (Map.Entry<String, SharedIndexInformer<? extends KubernetesObject>> entry : informers.entrySet()) {
+                String type = entry.getKey();
+                SharedIndexInformer<? extends KubernetesObject> informer = entry.getValue();
+                while (!informer.hasSynced() && System.nanoTime() < deadline) {
+                    Thread.sleep(100);
+                }
+
+                if (!informer.hasSynced()) {
+                    logger.warn("Informer for {} did not sync within {}s. Falling back to informer events.", type, syncTimeoutSeconds);
+                    upload.markIncomplete();
+                    syncedTypes.add(type);
+                    continue;
+                }
+                // 캐시를 읽기 전에 전송을 열어 두어야 그 사이의 변경이 유실되지 않음 (중복은 서버에서 덮어쓰기)
+                syncedTypes.add(type);
+                Set<String> removed = stateStore.takeRestoredKeys(type);
+                boolean tracked = antiEntropyProperties.isTracked(type);
+                List<Object> changedItems = new ArrayList<>();
+                Map<String, Long> fingerprints = new HashMap<>();
+                List<String> unchangedKeys = new ArrayList<>();
+                for (KubernetesObject obj : informer.getIndexer().list()) {
+                    if (!removed.isEmpty()) removed.remove(ResourceKeys.of(type, obj));
+                    if (!isOwned(type, obj)) continue;
+                    if (obj instanceof CoreV1Event event && !eventFilter.matches(event)) continue;
+
+                    KubernetesObject item = sanitize(type, obj, true);
+                    String key = ResourceKeys.of(type, item);
+                    if (changeFingerprinter.isChanged(type, key, item)) {
+                        changedItems.add(item);
+                        // 서버가 Anti-entropy 비교에 쓰도록 전송하는 리소스의 지문도 함께 보냄 (생략한 리소스는 서버에 이미 있음)
+                        if (tracked) fingerprints.put(key, changeFingerprinter.fingerprintOf(type, key, item));
+                    } else {
+                        unchangedKeys.add(key);
+                    }
+                    // 직렬화 사본이 캐시 크기만큼 쌓이지 않도록 페이지 크기마다 조각으로 큐에 넣음
+                    if (changedItems.size() >= pageSize) {
+                        total += changedItems.size();
+                        queueChunks(upload.chunks(type, changedItems, fingerprints));
+                        changedItems = new ArrayList<>();
+                        fingerprints = new HashMap<>();
+                    }
+                }
+                total += changedItems.size();
+                queueChunks(upload.chunks(type, changedItems, fingerprints));
+                unchanged += unchangedKeys.size();
+                queueChunks(upload.unchangedChunks(type, unchangedKeys));
+
+                // 재시작 전에 보냈지만 캐시에 없는 리소스는 중단된 사이 삭제된 것
+                if (!removed.isEmpty()) {
+                    logger.info("{} {} resources were deleted while the agent was down. Sending deletes.", removed.size(), type);
+                    sendDeletes(type, removed);
+                }
+            }
+            if (!upload.isComplete()) {
+                logger.warn("Initial cluster snapshot {} from informer caches is incomplete ({} resources in {} chunks). It will not be marked as complete.",
+                        upload.snapshotId(), total, upload.chunkCount());
+                return;
+            }
+            queue.put(upload.finish());
+            logger.info("Successfully queued initial cluster snapshot {} from informer caches ({} resources, {} unchanged keys in {} chunks).",
+                    upload.snapshotId(), total, unchanged, upload.chunkCount());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Initial snapshot creation was interrupted.", e);
+            syncedTypes.addAll(informers.keySet());
+        }
+    }
+
+    private void queueChunks(List<ClusterSnapshot> chunks) throws InterruptedException {
+        for (ClusterSnapshot chunk : chunks) {
+            queue.put(chunk);
+        }
+    }
+
+    // 최초 스냅샷을 큐에 모두 넣기까지 걸린 시간 (informer 모드는 캐시 동기화 대기 포함)
+    private void recordInitialSnapshot(Timer.Sample sample) {
+        sample.stop(Timer.builder("agent.inventory.initial.snapshot")
+                .description("Time to queue the initial cluster snapshot")
+                .tag("mode", cacheSnapshot ? "informer" : "list")
+                .register(meterRegistry));
+    }
+
+    private boolean isInformerMode() {
+        return "informer".equalsIgnoreCase(inventoryMode);
+    }
+
+    /**
+     * 최초 인벤토리를 리소스 타입별로 병렬 수집합니다.
+     * 각 타입은 limit/continue 페이지 단위로 조회하고, 페이지마다 별도의 스냅샷으로 큐에 넣으므로
+     * 메모리 사용량은 클러스터 규모가 아닌 페이지 크기에 비례하고 첫 데이터 전송도 빨라집니다.
+     * 페이지는 크기 제한(chunk-max-bytes)에 맞춘 조각으로 나뉘어 하나의 스냅샷 ID 아래 순번이 매겨지고,
+     * 모든 타입을 빠짐없이 수집한 경우에만 마지막 조각을 보내 서버가 전체 스냅샷의 완료를 알 수 있게 합니다.
+     */
     public void createAndQueueSnapshot() {
-        logger.info("Creating initial cluster snapshot...");
+        SnapshotUpload upload = snapshotChunker.start();
+        logger.info("Creating initial cluster snapshot {} (full: {}, page size: {}, parallelism: {})...",
+                upload.snapshotId(), upload.isFull(), pageSize, parallelism);
+        Map<String, PageLister> listers = new LinkedHashMap<>();
+
+        // 1. CoreV1Api 리소스
+        listers.put("Pod", (cont, limit) -> coreV1Api.listPodForAllNamespaces(null, cont, watchScope.fieldSelector("Pod"), watchScope.labelSelector("Pod"), limit, null, null, null, null, null));
+        listers.put("Service", (cont, limit) -> coreV1Api.listServiceForAllNamespaces(null, cont, watchScope.fieldSelector("Service"), watchScope.labelSelector("Service"), limit, null, null, null, null, null));
+        listers.put("Node", (cont, limit) -> coreV1Api.listNode(null, null, cont, watchScope.fieldSelector("Node"), watchScope.labelSelector("Node"), limit, null, null, null, null));
+        listers.put("Namespace", (cont, limit) -> coreV1Api.listNamespace(null, null, cont, watchScope.fieldSelector("Namespace"), watchScope.labelSelector("Namespace"), limit, null, null, null, null));
+        listers.put("Event", (cont, limit) -> coreV1Api.listEventForAllNamespaces(null, cont, watchScope.fieldSelector("Event"), watchScope.labelSelector("Event"), limit, null, null, null, null, null));
+
+        // 2. AppsV1Api 리소스
+        listers.put("Deployment", (cont, limit) -> appsV1Api.listDeploymentForAllNamespaces(null, cont, watchScope.fieldSelector("Deployment"), watchScope.labelSelector("Deployment"), limit, null, null, null, null, null));
+        listers.put("StatefulSet", (cont, limit) -> appsV1Api.listStatefulSetForAllNamespaces(null, cont, watchScope.fieldSelector("StatefulSet"), watchScope.labelSelector("StatefulSet"), limit, null, null, null, null, null));
+        listers.put("DaemonSet", (cont, limit) -> appsV1Api.listDaemonSetForAllNamespaces(null, cont, watchScope.fieldSelector("DaemonSet"), watchScope.labelSelector("DaemonSet"), limit, null, null, null, null, null));
+        listers.put("ReplicaSet", (cont, limit) -> appsV1Api.listReplicaSetForAllNamespaces(null, cont, watchScope.fieldSelector("ReplicaSet"), watchScope.labelSelector("ReplicaSet"), limit, null, null, null, null, null));
+
+        // 3. NetworkingV1Api 리소스
+        listers.put("NetworkPolicy", (cont, limit) -> networkingV1Api.listNetworkPolicyForAllNamespaces(null, cont, watchScope.fieldSelector("NetworkPolicy"), watchScope.labelSelector("NetworkPolicy"), limit, null, null, null, null, null));
+        listers.put("Ingress", (cont, limit) -> networkingV1Api.listIngressForAllNamespaces(null, cont, watchScope.fieldSelector("Ingress"), watchScope.labelSelector("Ingress"), limit, null, null, null, null, null));
+
+        ExecutorService inventoryExecutor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "inventory-collector");
+            thread.setDaemon(true);
+            return thread;
+        });
         try {
-            // 1. CoreV1Api 리소스 수집
-            List<V1Pod> pods = fetchItems(() -> coreV1Api.listPodForAllNamespaces(null, null, null, null, null, null, null, null, null, null).getItems());
-            List<V1Service> services = fetchItems(() -> coreV1Api.listServiceForAllNamespaces(null, null, null, null, null, null, null, null, null, null).getItems());
-            List<V1Node> nodes = fetchItems(() -> coreV1Api.listNode(null, null, null, null, null, null, null, null, null, null).getItems());
-            List<V1Namespace> namespaces = fetchItems(() -> coreV1Api.listNamespace(null, null, null, null, null, null, null, null, null, null).getItems());
-            List<CoreV1Event> events = fetchItems(() -> coreV1Api.listEventForAllNamespaces(null, null, null, null, null, null, null, null, null, null).getItems());
-
-            // 2. AppsV1Api 리소스 수집
-            List<V1Deployment> deployments = fetchItems(() -> appsV1Api.listDeploymentForAllNamespaces(null, null, null, null, null, null, null, null, null, null).getItems());
-            List<V1StatefulSet> statefulSets = fetchItems(() -> appsV1Api.listStatefulSetForAllNamespaces(null, null, null, null, null, null, null, null, null, null).getItems());
-            List<V1DaemonSet> daemonSets = fetchItems(() -> appsV1Api.listDaemonSetForAllNamespaces(null, null, null, null, null, null, null, null, null, null).getItems());
-            List<V1ReplicaSet> replicaSets = fetchItems(() -> appsV1Api.listReplicaSetForAllNamespaces(null, null, null, null, null, null, null, null, null, null).getItems());
-
-            // 3. NetworkingV1Api 리소스 수집
-            List<V1NetworkPolicy> networkPolicies = fetchItems(() -> networkingV1Api.listNetworkPolicyForAllNamespaces(null, null, null, null, null, null, null, null, null, null).getItems());
-            List<V1Ingress> ingresses = fetchItems(() -> networkingV1Api.listIngressForAllNamespaces(null, null, null, null, null, null, null, null, null, null).getItems());
-
-            // 4. DTO 생성
-            ClusterSnapshot snapshot = new ClusterSnapshot(
-                    pods, services, nodes, namespaces, events,
-                    deployments, statefulSets, daemonSets, replicaSets,
-                    networkPolicies, ingresses,
-                    Collections.emptyMap()
-            );
-
-            queue.put(snapshot);
-            logger.info("Successfully created and queued initial cluster snapshot.");
+            List<Future<Integer>> results = new ArrayList<>();
+            listers.forEach((type, lister) -> results.add(inventoryExecutor.submit(() -> collectPages(type, lister, upload))));
 
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get();
+            }
+            if (!upload.isComplete()) {
+                logger.warn("Initial cluster snapshot {} is incomplete ({} resources in {} chunks). It will not be marked as complete.",
+                        upload.snapshotId(), total, upload.chunkCount());
+                return;
+            }
+            queue.put(upload.finish());
+            logger.info("Successfully queued initial cluster snapshot {} ({} resources in {} chunks).", upload.snapshotId(), total, upload.chunkCount());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             logger.error("Initial snapshot creation was interrupted.", e);
         } catch (Exception e) {
             logger.error("An unexpected error occurred during initial snapshot creation.", e);
+        } finally {
+            inventoryExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 한 리소스 타입을 페이지 단위로 조회해 페이지마다 스냅샷을 큐에 넣습니다.
+     * continue 토큰이 만료(410)되면 처음부터 한 번 다시 조회합니다. (이미 보낸 페이지는 서버에서 덮어쓰기)
+     * 조회에 실패하면 업로드를 불완전으로 표시합니다.
+     * @return 큐에 넣은 리소스 수
+     */
+    private int collectPages(String type, PageLister lister, SnapshotUpload upload) throws InterruptedException {
+        int count = 0;
+        int pages = 0;
+        boolean restarted = false;
+        String continueToken = null;
+
+        while (true) {
+            KubernetesListObject page;
+            try {
+                page = lister.list(continueToken, pageSize);
+            } catch (ApiException e) {
+                if (e.getCode() == 410 && !restarted) {
+                    logger.warn("Continue token expired while listing {}. Restarting list.", type);
+                    restarted = true;
+                    continueToken = null;
+                    continue;
+                }
+                logger.error("K8s API Error while listing {}: {} - {}", type, e.getCode(), e.getResponseBody());
+                upload.markIncomplete();
+                break;
+            } catch (Exception e) {
+                logger.error("Error fetching {} resources", type, e);
+                upload.markIncomplete();
+                break;
+            }
+
+            List<Object> items = new ArrayList<>();
+            if (page.getItems() != null) {
+                for (KubernetesObject item : page.getItems()) {
+                    if (!isOwned(type, item)) continue;
+                    if (item instanceof CoreV1Event event && !eventFilter.matches(event)) continue;
+                    items.add(sanitize(type, item, false));
+                }
+            }
+            if (!items.isEmpty()) {
+                for (ClusterSnapshot chunk : upload.chunks(type, items)) {
+                    queue.put(chunk);
+                }
+                count += items.size();
+                pages++;
+            }
+            continueToken = page.getMetadata() != null ? page.getMetadata().getContinue() : null;
+            if (continueToken == null || continueToken.isEmpty()) break;
         }
+
+        logger.debug("Collected {} {} resources in {} pages.", count, type, pages);
+        return count;
     }
 
     private void startInformers() {
@@ -112,206 +377,338 @@ public class ClusterSnapshotService implements CommandLineRunner {
     }
 
     private void registerPodInformer() {
-        SharedIndexInformer<V1Pod> informer = informerFactory.sharedIndexInformerFor(
-                (params) -> coreV1Api.listPodForAllNamespacesCall(null, null, null, null, null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
+        SharedIndexInformer<V1Pod> informer = prunedInformerFor("Pod",
+                (params) -> informerCoreV1Api.listPodForAllNamespacesCall(null, null, watchScope.fieldSelector("Pod"), watchScope.labelSelector("Pod"), null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
                 V1Pod.class, V1PodList.class);
+        informers.put("Pod", informer);
         informer.addEventHandler(new ResourceEventHandler<>() {
             @Override public void onAdd(V1Pod obj) { handleUpdate("Pod", obj); }
             @Override public void onUpdate(V1Pod oldObj, V1Pod newObj) { handleUpdate("Pod", newObj); }
-            @Override public void onDelete(V1Pod obj, boolean deletedFinalStateUnknown) {
-                String containerName = (obj.getSpec() != null && !obj.getSpec().getContainers().isEmpty()) ? obj.getSpec().getContainers().get(0).getName() : "";
-                handleDelete("Pod", obj.getMetadata().getNamespace() + "/" + obj.getMetadata().getName() + "/" + containerName);
-            }
+            @Override public void onDelete(V1Pod obj, boolean deletedFinalStateUnknown) { handleDelete("Pod", obj); }
         });
     }
 
     private void registerServiceInformer() {
-        SharedIndexInformer<V1Service> informer = informerFactory.sharedIndexInformerFor(
-                (params) -> coreV1Api.listServiceForAllNamespacesCall(null, null, null, null, null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
+        SharedIndexInformer<V1Service> informer = prunedInformerFor("Service",
+                (params) -> informerCoreV1Api.listServiceForAllNamespacesCall(null, null, watchScope.fieldSelector("Service"), watchScope.labelSelector("Service"), null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
                 V1Service.class, V1ServiceList.class);
+        informers.put("Service", informer);
         informer.addEventHandler(new ResourceEventHandler<>() {
             @Override public void onAdd(V1Service obj) { handleUpdate("Service", obj); }
             @Override public void onUpdate(V1Service oldObj, V1Service newObj) { handleUpdate("Service", newObj); }
-            @Override public void onDelete(V1Service obj, boolean deletedFinalStateUnknown) { handleDelete("Service", obj.getMetadata().getNamespace() + "/" + obj.getMetadata().getName()); }
+            @Override public void onDelete(V1Service obj, boolean deletedFinalStateUnknown) { handleDelete("Service", obj); }
         });
     }
 
     private void registerNodeInformer() {
-        SharedIndexInformer<V1Node> informer = informerFactory.sharedIndexInformerFor(
-                (params) -> coreV1Api.listNodeCall(null, null, null, null, null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
+        SharedIndexInformer<V1Node> informer = prunedInformerFor("Node",
+                (params) -> informerCoreV1Api.listNodeCall(null, null, null, watchScope.fieldSelector("Node"), watchScope.labelSelector("Node"), null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
                 V1Node.class, V1NodeList.class);
+        informers.put("Node", informer);
         informer.addEventHandler(new ResourceEventHandler<>() {
             @Override public void onAdd(V1Node obj) { handleUpdate("Node", obj); }
             @Override public void onUpdate(V1Node oldObj, V1Node newObj) { handleUpdate("Node", newObj); }
-            @Override public void onDelete(V1Node obj, boolean deletedFinalStateUnknown) { handleDelete("Node", obj.getMetadata().getName()); }
+            @Override public void onDelete(V1Node obj, boolean deletedFinalStateUnknown) { handleDelete("Node", obj); }
         });
     }
 
     private void registerNamespaceInformer() {
-        SharedIndexInformer<V1Namespace> informer = informerFactory.sharedIndexInformerFor(
-                (params) -> coreV1Api.listNamespaceCall(null, null, null, null, null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
+        SharedIndexInformer<V1Namespace> informer = prunedInformerFor("Namespace",
+                (params) -> informerCoreV1Api.listNamespaceCall(null, null, null, watchScope.fieldSelector("Namespace"), watchScope.labelSelector("Namespace"), null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
                 V1Namespace.class, V1NamespaceList.class);
+        informers.put("Namespace", informer);
         informer.addEventHandler(new ResourceEventHandler<>() {
             @Override public void onAdd(V1Namespace obj) { handleUpdate("Namespace", obj); }
             @Override public void onUpdate(V1Namespace oldObj, V1Namespace newObj) { handleUpdate("Namespace", newObj); }
-            @Override public void onDelete(V1Namespace obj, boolean deletedFinalStateUnknown) { handleDelete("Namespace", obj.getMetadata().getName()); }
+            @Override public void onDelete(V1Namespace obj, boolean deletedFinalStateUnknown) { handleDelete("Namespace", obj); }
         });
     }
 
     private void registerEventInformer() {
-        SharedIndexInformer<CoreV1Event> informer = informerFactory.sharedIndexInformerFor(
-                (params) -> coreV1Api.listEventForAllNamespacesCall(null, null, null, null, null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
+        SharedIndexInformer<CoreV1Event> informer = prunedInformerFor("Event",
+                (params) -> informerCoreV1Api.listEventForAllNamespacesCall(null, null, watchScope.fieldSelector("Event"), watchScope.labelSelector("Event"), null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
                 CoreV1Event.class, CoreV1EventList.class);
+        informers.put("Event", informer);
         informer.addEventHandler(new ResourceEventHandler<>() {
             @Override public void onAdd(CoreV1Event obj) { handleUpdate("Event", obj); }
             @Override public void onUpdate(CoreV1Event oldObj, CoreV1Event newObj) { handleUpdate("Event", newObj); }
-            @Override public void onDelete(CoreV1Event obj, boolean deletedFinalStateUnknown) { handleDelete("Event", obj.getMetadata().getUid()); }
+            @Override public void onDelete(CoreV1Event obj, boolean deletedFinalStateUnknown) { handleDelete("Event", obj); }
         });
     }
 
     private void registerDeploymentInformer() {
-        SharedIndexInformer<V1Deployment> informer = informerFactory.sharedIndexInformerFor(
-                (params) -> appsV1Api.listDeploymentForAllNamespacesCall(null, null, null, null, null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
+        SharedIndexInformer<V1Deployment> informer = prunedInformerFor("Deployment",
+                (params) -> informerAppsV1Api.listDeploymentForAllNamespacesCall(null, null, watchScope.fieldSelector("Deployment"), watchScope.labelSelector("Deployment"), null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
                 V1Deployment.class, V1DeploymentList.class);
+        informers.put("Deployment", informer);
         informer.addEventHandler(new ResourceEventHandler<>() {
             @Override public void onAdd(V1Deployment obj) { handleUpdate("Deployment", obj); }
             @Override public void onUpdate(V1Deployment oldObj, V1Deployment newObj) { handleUpdate("Deployment", newObj); }
-            @Override public void onDelete(V1Deployment obj, boolean deletedFinalStateUnknown) { handleDelete("Deployment", obj.getMetadata().getNamespace() + "/" + obj.getMetadata().getName()); }
+            @Override public void onDelete(V1Deployment obj, boolean deletedFinalStateUnknown) { handleDelete("Deployment", obj); }
         });
     }
 
     private void registerStatefulSetInformer() {
-        SharedIndexInformer<V1StatefulSet> informer = informerFactory.sharedIndexInformerFor(
-                (params) -> appsV1Api.listStatefulSetForAllNamespacesCall(null, null, null, null, null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
+        SharedIndexInformer<V1StatefulSet> informer = prunedInformerFor("StatefulSet",
+                (params) -> informerAppsV1Api.listStatefulSetForAllNamespacesCall(null, null, watchScope.fieldSelector("StatefulSet"), watchScope.labelSelector("StatefulSet"), null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
                 V1StatefulSet.class, V1StatefulSetList.class);
+        informers.put("StatefulSet", informer);
         informer.addEventHandler(new ResourceEventHandler<>() {
             @Override public void onAdd(V1StatefulSet obj) { handleUpdate("StatefulSet", obj); }
             @Override public void onUpdate(V1StatefulSet oldObj, V1StatefulSet newObj) { handleUpdate("StatefulSet", newObj); }
-            @Override public void onDelete(V1StatefulSet obj, boolean deletedFinalStateUnknown) { handleDelete("StatefulSet", obj.getMetadata().getNamespace() + "/" + obj.getMetadata().getName()); }
+            @Override public void onDelete(V1StatefulSet obj, boolean deletedFinalStateUnknown) { handleDelete("StatefulSet", obj); }
         });
     }
 
     private void registerDaemonSetInformer() {
-        SharedIndexInformer<V1DaemonSet> informer = informerFactory.sharedIndexInformerFor(
-                (params) -> appsV1Api.listDaemonSetForAllNamespacesCall(null, null, null, null, null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
+        SharedIndexInformer<V1DaemonSet> informer = prunedInformerFor("DaemonSet",
+                (params) -> informerAppsV1Api.listDaemonSetForAllNamespacesCall(null, null, watchScope.fieldSelector("DaemonSet"), watchScope.labelSelector("DaemonSet"), null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
                 V1DaemonSet.class, V1DaemonSetList.class);
+        informers.put("DaemonSet", informer);
         informer.addEventHandler(new ResourceEventHandler<>() {
             @Override public void onAdd(V1DaemonSet obj) { handleUpdate("DaemonSet", obj); }
             @Override public void onUpdate(V1DaemonSet oldObj, V1DaemonSet newObj) { handleUpdate("DaemonSet", newObj); }
-            @Override public void onDelete(V1DaemonSet obj, boolean deletedFinalStateUnknown) { handleDelete("DaemonSet", obj.getMetadata().getNamespace() + "/" + obj.getMetadata().getName()); }
+            @Override public void onDelete(V1DaemonSet obj, boolean deletedFinalStateUnknown) { handleDelete("DaemonSet", obj); }
         });
     }
 
     private void registerReplicaSetInformer() {
-        SharedIndexInformer<V1ReplicaSet> informer = informerFactory.sharedIndexInformerFor(
-                (params) -> appsV1Api.listReplicaSetForAllNamespacesCall(null, null, null, null, null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
+        SharedIndexInformer<V1ReplicaSet> informer = prunedInformerFor("ReplicaSet",
+                (params) -> informerAppsV1Api.listReplicaSetForAllNamespacesCall(null, null, watchScope.fieldSelector("ReplicaSet"), watchScope.labelSelector("ReplicaSet"), null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
                 V1ReplicaSet.class, V1ReplicaSetList.class);
+        informers.put("ReplicaSet", informer);
         informer.addEventHandler(new ResourceEventHandler<>() {
             @Override public void onAdd(V1ReplicaSet obj) { handleUpdate("ReplicaSet", obj); }
             @Override public void onUpdate(V1ReplicaSet oldObj, V1ReplicaSet newObj) { handleUpdate("ReplicaSet", newObj); }
-            @Override public void onDelete(V1ReplicaSet obj, boolean deletedFinalStateUnknown) { handleDelete("ReplicaSet", obj.getMetadata().getNamespace() + "/" + obj.getMetadata().getName()); }
+            @Override public void onDelete(V1ReplicaSet obj, boolean deletedFinalStateUnknown) { handleDelete("ReplicaSet", obj); }
         });
     }
 
     private void registerNetworkPolicyInformer() {
-        SharedIndexInformer<V1NetworkPolicy> informer = informerFactory.sharedIndexInformerFor(
-                (params) -> networkingV1Api.listNetworkPolicyForAllNamespacesCall(null, null, null, null, null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
+        SharedIndexInformer<V1NetworkPolicy> informer = prunedInformerFor("NetworkPolicy",
+                (params) -> informerNetworkingV1Api.listNetworkPolicyForAllNamespacesCall(null, null, watchScope.fieldSelector("NetworkPolicy"), watchScope.labelSelector("NetworkPolicy"), null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
                 V1NetworkPolicy.class, V1NetworkPolicyList.class);
+        informers.put("NetworkPolicy", informer);
         informer.addEventHandler(new ResourceEventHandler<>() {
             @Override public void onAdd(V1NetworkPolicy obj) { handleUpdate("NetworkPolicy", obj); }
             @Override public void onUpdate(V1NetworkPolicy oldObj, V1NetworkPolicy newObj) { handleUpdate("NetworkPolicy", newObj); }
-            @Override public void onDelete(V1NetworkPolicy obj, boolean deletedFinalStateUnknown) { handleDelete("NetworkPolicy", obj.getMetadata().getNamespace() + "/" + obj.getMetadata().getName()); }
+            @Override public void onDelete(V1NetworkPolicy obj, boolean deletedFinalStateUnknown) { handleDelete("NetworkPolicy", obj); }
         });
     }
 
     private void registerIngressInformer() {
-        SharedIndexInformer<V1Ingress> informer = informerFactory.sharedIndexInformerFor(
-                (params) -> networkingV1Api.listIngressForAllNamespacesCall(null, null, null, null, null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
+        SharedIndexInformer<V1Ingress> informer = prunedInformerFor("Ingress",
+                (params) -> informerNetworkingV1Api.listIngressForAllNamespacesCall(null, null, watchScope.fieldSelector("Ingress"), watchScope.labelSelector("Ingress"), null, null, params.resourceVersion, null, params.timeoutSeconds, params.watch, null),
                 V1Ingress.class, V1IngressList.class);
+        informers.put("Ingress", informer);
         informer.addEventHandler(new ResourceEventHandler<>() {
             @Override public void onAdd(V1Ingress obj) { handleUpdate("Ingress", obj); }
             @Override public void onUpdate(V1Ingress oldObj, V1Ingress newObj) { handleUpdate("Ingress", newObj); }
-            @Override public void onDelete(V1Ingress obj, boolean deletedFinalStateUnknown) { handleDelete("Ingress", obj.getMetadata().getNamespace() + "/" + obj.getMetadata().getName()); }
+            @Override public void onDelete(V1Ingress obj, boolean deletedFinalStateUnknown) { handleDelete("Ingress", obj); }
         });
     }
 
+    /**
+     * LIST/WATCH 응답을 InformerCachePruner로 축소한 뒤 캐시에 넣는 Informer를 등록합니다.
+     * 처리한 resourceVersion은 AgentStateStore에 기록되고, 저장된 값이 있으면 첫 LIST를 그 이후 상태로 요청합니다.
+     */
+    private <T extends KubernetesObject, L extends KubernetesListObject> SharedIndexInformer<T> prunedInformerFor(
+            String type, CallGenerator callGenerator, Class<T> apiTypeClass, Class<L> listTypeClass) {
+        return informerFactory.sharedIndexInformerFor(
+                new PruningListerWatcher<>(informerApiClient, callGenerator, apiTypeClass, listTypeClass, obj -> cachePruner.prune(type, obj),
+                        stateStore.takeRestoredResourceVersion(type), rv -> stateStore.recordResourceVersion(type, rv)),
+                apiTypeClass, 0);
+    }
+
     private void handleUpdate(String type, Object obj) {
+        meterRegistry.counter("agent.informer.events", "type", type, "action", "update").increment();
+        if (cacheSnapshot && !syncedTypes.contains(type)) return;
+        // 자원 압박 시 Event, 저우선 타입 업데이트는 직렬화/비교 전에 버림
+        if (degradationController.isShed(type)) {
+            meterRegistry.counter("agent.degradation.shed", "type", type).increment();
+            return;
+        }
+        if (!isOwned(type, (KubernetesObject) obj)) return;
+        forwardUpdate(type, obj);
+    }
+
+    private void forwardUpdate(String type, Object obj) {
         try {
-            sanitize((KubernetesObject) obj);
-            ClusterSnapshot snapshot = switch (type) {
-                case "Pod" -> createSnapshot(List.of((V1Pod) obj), null, null, null, null, null, null, null, null, null, null);
-                case "Service" -> createSnapshot(null, List.of((V1Service) obj), null, null, null, null, null, null, null, null, null);
-                case "Node" -> createSnapshot(null, null, List.of((V1Node) obj), null, null, null, null, null, null, null, null);
-                case "Namespace" -> createSnapshot(null, null, null, List.of((V1Namespace) obj), null, null, null, null, null, null, null);
-                case "Event" -> createSnapshot(null, null, null, null, List.of((CoreV1Event) obj), null, null, null, null, null, null);
-                case "Deployment" -> createSnapshot(null, null, null, null, null, List.of((V1Deployment) obj), null, null, null, null, null);
-                case "StatefulSet" -> createSnapshot(null, null, null, null, null, null, List.of((V1StatefulSet) obj), null, null, null, null);
-                case "DaemonSet" -> createSnapshot(null, null, null, null, null, null, null, List.of((V1DaemonSet) obj), null, null, null);
-                case "ReplicaSet" -> createSnapshot(null, null, null, null, null, null, null, null, List.of((V1ReplicaSet) obj), null, null);
-                case "NetworkPolicy" -> createSnapshot(null, null, null, null, null, null, null, null, null, List.of((V1NetworkPolicy) obj), null);
-                case "Ingress" -> createSnapshot(null, null, null, null, null, null, null, null, null, null, List.of((V1Ingress) obj));
-                default -> null;
-            };
-            if (snapshot != null) queue.put(snapshot);
+            CoreV1Event event = obj instanceof CoreV1Event e ? e : null;
+            if (event != null && !eventFilter.matches(event)) return;
+
+            KubernetesObject item = sanitize(type, (KubernetesObject) obj, true);
+            String key = ResourceKeys.of(type, item);
+            // 전송 대상 필드가 그대로인 업데이트는 큐에 넣지 않음
+            if (!changeFingerprinter.isChanged(type, key, item)) return;
+            // 반복 이벤트 빈도 제한. 생략된 업데이트의 지문은 버려 다음 업데이트가 최신 상태를 전송하도록 함
+            if (event != null && !eventFilter.tryAcquire(event)) {
+                changeFingerprinter.forget(type, key);
+                return;
+            }
+            buffer.update(type, key, item);
         } catch (Exception e) {
             logger.error("Error handling incremental update for {}: {}", type, e.getMessage());
         }
     }
 
-    private void handleDelete(String type, String key) {
+    private void handleDelete(String type, KubernetesObject obj) {
+        meterRegistry.counter("agent.informer.events", "type", type, "action", "delete").increment();
+        if (!isOwned(type, obj)) return;
         try {
+            // 필터로 전송하지 않은 이벤트는 삭제도 전송하지 않음
+            if (obj instanceof CoreV1Event event && !eventFilter.matches(event)) return;
+            String key = ResourceKeys.of(type, obj);
             logger.info("Detected deletion event - Type: {}, Key: {}", type, key);
-            ClusterSnapshot snapshot = new ClusterSnapshot(
-                    null, null, null, null, null, null, null, null, null, null, null,
-                    Map.of(type, List.of(key))
-            );
-            queue.put(snapshot);
+            changeFingerprinter.forget(type, key);
+            buffer.delete(type, key);
         } catch (Exception e) {
             logger.error("Error handling deletion for {}: {}", type, e.getMessage());
         }
     }
 
-    private ClusterSnapshot createSnapshot(List<V1Pod> pods, List<V1Service> services, List<V1Node> nodes, List<V1Namespace> namespaces, List<CoreV1Event> events,
-                                           List<V1Deployment> deployments, List<V1StatefulSet> statefulSets, List<V1DaemonSet> daemonSets, List<V1ReplicaSet> replicaSets,
-                                           List<V1NetworkPolicy> networkPolicies, List<V1Ingress> ingresses) {
-        return new ClusterSnapshot(
-                pods, services, nodes, namespaces, events,
-                deployments, statefulSets, daemonSets, replicaSets,
-                networkPolicies, ingresses,
-                Collections.emptyMap()
-        );
+    /**
+     * 샤드 배정이 바뀌면 새로 담당하게 된 리소스는 캐시에서 전체 객체로 보내고,
+     * 더 이상 담당하지 않는 리소스는 Delta 기준/지문을 버려 다시 담당할 때 전체 객체부터 보내도록 합니다.
+     * (삭제는 보내지 않음. 새 담당 Agent가 같은 리소스를 덮어씀)
+     */
+    @EventListener
+    public void onShardAssignmentChanged(ShardAssignmentChangedEvent event) {
+        int acquired = 0;
+        int released = 0;
+        for (Map.Entry<String, SharedIndexInformer<? extends KubernetesObject>> entry : informers.entrySet()) {
+            String type = entry.getKey();
+            if (!entry.getValue().hasSynced() || (cacheSnapshot && !syncedTypes.contains(type))) continue;
+
+            for (KubernetesObject obj : entry.getValue().getIndexer().list()) {
+                if (!watchScope.accepts(type, obj)) continue;
+                String namespace = obj.getMetadata().getNamespace();
+                boolean before = event.previous().owns(namespace);
+                boolean after = event.current().owns(namespace);
+                if (before == after) continue;
+
+                String key = ResourceKeys.of(type, obj);
+                deltaEncoder.forget(type, key);
+                changeFingerprinter.forget(type, key);
+                if (after) {
+                    forwardUpdate(type, obj);
+                    acquired++;
+                } else {
+                    released++;
+                }
+            }
+        }
+        logger.info("Rebalanced shard: sent {} newly owned resources, released {}.", acquired, released);
     }
 
-    @FunctionalInterface
-    private interface ApiRunner<T> {
-        T run() throws ApiException;
+    /**
+     * 저우선 타입의 전송 중지가 풀리면 멈춘 동안 버린 업데이트를 캐시에서 다시 맞춥니다.
+     * 캐시의 모든 리소스를 지문과 비교하므로 실제로 바뀐 리소스만 전송됩니다. (Event는 지난 이벤트를 다시 보내지 않음)
+     */
+    @EventListener
+    public void onDegradationLevelChanged(DegradationLevelChangedEvent event) {
+        if (!event.previous().atLeast(DegradationLevel.PAUSE_LOW_PRIORITY) || event.current().atLeast(DegradationLevel.PAUSE_LOW_PRIORITY)) return;
+        for (Map.Entry<String, SharedIndexInformer<? extends KubernetesObject>> entry : informers.entrySet()) {
+            String type = entry.getKey();
+            if (!degradationController.isPausable(type) || !entry.getValue().hasSynced()
+                    || (cacheSnapshot && !syncedTypes.contains(type))) continue;
+            int resumed = 0;
+            for (KubernetesObject obj : entry.getValue().getIndexer().list()) {
+                if (!isOwned(type, obj)) continue;
+                forwardUpdate(type, obj);
+                resumed++;
+            }
+            logger.info("Resumed {} updates. Re-checked {} cached resources.", type, resumed);
+        }
     }
 
-    private <T extends KubernetesObject> List<T> fetchItems(ApiRunner<List<T>> runner) {
-        try {
-            List<T> items = runner.run();
-            if (items != null) {
-                items.forEach(this::sanitize);
-                return items;
+    // Watch 범위(selector로 거르지 못한 조건) 안에 있고 이 복제본이 담당하는 리소스만 전송. cluster-scoped 리소스는 리더 담당
+    private boolean isOwned(String type, KubernetesObject obj) {
+        if (!watchScope.accepts(type, obj)) return false;
+        return obj.getMetadata() == null || shardCoordinator.current().owns(obj.getMetadata().getNamespace());
+    }
+
+    /**
+     * 서버가 Delta(patch)를 적용하지 못한 리소스를 Informer 캐시에서 찾아 전체 객체로 다시 보냅니다.
+     */
+    @EventListener
+    public void onResyncRequested(ResyncRequestedEvent event) {
+        event.resources().forEach((type, keys) -> {
+            logger.info("Server requested full resend of {} {} resources.", keys.size(), type);
+            resend(type, keys);
+        });
+    }
+
+    /**
+     * 지정한 리소스를 Informer 캐시에서 찾아 Delta/지문 비교 없이 전체 객체로 다시 보냅니다.
+     * 캐시에 없는 키(이미 삭제됨)는 건너뜁니다.
+     */
+    public void resend(String type, Collection<String> keys) {
+        for (String key : keys) {
+            deltaEncoder.forget(type, key);
+            changeFingerprinter.forget(type, key);
+            KubernetesObject cached = findCached(type, key);
+            if (cached != null) {
+                forwardUpdate(type, cached);
             }
-        } catch (ApiException e) {
-            logger.error("K8s API Error: {} - {}", e.getCode(), e.getResponseBody());
-        } catch (Exception e) {
-            logger.error("Error fetching resources", e);
         }
-        return Collections.emptyList();
     }
 
-    private void sanitize(KubernetesObject item) {
-        if (item.getMetadata() != null) {
-            item.getMetadata().setManagedFields(null);
-            Map<String, String> annotations = item.getMetadata().getAnnotations();
-            if (annotations != null) {
-                annotations.remove("kubectl.kubernetes.io/last-applied-configuration");
-                if (annotations.isEmpty()) {
-                    item.getMetadata().setAnnotations(null);
-                }
-            }
+    /**
+     * 클러스터에는 없지만 서버에 남아 있는 리소스에 대해 삭제를 보냅니다.
+     */
+    public void sendDeletes(String type, Collection<String> keys) {
+        for (String key : keys) {
+            deltaEncoder.forget(type, key);
+            changeFingerprinter.forget(type, key);
+            buffer.delete(type, key);
         }
     }
+
+    /**
+     * Informer 캐시의 현재 리소스를 전송 형태(sanitize 이후)로 바꾼 (리소스 키 -> 지문) 목록.
+     * 최초 스냅샷을 아직 보내지 않은 타입은 비교할 수 없으므로 null을 반환합니다.
+     */
+    public Map<String, Long> currentFingerprints(String type) {
+        SharedIndexInformer<? extends KubernetesObject> informer = informers.get(type);
+        if (informer == null || !informer.hasSynced() || (cacheSnapshot && !syncedTypes.contains(type))) return null;
+
+        Map<String, Long> result = new HashMap<>();
+        for (KubernetesObject obj : informer.getIndexer().list()) {
+            if (!watchScope.accepts(type, obj)) continue;
+            KubernetesObject item = sanitize(type, obj, true);
+            result.put(ResourceKeys.of(type, item), changeFingerprinter.fingerprint(item));
+        }
+        return result;
+    }
+
+    private KubernetesObject findCached(String type, String key) {
+        SharedIndexInformer<? extends KubernetesObject> informer = informers.get(type);
+        if (informer == null) return null;
+        if ("Event".equals(type)) {
+            return informer.getIndexer().list().stream()
+                    .filter(e -> key.equals(e.getMetadata().getUid()))
+                    .findFirst().orElse(null);
+        }
+        // Informer 캐시 키는 namespace/name (cluster-scoped는 name). Pod 키의 컨테이너 이름은 제외
+        String cacheKey = "Pod".equals(type) ? key.substring(0, key.lastIndexOf('/')) : key;
+        return informer.getIndexer().getByKey(cacheKey);
+    }
+
+    @FunctionalInterface
+    private interface PageLister {
+        KubernetesListObject list(String continueToken, Integer limit) throws ApiException;
+    }
+
+    /**
+     * 전송 전 객체 정리. 타입별 Projection 설정이 있으면 선언된 필드만 남긴 사본을 반환하고,
+     * 없으면 원본에서 managedFields와 last-applied-configuration만 제거합니다.
+     * Informer 캐시 객체(cached)가 이미 Projection된 타입은 다시 축소하지 않습니다.
+     * (InformerCachePruner가 남기는 키/필터용 필드는 기본 Projection 설정에 포함되어 있음)
+     */
+    private KubernetesObject sanitize(String type, KubernetesObject obj, boolean cached) {
+        KubernetesObject item = cached && cachePruner.isProjected(type) ? obj : wireProjection.project(type, obj);
+        InformerCachePruner.stripMetadata(item.getMetadata());
+        return item;
+    }
 }
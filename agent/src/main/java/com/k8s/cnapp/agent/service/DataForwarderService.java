@@ -1,36 +1,94 @@
 package com.k8s.cnapp.agent.service;
 
 import com.k8s.cnapp.agent.dto.ClusterSnapshot;
-import com.k8s.cnapp.agent.queue.SnapshotBlockingQueue;
+import com.k8s.cnapp.agent.dto.EncodedSnapshot;
+import com.k8s.cnapp.agent.queue.SnapshotEncoder;
+import com.k8s.cnapp.agent.queue.SnapshotQueue;
 import com.k8s.cnapp.agent.sender.DataSender;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Service;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestClientResponseException;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 큐의 스냅샷을 여러 전송 레인(lane)으로 동시에 전송합니다.
+ * - 큐의 항목은 넣을 때 리소스 키 해시로 레인별로 나뉘어 직렬화되어 있으며(SnapshotEncoder), 각 레인은 순서대로 하나씩
+ *   전송하므로 같은 키의 순서는 보장됩니다. 본문은 다시 직렬화하지 않고 그대로 전송합니다.
+ * - 동시에 전송 중인 항목 수는 max-in-flight로 제한되며, 큐 확인(acknowledge)은 꺼낸 순서대로 전송이 끝난 뒤에 합니다.
+ *   확인된 조각은 스풀에서 빠지므로 실패/재시작 후에는 확인되지 않은 조각부터 다시 전송됩니다.
+ */
 @Service
 public class DataForwarderService implements CommandLineRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(DataForwarderService.class);
 
-    private final SnapshotBlockingQueue queue;
+    private final SnapshotQueue queue;
     private final DataSender dataSender;
+    private final AdaptiveRateController rateController;
+    private final DeltaEncoder deltaEncoder;
+    private final SnapshotEncoder snapshotEncoder;
+
+    @Value("${agent.forwarder.retry.initial-backoff-ms:1000}")
+    private long initialBackoffMs;
+
+    @Value("${agent.forwarder.retry.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    @Value("${agent.forwarder.lanes:4}")
+    private int laneCount;
+
+    @Value("${agent.forwarder.max-in-flight:8}")
+    private int maxInFlight;
 
-    public DataForwarderService(SnapshotBlockingQueue queue, DataSender dataSender) {
+    private ExecutorService[] lanes;
+    private Semaphore window;
+    private final Deque<CompletableFuture<Void>> inFlight = new ArrayDeque<>();
+    // 종료 중 인터럽트로 끝난 전송이 있었는지 여부. 확인은 꺼낸 순서대로만 가능하므로 이후 전송도 확인하지 않음
+    private boolean acknowledgeStopped;
+
+    public DataForwarderService(SnapshotQueue queue, DataSender dataSender, AdaptiveRateController rateController,
+                                DeltaEncoder deltaEncoder, SnapshotEncoder snapshotEncoder) {
         this.queue = queue;
         this.dataSender = dataSender;
+        this.rateController = rateController;
+        this.deltaEncoder = deltaEncoder;
+        this.snapshotEncoder = snapshotEncoder;
     }
 
     @Override
     public void run(String... args) {
-        logger.info("Starting data forwarder service...");
+        logger.info("Starting data forwarder service (lanes: {}, max in-flight: {})...", laneCount, maxInFlight);
+        window = new Semaphore(maxInFlight);
+        lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String name = "snapshot-sender-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
 
         // Run the forwarding logic in a separate thread
         new Thread(() -> {
             while (!Thread.currentThread().isInterrupted()) {
                 try {
-                    ClusterSnapshot snapshot = queue.take();
-                    forwardData(snapshot);
+                    window.acquire();
+                    EncodedSnapshot snapshot = queue.take();
+                    dispatch(snapshot);
                 } catch (InterruptedException e) {
                     logger.info("Data forwarder thread interrupted. Exiting.");
                     Thread.currentThread().interrupt();
@@ -41,13 +99,141 @@ public class DataForwarderService implements CommandLineRunner {
         }).start();
     }
 
-    private void forwardData(ClusterSnapshot snapshot) {
+    @PreDestroy
+    public void stop() {
+        if (lanes == null) return;
+        for (ExecutorService lane : lanes) {
+            lane.shutdownNow();
+        }
+    }
+
+    // 항목의 레인에서 전송을 시작하고, 끝나면 순서대로 확인 처리
+    // 전송은 종료 중 인터럽트가 아니면 항상 "전달" 또는 "버림"으로 끝남 (예외로 끝나면 이후 확인이 멈추므로)
+    private void dispatch(EncodedSnapshot snapshot) {
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            try {
+                forwardData(snapshot);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            } catch (RuntimeException e) {
+                // 재전송 루프 밖의 실패(413 분할 시 본문 디코딩/재직렬화 등)는 다시 시도해도 같으므로 버림
+                logger.error("Failed to send snapshot (lane {}). Dropping it.", snapshot.lane(), e);
+                deltaEncoder.reject(snapshot.sent());
+            }
+        }, lanes[Math.floorMod(snapshot.lane(), laneCount)]);
+
+        synchronized (inFlight) {
+            inFlight.addLast(future);
+        }
+        future.whenComplete((result, error) -> acknowledgeCompleted());
+    }
+
+    /**
+     * 서버가 수신(또는 영구 거부)한 스냅샷만 큐에서 확인 처리 -> 실패/종료 시 재시작 후에도 재전송
+     * 종료 중 인터럽트로 끝난 전송은 확인하지 않고 전송 창만 반납합니다.
+     * 큐의 확인은 꺼낸 순서대로이므로 그 뒤의 전송도 확인하지 않으며, 스풀에 남아 재시작 후 다시 전송됩니다.
+     * (그 밖의 실패는 dispatch에서 버림으로 끝나므로 확인이 멈추지 않음)
+     */
+    private void acknowledgeCompleted() {
+        synchronized (inFlight) {
+            while (!inFlight.isEmpty() && inFlight.peekFirst().isDone()) {
+                CompletableFuture<Void> head = inFlight.pollFirst();
+                if (head.isCompletedExceptionally() && !acknowledgeStopped) {
+                    acknowledgeStopped = true;
+                    logger.warn("A snapshot send was interrupted. It and later snapshots stay unacknowledged until restart.");
+                }
+                if (!acknowledgeStopped) queue.acknowledge();
+                window.release();
+            }
+        }
+    }
+
+    /**
+     * 서버가 받을 때까지 지수 백오프로 재전송합니다.
+     * 과부하 응답(429/503)은 Retry-After 이상 기다리고 전송 속도를 줄이며,
+     * 요청 자체가 잘못된 경우(4xx, 408/429 제외)는 재전송해도 성공할 수 없으므로 버립니다.
+     * 본문이 서버 제한보다 크면(413) 리소스 단위로 반씩 나눠 다시 전송합니다.
+     * 서버가 받은 전송본만 Delta 기준으로 확인하고, 버린 전송본은 기준에서 제외합니다.
+     */
+    private void forwardData(EncodedSnapshot snapshot) throws InterruptedException {
+        forwardData(snapshot, 0);
+    }
+
+    private void forwardData(EncodedSnapshot snapshot, int splitDepth) throws InterruptedException {
+        long backoffMs = initialBackoffMs;
+        while (true) {
+            long waitMs = backoffMs;
+            try {
+                dataSender.send(snapshot);
+                rateController.onSuccess();
+                deltaEncoder.acknowledge(snapshot.sent());
+                return;
+            } catch (RestClientResponseException e) {
+                int status = e.getStatusCode().value();
+                if (status == 429 || status == 503) {
+                    long retryAfterSeconds = retryAfterSeconds(e);
+                    rateController.onOverload(status, retryAfterSeconds);
+                    waitMs = Math.max(backoffMs, retryAfterSeconds * 1000);
+                    logger.warn("Server is overloaded (status {}). Retrying in {} ms.", status, waitMs);
+                } else if (status == 408 || !e.getStatusCode().is4xxClientError()) {
+                    logger.error("Error during data sending (status {}). Retrying in {} ms.", status, waitMs);
+                } else if (status == 413) {
+                    splitAndForward(snapshot, splitDepth);
+                    return;
+                } else {
+                    logger.error("Server rejected snapshot with status {}. Dropping it.", status);
+                    deltaEncoder.reject(snapshot.sent());
+                    return;
+                }
+            } catch (Exception e) {
+                logger.error("Error during data sending: {}. Retrying in {} ms.", e.getMessage(), waitMs);
+            }
+            Thread.sleep(waitMs);
+            backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+        }
+    }
+
+    /**
+     * 리소스 키 해시의 splitDepth번째 비트로 스냅샷을 둘로 나눠 각각 전송합니다. (같은 키는 같은 쪽)
+     * 조각은 순번이 정해져 있어 나눌 수 없으므로 조각 크기(agent.inventory.chunk-max-bytes)를 서버 제한보다 작게 설정해야 합니다.
+     * 나눌 때만 본문을 객체로 되돌려 각 부분을 다시 직렬화합니다.
+     */
+    private void splitAndForward(EncodedSnapshot snapshot, int splitDepth) throws InterruptedException {
+        if (snapshot.chunk() == null && splitDepth < Integer.SIZE) {
+            splitAndForward(snapshot, snapshotEncoder.codec().decode(snapshot.body(), snapshot.cbor()), splitDepth);
+            return;
+        }
+        logger.error("Server rejected snapshot as too large (413) and it cannot be split further. Dropping it.");
+        deltaEncoder.reject(snapshot.sent());
+    }
+
+    private void splitAndForward(EncodedSnapshot snapshot, ClusterSnapshot decoded, int splitDepth) throws InterruptedException {
+        Map<Integer, ClusterSnapshot> halves = splitDepth >= Integer.SIZE ? Map.of()
+                : SnapshotPartitioner.partition(decoded, (type, key) -> key == null ? 0 : (key.hashCode() >>> splitDepth) & 1);
+        if (halves.size() < 2) {
+            if (halves.size() == 1) {
+                // 이 비트로는 나뉘지 않음 -> 다음 비트로 시도
+                splitAndForward(snapshot, decoded, splitDepth + 1);
+                return;
+            }
+            logger.error("Server rejected snapshot as too large (413) and it cannot be split further. Dropping it.");
+            deltaEncoder.reject(snapshot.sent());
+            return;
+        }
+        logger.warn("Server rejected snapshot as too large (413). Retrying as {} smaller parts.", halves.size());
+        for (ClusterSnapshot half : halves.values()) {
+            forwardData(snapshotEncoder.encode(snapshot.lane(), half), splitDepth + 1);
+        }
+    }
+
+    private long retryAfterSeconds(RestClientResponseException e) {
+        String retryAfter = e.getResponseHeaders() != null ? e.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (retryAfter == null) return 0;
         try {
-            dataSender.send(snapshot);
-        } catch (Exception e) {
-            logger.error("Error during data sending: {}", e.getMessage());
-            // 재시도 로직이나 큐에 다시 넣는 로직을 여기에 추가할 수 있습니다.
-            // 예: queue.put(snapshot); (주의: 무한 루프 가능성)
+            return Long.parseLong(retryAfter.trim());
+        } catch (NumberFormatException ex) {
+            return 0; // HTTP-date 형식은 사용하지 않음
         }
     }
 }
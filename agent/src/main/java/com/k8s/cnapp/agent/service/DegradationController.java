@@ -0,0 +1,193 @@
+package com.k8s.cnapp.agent.service;
+
+import com.k8s.cnapp.agent.config.DegradationProperties;
+import com.k8s.cnapp.agent.dto.DegradationLevelChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+
+/**
+ * cgroup 제한과 JVM MXBean으로 Agent 자신의 자원 압박을 측정해 부하 감소 단계(DegradationLevel)를 정합니다.
+ * - 메모리: max(마지막 GC 후 힙 사용량 / 최대 힙, 컨테이너 working set / cgroup 메모리 제한)
+ * - CPU: 프로세스 CPU 시간 증가량 / (경과 시간 × cgroup CPU 제한 코어 수)
+ * - GC: 경과 시간 중 GC에 쓴 시간의 비율 (GC thrash 감지)
+ * 지표 하나라도 high를 넘으면 샘플마다 한 단계씩 올려 Event -> 병합 창 -> 저우선 타입 순으로 부하를 줄이고,
+ * 모든 지표가 low 아래로 recover-samples번 연속 유지되면 한 단계씩 되돌립니다.
+ * 현재 단계는 단계 변경 로그, agent.degradation.level 지표, /actuator/health 상세 정보로 확인할 수 있습니다.
+ */
+@Component
+public class DegradationController implements HealthIndicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DegradationController.class);
+
+    private final DegradationProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CgroupStats cgroup = new CgroupStats();
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+
+    private volatile DegradationLevel level = DegradationLevel.NORMAL;
+    private volatile double memoryRatio;
+    private volatile double cpuRatio;
+    private volatile double gcRatio;
+    private int calmSamples;
+    private long lastSampleNanos;
+    private long lastCpuNanos;
+    private long lastGcMillis;
+
+    public DegradationController(DegradationProperties properties, ApplicationEventPublisher eventPublisher) {
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!properties.isEnabled()) return;
+        long memoryLimit = cgroup.memoryLimitBytes();
+        logger.info("Resource limits - cgroup memory: {}, cgroup CPU: {}, max heap: {} bytes",
+                memoryLimit > 0 ? memoryLimit + " bytes" : "unlimited",
+                cgroup.cpuLimitCores() > 0 ? cgroup.cpuLimitCores() + " cores" : "unlimited",
+                memoryBean.getHeapMemoryUsage().getMax());
+        lastSampleNanos = System.nanoTime();
+        lastCpuNanos = processCpuNanos();
+        lastGcMillis = gcMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${agent.degradation.sample-interval-ms:5000}", initialDelayString = "${agent.degradation.sample-interval-ms:5000}")
+    public synchronized void sample() {
+        if (!properties.isEnabled()) return;
+
+        long now = System.nanoTime();
+        long elapsedNanos = Math.max(1, now - lastSampleNanos);
+        long cpuNanos = processCpuNanos();
+        long gc = gcMillis();
+        memoryRatio = memoryRatio();
+        cpuRatio = cpuNanos < 0 ? 0 : (cpuNanos - lastCpuNanos) / (elapsedNanos * cpuLimitCores());
+        gcRatio = (gc - lastGcMillis) * 1_000_000.0 / elapsedNanos;
+        lastSampleNanos = now;
+        lastCpuNanos = cpuNanos;
+        lastGcMillis = gc;
+
+        DegradationLevel next = level;
+        if (memoryRatio >= properties.getMemoryCriticalRatio()) {
+            next = DegradationLevel.PAUSE_LOW_PRIORITY;
+            calmSamples = 0;
+        } else if (memoryRatio >= properties.getMemoryHighRatio() || cpuRatio >= properties.getCpuHighRatio()
+                || gcRatio >= properties.getGcHighRatio()) {
+            next = level.raise();
+            calmSamples = 0;
+        } else if (memoryRatio < properties.getMemoryLowRatio() && cpuRatio < properties.getCpuLowRatio()
+                && gcRatio < properties.getGcLowRatio()) {
+            if (++calmSamples >= properties.getRecoverSamples()) {
+                next = level.lower();
+                calmSamples = 0;
+            }
+        } else {
+            calmSamples = 0;
+        }
+
+        if (next != level) {
+            DegradationLevel previous = level;
+            level = next;
+            String message = "Degradation level {} -> {} (memory: {}%, cpu: {}%, gc: {}%)";
+            Object[] args = {previous, next, percent(memoryRatio), percent(cpuRatio), percent(gcRatio)};
+            if (next.atLeast(previous)) logger.warn(message, args); else logger.info(message, args);
+            eventPublisher.publishEvent(new DegradationLevelChangedEvent(previous, next));
+        }
+    }
+
+    public DegradationLevel currentLevel() {
+        return level;
+    }
+
+    /**
+     * @return 현재 단계에서 이 타입의 Informer 업데이트를 버려야 하면 true (삭제는 항상 전송)
+     */
+    public boolean isShed(String type) {
+        DegradationLevel current = level;
+        if ("Event".equals(type) && current.atLeast(DegradationLevel.SHED_EVENTS)) return true;
+        return current.atLeast(DegradationLevel.PAUSE_LOW_PRIORITY) && properties.isPausable(type);
+    }
+
+    public boolean isPausable(String type) {
+        return properties.isPausable(type);
+    }
+
+    public long scaleFlushInterval(long flushIntervalMs) {
+        return level.atLeast(DegradationLevel.WIDEN_COALESCING)
+                ? (long) (flushIntervalMs * properties.getCoalescingWidenFactor()) : flushIntervalMs;
+    }
+
+    public double getMemoryRatio() {
+        return memoryRatio;
+    }
+
+    public double getCpuRatio() {
+        return cpuRatio;
+    }
+
+    @Override
+    public Health health() {
+        // 부하 감소는 Agent가 스스로 회복하는 상태이므로 UP으로 두고 단계만 알림
+        return Health.up()
+                .withDetail("degradation", level.name())
+                .withDetail("memoryRatio", memoryRatio)
+                .withDetail("cpuRatio", cpuRatio)
+                .withDetail("gcRatio", gcRatio)
+                .build();
+    }
+
+    // 힙은 마지막 GC 후 사용량(live set)으로 보고, 컨테이너 working set은 힙 밖 메모리(스레드, 버퍼, mmap 스풀)까지 포함
+    private double memoryRatio() {
+        double ratio = 0;
+        long maxHeap = memoryBean.getHeapMemoryUsage().getMax();
+        if (maxHeap > 0) {
+            long liveHeap = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                MemoryUsage afterGc = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+                if (afterGc != null) liveHeap += afterGc.getUsed();
+            }
+            ratio = (double) liveHeap / maxHeap;
+        }
+        long limit = cgroup.memoryLimitBytes();
+        long workingSet = limit > 0 ? cgroup.memoryWorkingSetBytes() : -1;
+        if (workingSet > 0) {
+            ratio = Math.max(ratio, (double) workingSet / limit);
+        }
+        return ratio;
+    }
+
+    private double cpuLimitCores() {
+        double cores = cgroup.cpuLimitCores();
+        return cores > 0 ? cores : Runtime.getRuntime().availableProcessors();
+    }
+
+    private static long processCpuNanos() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        return os instanceof com.sun.management.OperatingSystemMXBean sunOs ? sunOs.getProcessCpuTime() : -1;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static long percent(double ratio) {
+        return Math.round(ratio * 100);
+    }
+}
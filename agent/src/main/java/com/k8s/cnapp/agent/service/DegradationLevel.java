@@ -0,0 +1,28 @@
+package com.k8s.cnapp.agent.service;
+
+/**
+ * 자원 압박 시 부하 감소 단계. 높은 단계는 낮은 단계의 조치를 모두 포함합니다.
+ * Pod/Service/Node 등 보호 타입의 업데이트는 어느 단계에서도 전송됩니다.
+ */
+public enum DegradationLevel {
+    // 정상
+    NORMAL,
+    // Informer의 Event 업데이트를 버림
+    SHED_EVENTS,
+    // 병합 버퍼의 flush 간격을 넓혀 같은 리소스의 업데이트를 더 많이 합침
+    WIDEN_COALESCING,
+    // 우선순위가 낮은 타입(ReplicaSet 등)의 업데이트 전송을 멈춤 (회복 시 캐시에서 다시 맞춤)
+    PAUSE_LOW_PRIORITY;
+
+    public boolean atLeast(DegradationLevel other) {
+        return ordinal() >= other.ordinal();
+    }
+
+    DegradationLevel raise() {
+        return this == PAUSE_LOW_PRIORITY ? this : values()[ordinal() + 1];
+    }
+
+    DegradationLevel lower() {
+        return this == NORMAL ? this : values()[ordinal() - 1];
+    }
+}
@@ -0,0 +1,166 @@
+package com.k8s.cnapp.agent.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.dto.ResourcePatch;
+import com.k8s.cnapp.agent.dto.SentResource;
+import io.kubernetes.client.common.KubernetesObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 리소스 키별로 서버가 수신을 확인한 전송본을 보관하고, 다음 전송 시 전체 객체 대신 JSON Merge Patch(RFC 7386)를 만듭니다.
+ * 서버는 patch의 baseVersion(기준 전송본의 resourceVersion)이 저장된 상태와 다르면 전체 재전송을 요청합니다.
+ * - 기준 전송본은 서버가 전송을 확인(acknowledge)한 뒤에만 바뀌므로, 유실/거부된 전송 뒤의 patch도 서버와 같은 기준을 사용합니다.
+ * - 확인되지 않은 전송이 남아 있는 키는 서버의 기준이 어느 쪽인지 알 수 없으므로 전체 객체로 보냅니다.
+ * - 확인은 서버가 메시지를 큐에 넣었다는 뜻(HTTP 200)일 뿐 처리 순서를 보장하지 않습니다. 서버는 기준 전송본보다 먼저 처리된
+ *   patch를 보류했다가 기준이 처리되면 적용하고, 정해진 시간 안에 기준이 처리되지 않으면 전체 재전송을 요청합니다.
+ *   즉 키마다 서버에 반영되는 순서는 전송 순서와 같고, 기준이 유실된 경우에만 재전송이 일어납니다.
+ * - 전송본은 JsonObject 트리 대신 직렬화된 UTF-8 바이트로 보관해 키당 힙 사용량을 줄입니다. (patch를 만들 때만 파싱)
+ */
+@Component
+public class DeltaEncoder {
+
+    private final Gson gson;
+    // 서버가 수신을 확인한 기준 전송본
+    private final Map<String, byte[]> acknowledged = new ConcurrentHashMap<>();
+    // 전송했지만 아직 확인되지 않은 전송본 (키당 가장 최근 것)
+    private final Map<String, Sent> pending = new ConcurrentHashMap<>();
+
+    @Value("${agent.delta.enabled:true}")
+    private boolean enabled;
+
+    @Value("${agent.delta.types:Pod,Node}")
+    private Set<String> deltaTypes;
+
+    public DeltaEncoder(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * @return 전송할 patch. delta 대상 타입이 아니거나 확인된 기준 전송본이 없거나 확인되지 않은 전송이 있으면 null (전체 객체 전송)
+     */
+    public ResourcePatch encode(String type, String key, Object obj) {
+        if (!enabled || !deltaTypes.contains(type)) return null;
+
+        String stateKey = stateKey(type, key);
+        JsonObject current = gson.toJsonTree(obj).getAsJsonObject();
+        String version = resourceVersion(current);
+
+        ResourcePatch patch = null;
+        byte[] base = acknowledged.get(stateKey);
+        if (base != null && version != null && !pending.containsKey(stateKey)) {
+            JsonObject previous = JsonParser.parseString(new String(base, StandardCharsets.UTF_8)).getAsJsonObject();
+            String baseVersion = resourceVersion(previous);
+            if (baseVersion != null) {
+                JsonObject diff = diff(previous, current);
+                // 바뀐 내용이 없으면 전송하지 않으므로 확인 대기로 두지 않음
+                if (diff.size() == 0) return new ResourcePatch(type, key, baseVersion, version, "{}");
+                patch = new ResourcePatch(type, key, baseVersion, version, diff.toString());
+            }
+        }
+        pending.put(stateKey, new Sent(version, current.toString().getBytes(StandardCharsets.UTF_8)));
+        return patch;
+    }
+
+    /**
+     * 서버가 수신한 스냅샷의 전송본을 다음 patch의 기준으로 삼습니다.
+     * 같은 키를 그 사이 다시 보냈다면(전체 객체) 그 전송이 확인될 때까지 기다립니다.
+     */
+    public void acknowledge(List<SentResource> sent) {
+        for (SentResource resource : sent) {
+            pending.computeIfPresent(stateKey(resource.type(), resource.key()), (k, entry) -> {
+                if (!Objects.equals(entry.version(), resource.version())) return entry;
+                acknowledged.put(k, entry.body());
+                return null;
+            });
+        }
+    }
+
+    /**
+     * 서버가 받지 않은(버려진) 스냅샷의 전송본을 버립니다. 기준 전송본은 서버와 같으므로 그대로 둡니다.
+     */
+    public void reject(List<SentResource> sent) {
+        for (SentResource resource : sent) {
+            pending.computeIfPresent(stateKey(resource.type(), resource.key()),
+                    (k, entry) -> Objects.equals(entry.version(), resource.version()) ? null : entry);
+        }
+    }
+
+    /**
+     * 기준 전송본을 버려 다음 업데이트가 전체 객체로 전송되도록 합니다. (삭제, 서버 재전송 요청 시)
+     */
+    public void forget(String type, String key) {
+        String stateKey = stateKey(type, key);
+        acknowledged.remove(stateKey);
+        pending.remove(stateKey);
+    }
+
+    /**
+     * 스냅샷에 담긴 Delta 대상 리소스(전체 객체와 patch)의 목록. 큐에 넣을 때 본문과 함께 보관해 두었다가
+     * 전송 결과에 따라 acknowledge/reject에 전달합니다. (본문을 다시 객체로 읽지 않도록)
+     */
+    public List<SentResource> sentResources(ClusterSnapshot snapshot) {
+        if (!enabled) return List.of();
+        List<SentResource> sent = new ArrayList<>();
+        for (Map.Entry<String, List<? extends KubernetesObject>> entry : snapshot.resourcesByType().entrySet()) {
+            if (!deltaTypes.contains(entry.getKey())) continue;
+            for (KubernetesObject obj : entry.getValue()) {
+                if (obj.getMetadata() == null) continue;
+                sent.add(new SentResource(entry.getKey(), ResourceKeys.of(entry.getKey(), obj), obj.getMetadata().getResourceVersion()));
+            }
+        }
+        if (snapshot.patches() != null) {
+            for (ResourcePatch patch : snapshot.patches()) {
+                sent.add(new SentResource(patch.type(), patch.key(), patch.version()));
+            }
+        }
+        return sent;
+    }
+
+    // previous -> current 로 만드는 Merge Patch. 배열은 통째로 교체, 사라진 필드는 null
+    JsonObject diff(JsonObject previous, JsonObject current) {
+        JsonObject patch = new JsonObject();
+        for (String field : previous.keySet()) {
+            if (!current.has(field)) patch.add(field, JsonNull.INSTANCE);
+        }
+        for (Map.Entry<String, JsonElement> entry : current.entrySet()) {
+            JsonElement before = previous.get(entry.getKey());
+            JsonElement after = entry.getValue();
+            if (after.equals(before)) continue;
+
+            if (before != null && before.isJsonObject() && after.isJsonObject()) {
+                patch.add(entry.getKey(), diff(before.getAsJsonObject(), after.getAsJsonObject()));
+            } else {
+                patch.add(entry.getKey(), after);
+            }
+        }
+        return patch;
+    }
+
+    private String resourceVersion(JsonObject obj) {
+        JsonElement metadata = obj.get("metadata");
+        if (metadata == null || !metadata.isJsonObject()) return null;
+        JsonElement version = metadata.getAsJsonObject().get("resourceVersion");
+        return (version == null || version.isJsonNull()) ? null : version.getAsString();
+    }
+
+    private String stateKey(String type, String key) {
+        return type + "|" + key;
+    }
+
+    private record Sent(String version, byte[] body) {
+    }
+}
@@ -0,0 +1,183 @@
+package com.k8s.cnapp.agent.service;
+
+import com.k8s.cnapp.agent.dto.EdgePolicyRule;
+import com.k8s.cnapp.agent.dto.EdgePolicySet;
+import com.k8s.cnapp.agent.dto.EdgeViolation;
+import io.kubernetes.client.openapi.models.V1Container;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1SecurityContext;
+import io.kubernetes.client.openapi.models.V1Service;
+import io.kubernetes.client.openapi.models.V1ServicePort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 서버에서 테넌트의 단일 객체 정책(컴파일된 규칙)을 받아 전송 전에 Pod/Service를 직접 평가합니다.
+ * 위반은 스냅샷에 정책 버전과 함께 담겨, 서버가 정밀 스캔(security.scan.requests) 없이 바로 Alert를 기록합니다.
+ * 규칙은 ETag(정책 버전)로 조건부 조회하므로 정책이 바뀌지 않으면 본문 없이 304만 오갑니다.
+ * 평가 로직은 서버의 SecurityPolicy 구현(PodPrivilegedPolicy 등)과 같은 판정을 해야 합니다.
+ */
+@Component
+public class EdgePolicyEvaluator {
+
+    private static final Logger logger = LoggerFactory.getLogger(EdgePolicyEvaluator.class);
+
+    private final RestTemplate restTemplate;
+
+    @Value("${agent.edge-policy.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cnapp.server.url:http://localhost:8080/api/v1/ingestion/raw}")
+    private String serverUrl;
+
+    // 비어 있으면 Ingestion URL의 마지막 경로를 policies로 바꿔 사용 (.../api/v1/ingestion/policies)
+    @Value("${cnapp.server.policy-url:}")
+    private String policyUrl;
+
+    @Value("${cnapp.agent.api-key:}")
+    private String apiKey;
+
+    private volatile CompiledRules current;
+
+    public EdgePolicyEvaluator(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${agent.edge-policy.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!enabled) return;
+        CompiledRules rules = current;
+        HttpHeaders headers = new HttpHeaders();
+        if (apiKey != null && !apiKey.isEmpty()) {
+            headers.set("X-API-KEY", apiKey);
+        }
+        if (rules != null) {
+            headers.setIfNoneMatch("\"" + rules.version + "\"");
+        }
+
+        try {
+            ResponseEntity<EdgePolicySet> response = restTemplate.exchange(url(), HttpMethod.GET, new HttpEntity<>(headers), EdgePolicySet.class);
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED || response.getBody() == null) return;
+            current = new CompiledRules(response.getBody());
+            logger.info("Loaded edge policy set version {} ({} rules)", current.version, response.getBody().rules().size());
+        } catch (RestClientException e) {
+            // 이전 규칙을 계속 사용. 서버는 버전이 다르면 기존처럼 정밀 스캔으로 처리
+            logger.warn("Failed to refresh edge policies: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 병합된 업데이트 전체를 같은 규칙 버전으로 평가합니다.
+     * @param updates    타입 -> 리소스 키 -> 객체 (sanitize 이후)
+     * @param violations 위반을 추가할 목록
+     * @return 평가에 사용한 정책 버전. 규칙을 아직 받지 못했거나 비활성화된 경우 null (서버가 정밀 스캔)
+     */
+    public String evaluate(Map<String, Map<String, Object>> updates, List<EdgeViolation> violations) {
+        CompiledRules rules = current;
+        if (!enabled || rules == null) return null;
+
+        updates.forEach((type, byKey) -> byKey.forEach((key, obj) -> {
+            if (obj instanceof V1Pod pod) {
+                evaluatePod(rules, key, pod, violations);
+            } else if (obj instanceof V1Service service) {
+                evaluateService(rules, key, service, violations);
+            }
+        }));
+        return rules.version;
+    }
+
+    // 서버 PodProfile과 같이 첫 번째 컨테이너 기준, runAsUser는 컨테이너 -> Pod 순으로 확인
+    private void evaluatePod(CompiledRules rules, String key, V1Pod pod, List<EdgeViolation> violations) {
+        if (pod.getMetadata() == null || pod.getSpec() == null || pod.getSpec().getContainers().isEmpty()) return;
+        V1Container container = pod.getSpec().getContainers().get(0);
+        V1SecurityContext sc = container.getSecurityContext();
+        Long runAsUser = sc != null ? sc.getRunAsUser() : null;
+        if (runAsUser == null && pod.getSpec().getSecurityContext() != null) runAsUser = pod.getSpec().getSecurityContext().getRunAsUser();
+
+        if (rules.isTrue("POD", "PRIVILEGED_DENY") && sc != null && Boolean.TRUE.equals(sc.getPrivileged())) {
+            violations.add(rules.violation("Pod", key, "POD", "PRIVILEGED_DENY"));
+        }
+        if (rules.isTrue("POD", "RUN_AS_ROOT_DENY") && runAsUser != null && runAsUser == 0) {
+            violations.add(rules.violation("Pod", key, "POD", "RUN_AS_ROOT_DENY"));
+        }
+        if (rules.isTrue("POD", "IMAGE_LATEST_TAG_DENY") && container.getImage() != null && container.getImage().endsWith(":latest")) {
+            violations.add(rules.violation("Pod", key, "POD", "IMAGE_LATEST_TAG_DENY"));
+        }
+        if (rules.isTrue("POD", "NAMESPACE_DEFAULT_DENY") && "default".equalsIgnoreCase(pod.getMetadata().getNamespace())) {
+            violations.add(rules.violation("Pod", key, "POD", "NAMESPACE_DEFAULT_DENY", pod.getMetadata().getName()));
+        }
+    }
+
+    private void evaluateService(CompiledRules rules, String key, V1Service service, List<EdgeViolation> violations) {
+        if (service.getMetadata() == null || service.getSpec() == null) return;
+        String type = service.getSpec().getType();
+
+        if (rules.isTrue("SERVICE", "EXTERNAL_IP_DENY") && ("LoadBalancer".equals(type) || "NodePort".equals(type))) {
+            violations.add(rules.violation("Service", key, "SERVICE", "EXTERNAL_IP_DENY", type));
+        }
+        if (!rules.blacklistedPorts.isEmpty() && service.getSpec().getPorts() != null) {
+            // 서버와 같이 처음 발견한 포트 하나만 보고
+            for (V1ServicePort port : service.getSpec().getPorts()) {
+                if (port.getPort() != null && rules.blacklistedPorts.contains(port.getPort())) {
+                    violations.add(rules.violation("Service", key, "SERVICE", "PORT_BLACKLIST", port.getPort(), port.getProtocol()));
+                    break;
+                }
+            }
+        }
+    }
+
+    private String url() {
+        if (policyUrl != null && !policyUrl.isBlank()) return policyUrl;
+        return serverUrl.substring(0, serverUrl.lastIndexOf('/')) + "/policies";
+    }
+
+    /**
+     * 조회한 규칙을 (리소스 타입/규칙 종류)로 찾을 수 있게 정리하고, 포트 목록처럼 반복 사용하는 값은 미리 파싱해 둡니다.
+     */
+    private static class CompiledRules {
+        private final String version;
+        private final Map<String, EdgePolicyRule> rules = new HashMap<>();
+        private final Set<Integer> blacklistedPorts = new HashSet<>();
+
+        CompiledRules(EdgePolicySet set) {
+            this.version = set.version();
+            for (EdgePolicyRule rule : set.rules()) {
+                rules.put(rule.resourceType() + "/" + rule.ruleType(), rule);
+            }
+            EdgePolicyRule ports = rules.get("SERVICE/PORT_BLACKLIST");
+            if (ports != null && ports.value() != null) {
+                for (String p : ports.value().split(",")) {
+                    try {
+                        blacklistedPorts.add(Integer.parseInt(p.trim()));
+                    } catch (NumberFormatException ignored) {}
+                }
+            }
+        }
+
+        boolean isTrue(String resourceType, String ruleType) {
+            EdgePolicyRule rule = rules.get(resourceType + "/" + ruleType);
+            return rule != null && "true".equalsIgnoreCase(rule.value());
+        }
+
+        EdgeViolation violation(String type, String key, String resourceType, String ruleType, Object... args) {
+            EdgePolicyRule rule = rules.get(resourceType + "/" + ruleType);
+            return new EdgeViolation(type, key, ruleType, String.format(rule.messageTemplate(), args));
+        }
+    }
+}
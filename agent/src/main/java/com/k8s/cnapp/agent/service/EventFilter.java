@@ -0,0 +1,139 @@
+package com.k8s.cnapp.agent.service;
+
+import com.k8s.cnapp.agent.config.EventFilterProperties;
+import io.kubernetes.client.openapi.models.CoreV1Event;
+import io.kubernetes.client.openapi.models.V1ObjectReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Kubernetes Event 전송 여부를 결정합니다.
+ * 1. matches: 이벤트 type(Warning 등), reason 허용/제외 목록, 제외 네임스페이스로 거름
+ * 2. tryAcquire: 같은 대상 객체(involvedObject)의 이벤트는 토큰 버킷으로 전송 빈도를 제한
+ *    (CrashLoopBackOff처럼 count만 늘어나는 반복 이벤트가 전송량을 차지하지 않도록)
+ */
+@Component
+public class EventFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventFilter.class);
+
+    private final EventFilterProperties properties;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong filtered = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+
+    public EventFilter(EventFilterProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @return type/reason/namespace 조건을 통과하면 true
+     */
+    public boolean matches(CoreV1Event event) {
+        if (!properties.isEnabled()) return true;
+
+        boolean matched = (properties.getTypes().isEmpty() || containsIgnoreCase(properties.getTypes(), event.getType()))
+                && (properties.getIncludeReasons().isEmpty() || containsIgnoreCase(properties.getIncludeReasons(), event.getReason()))
+                && !containsIgnoreCase(properties.getExcludeReasons(), event.getReason())
+                && !properties.getExcludeNamespaces().contains(namespaceOf(event));
+        if (!matched) filtered.incrementAndGet();
+        return matched;
+    }
+
+    /**
+     * 대상 객체의 토큰을 하나 사용합니다.
+     * @return 토큰이 남아 있으면 true (전송), 없으면 false (이번 업데이트는 생략)
+     */
+    public boolean tryAcquire(CoreV1Event event) {
+        EventFilterProperties.RateLimit rateLimit = properties.getRateLimit();
+        if (!properties.isEnabled() || !rateLimit.isEnabled()) return true;
+
+        long refillNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, rateLimit.getRefillIntervalMs()));
+        TokenBucket bucket = buckets.computeIfAbsent(bucketKey(event), k -> new TokenBucket(rateLimit.getBurst()));
+        if (bucket.tryAcquire(System.nanoTime(), rateLimit.getBurst(), refillNanos)) return true;
+
+        rateLimited.incrementAndGet();
+        return false;
+    }
+
+    public long getFilteredCount() {
+        return filtered.get();
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimited.get();
+    }
+
+    /**
+     * 다시 가득 찬 버킷은 새로 만든 것과 같으므로 제거해 맵이 대상 객체 수만큼 계속 커지지 않도록 합니다.
+     */
+    @Scheduled(fixedRateString = "${agent.event-filter.report-interval-ms:60000}")
+    public void evictAndReport() {
+        EventFilterProperties.RateLimit rateLimit = properties.getRateLimit();
+        long now = System.nanoTime();
+        long refillNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, rateLimit.getRefillIntervalMs()));
+        buckets.values().removeIf(bucket -> bucket.isFull(now, rateLimit.getBurst(), refillNanos));
+
+        if (filtered.get() == 0 && rateLimited.get() == 0) return;
+        logger.info("Event filter - filtered: {}, rate limited: {}, tracked objects: {}",
+                filtered.get(), rateLimited.get(), buckets.size());
+    }
+
+    private String bucketKey(CoreV1Event event) {
+        V1ObjectReference target = event.getInvolvedObject();
+        if (target == null) {
+            return "event/" + (event.getMetadata() != null ? event.getMetadata().getUid() : null);
+        }
+        if (target.getUid() != null) return target.getUid();
+        return target.getKind() + "/" + target.getNamespace() + "/" + target.getName();
+    }
+
+    private String namespaceOf(CoreV1Event event) {
+        if (event.getMetadata() != null && event.getMetadata().getNamespace() != null) {
+            return event.getMetadata().getNamespace();
+        }
+        return event.getInvolvedObject() != null ? event.getInvolvedObject().getNamespace() : null;
+    }
+
+    private boolean containsIgnoreCase(List<String> values, String value) {
+        if (value == null) return false;
+        for (String candidate : values) {
+            if (candidate.equalsIgnoreCase(value)) return true;
+        }
+        return false;
+    }
+
+    private static class TokenBucket {
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        TokenBucket(int burst) {
+            this.tokens = burst;
+        }
+
+        synchronized boolean tryAcquire(long now, int burst, long refillNanos) {
+            refill(now, burst, refillNanos);
+            if (tokens < 1) return false;
+            tokens -= 1;
+            return true;
+        }
+
+        synchronized boolean isFull(long now, int burst, long refillNanos) {
+            refill(now, burst, refillNanos);
+            return tokens >= burst;
+        }
+
+        private void refill(long now, int burst, long refillNanos) {
+            tokens = Math.min(burst, tokens + (double) (now - lastRefill) / refillNanos);
+            lastRefill = now;
+        }
+    }
+}
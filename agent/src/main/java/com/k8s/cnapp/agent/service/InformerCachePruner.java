@@ -0,0 +1,66 @@
+package com.k8s.cnapp.agent.service;
+
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Informer 캐시(Indexer)에 들어가기 전에 객체를 축소합니다.
+ * 1. managedFields, last-applied-configuration 어노테이션 제거 (전송 전 sanitize와 동일)
+ * 2. Projection 설정이 있는 타입은 전송 필드 + Agent가 직접 읽는 필드(키 계산, 이벤트 필터)만 남긴 사본으로 교체
+ * 캐시에는 전송에 필요한 필드가 모두 남으므로 변경 감지(지문)와 전송 결과는 축소 전과 같습니다.
+ */
+@Component
+public class InformerCachePruner {
+
+    // Projection 설정과 무관하게 캐시에 남겨야 하는 필드 (ResourceKeys, EventFilter에서 사용)
+    private static final Map<String, List<String>> RETAINED_FIELDS = Map.of(
+            "Pod", List.of("spec.containers.name"),
+            "Event", List.of("type", "reason", "involvedObject"));
+
+    private final WireProjection wireProjection;
+
+    @Value("${agent.informer.prune.enabled:true}")
+    private boolean enabled;
+
+    // false면 managedFields 등만 제거하고 Projection은 전송 시점에만 적용
+    @Value("${agent.informer.prune.projection:true}")
+    private boolean projection;
+
+    public InformerCachePruner(WireProjection wireProjection) {
+        this.wireProjection = wireProjection;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends KubernetesObject> T prune(String type, T obj) {
+        if (!enabled || obj == null) return obj;
+        T item = isProjected(type)
+                ? (T) wireProjection.projectRetaining(type, obj, RETAINED_FIELDS.getOrDefault(type, List.of()))
+                : obj;
+        stripMetadata(item.getMetadata());
+        return item;
+    }
+
+    /**
+     * @return 캐시 객체가 이미 Projection된 타입이면 true (전송 시 다시 축소할 필요 없음)
+     */
+    public boolean isProjected(String type) {
+        return enabled && projection && wireProjection.isProjected(type);
+    }
+
+    static void stripMetadata(V1ObjectMeta metadata) {
+        if (metadata == null) return;
+        metadata.setManagedFields(null);
+        Map<String, String> annotations = metadata.getAnnotations();
+        if (annotations != null) {
+            annotations.remove("kubectl.kubernetes.io/last-applied-configuration");
+            if (annotations.isEmpty()) {
+                metadata.setAnnotations(null);
+            }
+        }
+    }
+}
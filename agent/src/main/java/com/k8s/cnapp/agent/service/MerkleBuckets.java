@@ -0,0 +1,56 @@
+package com.k8s.cnapp.agent.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Anti-entropy 비교용 2단계 해시 트리 (루트 -> 버킷 -> (리소스 키, 지문)).
+ * 버킷 해시는 항목 해시의 XOR이라 순서와 무관하고, 루트는 버킷 해시를 순서대로 접은 값입니다.
+ * 서버(ResourceDigestService)도 같은 규칙으로 계산하므로 두 구현은 항상 함께 바뀌어야 합니다.
+ */
+public final class MerkleBuckets {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private MerkleBuckets() {
+    }
+
+    public static int bucketOf(String key, int bucketCount) {
+        return (int) Long.remainderUnsigned(keyHash(key), bucketCount);
+    }
+
+    public static long[] bucketHashes(Map<String, Long> entries, int bucketCount) {
+        long[] buckets = new long[bucketCount];
+        entries.forEach((key, fingerprint) -> buckets[bucketOf(key, bucketCount)] ^= entryHash(key, fingerprint));
+        return buckets;
+    }
+
+    public static long root(long[] bucketHashes) {
+        long h = FNV_OFFSET;
+        for (long bucket : bucketHashes) {
+            for (int i = 0; i < Long.BYTES; i++) {
+                h ^= (bucket >>> (i * 8)) & 0xff;
+                h *= FNV_PRIME;
+            }
+        }
+        return h;
+    }
+
+    // 키 해시와 지문을 섞은 뒤 splitmix64 마무리로 비트를 고르게 분산
+    static long entryHash(String key, long fingerprint) {
+        long z = keyHash(key) ^ (fingerprint * 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long keyHash(String key) {
+        long h = FNV_OFFSET;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,178 @@
+package com.k8s.cnapp.agent.service;
+
+import com.k8s.cnapp.agent.dto.PodUsageReport;
+import com.k8s.cnapp.agent.dto.PodUsageRollup;
+import io.kubernetes.client.custom.ContainerMetrics;
+import io.kubernetes.client.custom.PodMetrics;
+import io.kubernetes.client.custom.PodMetricsList;
+import io.kubernetes.client.custom.Quantity;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.util.generic.GenericKubernetesApi;
+import io.kubernetes.client.util.generic.KubernetesApiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * metrics API(metrics.k8s.io)에서 Pod 사용량을 주기적으로 샘플링해 고정 구간(window-seconds)별 min/avg/max로 집계합니다.
+ * 구간이 끝나면 집계본만 인벤토리 스냅샷과 별도로 서버(/api/v1/ingestion/usage)에 보내므로,
+ * 샘플마다 Pod 객체를 다시 보내거나 서버의 pod_profiles 행을 갱신하지 않습니다.
+ * 샤드 분할 시 각 복제본은 담당 네임스페이스의 Pod만 집계합니다.
+ */
+@Component
+public class PodUsageSampler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PodUsageSampler.class);
+
+    private final RestTemplate restTemplate;
+    private final ShardCoordinator shardCoordinator;
+    private final WatchScope watchScope;
+    private final GenericKubernetesApi<PodMetrics, PodMetricsList> metricsApi;
+
+    @Value("${agent.usage.enabled:true}")
+    private boolean enabled;
+
+    @Value("${agent.usage.window-seconds:60}")
+    private int windowSeconds;
+
+    @Value("${cnapp.server.url:http://localhost:8080/api/v1/ingestion/raw}")
+    private String serverUrl;
+
+    // 비어 있으면 Ingestion URL의 마지막 경로를 usage로 바꿔 사용 (.../api/v1/ingestion/usage)
+    @Value("${cnapp.server.usage-url:}")
+    private String usageUrl;
+
+    @Value("${cnapp.agent.api-key:}")
+    private String apiKey;
+
+    // 현재 구간 시작 시각과 Pod(namespace/name)별 누적값. sample()에서만 접근
+    private long currentWindow = -1;
+    private final Map<String, Accumulator> accumulators = new HashMap<>();
+    private boolean metricsUnavailableLogged;
+
+    public PodUsageSampler(ApiClient apiClient, RestTemplate restTemplate, ShardCoordinator shardCoordinator, WatchScope watchScope) {
+        this.restTemplate = restTemplate;
+        this.shardCoordinator = shardCoordinator;
+        this.watchScope = watchScope;
+        this.metricsApi = new GenericKubernetesApi<>(PodMetrics.class, PodMetricsList.class, "metrics.k8s.io", "v1beta1", "pods", apiClient);
+    }
+
+    @Scheduled(fixedDelayString = "${agent.usage.sample-interval-ms:15000}", initialDelayString = "${agent.usage.sample-interval-ms:15000}")
+    public synchronized void sample() {
+        if (!enabled) return;
+        long windowMillis = windowSeconds * 1000L;
+        long now = System.currentTimeMillis();
+        long window = now - now % windowMillis;
+        if (window != currentWindow) {
+            flush();
+            currentWindow = window;
+        }
+
+        KubernetesApiResponse<PodMetricsList> response = metricsApi.list();
+        if (!response.isSuccess() || response.getObject() == null) {
+            // metrics-server가 없으면(404) 매 주기 경고하지 않고 한 번만 기록
+            if (!metricsUnavailableLogged) {
+                logger.warn("Pod metrics API unavailable (HTTP {}). Usage sampling is skipped until it responds.", response.getHttpStatusCode());
+                metricsUnavailableLogged = true;
+            }
+            return;
+        }
+        metricsUnavailableLogged = false;
+
+        ShardAssignment assignment = shardCoordinator.current();
+        for (PodMetrics metrics : response.getObject().getItems()) {
+            if (metrics.getMetadata() == null || metrics.getContainers() == null) continue;
+            String namespace = metrics.getMetadata().getNamespace();
+            if (!watchScope.includesNamespace(namespace) || !assignment.owns(namespace)) continue;
+
+            long cpu = 0;
+            long memory = 0;
+            for (ContainerMetrics container : metrics.getContainers()) {
+                if (container.getUsage() == null) continue;
+                cpu += millicores(container.getUsage().get("cpu"));
+                memory += bytes(container.getUsage().get("memory"));
+            }
+            String name = metrics.getMetadata().getName();
+            accumulators.computeIfAbsent(namespace + "/" + name, k -> new Accumulator(namespace, name)).add(cpu, memory);
+        }
+    }
+
+    /**
+     * 끝난 구간의 집계본을 전송합니다. 사용량은 재전송 없이 최선 노력(best-effort)으로 보내며, 실패한 구간은 버립니다.
+     */
+    private void flush() {
+        if (accumulators.isEmpty()) return;
+        List<PodUsageRollup> rollups = new ArrayList<>(accumulators.size());
+        accumulators.values().forEach(acc -> rollups.add(acc.toRollup()));
+        accumulators.clear();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (apiKey != null && !apiKey.isEmpty()) {
+            headers.set("X-API-KEY", apiKey);
+        }
+        try {
+            restTemplate.postForEntity(url(), new HttpEntity<>(new PodUsageReport(currentWindow, windowSeconds, rollups), headers), Void.class);
+            logger.debug("Sent usage rollups for {} pods (window {}).", rollups.size(), currentWindow);
+        } catch (RestClientException e) {
+            logger.warn("Failed to send usage rollups for {} pods: {}", rollups.size(), e.getMessage());
+        }
+    }
+
+    private String url() {
+        if (usageUrl != null && !usageUrl.isBlank()) return usageUrl;
+        return serverUrl.substring(0, serverUrl.lastIndexOf('/')) + "/usage";
+    }
+
+    private static long millicores(Quantity quantity) {
+        return quantity == null ? 0 : quantity.getNumber().movePointRight(3).longValue();
+    }
+
+    private static long bytes(Quantity quantity) {
+        return quantity == null ? 0 : quantity.getNumber().longValue();
+    }
+
+    private static class Accumulator {
+        private final String namespace;
+        private final String pod;
+        private int samples;
+        private long cpuMin = Long.MAX_VALUE;
+        private long cpuMax;
+        private long cpuSum;
+        private long memoryMin = Long.MAX_VALUE;
+        private long memoryMax;
+        private long memorySum;
+
+        Accumulator(String namespace, String pod) {
+            this.namespace = namespace;
+            this.pod = pod;
+        }
+
+        void add(long cpu, long memory) {
+            samples++;
+            cpuMin = Math.min(cpuMin, cpu);
+            cpuMax = Math.max(cpuMax, cpu);
+            cpuSum += cpu;
+            memoryMin = Math.min(memoryMin, memory);
+            memoryMax = Math.max(memoryMax, memory);
+            memorySum += memory;
+        }
+
+        PodUsageRollup toRollup() {
+            return new PodUsageRollup(namespace, pod, samples, cpuMin, cpuSum / samples, cpuMax,
+                    memoryMin, memorySum / samples, memoryMax);
+        }
+    }
+}
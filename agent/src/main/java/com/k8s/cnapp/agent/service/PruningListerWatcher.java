@@ -0,0 +1,132 @@
+package com.k8s.cnapp.agent.service;
+
+import com.google.gson.reflect.TypeToken;
+import io.kubernetes.client.common.KubernetesListObject;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.informer.ListerWatcher;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.util.CallGenerator;
+import io.kubernetes.client.util.CallGeneratorParams;
+import io.kubernetes.client.util.Watch;
+import io.kubernetes.client.util.Watchable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * LIST/WATCH 응답 객체에 변환(transform)을 적용한 뒤 Reflector에 넘기는 ListerWatcher.
+ * SharedInformerFactory의 기본 ListerWatcher와 같은 호출을 사용하며, 변환된 객체만 DeltaFIFO와 Indexer에 들어가므로
+ * 원본 객체는 응답 처리 직후 GC 대상이 됩니다.
+ * 재시작 전 resourceVersion(resumeVersion)이 있으면 첫 LIST를 그 이후 상태(NotOlderThan)로 요청하고,
+ * API 서버가 410 Gone(또는 Watch 캐시가 따라오지 못해 504)으로 응답하면 일반 LIST로 다시 조회합니다.
+ * apiClient와 callGenerator가 사용하는 클라이언트는 읽기 제한 시간이 없는 Informer 전용 클라이언트(informerApiClient)여야 합니다.
+ * (Watch 연결은 이벤트가 없으면 오래 유휴 상태이므로)
+ */
+class PruningListerWatcher<T extends KubernetesObject, L extends KubernetesListObject> implements ListerWatcher<T, L> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PruningListerWatcher.class);
+
+    private final ApiClient apiClient;
+    private final CallGenerator callGenerator;
+    private final Class<L> listTypeClass;
+    private final Type watchType;
+    private final UnaryOperator<T> transform;
+    private final Consumer<String> resourceVersionListener;
+    private volatile String resumeVersion;
+
+    PruningListerWatcher(ApiClient apiClient, CallGenerator callGenerator, Class<T> apiTypeClass, Class<L> listTypeClass,
+                         UnaryOperator<T> transform, String resumeVersion, Consumer<String> resourceVersionListener) {
+        this.apiClient = apiClient;
+        this.callGenerator = callGenerator;
+        this.listTypeClass = listTypeClass;
+        this.watchType = TypeToken.getParameterized(Watch.Response.class, apiTypeClass).getType();
+        this.transform = transform;
+        this.resumeVersion = resumeVersion;
+        this.resourceVersionListener = resourceVersionListener;
+    }
+
+    @Override
+    public L list(CallGeneratorParams params) throws ApiException {
+        String resume = resumeVersion;
+        resumeVersion = null;
+        // Reflector의 첫 LIST는 resourceVersion "0"(API 서버 캐시의 임의 시점)으로 요청됨
+        if (resume != null && (params.resourceVersion == null || "0".equals(params.resourceVersion))) {
+            try {
+                return doList(new CallGeneratorParams(params.watch, resume, params.timeoutSeconds));
+            } catch (ApiException e) {
+                if (e.getCode() != 410 && e.getCode() != 504) throw e;
+                logger.info("Cannot resume list from resourceVersion {} ({}). Re-listing.", resume, e.getCode());
+            }
+        }
+        return doList(params);
+    }
+
+    @SuppressWarnings("unchecked")
+    private L doList(CallGeneratorParams params) throws ApiException {
+        L list = apiClient.<L>execute(callGenerator.generate(params), listTypeClass).getData();
+        if (list.getItems() != null) {
+            ((List<T>) list.getItems()).replaceAll(transform);
+        }
+        if (list.getMetadata() != null) {
+            resourceVersionListener.accept(list.getMetadata().getResourceVersion());
+        }
+        return list;
+    }
+
+    @Override
+    public Watchable<T> watch(CallGeneratorParams params) throws ApiException {
+        return new TransformingWatch<>(Watch.createWatch(apiClient, callGenerator.generate(params), watchType), transform,
+                resourceVersionListener);
+    }
+
+    private static class TransformingWatch<T extends KubernetesObject> implements Watchable<T> {
+
+        private final Watchable<T> delegate;
+        private final UnaryOperator<T> transform;
+        private final Consumer<String> resourceVersionListener;
+
+        TransformingWatch(Watchable<T> delegate, UnaryOperator<T> transform, Consumer<String> resourceVersionListener) {
+            this.delegate = delegate;
+            this.transform = transform;
+            this.resourceVersionListener = resourceVersionListener;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public Watch.Response<T> next() {
+            Watch.Response<T> response = delegate.next();
+            // ERROR 응답은 object 대신 status만 있음
+            if (response != null && response.object != null) {
+                if (response.object.getMetadata() != null) {
+                    resourceVersionListener.accept(response.object.getMetadata().getResourceVersion());
+                }
+                response.object = transform.apply(response.object);
+            }
+            return response;
+        }
+
+        @Override
+        public Iterator<Watch.Response<T>> iterator() {
+            return new Iterator<>() {
+                @Override public boolean hasNext() { return TransformingWatch.this.hasNext(); }
+                @Override public Watch.Response<T> next() { return TransformingWatch.this.next(); }
+            };
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
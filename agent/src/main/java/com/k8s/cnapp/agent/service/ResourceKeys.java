@@ -0,0 +1,29 @@
+package com.k8s.cnapp.agent.service;
+
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+
+/**
+ * 서버의 삭제/조회 키와 동일한 리소스 식별 키.
+ * Pod: namespace/name/첫 번째 컨테이너, Node·Namespace: name, Event: uid, 그 외: namespace/name
+ */
+public final class ResourceKeys {
+
+    private ResourceKeys() {
+    }
+
+    public static String of(String type, KubernetesObject obj) {
+        V1ObjectMeta meta = obj.getMetadata();
+        return switch (type) {
+            case "Pod" -> {
+                V1Pod pod = (V1Pod) obj;
+                String containerName = (pod.getSpec() != null && !pod.getSpec().getContainers().isEmpty()) ? pod.getSpec().getContainers().get(0).getName() : "";
+                yield meta.getNamespace() + "/" + meta.getName() + "/" + containerName;
+            }
+            case "Node", "Namespace" -> meta.getName();
+            case "Event" -> meta.getUid();
+            default -> meta.getNamespace() + "/" + meta.getName();
+        };
+    }
+}
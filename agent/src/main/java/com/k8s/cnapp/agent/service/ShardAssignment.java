@@ -0,0 +1,81 @@
+package com.k8s.cnapp.agent.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * 특정 시점의 샤드 배정 (불변).
+ * 네임스페이스는 멤버별 가상 노드로 구성한 일관된 해시 링에서 시계 방향으로 처음 만나는 멤버가 담당하므로,
+ * 멤버가 추가/제거되어도 해당 멤버 주변 구간의 네임스페이스만 이동합니다.
+ * namespace가 null인 cluster-scoped 리소스는 리더가 담당합니다.
+ */
+public final class ShardAssignment {
+
+    private static final ShardAssignment UNSHARDED = new ShardAssignment(null, List.of(), true, 0);
+
+    private final String self;
+    private final List<String> members;
+    private final boolean leader;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    public ShardAssignment(String self, List<String> members, boolean leader, int virtualNodes) {
+        this.self = self;
+        this.members = List.copyOf(members);
+        this.leader = leader;
+        for (String member : this.members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    /**
+     * 분할하지 않는 단일 Agent. 모든 리소스를 담당합니다.
+     */
+    public static ShardAssignment unsharded() {
+        return UNSHARDED;
+    }
+
+    public boolean owns(String namespace) {
+        if (this == UNSHARDED) return true;
+        if (namespace == null) return leader;
+        if (ring.isEmpty()) return false;
+        Map.Entry<Long, String> owner = ring.ceilingEntry(hash(namespace));
+        return self.equals((owner != null ? owner : ring.firstEntry()).getValue());
+    }
+
+    public boolean isLeader() {
+        return leader;
+    }
+
+    public List<String> getMembers() {
+        return members;
+    }
+
+    /**
+     * 멤버 구성과 리더 여부가 같으면 담당 범위도 같습니다.
+     */
+    public boolean sameAs(ShardAssignment other) {
+        return other != null && leader == other.leader && members.equals(other.members);
+    }
+
+    // FNV-1a 후 splitmix64 마무리 (짧고 비슷한 문자열도 링 위에 고르게 분산)
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    @Override
+    public String toString() {
+        return "ShardAssignment{self=" + self + ", members=" + members + ", leader=" + leader + "}";
+    }
+}
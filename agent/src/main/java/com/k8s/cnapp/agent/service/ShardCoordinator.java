@@ -0,0 +1,266 @@
+package com.k8s.cnapp.agent.service;
+
+import com.k8s.cnapp.agent.config.ShardingProperties;
+import com.k8s.cnapp.agent.dto.ShardAssignmentChangedEvent;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.apis.CoordinationV1Api;
+import io.kubernetes.client.openapi.models.V1Lease;
+import io.kubernetes.client.openapi.models.V1LeaseList;
+import io.kubernetes.client.openapi.models.V1LeaseSpec;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kubernetes Lease(coordination.k8s.io)로 Agent 복제본 간 샤드 배정을 조정합니다.
+ * 1. 멤버 Lease: 복제본마다 "{lease-name}-member-{identity}"를 갱신. 갱신이 끊긴(만료) 멤버는 배정에서 제외
+ * 2. 리더 Lease: "{lease-name}-leader"를 먼저 잡은 복제본이 cluster-scoped 리소스를 담당하고 만료된 멤버 Lease를 정리
+ * 멤버 구성이나 리더가 바뀌면 ShardAssignmentChangedEvent를 발행해 담당이 바뀐 리소스를 다시 보내게 합니다.
+ * 갱신은 전용 스레드에서 실행합니다. (공용 @Scheduled 스레드의 HTTP 호출이 지연되어도 Lease가 만료되지 않도록)
+ */
+@Component
+public class ShardCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardCoordinator.class);
+    private static final String MEMBER_LABEL = "cnapp.k8s.com/agent-shard-group";
+
+    private final ShardingProperties properties;
+    private final CoordinationV1Api coordinationApi;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String identity;
+
+    private volatile ShardAssignment current = ShardAssignment.unsharded();
+    // 리더 Lease를 마지막으로 갱신한 시각. 만료 시간 안에 갱신하지 못하면 스스로 리더를 내려놓음
+    private volatile long leaderRenewedAt;
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "shard-coordinator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ShardCoordinator(ShardingProperties properties, ApiClient apiClient, ApplicationEventPublisher eventPublisher) {
+        this.properties = properties;
+        this.coordinationApi = new CoordinationV1Api(apiClient);
+        this.eventPublisher = eventPublisher;
+        this.identity = resolveIdentity(properties.getIdentity());
+    }
+
+    /**
+     * 최초 스냅샷 전에 담당 범위를 정해 두기 위해 시작 시 한 번 동기적으로 조정합니다.
+     */
+    @PostConstruct
+    public void init() {
+        if (!properties.isEnabled()) return;
+        logger.info("Sharding enabled (identity: {}, lease: {}/{})", identity, properties.getLeaseNamespace(), properties.getLeaseName());
+        current = new ShardAssignment(identity, List.of(identity), false, properties.getVirtualNodes());
+        current = coordinate();
+        logger.info("Initial shard assignment: {}", current);
+        renewer.scheduleWithFixedDelay(this::heartbeat, properties.getRenewIntervalMs(), properties.getRenewIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    public ShardAssignment current() {
+        return current;
+    }
+
+    void heartbeat() {
+        if (!properties.isEnabled()) return;
+        // 예외가 빠져나가면 ScheduledExecutorService가 이후 실행을 멈추므로 여기서 로그만 남김
+        try {
+            ShardAssignment next = coordinate();
+            if (next.sameAs(current)) return;
+
+            ShardAssignment previous = current;
+            current = next;
+            logger.info("Shard assignment changed: {} members {}, leader: {}", next.getMembers().size(), next.getMembers(), next.isLeader());
+            eventPublisher.publishEvent(new ShardAssignmentChangedEvent(previous, next));
+        } catch (RuntimeException e) {
+            logger.error("Shard heartbeat failed. Retrying on next interval.", e);
+        }
+    }
+
+    private ShardAssignment coordinate() {
+        OffsetDateTime now = OffsetDateTime.now();
+
+        try {
+            renewMember(now);
+        } catch (ApiException e) {
+            logger.warn("Failed to renew shard member lease: {} - {}", e.getCode(), e.getResponseBody());
+        }
+        boolean leader = tryAcquireOrRenewLeader(now);
+
+        List<String> members;
+        try {
+            members = liveMembers(now, leader);
+        } catch (ApiException e) {
+            logger.warn("Failed to list shard members: {} - {}. Keeping current assignment.", e.getCode(), e.getResponseBody());
+            members = current.getMembers();
+        }
+
+        return new ShardAssignment(identity, members, leader, properties.getVirtualNodes());
+    }
+
+    /**
+     * 종료 시 멤버 Lease를 지우고 리더 Lease를 놓아 다른 복제본이 만료를 기다리지 않고 바로 재배정하게 합니다.
+     */
+    @PreDestroy
+    public void leave() {
+        // 진행 중인 갱신이 끝난 뒤 Lease를 지워야 지운 멤버 Lease가 다시 생기지 않음
+        renewer.shutdown();
+        try {
+            renewer.awaitTermination(properties.getLeaseDurationSeconds(), TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!properties.isEnabled()) return;
+        try {
+            coordinationApi.deleteNamespacedLease(memberLeaseName(identity), properties.getLeaseNamespace(),
+                    null, null, null, null, null, null);
+            if (current.isLeader()) {
+                V1Lease lease = coordinationApi.readNamespacedLease(leaderLeaseName(), properties.getLeaseNamespace(), null);
+                if (lease.getSpec() != null && identity.equals(lease.getSpec().getHolderIdentity())) {
+                    lease.getSpec().setHolderIdentity(null);
+                    coordinationApi.replaceNamespacedLease(leaderLeaseName(), properties.getLeaseNamespace(), lease,
+                            null, null, null, null);
+                }
+            }
+            logger.info("Left shard group as {}", identity);
+        } catch (ApiException e) {
+            logger.warn("Failed to release shard leases: {} - {}", e.getCode(), e.getResponseBody());
+        }
+    }
+
+    private void renewMember(OffsetDateTime now) throws ApiException {
+        String name = memberLeaseName(identity);
+        try {
+            V1Lease lease = coordinationApi.readNamespacedLease(name, properties.getLeaseNamespace(), null);
+            lease.getSpec().setRenewTime(now);
+            lease.getSpec().setLeaseDurationSeconds(properties.getLeaseDurationSeconds());
+            coordinationApi.replaceNamespacedLease(name, properties.getLeaseNamespace(), lease, null, null, null, null);
+        } catch (ApiException e) {
+            if (e.getCode() != 404) throw e;
+            V1Lease lease = new V1Lease()
+                    .metadata(new V1ObjectMeta().name(name).labels(Map.of(MEMBER_LABEL, properties.getLeaseName())))
+                    .spec(new V1LeaseSpec().holderIdentity(identity).acquireTime(now).renewTime(now)
+                            .leaseDurationSeconds(properties.getLeaseDurationSeconds()));
+            coordinationApi.createNamespacedLease(properties.getLeaseNamespace(), lease, null, null, null, null);
+        }
+    }
+
+    /**
+     * 리더 Lease를 갱신하거나, 비어 있거나 만료된 경우 획득합니다.
+     * 동시에 여러 복제본이 시도하면 resourceVersion 충돌(409)로 한 복제본만 성공합니다.
+     */
+    private boolean tryAcquireOrRenewLeader(OffsetDateTime now) {
+        String name = leaderLeaseName();
+        try {
+            V1Lease lease;
+            try {
+                lease = coordinationApi.readNamespacedLease(name, properties.getLeaseNamespace(), null);
+            } catch (ApiException e) {
+                if (e.getCode() != 404) throw e;
+                lease = new V1Lease()
+                        .metadata(new V1ObjectMeta().name(name))
+                        .spec(new V1LeaseSpec().holderIdentity(identity).acquireTime(now).renewTime(now)
+                                .leaseDurationSeconds(properties.getLeaseDurationSeconds()).leaseTransitions(0));
+                coordinationApi.createNamespacedLease(properties.getLeaseNamespace(), lease, null, null, null, null);
+                return leaderRenewed();
+            }
+
+            V1LeaseSpec spec = lease.getSpec() != null ? lease.getSpec() : new V1LeaseSpec();
+            String holder = spec.getHolderIdentity();
+            if (!identity.equals(holder)) {
+                if (holder != null && !isExpired(spec, now)) return false;
+                spec.holderIdentity(identity).acquireTime(now)
+                        .leaseTransitions(Objects.requireNonNullElse(spec.getLeaseTransitions(), 0) + 1);
+                logger.info("Acquiring shard leader lease (previous holder: {})", holder);
+            }
+            spec.renewTime(now).leaseDurationSeconds(properties.getLeaseDurationSeconds());
+            lease.setSpec(spec);
+            coordinationApi.replaceNamespacedLease(name, properties.getLeaseNamespace(), lease, null, null, null, null);
+            return leaderRenewed();
+        } catch (ApiException e) {
+            if (e.getCode() != 409) {
+                logger.warn("Failed to acquire or renew shard leader lease: {} - {}", e.getCode(), e.getResponseBody());
+            }
+            // 갱신 실패가 만료 시간을 넘기기 전까지는 리더 유지 (다른 복제본도 그 전에는 획득할 수 없음)
+            long leaseNanos = properties.getLeaseDurationSeconds() * 1_000_000_000L;
+            return current.isLeader() && e.getCode() != 409 && System.nanoTime() - leaderRenewedAt < leaseNanos;
+        }
+    }
+
+    private boolean leaderRenewed() {
+        leaderRenewedAt = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * 만료되지 않은 멤버 Lease의 식별자 목록 (정렬, 자신 포함). 리더는 만료된 멤버 Lease를 정리합니다.
+     */
+    private List<String> liveMembers(OffsetDateTime now, boolean leader) throws ApiException {
+        V1LeaseList leases = coordinationApi.listNamespacedLease(properties.getLeaseNamespace(), null, null, null, null,
+                MEMBER_LABEL + "=" + properties.getLeaseName(), null, null, null, null, null);
+
+        List<String> members = new ArrayList<>();
+        members.add(identity);
+        for (V1Lease lease : leases.getItems()) {
+            V1LeaseSpec spec = lease.getSpec();
+            if (spec == null || spec.getHolderIdentity() == null || identity.equals(spec.getHolderIdentity())) continue;
+            if (!isExpired(spec, now)) {
+                members.add(spec.getHolderIdentity());
+            } else if (leader) {
+                deleteExpiredMember(lease);
+            }
+        }
+        members.sort(null);
+        return members;
+    }
+
+    private void deleteExpiredMember(V1Lease lease) {
+        try {
+            coordinationApi.deleteNamespacedLease(lease.getMetadata().getName(), properties.getLeaseNamespace(),
+                    null, null, null, null, null, null);
+            logger.info("Removed expired shard member lease {}", lease.getMetadata().getName());
+        } catch (ApiException e) {
+            logger.debug("Failed to remove expired shard member lease {}: {}", lease.getMetadata().getName(), e.getCode());
+        }
+    }
+
+    private boolean isExpired(V1LeaseSpec spec, OffsetDateTime now) {
+        if (spec.getRenewTime() == null) return true;
+        int duration = spec.getLeaseDurationSeconds() != null ? spec.getLeaseDurationSeconds() : properties.getLeaseDurationSeconds();
+        return spec.getRenewTime().plusSeconds(duration).isBefore(now);
+    }
+
+    private String memberLeaseName(String member) {
+        return properties.getLeaseName() + "-member-" + member;
+    }
+
+    private String leaderLeaseName() {
+        return properties.getLeaseName() + "-leader";
+    }
+
+    private static String resolveIdentity(String configured) {
+        if (configured != null && !configured.isBlank()) return configured;
+        try {
+            return InetAddress.getLocalHost().getHostName().toLowerCase();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot determine shard identity. Set agent.sharding.identity.", e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.k8s.cnapp.agent.service;
+
+import com.google.gson.Gson;
+import com.k8s.cnapp.agent.config.ShardingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 최초 인벤토리(전체 스냅샷)를 직렬화 크기 기준의 조각으로 나눕니다.
+ * 각 조각은 max-bytes를 넘지 않도록 리소스 단위로 묶이며, 리소스 하나가 제한보다 크면 단독 조각이 됩니다.
+ * (API 서버 객체 크기 제한은 약 1.5MB이므로 기본값 2MB에서는 발생하지 않음)
+ */
+@Component
+public class SnapshotChunker {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotChunker.class);
+    // 조각 JSON의 외곽 구조({"pods":[...],"chunk":{...}})와 리소스 사이 구분자 몫
+    private static final int ENVELOPE_BYTES = 256;
+
+    private final Gson gson;
+    private final ShardingProperties shardingProperties;
+
+    @Value("${agent.inventory.chunk-max-bytes:2097152}")
+    private int maxBytes;
+
+    private volatile String currentSnapshotId;
+
+    public SnapshotChunker(Gson gson, ShardingProperties shardingProperties) {
+        this.gson = gson;
+        this.shardingProperties = shardingProperties;
+    }
+
+    /**
+     * 새 스냅샷 식별자로 업로드를 시작하고, 이후 큐에 넣는 변경분이 이 스냅샷에 속하도록 최근 스냅샷으로 기록합니다.
+     * 샤드 분할 시에는 복제본마다 일부 네임스페이스만 수집하므로 전체 스냅샷으로 표시하지 않습니다.
+     * (표시하면 서버가 다른 복제본이 담당하는 리소스까지 이전 세대로 보고 정리함)
+     */
+    public SnapshotUpload start() {
+        SnapshotUpload upload = new SnapshotUpload(UUID.randomUUID().toString(), !shardingProperties.isEnabled(), this);
+        currentSnapshotId = upload.snapshotId();
+        return upload;
+    }
+
+    /**
+     * @return 가장 최근에 시작한 전체 스냅샷 ID. 아직 시작하지 않았으면 null
+     */
+    public String currentSnapshotId() {
+        return currentSnapshotId;
+    }
+
+    /**
+     * 리소스 목록을 직렬화 크기 합이 max-bytes 이하인 묶음으로 나눕니다. 순서는 유지됩니다.
+     */
+    List<List<Object>> split(String type, List<Object> items) {
+        List<List<Object>> batches = new ArrayList<>();
+        List<Object> current = new ArrayList<>();
+        long currentBytes = ENVELOPE_BYTES;
+        for (Object item : items) {
+            long size = serializedSize(item) + 1;
+            if (!current.isEmpty() && currentBytes + size > maxBytes) {
+                batches.add(current);
+                current = new ArrayList<>();
+                currentBytes = ENVELOPE_BYTES;
+            }
+            if (currentBytes + size > maxBytes) {
+                logger.warn("A single {} resource ({} bytes) exceeds the chunk limit of {} bytes. Sending it alone.", type, size, maxBytes);
+            }
+            current.add(item);
+            currentBytes += size;
+        }
+        if (!current.isEmpty()) batches.add(current);
+        return batches;
+    }
+
+    // 문자열을 만들지 않고 전송과 같은 Gson 직렬화의 길이만 셈 (대부분 ASCII이므로 문자 수를 바이트 수로 사용)
+    private long serializedSize(Object item) {
+        CountingWriter writer = new CountingWriter();
+        gson.toJson(item, item.getClass(), writer);
+        return writer.count;
+    }
+
+    private static class CountingWriter extends Writer {
+        private long count;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(int c) {
+            count++;
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
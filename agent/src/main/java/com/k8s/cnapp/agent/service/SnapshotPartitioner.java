@@ -0,0 +1,97 @@
+package com.k8s.cnapp.agent.service;
+
+import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.dto.EdgeViolation;
+import com.k8s.cnapp.agent.dto.ResourcePatch;
+import io.kubernetes.client.common.KubernetesObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * 스냅샷을 리소스 단위 그룹 키로 나눕니다. 같은 리소스의 업데이트/patch/삭제/지문/정책 위반은 항상 같은 부분 스냅샷에 들어갑니다.
+ * 정책 버전과 전체 스냅샷 ID는 모든 부분 스냅샷에 그대로 복사됩니다.
+ * (전송 레인 분배, Kafka 메시지 키 등)
+ */
+public final class SnapshotPartitioner {
+
+    private SnapshotPartitioner() {
+    }
+
+    /**
+     * @param groupOf (리소스 타입, 리소스 키) -> 그룹 키
+     * @return 그룹 키 -> 부분 스냅샷 (비어 있는 그룹은 포함하지 않음)
+     */
+    public static <K> Map<K, ClusterSnapshot> partition(ClusterSnapshot snapshot, BiFunction<String, String, K> groupOf) {
+        Map<K, Map<String, List<Object>>> updates = new LinkedHashMap<>();
+        Map<K, Map<String, List<String>>> deletes = new HashMap<>();
+        Map<K, List<ResourcePatch>> patches = new HashMap<>();
+        Map<K, Map<String, Map<String, Long>>> fingerprints = new HashMap<>();
+        Map<K, List<EdgeViolation>> violations = new HashMap<>();
+        Map<K, Map<String, List<String>>> unchanged = new HashMap<>();
+
+        snapshot.resourcesByType().forEach((type, items) -> {
+            for (KubernetesObject item : items) {
+                updates.computeIfAbsent(groupOf.apply(type, ResourceKeys.of(type, item)), g -> new HashMap<>())
+                        .computeIfAbsent(type, t -> new ArrayList<>()).add(item);
+            }
+        });
+        if (snapshot.deletedResources() != null) {
+            snapshot.deletedResources().forEach((type, keys) -> {
+                for (String key : keys) {
+                    deletes.computeIfAbsent(groupOf.apply(type, key), g -> new HashMap<>())
+                            .computeIfAbsent(type, t -> new ArrayList<>()).add(key);
+                }
+            });
+        }
+        if (snapshot.patches() != null) {
+            for (ResourcePatch patch : snapshot.patches()) {
+                patches.computeIfAbsent(groupOf.apply(patch.type(), patch.key()), g -> new ArrayList<>()).add(patch);
+            }
+        }
+        if (snapshot.fingerprints() != null) {
+            snapshot.fingerprints().forEach((type, byKey) -> byKey.forEach((key, fingerprint) ->
+                    fingerprints.computeIfAbsent(groupOf.apply(type, key), g -> new HashMap<>())
+                            .computeIfAbsent(type, t -> new HashMap<>()).put(key, fingerprint)));
+        }
+        if (snapshot.violations() != null) {
+            for (EdgeViolation violation : snapshot.violations()) {
+                violations.computeIfAbsent(groupOf.apply(violation.resourceType(), violation.resourceKey()), g -> new ArrayList<>())
+                        .add(violation);
+            }
+        }
+
+        if (snapshot.unchangedResources() != null) {
+            snapshot.unchangedResources().forEach((type, keys) -> {
+                for (String key : keys) {
+                    unchanged.computeIfAbsent(groupOf.apply(type, key), g -> new HashMap<>())
+                            .computeIfAbsent(type, t -> new ArrayList<>()).add(key);
+                }
+            });
+        }
+
+        Map<K, ClusterSnapshot> parts = new LinkedHashMap<>();
+        Set<K> groups = new LinkedHashSet<>(updates.keySet());
+        groups.addAll(deletes.keySet());
+        groups.addAll(patches.keySet());
+        groups.addAll(unchanged.keySet());
+        for (K group : groups) {
+            parts.put(group, ClusterSnapshot.of(
+                    updates.getOrDefault(group, Map.of()),
+                    deletes.getOrDefault(group, Map.of()),
+                    patches.getOrDefault(group, List.of()),
+                    fingerprints.getOrDefault(group, Map.of()),
+                    snapshot.policyVersion(),
+                    violations.getOrDefault(group, List.of()))
+                    .withUnchangedResources(unchanged.getOrDefault(group, Map.of()))
+                    .withInventoryId(snapshot.inventoryId()));
+        }
+        return parts;
+    }
+}
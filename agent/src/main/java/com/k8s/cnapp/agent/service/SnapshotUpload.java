@@ -0,0 +1,109 @@
+package com.k8s.cnapp.agent.service;
+
+import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.dto.SnapshotChunk;
+import io.kubernetes.client.common.KubernetesObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 하나의 전체 스냅샷 업로드. 여러 수집 스레드가 페이지마다 조각을 만들고, 조각 순번은 스냅샷 안에서 겹치지 않게 발급됩니다.
+ * 수집 중 한 타입이라도 실패하면 마지막 조각을 만들지 않으므로, 서버는 불완전한 스냅샷을 완료로 보지 않습니다.
+ * (완료되지 않은 스냅샷으로는 서버가 이전 세대의 행을 정리하지 않음)
+ */
+class SnapshotUpload {
+
+    private final String snapshotId;
+    private final boolean full;
+    private final SnapshotChunker chunker;
+    private final AtomicInteger nextSeq = new AtomicInteger();
+    private final AtomicBoolean incomplete = new AtomicBoolean(false);
+
+    SnapshotUpload(String snapshotId, boolean full, SnapshotChunker chunker) {
+        this.snapshotId = snapshotId;
+        this.full = full;
+        this.chunker = chunker;
+    }
+
+    String snapshotId() {
+        return snapshotId;
+    }
+
+    boolean isFull() {
+        return full;
+    }
+
+    /**
+     * 한 타입의 리소스 목록(조회 페이지)을 크기 제한에 맞는 조각 스냅샷으로 만듭니다.
+     */
+    List<ClusterSnapshot> chunks(String type, List<Object> items) {
+        return chunks(type, items, Collections.emptyMap());
+    }
+
+    /**
+     * @param fingerprints 리소스 키 -> 지문. 각 조각에는 조각에 담긴 리소스의 지문만 들어갑니다.
+     */
+    List<ClusterSnapshot> chunks(String type, List<Object> items, Map<String, Long> fingerprints) {
+        List<ClusterSnapshot> chunks = new ArrayList<>();
+        for (List<Object> batch : chunker.split(type, items)) {
+            Map<String, Long> batchFingerprints = new HashMap<>();
+            if (!fingerprints.isEmpty()) {
+                for (Object item : batch) {
+                    String key = ResourceKeys.of(type, (KubernetesObject) item);
+                    Long fingerprint = fingerprints.get(key);
+                    if (fingerprint != null) batchFingerprints.put(key, fingerprint);
+                }
+            }
+            chunks.add(ClusterSnapshot.of(Map.of(type, batch), Collections.emptyMap(), Collections.emptyList(),
+                            batchFingerprints.isEmpty() ? Collections.emptyMap() : Map.of(type, batchFingerprints))
+                    .withChunk(nextChunk(false)));
+        }
+        return chunks;
+    }
+
+    /**
+     * 마지막 전송본과 같아 본문을 생략한 리소스의 키를 크기 제한에 맞는 조각 스냅샷으로 만듭니다.
+     * 서버는 키에 해당하는 행을 이 스냅샷에서 확인된 것으로 표시하므로 완료 후 정리 대상에서 빠집니다.
+     */
+    List<ClusterSnapshot> unchangedChunks(String type, List<String> keys) {
+        List<ClusterSnapshot> chunks = new ArrayList<>();
+        for (List<Object> batch : chunker.split(type, new ArrayList<>(keys))) {
+            List<String> batchKeys = new ArrayList<>(batch.size());
+            batch.forEach(key -> batchKeys.add((String) key));
+            chunks.add(ClusterSnapshot.of(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyList())
+                    .withUnchangedResources(Map.of(type, batchKeys))
+                    .withChunk(nextChunk(false)));
+        }
+        return chunks;
+    }
+
+    void markIncomplete() {
+        incomplete.set(true);
+    }
+
+    boolean isComplete() {
+        return !incomplete.get();
+    }
+
+    /**
+     * @return 리소스 없이 전체 조각 수를 알리는 마지막 조각
+     */
+    ClusterSnapshot finish() {
+        return ClusterSnapshot.of(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyList())
+                .withChunk(nextChunk(true));
+    }
+
+    int chunkCount() {
+        return nextSeq.get();
+    }
+
+    private SnapshotChunk nextChunk(boolean last) {
+        return new SnapshotChunk(snapshotId, full, nextSeq.getAndIncrement(), last);
+    }
+}
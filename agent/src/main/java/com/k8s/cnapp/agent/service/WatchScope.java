@@ -0,0 +1,90 @@
+package com.k8s.cnapp.agent.service;
+
+import com.k8s.cnapp.agent.config.WatchScopeProperties;
+import io.kubernetes.client.common.KubernetesObject;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 타입별 LIST/WATCH 요청에 넣을 field/label selector를 만듭니다.
+ * 네임스페이스 제외는 "metadata.namespace!=..." 조건으로 API 서버에서 거르고 (Namespace 타입은 metadata.name),
+ * field selector는 집합(in) 조건을 지원하지 않으므로 include-namespaces가 둘 이상이면 accepts()로 Agent에서 거릅니다.
+ */
+@Component
+public class WatchScope {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchScope.class);
+    // 네임스페이스 조건을 적용하지 않는 cluster-scoped 타입
+    private static final Set<String> CLUSTER_SCOPED = Set.of("Node");
+
+    private final WatchScopeProperties properties;
+
+    public WatchScope(WatchScopeProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (properties.getIncludeNamespaces().isEmpty() && properties.getExcludeNamespaces().isEmpty() && properties.getTypes().isEmpty()) return;
+        logger.info("Watch scope - include namespaces: {}, exclude namespaces: {}, type selectors: {}",
+                properties.getIncludeNamespaces(), properties.getExcludeNamespaces(), properties.getTypes().keySet());
+        if (properties.getIncludeNamespaces().size() > 1) {
+            logger.info("Multiple include namespaces cannot be expressed as a field selector; they are filtered in the agent.");
+        }
+    }
+
+    /**
+     * @return 타입 설정의 field selector와 네임스페이스 조건을 합친 값. 조건이 없으면 null
+     */
+    public String fieldSelector(String type) {
+        List<String> terms = new ArrayList<>();
+        WatchScopeProperties.Selector selector = properties.getTypes().get(type);
+        if (selector != null && hasText(selector.getFieldSelector())) {
+            terms.add(selector.getFieldSelector().trim());
+        }
+
+        if (!CLUSTER_SCOPED.contains(type)) {
+            String field = "Namespace".equals(type) ? "metadata.name" : "metadata.namespace";
+            if (properties.getIncludeNamespaces().size() == 1) {
+                terms.add(field + "=" + properties.getIncludeNamespaces().get(0));
+            }
+            for (String namespace : properties.getExcludeNamespaces()) {
+                terms.add(field + "!=" + namespace);
+            }
+        }
+        return terms.isEmpty() ? null : String.join(",", terms);
+    }
+
+    public String labelSelector(String type) {
+        WatchScopeProperties.Selector selector = properties.getTypes().get(type);
+        return selector != null && hasText(selector.getLabelSelector()) ? selector.getLabelSelector().trim() : null;
+    }
+
+    /**
+     * selector로 표현하지 못한 조건(include-namespaces가 둘 이상)을 확인합니다.
+     */
+    public boolean accepts(String type, KubernetesObject obj) {
+        List<String> includes = properties.getIncludeNamespaces();
+        if (includes.size() <= 1 || CLUSTER_SCOPED.contains(type) || obj.getMetadata() == null) return true;
+        String namespace = "Namespace".equals(type) ? obj.getMetadata().getName() : obj.getMetadata().getNamespace();
+        return includes.contains(namespace);
+    }
+
+    /**
+     * selector를 거치지 않는 조회(metrics API 등)에서 네임스페이스 include/exclude 조건을 확인합니다.
+     */
+    public boolean includesNamespace(String namespace) {
+        if (properties.getExcludeNamespaces().contains(namespace)) return false;
+        return properties.getIncludeNamespaces().isEmpty() || properties.getIncludeNamespaces().contains(namespace);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,113 @@
+package com.k8s.cnapp.agent.service;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.k8s.cnapp.agent.config.ProjectionProperties;
+import io.kubernetes.client.common.KubernetesObject;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 리소스 객체를 타입별로 선언된 필드 집합만 남긴 새 객체로 축소합니다.
+ * 결과는 같은 모델 클래스이므로 이후 키 계산, Delta 인코딩, 서버 역직렬화가 그대로 동작하며,
+ * 선언되지 않은 필드는 null이 되어 직렬화 시 생략됩니다. Informer 캐시 객체는 변경하지 않습니다.
+ */
+@Component
+public class WireProjection {
+
+    private final Gson gson;
+    private final ProjectionProperties properties;
+    private final Map<String, FieldNode> compiled = new ConcurrentHashMap<>();
+    private final Map<String, FieldNode> compiledRetaining = new ConcurrentHashMap<>();
+
+    public WireProjection(Gson gson, ProjectionProperties properties) {
+        this.gson = gson;
+        this.properties = properties;
+    }
+
+    /**
+     * @return 축소된 사본. 비활성화되었거나 해당 타입 설정이 없으면 원본 그대로
+     */
+    public KubernetesObject project(String type, KubernetesObject obj) {
+        if (!properties.isEnabled()) return obj;
+        List<String> fields = properties.fieldsFor(type);
+        if (fields == null || fields.isEmpty()) return obj;
+
+        FieldNode root = compiled.computeIfAbsent(type, t -> compile(fields));
+        JsonElement projected = prune(gson.toJsonTree(obj), root);
+        return gson.fromJson(projected, obj.getClass());
+    }
+
+    /**
+     * 선언된 필드에 retained 경로를 더해 축소합니다. (Informer 캐시처럼 Agent가 직접 읽는 필드도 남겨야 하는 경우)
+     * retained는 타입별로 항상 같은 목록이어야 합니다.
+     * @return 축소된 사본. 비활성화되었거나 해당 타입 설정이 없으면 원본 그대로
+     */
+    public KubernetesObject projectRetaining(String type, KubernetesObject obj, List<String> retained) {
+        if (!isProjected(type)) return obj;
+
+        FieldNode root = compiledRetaining.computeIfAbsent(type, t -> {
+            FieldNode node = compile(properties.fieldsFor(t));
+            retained.forEach(node::add);
+            return node;
+        });
+        JsonElement projected = prune(gson.toJsonTree(obj), root);
+        return gson.fromJson(projected, obj.getClass());
+    }
+
+    public boolean isProjected(String type) {
+        if (!properties.isEnabled()) return false;
+        List<String> fields = properties.fieldsFor(type);
+        return fields != null && !fields.isEmpty();
+    }
+
+    private FieldNode compile(List<String> fields) {
+        FieldNode root = new FieldNode();
+        properties.getKeepAlways().forEach(root::add);
+        fields.forEach(root::add);
+        return root;
+    }
+
+    // 배열은 각 원소에 같은 경로를 적용, 경로 끝(leaf)에 도달한 값은 하위 전체 유지
+    private JsonElement prune(JsonElement element, FieldNode node) {
+        if (node.leaf || element == null || element.isJsonNull()) return element;
+        if (element.isJsonArray()) {
+            JsonArray result = new JsonArray();
+            for (JsonElement item : element.getAsJsonArray()) {
+                JsonElement pruned = prune(item, node);
+                if (pruned != null) result.add(pruned);
+            }
+            return result;
+        }
+        if (!element.isJsonObject()) return null;
+
+        JsonObject source = element.getAsJsonObject();
+        JsonObject result = new JsonObject();
+        for (Map.Entry<String, FieldNode> child : node.children.entrySet()) {
+            JsonElement pruned = prune(source.get(child.getKey()), child.getValue());
+            if (pruned != null) result.add(child.getKey(), pruned);
+        }
+        return result;
+    }
+
+    private static class FieldNode {
+        private final Map<String, FieldNode> children = new HashMap<>();
+        private boolean leaf;
+
+        void add(String path) {
+            FieldNode node = this;
+            for (String part : path.trim().split("\\.")) {
+                if (node.leaf) return; // 상위 경로가 이미 전체 유지
+                node = node.children.computeIfAbsent(part, p -> new FieldNode());
+            }
+            node.leaf = true;
+            node.children.clear();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.k8s.cnapp.agent.queue;
+
+import com.k8s.cnapp.agent.config.AntiEntropyProperties;
+import com.k8s.cnapp.agent.config.CoalescingProperties;
+import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.service.AdaptiveRateController;
+import com.k8s.cnapp.agent.service.ChangeFingerprinter;
+import com.k8s.cnapp.agent.service.DegradationController;
+import com.k8s.cnapp.agent.service.DeltaEncoder;
+import com.k8s.cnapp.agent.service.EdgePolicyEvaluator;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CoalescingSnapshotBufferTest {
+
+    private final SnapshotQueue queue = mock(SnapshotQueue.class);
+    private final ChangeFingerprinter changeFingerprinter = mock(ChangeFingerprinter.class);
+    private final DeltaEncoder deltaEncoder = mock(DeltaEncoder.class);
+    private CoalescingSnapshotBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        AdaptiveRateController rateController = mock(AdaptiveRateController.class);
+        when(rateController.scaleBatchSize(anyInt())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(rateController.scaleFlushInterval(anyLong())).thenAnswer(invocation -> invocation.getArgument(0));
+        DegradationController degradationController = mock(DegradationController.class);
+        when(degradationController.scaleFlushInterval(anyLong())).thenAnswer(invocation -> invocation.getArgument(0));
+        AntiEntropyProperties antiEntropyProperties = new AntiEntropyProperties();
+        antiEntropyProperties.setEnabled(false);
+
+        buffer = new CoalescingSnapshotBuffer(queue, new CoalescingProperties(), deltaEncoder, rateController,
+                changeFingerprinter, antiEntropyProperties, mock(EdgePolicyEvaluator.class), degradationController);
+    }
+
+    @Test
+    void failedPutKeepsChangesForNextFlush() throws Exception {
+        doThrow(new IllegalStateException("spool write failed")).doNothing().when(queue).put(any());
+        buffer.update("Pod", "default/web/app", pod("web", "1"));
+        buffer.delete("Pod", "default/old/app");
+
+        flush();
+        flush();
+
+        ArgumentCaptor<ClusterSnapshot> sent = ArgumentCaptor.forClass(ClusterSnapshot.class);
+        verify(queue, times(2)).put(sent.capture());
+        ClusterSnapshot retried = sent.getAllValues().get(1);
+        assertThat(retried.pods()).extracting(p -> p.getMetadata().getName()).containsExactly("web");
+        assertThat(retried.deletedResources()).isEqualTo(Map.of("Pod", List.of("default/old/app")));
+    }
+
+    @Test
+    void newerChangeWinsOverRestoredOne() throws Exception {
+        buffer.update("Pod", "default/web/app", pod("web", "1"));
+        buffer.update("Pod", "default/db/app", pod("db", "1"));
+        // 첫 put이 실패하기 전(스풀 쓰기 중)에 같은 키로 새 업데이트와 삭제가 들어옴
+        doAnswer(invocation -> {
+            buffer.update("Pod", "default/web/app", pod("web", "2"));
+            buffer.delete("Pod", "default/db/app");
+            throw new IllegalStateException("spool write failed");
+        }).doNothing().when(queue).put(any());
+
+        flush();
+        flush();
+
+        ArgumentCaptor<ClusterSnapshot> sent = ArgumentCaptor.forClass(ClusterSnapshot.class);
+        verify(queue, times(2)).put(sent.capture());
+        ClusterSnapshot retried = sent.getAllValues().get(1);
+        assertThat(retried.pods()).extracting(p -> p.getMetadata().getResourceVersion()).containsExactly("2");
+        assertThat(retried.deletedResources()).isEqualTo(Map.of("Pod", List.of("default/db/app")));
+    }
+
+    @Test
+    void interruptedPutKeepsChanges() throws Exception {
+        doThrow(new InterruptedException()).doNothing().when(queue).put(any());
+        buffer.update("Pod", "default/web/app", pod("web", "1"));
+
+        flush();
+        assertThat(Thread.interrupted()).isTrue();
+        flush();
+
+        verify(queue, times(2)).put(any());
+    }
+
+    @Test
+    void changesLeftAtShutdownAreForgotten() throws Exception {
+        doThrow(new IllegalStateException("spool closed")).when(queue).put(any());
+        buffer.update("Pod", "default/web/app", pod("web", "1"));
+
+        buffer.stop();
+
+        verify(changeFingerprinter).forget("Pod", "default/web/app");
+        verify(deltaEncoder).forget("Pod", "default/web/app");
+    }
+
+    private void flush() {
+        ReflectionTestUtils.invokeMethod(buffer, "flush", true);
+    }
+
+    private static V1Pod pod(String name, String resourceVersion) {
+        return new V1Pod().metadata(new V1ObjectMeta().namespace("default").name(name).resourceVersion(resourceVersion));
+    }
+}
@@ -0,0 +1,170 @@
+package com.k8s.cnapp.agent.queue;
+
+import com.k8s.cnapp.agent.config.ShardingProperties;
+import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.dto.EncodedSnapshot;
+import com.k8s.cnapp.agent.sender.SnapshotCodec;
+import com.k8s.cnapp.agent.service.DeltaEncoder;
+import com.k8s.cnapp.agent.service.SnapshotChunker;
+import com.k8s.cnapp.agent.support.SyntheticCluster;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedSegmentSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    private SnapshotEncoder encoder;
+    private final List<MappedSegmentSpool> opened = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        SnapshotCodec codec = new SnapshotCodec(SyntheticCluster.gson());
+        ReflectionTestUtils.setField(codec, "format", "json");
+        DeltaEncoder deltaEncoder = new DeltaEncoder(SyntheticCluster.gson());
+        ReflectionTestUtils.setField(deltaEncoder, "enabled", false);
+        encoder = new SnapshotEncoder(codec, deltaEncoder, new SnapshotChunker(SyntheticCluster.gson(), new ShardingProperties()));
+        ReflectionTestUtils.setField(encoder, "laneCount", 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(MappedSegmentSpool::close);
+    }
+
+    @Test
+    void storesWireEncodedBody() throws Exception {
+        MappedSegmentSpool spool = open(1 << 20);
+        ClusterSnapshot snapshot = snapshot(1);
+        spool.put(snapshot);
+
+        assertThat(spool.size()).isEqualTo(1);
+        EncodedSnapshot taken = spool.take();
+        assertThat(taken.cbor()).isFalse();
+        assertThat(taken.body()).isEqualTo(encoder.codec().encode(snapshot, false));
+    }
+
+    @Test
+    void reopenResumesFromAcknowledgedRecord() throws Exception {
+        MappedSegmentSpool spool = open(1 << 20);
+        for (int i = 1; i <= 3; i++) spool.put(snapshot(i));
+        spool.take();
+        spool.acknowledge();
+        spool.take(); // 꺼냈지만 확인되지 않음 -> 재시작 후 다시 전송
+        spool.close();
+
+        MappedSegmentSpool reopened = open(1 << 20);
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(reopened.take().body()).isEqualTo(encode(snapshot(2)));
+        assertThat(reopened.take().body()).isEqualTo(encode(snapshot(3)));
+    }
+
+    @Test
+    void recoveryScanStopsAtRecordWithBadCrc() throws Exception {
+        MappedSegmentSpool spool = open(1 << 20);
+        for (int i = 1; i <= 3; i++) spool.put(snapshot(i));
+        spool.close();
+
+        // 두 번째 레코드 본문의 마지막 바이트를 바꿈 (CRC 불일치)
+        Path segment = segmentFile();
+        int first = recordLength(segment, 0);
+        int secondOffset = 8 + first;
+        int second = recordLength(segment, secondOffset);
+        flipByte(segment, secondOffset + 8 + second - 1);
+
+        MappedSegmentSpool reopened = open(1 << 20);
+        assertThat(reopened.size()).isEqualTo(1);
+        assertThat(reopened.take().body()).isEqualTo(encode(snapshot(1)));
+
+        // 손상 위치부터 덮어쓰므로 이후 레코드는 새 스냅샷만 읽힘
+        reopened.put(snapshot(4));
+        assertThat(reopened.size()).isEqualTo(1);
+        assertThat(reopened.take().body()).isEqualTo(encode(snapshot(4)));
+    }
+
+    @Test
+    void tornLengthIsTreatedAsEndOfSegment() throws Exception {
+        MappedSegmentSpool spool = open(1 << 20);
+        spool.put(snapshot(1));
+        spool.close();
+
+        // 길이는 기록되었지만 세그먼트 범위를 넘는 레코드
+        try (FileChannel channel = FileChannel.open(segmentFile(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, Integer.MAX_VALUE), 0);
+        }
+        assertThat(open(1 << 20).size()).isZero();
+    }
+
+    @Test
+    void rollsOverAndDropsOldestSegmentsBeyondLimit() throws Exception {
+        int recordBytes = encode(snapshot(1)).length + 1024;
+        MappedSegmentSpool spool = open(recordBytes);
+        ReflectionTestUtils.setField(spool, "maxBytes", (long) recordBytes * 3);
+        for (int i = 1; i <= 6; i++) spool.put(snapshot(i));
+
+        assertThat(spool.getDroppedCount()).isEqualTo(3);
+        assertThat(spool.size()).isEqualTo(3);
+        assertThat(spool.take().body()).isEqualTo(encode(snapshot(4)));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.filter(path -> path.toString().endsWith(".spool")).count()).isEqualTo(3);
+        }
+    }
+
+    private MappedSegmentSpool open(int segmentSizeBytes) throws IOException {
+        MappedSegmentSpool spool = new MappedSegmentSpool(SyntheticCluster.gson(), encoder, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(spool, "directoryPath", directory.toString());
+        ReflectionTestUtils.setField(spool, "segmentSizeBytes", segmentSizeBytes);
+        ReflectionTestUtils.setField(spool, "maxBytes", 64L << 20);
+        spool.open();
+        opened.add(spool);
+        return spool;
+    }
+
+    private static ClusterSnapshot snapshot(int seed) {
+        return new SyntheticCluster(seed).snapshot(3);
+    }
+
+    private byte[] encode(ClusterSnapshot snapshot) {
+        return encoder.codec().encode(snapshot, false);
+    }
+
+    private Path segmentFile() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".spool")).findFirst().orElseThrow();
+        }
+    }
+
+    private static int recordLength(Path segment, int offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4);
+            channel.read(buffer, offset);
+            return buffer.getInt(0);
+        }
+    }
+
+    private static void flipByte(Path segment, int offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, offset);
+            buffer.put(0, (byte) ~buffer.get(0)).rewind();
+            channel.write(buffer, offset);
+        }
+    }
+}
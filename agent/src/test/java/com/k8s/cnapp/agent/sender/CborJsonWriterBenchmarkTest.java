@@ -0,0 +1,77 @@
+package com.k8s.cnapp.agent.sender;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.support.Measurement;
+import com.k8s.cnapp.agent.support.SyntheticCluster;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CBOR(CborJsonWriter)와 JSON 전송 형식의 크기, 인코딩(Agent: Gson 직렬화) 및 디코딩(서버: Jackson readTree) 시간 비교.
+ * 압축을 함께 쓰는 경우(gzip)도 압축/해제 시간을 포함해 측정합니다. (./gradlew :agent:benchmark)
+ */
+@Tag("benchmark")
+class CborJsonWriterBenchmarkTest {
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final ObjectMapper CBOR_MAPPER = new CBORMapper();
+
+    private final SnapshotCodec codec = PayloadCompressionBenchmarkTest.jsonCodec();
+
+    @Test
+    void tenThousandPods() throws Exception {
+        ClusterSnapshot snapshot = new SyntheticCluster(3).snapshot(10_000);
+        byte[] json = codec.encode(snapshot, false);
+        byte[] cbor = codec.encode(snapshot, true);
+
+        // 같은 문서인지 확인 (서버가 두 형식을 같은 트리로 읽어야 함. Gson의 HTML 문자 이스케이프 때문에 바이트는 다를 수 있음)
+        JsonNode expected = JSON_MAPPER.readTree(json);
+        assertThat(CBOR_MAPPER.readTree(cbor)).isEqualTo(expected);
+        assertThat(JSON_MAPPER.readTree(codec.toJson(cbor))).isEqualTo(expected);
+
+        // 먼저 측정하는 형식이 JIT 워밍업 비용을 떠안지 않도록 모든 형식을 한 번씩 돌려 둠
+        for (int i = 0; i < 3; i++) {
+            codec.encode(snapshot, false);
+            codec.encode(snapshot, true);
+            JSON_MAPPER.readTree(json);
+            CBOR_MAPPER.readTree(cbor);
+        }
+
+        System.out.printf("10,000-pod snapshot%n");
+        System.out.printf("  %-10s %14s %7s %12s %12s%n", "format", "bytes", "size", "encode ms", "decode ms");
+        report("json", snapshot, json, json.length, false, false);
+        report("cbor", snapshot, cbor, json.length, true, false);
+        report("json+gzip", snapshot, json, json.length, false, true);
+        report("cbor+gzip", snapshot, cbor, json.length, true, true);
+    }
+
+    private void report(String name, ClusterSnapshot snapshot, byte[] encoded, int jsonLength, boolean cbor, boolean gzip) throws Exception {
+        PayloadCompression compression = gzip ? PayloadCompression.GZIP : PayloadCompression.NONE;
+        byte[] body = PayloadCompressionBenchmarkTest.compress(encoded, compression);
+
+        Measurement.Result encode = Measurement.run(3, 15, () -> {
+            try (OutputStream out = compression.wrap(new ByteArrayOutputStream(body.length))) {
+                codec.write(snapshot, out, cbor);
+            }
+        });
+        Measurement.Result decode = Measurement.run(3, 15, () -> {
+            try (InputStream in = gzip ? new GZIPInputStream(new ByteArrayInputStream(body), 8192) : new ByteArrayInputStream(body)) {
+                JsonNode tree = (cbor ? CBOR_MAPPER : JSON_MAPPER).readTree(in);
+                assertThat(tree.isObject()).isTrue();
+            }
+        });
+        System.out.printf("  %-10s %,14d %6.1f%% %12.1f %12.1f%n", name, body.length, 100.0 * body.length / jsonLength,
+                encode.wallMillis(), decode.wallMillis());
+    }
+}
@@ -0,0 +1,82 @@
+package com.k8s.cnapp.agent.sender;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.support.Measurement;
+import com.k8s.cnapp.agent.support.SyntheticCluster;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 전송 본문 압축 코덱별 압축률과 CPU 비용 측정. (./gradlew :agent:benchmark)
+ * - 인벤토리 조각: chunk-max-bytes(2 MiB) 근처 크기의 전체 스냅샷 조각
+ * - 변경분 묶음: Informer 변경분을 모은 50개 Pod 스냅샷
+ */
+@Tag("benchmark")
+class PayloadCompressionBenchmarkTest {
+
+    private final SnapshotCodec codec = jsonCodec();
+
+    @Test
+    void inventoryChunk() throws Exception {
+        measure("inventory chunk (700 pods)", new SyntheticCluster(1).snapshot(700));
+    }
+
+    @Test
+    void deltaBatch() throws Exception {
+        measure("delta batch (50 pods)", new SyntheticCluster(2).snapshot(50));
+    }
+
+    private void measure(String name, ClusterSnapshot snapshot) throws Exception {
+        byte[] body = codec.encode(snapshot, false);
+        System.out.printf("%s: JSON %,d bytes%n", name, body.length);
+        System.out.printf("  %-5s %12s %7s %10s %10s %12s%n", "codec", "bytes", "ratio", "wall ms", "cpu ms", "cpu ns/byte");
+        for (PayloadCompression compression : PayloadCompression.values()) {
+            byte[] compressed = compress(body, compression);
+            assertThat(decompress(compressed, compression)).isEqualTo(body);
+            if (compression != PayloadCompression.NONE) {
+                assertThat(compressed.length).isLessThan(body.length / 4);
+            }
+
+            Measurement.Result result = Measurement.run(20, 50, () -> compress(body, compression));
+            System.out.printf("  %-5s %,12d %6.1f%% %10.3f %10.3f %12.2f%n", compression, compressed.length,
+                    100.0 * compressed.length / body.length, result.wallMillis(), result.cpuMillis(),
+                    (double) result.cpuNanos() / body.length);
+        }
+    }
+
+    static byte[] compress(byte[] body, PayloadCompression compression) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4);
+        try (OutputStream out = compression.wrap(buffer)) {
+            out.write(body);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] body, PayloadCompression compression) throws IOException {
+        InputStream raw = new ByteArrayInputStream(body);
+        try (InputStream in = switch (compression) {
+            case NONE -> raw;
+            case GZIP -> new GZIPInputStream(raw);
+            case ZSTD -> new ZstdInputStream(raw);
+        }) {
+            return in.readAllBytes();
+        }
+    }
+
+    static SnapshotCodec jsonCodec() {
+        SnapshotCodec codec = new SnapshotCodec(SyntheticCluster.gson());
+        ReflectionTestUtils.setField(codec, "format", "json");
+        return codec;
+    }
+}
@@ -0,0 +1,71 @@
+package com.k8s.cnapp.agent.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AdaptiveRateControllerTest {
+
+    private AdaptiveRateController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new AdaptiveRateController();
+        ReflectionTestUtils.setField(controller, "enabled", true);
+        ReflectionTestUtils.setField(controller, "minRate", 0.05);
+        ReflectionTestUtils.setField(controller, "increaseStep", 0.1);
+        ReflectionTestUtils.setField(controller, "decreaseFactor", 0.5);
+        ReflectionTestUtils.setField(controller, "decreaseCooldownMs", 0L);
+    }
+
+    @Test
+    void decreasesMultiplicativelyAndIncreasesAdditively() {
+        controller.onOverload(503, 0);
+        assertThat(controller.currentRate()).isEqualTo(0.5);
+        controller.onOverload(429, 0);
+        assertThat(controller.currentRate()).isEqualTo(0.25);
+
+        controller.onSuccess();
+        controller.onSuccess();
+        assertThat(controller.currentRate()).isCloseTo(0.45, within(1e-9));
+
+        for (int i = 0; i < 10; i++) controller.onSuccess();
+        assertThat(controller.currentRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    void rateNeverDropsBelowMinimum() {
+        for (int i = 0; i < 10; i++) controller.onOverload(503, 0);
+        assertThat(controller.currentRate()).isEqualTo(0.05);
+    }
+
+    @Test
+    void signalsWithinCooldownCountOnce() {
+        ReflectionTestUtils.setField(controller, "decreaseCooldownMs", 60_000L);
+        controller.onOverload(503, 0);
+        controller.onOverload(503, 0);
+        controller.onOverload(429, 0);
+        assertThat(controller.currentRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void scalesFlushIntervalAndBatchSize() {
+        controller.onOverload(503, 0);
+        controller.onOverload(503, 0);
+
+        assertThat(controller.scaleFlushInterval(1000)).isEqualTo(4000);
+        assertThat(controller.scaleBatchSize(100)).isEqualTo(25);
+        assertThat(controller.scaleBatchSize(2)).isEqualTo(1);
+    }
+
+    @Test
+    void disabledControllerKeepsFullRate() {
+        ReflectionTestUtils.setField(controller, "enabled", false);
+        controller.onOverload(503, 0);
+        assertThat(controller.currentRate()).isEqualTo(1.0);
+        assertThat(controller.scaleBatchSize(100)).isEqualTo(100);
+    }
+}
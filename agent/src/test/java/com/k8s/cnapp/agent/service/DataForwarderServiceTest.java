@@ -0,0 +1,75 @@
+package com.k8s.cnapp.agent.service;
+
+import com.k8s.cnapp.agent.dto.EncodedSnapshot;
+import com.k8s.cnapp.agent.queue.SnapshotEncoder;
+import com.k8s.cnapp.agent.queue.SnapshotQueue;
+import com.k8s.cnapp.agent.sender.DataSender;
+import com.k8s.cnapp.agent.sender.SnapshotCodec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DataForwarderServiceTest {
+
+    private final SnapshotQueue queue = mock(SnapshotQueue.class);
+    private final DataSender dataSender = mock(DataSender.class);
+    private final DeltaEncoder deltaEncoder = mock(DeltaEncoder.class);
+    private final SnapshotEncoder snapshotEncoder = mock(SnapshotEncoder.class);
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private DataForwarderService forwarder;
+
+    @BeforeEach
+    void setUp() {
+        forwarder = new DataForwarderService(queue, dataSender, mock(AdaptiveRateController.class), deltaEncoder, snapshotEncoder);
+        ReflectionTestUtils.setField(forwarder, "initialBackoffMs", 1L);
+        ReflectionTestUtils.setField(forwarder, "maxBackoffMs", 1L);
+        ReflectionTestUtils.setField(forwarder, "laneCount", 1);
+        ReflectionTestUtils.setField(forwarder, "maxInFlight", 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stopped.countDown();
+        forwarder.stop();
+    }
+
+    @Test
+    void failureOutsideRetryDropsSnapshotAndKeepsAcknowledging() throws Exception {
+        EncodedSnapshot oversized = snapshot(new byte[]{1});
+        EncodedSnapshot next = snapshot(new byte[]{2});
+        when(queue.take()).thenReturn(oversized, next).thenAnswer(invocation -> {
+            stopped.await();
+            throw new InterruptedException();
+        });
+        // 413 -> 분할하려고 본문을 디코딩하다 실패 (재전송 루프 밖의 예외)
+        doThrow(new HttpClientErrorException(HttpStatus.PAYLOAD_TOO_LARGE)).when(dataSender).send(oversized);
+        SnapshotCodec codec = mock(SnapshotCodec.class);
+        when(codec.decode(any(), anyBoolean())).thenThrow(new IllegalStateException("corrupt body"));
+        when(snapshotEncoder.codec()).thenReturn(codec);
+
+        forwarder.run();
+
+        verify(deltaEncoder, timeout(5000)).reject(oversized.sent());
+        verify(dataSender, timeout(5000)).send(next);
+        // 버린 항목과 전달한 항목 모두 확인되어 스풀 확인 위치가 계속 전진
+        verify(queue, timeout(5000).times(2)).acknowledge();
+    }
+
+    private static EncodedSnapshot snapshot(byte[] body) {
+        return new EncodedSnapshot(0, null, false, List.of(), body);
+    }
+}
@@ -0,0 +1,123 @@
+package com.k8s.cnapp.agent.service;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import com.k8s.cnapp.agent.dto.ResourcePatch;
+import com.k8s.cnapp.agent.dto.SentResource;
+import com.k8s.cnapp.agent.support.SyntheticCluster;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodStatus;
+import io.kubernetes.client.openapi.models.V1Service;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeltaEncoderTest {
+
+    private static final String KEY = "default/web-0";
+
+    private DeltaEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        encoder = new DeltaEncoder(SyntheticCluster.gson());
+        ReflectionTestUtils.setField(encoder, "enabled", true);
+        ReflectionTestUtils.setField(encoder, "deltaTypes", Set.of("Pod", "Node"));
+    }
+
+    @Test
+    void diffFollowsMergePatchRules() {
+        JsonObject previous = json("{\"a\":1,\"b\":{\"c\":1,\"d\":2},\"list\":[1,2,3],\"gone\":\"x\"}");
+        JsonObject current = json("{\"a\":1,\"b\":{\"c\":1,\"d\":3},\"list\":[1,2],\"added\":true}");
+
+        // 같은 값은 생략, 객체는 재귀, 배열은 통째로 교체, 사라진 필드는 null
+        assertThat(encoder.diff(previous, current))
+                .isEqualTo(json("{\"gone\":null,\"b\":{\"d\":3},\"list\":[1,2],\"added\":true}"));
+        assertThat(encoder.diff(current, current).size()).isZero();
+    }
+
+    @Test
+    void sendsFullObjectUntilBaseIsAcknowledged() {
+        assertThat(encoder.encode("Pod", KEY, pod("1", "Pending"))).isNull();
+        // 첫 전송이 확인되기 전에는 서버의 기준을 알 수 없음
+        assertThat(encoder.encode("Pod", KEY, pod("2", "Running"))).isNull();
+
+        encoder.acknowledge(List.of(new SentResource("Pod", KEY, "2")));
+        ResourcePatch patch = encoder.encode("Pod", KEY, pod("3", "Succeeded"));
+
+        assertThat(patch).isNotNull();
+        assertThat(patch.baseVersion()).isEqualTo("2");
+        assertThat(patch.version()).isEqualTo("3");
+        assertThat(json(patch.patch()))
+                .isEqualTo(json("{\"metadata\":{\"resourceVersion\":\"3\"},\"status\":{\"phase\":\"Succeeded\"}}"));
+    }
+
+    @Test
+    void acknowledgingAnOlderVersionDoesNotMoveTheBase() {
+        encoder.encode("Pod", KEY, pod("1", "Pending"));
+        encoder.acknowledge(List.of(new SentResource("Pod", KEY, "1")));
+        encoder.encode("Pod", KEY, pod("2", "Running"));
+        encoder.encode("Pod", KEY, pod("3", "Running")); // 2가 확인되지 않았으므로 전체 객체
+
+        encoder.acknowledge(List.of(new SentResource("Pod", KEY, "2")));
+        assertThat(encoder.encode("Pod", KEY, pod("4", "Running"))).isNull();
+
+        encoder.acknowledge(List.of(new SentResource("Pod", KEY, "4")));
+        assertThat(encoder.encode("Pod", KEY, pod("5", "Failed")).baseVersion()).isEqualTo("4");
+    }
+
+    @Test
+    void rejectedSendKeepsAcknowledgedBase() {
+        encoder.encode("Pod", KEY, pod("1", "Pending"));
+        encoder.acknowledge(List.of(new SentResource("Pod", KEY, "1")));
+
+        assertThat(encoder.encode("Pod", KEY, pod("2", "Running")).baseVersion()).isEqualTo("1");
+        encoder.reject(List.of(new SentResource("Pod", KEY, "2")));
+
+        ResourcePatch patch = encoder.encode("Pod", KEY, pod("3", "Running"));
+        assertThat(patch.baseVersion()).isEqualTo("1");
+        assertThat(json(patch.patch()).getAsJsonObject("status").get("phase").getAsString()).isEqualTo("Running");
+    }
+
+    @Test
+    void unchangedObjectYieldsEmptyPatch() {
+        encoder.encode("Pod", KEY, pod("1", "Running"));
+        encoder.acknowledge(List.of(new SentResource("Pod", KEY, "1")));
+
+        ResourcePatch patch = encoder.encode("Pod", KEY, pod("1", "Running"));
+        assertThat(patch.isEmpty()).isTrue();
+        // 빈 patch는 전송하지 않으므로 다음 변경도 같은 기준으로 patch
+        assertThat(encoder.encode("Pod", KEY, pod("2", "Failed")).baseVersion()).isEqualTo("1");
+    }
+
+    @Test
+    void forgetAndNonDeltaTypesSendFullObjects() {
+        encoder.encode("Pod", KEY, pod("1", "Running"));
+        encoder.acknowledge(List.of(new SentResource("Pod", KEY, "1")));
+        encoder.forget("Pod", KEY);
+        assertThat(encoder.encode("Pod", KEY, pod("2", "Running"))).isNull();
+
+        V1Service service = new V1Service().metadata(new V1ObjectMeta().name("web").namespace("default").resourceVersion("1"));
+        assertThat(encoder.encode("Service", "default/web", service)).isNull();
+        assertThat(encoder.sentResources(ClusterSnapshot.of(
+                Map.of("Service", List.of(service)), Map.of(), List.of()))).isEmpty();
+    }
+
+    private static V1Pod pod(String version, String phase) {
+        return new V1Pod()
+                .metadata(new V1ObjectMeta().name("web-0").namespace("default").resourceVersion(version))
+                .status(new V1PodStatus().phase(phase));
+    }
+
+    private static JsonObject json(String value) {
+        return JsonParser.parseString(value).getAsJsonObject();
+    }
+}
@@ -0,0 +1,79 @@
+package com.k8s.cnapp.agent.service;
+
+import com.k8s.cnapp.agent.config.EventFilterProperties;
+import io.kubernetes.client.openapi.models.CoreV1Event;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1ObjectReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventFilterTest {
+
+    private EventFilterProperties properties;
+    private EventFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EventFilterProperties();
+        properties.getRateLimit().setBurst(3);
+        properties.getRateLimit().setRefillIntervalMs(60_000);
+        filter = new EventFilter(properties);
+    }
+
+    @Test
+    void bucketAllowsBurstThenLimitsPerObject() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(filter.tryAcquire(event("pod-a", "BackOff"))).isTrue();
+        }
+        assertThat(filter.tryAcquire(event("pod-a", "BackOff"))).isFalse();
+        assertThat(filter.tryAcquire(event("pod-a", "Unhealthy"))).isFalse(); // 대상 객체 단위
+        assertThat(filter.tryAcquire(event("pod-b", "BackOff"))).isTrue();
+        assertThat(filter.getRateLimitedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void bucketRefillsOverTime() throws InterruptedException {
+        properties.getRateLimit().setBurst(1);
+        properties.getRateLimit().setRefillIntervalMs(50);
+
+        assertThat(filter.tryAcquire(event("pod-a", "BackOff"))).isTrue();
+        assertThat(filter.tryAcquire(event("pod-a", "BackOff"))).isFalse();
+        Thread.sleep(120);
+        assertThat(filter.tryAcquire(event("pod-a", "BackOff"))).isTrue();
+    }
+
+    @Test
+    void disabledRateLimitAlwaysAllows() {
+        properties.getRateLimit().setEnabled(false);
+        for (int i = 0; i < 10; i++) {
+            assertThat(filter.tryAcquire(event("pod-a", "BackOff"))).isTrue();
+        }
+    }
+
+    @Test
+    void matchesByTypeReasonAndNamespace() {
+        properties.setTypes(List.of("Warning"));
+        properties.setExcludeReasons(List.of("Pulled"));
+        properties.setExcludeNamespaces(List.of("kube-system"));
+
+        assertThat(filter.matches(event("pod-a", "BackOff"))).isTrue();
+        assertThat(filter.matches(event("pod-a", "pulled"))).isFalse();
+        assertThat(filter.matches(event("pod-a", "BackOff").type("Normal"))).isFalse();
+        CoreV1Event system = event("pod-a", "BackOff");
+        system.getMetadata().setNamespace("kube-system");
+        assertThat(filter.matches(system)).isFalse();
+        assertThat(filter.getFilteredCount()).isEqualTo(3);
+    }
+
+    private static CoreV1Event event(String pod, String reason) {
+        return new CoreV1Event()
+                .metadata(new V1ObjectMeta().name(pod + "." + reason).namespace("default"))
+                .type("Warning")
+                .reason(reason)
+                .involvedObject(new V1ObjectReference().kind("Pod").namespace("default").name(pod).uid("uid-" + pod));
+    }
+}
@@ -0,0 +1,86 @@
+package com.k8s.cnapp.agent.service;
+
+import com.k8s.cnapp.agent.config.ProjectionProperties;
+import com.k8s.cnapp.agent.support.Measurement;
+import com.k8s.cnapp.agent.support.SyntheticCluster;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.informer.cache.Cache;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 50,000개 객체(Pod 45,000, Service 4,500, Node 500) 클러스터의 Informer 캐시(Indexer) 힙 사용량 비교.
+ * PruningListerWatcher가 LIST/WATCH 응답마다 적용하는 InformerCachePruner.prune()을 거쳐 캐시에 넣습니다.
+ * - 원본: API 서버 응답 그대로 (managedFields, last-applied-configuration 포함)
+ * - 정리: managedFields, last-applied-configuration만 제거 (agent.informer.prune.projection=false)
+ * - 축소: 전송 필드 + Agent가 읽는 필드만 남긴 사본 (기본 설정)
+ * (./gradlew :agent:benchmark)
+ */
+@Tag("benchmark")
+class InformerCachePrunerBenchmarkTest {
+
+    private static final int PODS = 45_000;
+    private static final int SERVICES = 4_500;
+    private static final int NODES = 500;
+
+    @Test
+    void fiftyThousandObjectCache() throws Exception {
+        CacheSize raw = cacheSize(null);
+        CacheSize stripped = cacheSize(pruner(false));
+        CacheSize projected = cacheSize(pruner(true));
+
+        System.out.printf("informer cache, %,d objects%n", raw.objects());
+        System.out.printf("  %-9s %10s %12s %8s%n", "cache", "heap MiB", "bytes/object", "vs raw");
+        print("raw", raw, raw);
+        print("stripped", stripped, raw);
+        print("projected", projected, raw);
+
+        assertThat(stripped.bytes()).isLessThan(raw.bytes());
+        assertThat(projected.bytes()).isLessThan(stripped.bytes());
+    }
+
+    private CacheSize cacheSize(InformerCachePruner pruner) throws InterruptedException {
+        SyntheticCluster cluster = new SyntheticCluster(4);
+        long before = Measurement.usedHeapAfterGc();
+
+        Cache<KubernetesObject> cache = new Cache<>();
+        for (int i = 0; i < PODS; i++) add(cache, pruner, "Pod", cluster.withServerFields(cluster.pod(i)));
+        for (int i = 0; i < SERVICES; i++) add(cache, pruner, "Service", cluster.withServerFields(cluster.service(i)));
+        for (int i = 0; i < NODES; i++) add(cache, pruner, "Node", cluster.withServerFields(cluster.node(i)));
+
+        long after = Measurement.usedHeapAfterGc();
+        return new CacheSize(cache.list().size(), after - before);
+    }
+
+    private static void add(Cache<KubernetesObject> cache, InformerCachePruner pruner, String type, KubernetesObject obj) {
+        cache.add(pruner != null ? pruner.prune(type, obj) : obj);
+    }
+
+    private static void print(String name, CacheSize size, CacheSize raw) {
+        System.out.printf("  %-9s %10.1f %,12d %7.1f%%%n", name, size.bytes() / 1048576.0, size.bytes() / size.objects(),
+                100.0 * size.bytes() / raw.bytes());
+    }
+
+    // application.yml의 기본 Projection 설정 (Pod, Service, Node)
+    private static InformerCachePruner pruner(boolean projection) {
+        ProjectionProperties properties = new ProjectionProperties();
+        properties.setTypes(Map.of(
+                "Pod", List.of("metadata.ownerReferences", "spec.containers.name", "spec.containers.image",
+                        "spec.containers.securityContext", "spec.securityContext.runAsUser", "spec.nodeName", "status.phase", "status.podIP"),
+                "Service", List.of("spec.type", "spec.clusterIP", "spec.externalIPs", "spec.ports"),
+                "Node", List.of("status.nodeInfo", "status.capacity")));
+        InformerCachePruner pruner = new InformerCachePruner(new WireProjection(SyntheticCluster.gson(), properties));
+        ReflectionTestUtils.setField(pruner, "enabled", true);
+        ReflectionTestUtils.setField(pruner, "projection", projection);
+        return pruner;
+    }
+
+    private record CacheSize(long objects, long bytes) {
+    }
+}
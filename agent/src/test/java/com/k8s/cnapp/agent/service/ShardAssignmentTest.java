@@ -0,0 +1,79 @@
+package com.k8s.cnapp.agent.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardAssignmentTest {
+
+    private static final List<String> MEMBERS = List.of("agent-0", "agent-1", "agent-2");
+    private static final int NAMESPACES = 3000;
+
+    @Test
+    void everyNamespaceHasExactlyOneOwner() {
+        List<ShardAssignment> replicas = replicas(MEMBERS);
+        for (int i = 0; i < NAMESPACES; i++) {
+            String namespace = "ns-" + i;
+            assertThat(replicas.stream().filter(r -> r.owns(namespace)).count()).as(namespace).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void virtualNodesSpreadNamespacesEvenly() {
+        Map<String, Integer> owned = new HashMap<>();
+        for (int i = 0; i < NAMESPACES; i++) {
+            owned.merge(owner(MEMBERS, "ns-" + i), 1, Integer::sum);
+        }
+        // 멤버당 128개 가상 노드 -> 각 멤버 몫이 1/3에서 크게 벗어나지 않음
+        assertThat(owned).hasSize(3);
+        owned.values().forEach(count -> assertThat(count).isBetween(NAMESPACES / 3 * 7 / 10, NAMESPACES / 3 * 13 / 10));
+    }
+
+    @Test
+    void removingMemberMovesOnlyItsNamespaces() {
+        List<String> remaining = List.of("agent-0", "agent-1");
+        for (int i = 0; i < NAMESPACES; i++) {
+            String namespace = "ns-" + i;
+            String before = owner(MEMBERS, namespace);
+            if (!before.equals("agent-2")) {
+                assertThat(owner(remaining, namespace)).as(namespace).isEqualTo(before);
+            }
+        }
+    }
+
+    @Test
+    void clusterScopedResourcesBelongToLeader() {
+        assertThat(new ShardAssignment("agent-0", MEMBERS, true, 128).owns(null)).isTrue();
+        assertThat(new ShardAssignment("agent-1", MEMBERS, false, 128).owns(null)).isFalse();
+    }
+
+    @Test
+    void unshardedOwnsEverythingAndEmptyRingOwnsNothing() {
+        assertThat(ShardAssignment.unsharded().owns("default")).isTrue();
+        assertThat(ShardAssignment.unsharded().owns(null)).isTrue();
+        assertThat(new ShardAssignment("agent-0", List.of(), false, 128).owns("default")).isFalse();
+    }
+
+    @Test
+    void sameMembersAndLeadershipMeanSameAssignment() {
+        ShardAssignment assignment = new ShardAssignment("agent-0", MEMBERS, true, 128);
+        assertThat(assignment.sameAs(new ShardAssignment("agent-0", MEMBERS, true, 128))).isTrue();
+        assertThat(assignment.sameAs(new ShardAssignment("agent-0", MEMBERS, false, 128))).isFalse();
+        assertThat(assignment.sameAs(new ShardAssignment("agent-0", MEMBERS.subList(0, 2), true, 128))).isFalse();
+    }
+
+    private static List<ShardAssignment> replicas(List<String> members) {
+        return members.stream().map(self -> new ShardAssignment(self, members, false, 128)).toList();
+    }
+
+    private static String owner(List<String> members, String namespace) {
+        for (String member : members) {
+            if (new ShardAssignment(member, members, false, 128).owns(namespace)) return member;
+        }
+        throw new AssertionError("No owner for " + namespace);
+    }
+}
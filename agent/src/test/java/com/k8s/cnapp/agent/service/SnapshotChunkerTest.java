@@ -0,0 +1,66 @@
+package com.k8s.cnapp.agent.service;
+
+import com.k8s.cnapp.agent.config.ShardingProperties;
+import com.k8s.cnapp.agent.support.SyntheticCluster;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotChunkerTest {
+
+    // 외곽 구조 몫(256) + 리소스 9개 x (직렬화 100바이트 + 구분자 1)
+    private static final int MAX_BYTES = 256 + 9 * 101;
+
+    private SnapshotChunker chunker;
+
+    @BeforeEach
+    void setUp() {
+        chunker = new SnapshotChunker(SyntheticCluster.gson(), new ShardingProperties());
+        ReflectionTestUtils.setField(chunker, "maxBytes", MAX_BYTES);
+    }
+
+    @Test
+    void splitsBySerializedSizeKeepingOrder() {
+        List<Object> items = new ArrayList<>();
+        for (int i = 0; i < 25; i++) items.add(item(i, 100));
+
+        List<List<Object>> batches = chunker.split("Pod", items);
+
+        assertThat(batches).extracting(List::size).containsExactly(9, 9, 7);
+        assertThat(batches.stream().flatMap(List::stream).toList()).isEqualTo(items);
+    }
+
+    @Test
+    void oversizedResourceIsSentAlone() {
+        Object large = item(99, MAX_BYTES * 2);
+        List<Object> items = List.of(item(0, 100), item(1, 100), large, item(2, 100));
+
+        assertThat(chunker.split("Pod", items)).containsExactly(
+                List.of(item(0, 100), item(1, 100)), List.of(large), List.of(item(2, 100)));
+    }
+
+    @Test
+    void emptyListYieldsNoBatches() {
+        assertThat(chunker.split("Pod", List.of())).isEmpty();
+    }
+
+    @Test
+    void onlyUnshardedUploadIsFull() {
+        assertThat(chunker.start().isFull()).isTrue();
+
+        ShardingProperties sharded = new ShardingProperties();
+        sharded.setEnabled(true);
+        assertThat(new SnapshotChunker(SyntheticCluster.gson(), sharded).start().isFull()).isFalse();
+    }
+
+    // JSON 문자열로 직렬화하면 따옴표 포함 serializedBytes 바이트
+    private static Object item(int index, int serializedBytes) {
+        String prefix = index + ":";
+        return prefix + "x".repeat(serializedBytes - 2 - prefix.length());
+    }
+}
@@ -0,0 +1,72 @@
+package com.k8s.cnapp.agent.support;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * 측정용 테스트의 반복 실행 도구. 워밍업 후 반복마다 경과 시간과 현재 스레드의 CPU 시간을 재고 중앙값을 반환합니다.
+ * (JMH처럼 엄밀하지는 않으므로 같은 실행 안의 상대 비교에 사용)
+ */
+public final class Measurement {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private Measurement() {
+    }
+
+    public static Result run(int warmup, int iterations, ThrowingRunnable task) throws Exception {
+        for (int i = 0; i < warmup; i++) task.run();
+        System.gc(); // 워밍업에서 생긴 garbage 수집이 측정 구간에 끼지 않도록
+        long[] wall = new long[iterations];
+        long[] cpu = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long cpuStart = THREADS.getCurrentThreadCpuTime();
+            long start = System.nanoTime();
+            task.run();
+            wall[i] = System.nanoTime() - start;
+            cpu[i] = THREADS.getCurrentThreadCpuTime() - cpuStart;
+        }
+        return new Result(median(wall), median(cpu));
+    }
+
+    /**
+     * GC를 여러 번 요청한 뒤의 힙 사용량. 전후 차이로 도달 가능한 객체가 차지하는 크기를 어림합니다.
+     */
+    public static long usedHeapAfterGc() throws InterruptedException {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(50);
+            used = Math.min(used, MEMORY.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * @param wallNanos 반복 1회 경과 시간 중앙값
+     * @param cpuNanos  반복 1회 스레드 CPU 시간 중앙값
+     */
+    public record Result(long wallNanos, long cpuNanos) {
+        public double wallMillis() {
+            return wallNanos / 1_000_000.0;
+        }
+
+        public double cpuMillis() {
+            return cpuNanos / 1_000_000.0;
+        }
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,219 @@
+package com.k8s.cnapp.agent.support;
+
+import com.google.gson.Gson;
+import com.k8s.cnapp.agent.config.AppConfig;
+import com.k8s.cnapp.agent.dto.ClusterSnapshot;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.custom.Quantity;
+import io.kubernetes.client.openapi.models.V1Container;
+import io.kubernetes.client.openapi.models.V1ContainerPort;
+import io.kubernetes.client.openapi.models.V1ContainerStatus;
+import io.kubernetes.client.openapi.models.V1Deployment;
+import io.kubernetes.client.openapi.models.V1DeploymentSpec;
+import io.kubernetes.client.openapi.models.V1EnvVar;
+import io.kubernetes.client.openapi.models.V1LabelSelector;
+import io.kubernetes.client.openapi.models.V1ManagedFieldsEntry;
+import io.kubernetes.client.openapi.models.V1Namespace;
+import io.kubernetes.client.openapi.models.V1Node;
+import io.kubernetes.client.openapi.models.V1NodeStatus;
+import io.kubernetes.client.openapi.models.V1NodeSystemInfo;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1OwnerReference;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodCondition;
+import io.kubernetes.client.openapi.models.V1PodSpec;
+import io.kubernetes.client.openapi.models.V1PodStatus;
+import io.kubernetes.client.openapi.models.V1ResourceRequirements;
+import io.kubernetes.client.openapi.models.V1SecurityContext;
+import io.kubernetes.client.openapi.models.V1Service;
+import io.kubernetes.client.openapi.models.V1ServicePort;
+import io.kubernetes.client.openapi.models.V1ServiceSpec;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * 테스트/측정용 합성 클러스터. 같은 seed는 항상 같은 객체를 만듭니다.
+ * Pod는 실제 워크로드와 비슷하게 라벨, 소유자, 컨테이너(이미지, 포트, 환경변수, 리소스, securityContext), 상태 조건을 가집니다.
+ */
+public final class SyntheticCluster {
+
+    private static final Gson GSON = new AppConfig().gson();
+    private static final OffsetDateTime CREATED = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final String[] APPS = {"checkout", "payment", "catalog", "frontend", "auth", "search", "orders", "cart"};
+    private static final String[] IMAGES = {"nginx:1.25.3", "redis:7.2.4", "registry.example.com/shop/api:2.14.1",
+            "registry.example.com/shop/worker:2.14.1", "envoyproxy/envoy:v1.29.1", "busybox:1.36"};
+
+    private final Random random;
+
+    public SyntheticCluster(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static Gson gson() {
+        return GSON;
+    }
+
+    /**
+     * API 서버 응답처럼 managedFields와 kubectl last-applied-configuration 어노테이션을 붙입니다. (Informer 캐시 축소 비교용)
+     */
+    public <T extends KubernetesObject> T withServerFields(T obj) {
+        V1ObjectMeta metadata = obj.getMetadata();
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("f:metadata", Map.of("f:labels", labelFields(metadata.getLabels()), "f:ownerReferences", Map.of(".", Map.of())));
+        fields.put("f:spec", Map.of("f:containers", Map.of("k:{\"name\":\"app\"}", Map.of(".", Map.of(), "f:image", Map.of(),
+                "f:imagePullPolicy", Map.of(), "f:name", Map.of(), "f:ports", Map.of(), "f:resources", Map.of(), "f:env", Map.of()))));
+        fields.put("f:status", Map.of("f:conditions", Map.of("k:{\"type\":\"Ready\"}", Map.of(".", Map.of(),
+                "f:lastTransitionTime", Map.of(), "f:status", Map.of(), "f:type", Map.of())), "f:phase", Map.of(), "f:podIP", Map.of()));
+        metadata.setManagedFields(List.of(
+                new V1ManagedFieldsEntry().manager("kube-controller-manager").operation("Update").apiVersion("v1")
+                        .fieldsType("FieldsV1").fieldsV1(fields).time(CREATED),
+                new V1ManagedFieldsEntry().manager("kubelet").operation("Update").apiVersion("v1").subresource("status")
+                        .fieldsType("FieldsV1").fieldsV1(Map.of("f:status", fields.get("f:status"))).time(CREATED)));
+
+        Map<String, String> annotations = new LinkedHashMap<>(metadata.getAnnotations() != null ? metadata.getAnnotations() : Map.of());
+        annotations.put("kubectl.kubernetes.io/last-applied-configuration", GSON.toJson(obj));
+        metadata.setAnnotations(annotations);
+        return obj;
+    }
+
+    /**
+     * Pod 수에 비례해 Service(1/10), Deployment(1/5), Node(1/30, 최소 3), Namespace(최대 20)를 함께 만듭니다.
+     */
+    public ClusterSnapshot snapshot(int podCount) {
+        Map<String, List<Object>> updates = new LinkedHashMap<>();
+        updates.put("Pod", new ArrayList<>(pods(podCount)));
+        List<Object> services = new ArrayList<>();
+        for (int i = 0; i < podCount / 10; i++) services.add(service(i));
+        List<Object> deployments = new ArrayList<>();
+        for (int i = 0; i < podCount / 5; i++) deployments.add(deployment(i));
+        List<Object> nodes = new ArrayList<>();
+        for (int i = 0; i < Math.max(3, podCount / 30); i++) nodes.add(node(i));
+        List<Object> namespaces = new ArrayList<>();
+        for (int i = 0; i < Math.min(20, Math.max(1, podCount / 50)); i++) {
+            namespaces.add(new V1Namespace().apiVersion("v1").kind("Namespace").metadata(meta(namespace(i), null)));
+        }
+        updates.put("Service", services);
+        updates.put("Deployment", deployments);
+        updates.put("Node", nodes);
+        updates.put("Namespace", namespaces);
+        return ClusterSnapshot.of(updates, Map.of(), List.of());
+    }
+
+    public List<V1Pod> pods(int count) {
+        List<V1Pod> pods = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) pods.add(pod(i));
+        return pods;
+    }
+
+    public V1Pod pod(int i) {
+        String app = APPS[i % APPS.length];
+        String replicaSet = app + "-" + Integer.toHexString(0x5d8f9c00 + i / 5);
+        V1ObjectMeta metadata = meta(replicaSet + "-" + suffix(), namespace(i % 20))
+                .labels(Map.of("app", app, "pod-template-hash", replicaSet.substring(app.length() + 1), "tier", i % 3 == 0 ? "web" : "backend",
+                        "version", "v" + (1 + i % 4)))
+                .annotations(Map.of("prometheus.io/scrape", "true", "prometheus.io/port", "9090"))
+                .ownerReferences(List.of(new V1OwnerReference().apiVersion("apps/v1").kind("ReplicaSet").name(replicaSet)
+                        .uid(uuid()).controller(true).blockOwnerDeletion(true)));
+
+        List<V1Container> containers = new ArrayList<>();
+        List<V1ContainerStatus> statuses = new ArrayList<>();
+        int containerCount = 1 + i % 2;
+        for (int c = 0; c < containerCount; c++) {
+            String image = IMAGES[(i + c) % IMAGES.length];
+            String name = c == 0 ? app : "sidecar";
+            containers.add(new V1Container().name(name).image(image).imagePullPolicy("IfNotPresent")
+                    .ports(List.of(new V1ContainerPort().name("http").containerPort(8080 + c).protocol("TCP")))
+                    .env(List.of(new V1EnvVar().name("SPRING_PROFILES_ACTIVE").value("prod"),
+                            new V1EnvVar().name("SERVICE_NAME").value(app),
+                            new V1EnvVar().name("JAVA_OPTS").value("-XX:MaxRAMPercentage=75 -XX:+UseG1GC")))
+                    .resources(new V1ResourceRequirements()
+                            .requests(Map.of("cpu", Quantity.fromString("100m"), "memory", Quantity.fromString("256Mi")))
+                            .limits(Map.of("cpu", Quantity.fromString("1"), "memory", Quantity.fromString("512Mi"))))
+                    .securityContext(new V1SecurityContext().runAsNonRoot(i % 7 != 0).readOnlyRootFilesystem(i % 3 == 0)
+                            .allowPrivilegeEscalation(i % 11 == 0).privileged(i % 97 == 0)));
+            statuses.add(new V1ContainerStatus().name(name).image(image).imageID("docker-pullable://" + image + "@sha256:" + hex(64))
+                    .containerID("containerd://" + hex(64)).ready(true).started(true).restartCount(random.nextInt(3)));
+        }
+
+        return new V1Pod().apiVersion("v1").kind("Pod").metadata(metadata)
+                .spec(new V1PodSpec().nodeName(nodeName(i % 30)).serviceAccountName(app).restartPolicy("Always")
+                        .dnsPolicy("ClusterFirst").schedulerName("default-scheduler").terminationGracePeriodSeconds(30L)
+                        .containers(containers))
+                .status(new V1PodStatus().phase("Running").qosClass("Burstable")
+                        .podIP("10.244." + (i / 250) % 256 + "." + i % 250).hostIP("192.168.0." + (i % 30 + 10))
+                        .startTime(CREATED.plusMinutes(i))
+                        .conditions(List.of(
+                                new V1PodCondition().type("Initialized").status("True").lastTransitionTime(CREATED.plusMinutes(i)),
+                                new V1PodCondition().type("Ready").status("True").lastTransitionTime(CREATED.plusMinutes(i + 1)),
+                                new V1PodCondition().type("ContainersReady").status("True").lastTransitionTime(CREATED.plusMinutes(i + 1)),
+                                new V1PodCondition().type("PodScheduled").status("True").lastTransitionTime(CREATED.plusMinutes(i))))
+                        .containerStatuses(statuses));
+    }
+
+    public V1Service service(int i) {
+        String app = APPS[i % APPS.length];
+        return new V1Service().apiVersion("v1").kind("Service").metadata(meta(app + "-" + i, namespace(i % 20)).labels(Map.of("app", app)))
+                .spec(new V1ServiceSpec().type(i % 10 == 0 ? "LoadBalancer" : "ClusterIP").clusterIP("10.96." + i / 250 + "." + i % 250)
+                        .selector(Map.of("app", app))
+                        .ports(List.of(new V1ServicePort().name("http").port(80).protocol("TCP"))));
+    }
+
+    public V1Deployment deployment(int i) {
+        String app = APPS[i % APPS.length];
+        return new V1Deployment().apiVersion("apps/v1").kind("Deployment").metadata(meta(app + "-" + i, namespace(i % 20)))
+                .spec(new V1DeploymentSpec().replicas(5).selector(new V1LabelSelector().matchLabels(Map.of("app", app))));
+    }
+
+    public V1Node node(int i) {
+        return new V1Node().apiVersion("v1").kind("Node").metadata(meta(nodeName(i), null)
+                        .labels(Map.of("kubernetes.io/os", "linux", "node.kubernetes.io/instance-type", "m5.xlarge",
+                                "topology.kubernetes.io/zone", "ap-northeast-2" + (char) ('a' + i % 3))))
+                .status(new V1NodeStatus()
+                        .capacity(Map.of("cpu", Quantity.fromString("4"), "memory", Quantity.fromString("16Gi"), "pods", Quantity.fromString("110")))
+                        .nodeInfo(new V1NodeSystemInfo().kubeletVersion("v1.29.3").osImage("Amazon Linux 2").kernelVersion("5.10.210")
+                                .containerRuntimeVersion("containerd://1.7.11").architecture("amd64").operatingSystem("linux")
+                                .machineID(hex(32)).systemUUID(uuid()).bootID(uuid()).kubeProxyVersion("v1.29.3")));
+    }
+
+    private static Map<String, Object> labelFields(Map<String, String> labels) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (labels != null) labels.keySet().forEach(label -> fields.put("f:" + label, Map.of()));
+        return fields;
+    }
+
+    private V1ObjectMeta meta(String name, String namespace) {
+        return new V1ObjectMeta().name(name).namespace(namespace).uid(uuid())
+                .resourceVersion(String.valueOf(1_000_000 + random.nextInt(9_000_000))).creationTimestamp(CREATED);
+    }
+
+    private static String namespace(int i) {
+        return "team-" + i;
+    }
+
+    private static String nodeName(int i) {
+        return "ip-192-168-0-" + (i + 10) + ".ap-northeast-2.compute.internal";
+    }
+
+    private String suffix() {
+        StringBuilder builder = new StringBuilder(5);
+        for (int i = 0; i < 5; i++) builder.append((char) ('a' + random.nextInt(26)));
+        return builder.toString();
+    }
+
+    private String uuid() {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    private String hex(int length) {
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) builder.append(Character.forDigit(random.nextInt(16), 16));
+        return builder.toString();
+    }
+}
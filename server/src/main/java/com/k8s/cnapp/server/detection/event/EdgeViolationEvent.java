@@ -0,0 +1,23 @@
+package com.k8s.cnapp.server.detection.event;
+
+import com.k8s.cnapp.server.alert.domain.Alert;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Agent가 평가한 정책 위반을 Alert로 기록하기 위한 이벤트 (수집 트랜잭션 커밋 후 처리)
+ */
+@Getter
+@Builder
+public class EdgeViolationEvent {
+    private final Long tenantId;
+    private final List<Violation> violations;
+
+    /**
+     * @param resourceType Alert 리소스 타입 ("POD", "SERVICE")
+     * @param resourceName Alert 리소스 이름 (스캐너와 같은 규칙: Pod는 namespace/워크로드, Service는 namespace/name)
+     */
+    public record Violation(Alert.Severity severity, String message, String resourceType, String resourceName) {}
+}
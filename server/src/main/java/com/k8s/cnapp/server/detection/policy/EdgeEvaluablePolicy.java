@@ -0,0 +1,21 @@
+package com.k8s.cnapp.server.detection.policy;
+
+import com.k8s.cnapp.server.alert.domain.Alert;
+
+/**
+ * 단일 객체만 보고 판정하는 정책 (다른 자산/DB 조회 불필요).
+ * 규칙 값과 함께 Agent에 내려보내 Agent가 전송 전에 직접 평가합니다. (EdgePolicyCompiler)
+ * Agent의 EdgePolicyEvaluator가 같은 판정을 구현하므로 판정 조건을 바꾸면 함께 수정해야 합니다.
+ */
+public interface EdgeEvaluablePolicy {
+
+    /**
+     * 위반 시 Alert 심각도
+     */
+    Alert.Severity getSeverity();
+
+    /**
+     * 위반 메시지 (String.format 형식). Agent와 서버 스캔이 같은 메시지를 만들어야 Alert 중복 판정이 일치합니다.
+     */
+    String getMessageTemplate();
+}
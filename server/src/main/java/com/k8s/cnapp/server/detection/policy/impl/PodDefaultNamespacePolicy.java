@@ -1,6 +1,7 @@
 package com.k8s.cnapp.server.detection.policy.impl;
 
 import com.k8s.cnapp.server.alert.domain.Alert;
+import com.k8s.cnapp.server.detection.policy.EdgeEvaluablePolicy;
 import com.k8s.cnapp.server.detection.policy.PolicyEvaluationResult;
 import com.k8s.cnapp.server.detection.policy.SecurityPolicy;
 import com.k8s.cnapp.server.detection.policy.SecurityPolicyContext;
@@ -9,7 +10,7 @@ import com.k8s.cnapp.server.profile.domain.PodProfile;
 import org.springframework.stereotype.Component;
 
 @Component
-public class PodDefaultNamespacePolicy implements SecurityPolicy<PodProfile> {
+public class PodDefaultNamespacePolicy implements SecurityPolicy<PodProfile>, EdgeEvaluablePolicy {
 
     @Override
     public Policy.ResourceType getSupportedType() {
@@ -21,15 +22,24 @@ public class PodDefaultNamespacePolicy implements SecurityPolicy<PodProfile> {
         return Policy.RuleType.NAMESPACE_DEFAULT_DENY;
     }
 
+    @Override
+    public Alert.Severity getSeverity() {
+        return Alert.Severity.LOW;
+    }
+
+    @Override
+    public String getMessageTemplate() {
+        return "Security Best Practice Violation: Pod '%s' is deployed in the 'default' namespace. " +
+                "Workloads should be isolated in custom namespaces to improve security boundaries.";
+    }
+
     @Override
     public PolicyEvaluationResult evaluate(PodProfile pod, SecurityPolicyContext context) {
         if (context.isPolicyEnabled(getSupportedType(), getRuleType()) && 
             "default".equalsIgnoreCase(pod.getAssetContext().getNamespace())) {
             
             String podName = pod.getAssetContext().getPodName();
-            return PolicyEvaluationResult.failure(Alert.Severity.LOW, 
-                String.format("Security Best Practice Violation: Pod '%s' is deployed in the 'default' namespace. " +
-                "Workloads should be isolated in custom namespaces to improve security boundaries.", podName));
+            return PolicyEvaluationResult.failure(getSeverity(), String.format(getMessageTemplate(), podName));
         }
         return PolicyEvaluationResult.success();
     }
@@ -1,6 +1,7 @@
 package com.k8s.cnapp.server.detection.policy.impl;
 
 import com.k8s.cnapp.server.alert.domain.Alert;
+import com.k8s.cnapp.server.detection.policy.EdgeEvaluablePolicy;
 import com.k8s.cnapp.server.detection.policy.PolicyEvaluationResult;
 import com.k8s.cnapp.server.detection.policy.SecurityPolicy;
 import com.k8s.cnapp.server.detection.policy.SecurityPolicyContext;
@@ -9,7 +10,7 @@ import com.k8s.cnapp.server.profile.domain.PodProfile;
 import org.springframework.stereotype.Component;
 
 @Component
-public class PodImageLatestTagPolicy implements SecurityPolicy<PodProfile> {
+public class PodImageLatestTagPolicy implements SecurityPolicy<PodProfile>, EdgeEvaluablePolicy {
 
     @Override
     public Policy.ResourceType getSupportedType() {
@@ -21,12 +22,22 @@ public class PodImageLatestTagPolicy implements SecurityPolicy<PodProfile> {
         return Policy.RuleType.IMAGE_LATEST_TAG_DENY;
     }
 
+    @Override
+    public Alert.Severity getSeverity() {
+        return Alert.Severity.MEDIUM;
+    }
+
+    @Override
+    public String getMessageTemplate() {
+        return "Image using 'latest' tag";
+    }
+
     @Override
     public PolicyEvaluationResult evaluate(PodProfile pod, SecurityPolicyContext context) {
         if (context.isPolicyEnabled(getSupportedType(), getRuleType()) && 
             pod.getAssetContext().getImage() != null && 
             pod.getAssetContext().getImage().endsWith(":latest")) {
-            return PolicyEvaluationResult.failure(Alert.Severity.MEDIUM, "Image using 'latest' tag");
+            return PolicyEvaluationResult.failure(getSeverity(), getMessageTemplate());
         }
         return PolicyEvaluationResult.success();
     }
@@ -1,6 +1,7 @@
 package com.k8s.cnapp.server.detection.policy.impl;
 
 import com.k8s.cnapp.server.alert.domain.Alert;
+import com.k8s.cnapp.server.detection.policy.EdgeEvaluablePolicy;
 import com.k8s.cnapp.server.detection.policy.PolicyEvaluationResult;
 import com.k8s.cnapp.server.detection.policy.SecurityPolicy;
 import com.k8s.cnapp.server.detection.policy.SecurityPolicyContext;
@@ -9,7 +10,7 @@ import com.k8s.cnapp.server.profile.domain.PodProfile;
 import org.springframework.stereotype.Component;
 
 @Component
-public class PodPrivilegedPolicy implements SecurityPolicy<PodProfile> {
+public class PodPrivilegedPolicy implements SecurityPolicy<PodProfile>, EdgeEvaluablePolicy {
 
     @Override
     public Policy.ResourceType getSupportedType() {
@@ -21,10 +22,20 @@ public class PodPrivilegedPolicy implements SecurityPolicy<PodProfile> {
         return Policy.RuleType.PRIVILEGED_DENY;
     }
 
+    @Override
+    public Alert.Severity getSeverity() {
+        return Alert.Severity.CRITICAL;
+    }
+
+    @Override
+    public String getMessageTemplate() {
+        return "Privileged container detected";
+    }
+
     @Override
     public PolicyEvaluationResult evaluate(PodProfile pod, SecurityPolicyContext context) {
         if (context.isPolicyEnabled(getSupportedType(), getRuleType()) && Boolean.TRUE.equals(pod.getPrivileged())) {
-            return PolicyEvaluationResult.failure(Alert.Severity.CRITICAL, "Privileged container detected");
+            return PolicyEvaluationResult.failure(getSeverity(), getMessageTemplate());
         }
         return PolicyEvaluationResult.success();
     }
@@ -1,6 +1,7 @@
 package com.k8s.cnapp.server.detection.policy.impl;
 
 import com.k8s.cnapp.server.alert.domain.Alert;
+import com.k8s.cnapp.server.detection.policy.EdgeEvaluablePolicy;
 import com.k8s.cnapp.server.detection.policy.PolicyEvaluationResult;
 import com.k8s.cnapp.server.detection.policy.SecurityPolicy;
 import com.k8s.cnapp.server.detection.policy.SecurityPolicyContext;
@@ -9,7 +10,7 @@ import com.k8s.cnapp.server.profile.domain.PodProfile;
 import org.springframework.stereotype.Component;
 
 @Component
-public class PodRunAsRootPolicy implements SecurityPolicy<PodProfile> {
+public class PodRunAsRootPolicy implements SecurityPolicy<PodProfile>, EdgeEvaluablePolicy {
 
     @Override
     public Policy.ResourceType getSupportedType() {
@@ -21,10 +22,20 @@ public class PodRunAsRootPolicy implements SecurityPolicy<PodProfile> {
         return Policy.RuleType.RUN_AS_ROOT_DENY;
     }
 
+    @Override
+    public Alert.Severity getSeverity() {
+        return Alert.Severity.HIGH;
+    }
+
+    @Override
+    public String getMessageTemplate() {
+        return "Container running as root";
+    }
+
     @Override
     public PolicyEvaluationResult evaluate(PodProfile pod, SecurityPolicyContext context) {
         if (context.isPolicyEnabled(getSupportedType(), getRuleType()) && Boolean.TRUE.equals(pod.getRunAsRoot())) {
-            return PolicyEvaluationResult.failure(Alert.Severity.HIGH, "Container running as root");
+            return PolicyEvaluationResult.failure(getSeverity(), getMessageTemplate());
         }
         return PolicyEvaluationResult.success();
     }
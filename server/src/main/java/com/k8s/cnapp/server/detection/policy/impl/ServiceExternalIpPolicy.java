@@ -1,6 +1,7 @@
 package com.k8s.cnapp.server.detection.policy.impl;
 
 import com.k8s.cnapp.server.alert.domain.Alert;
+import com.k8s.cnapp.server.detection.policy.EdgeEvaluablePolicy;
 import com.k8s.cnapp.server.detection.policy.PolicyEvaluationResult;
 import com.k8s.cnapp.server.detection.policy.SecurityPolicy;
 import com.k8s.cnapp.server.detection.policy.SecurityPolicyContext;
@@ -9,7 +10,7 @@ import com.k8s.cnapp.server.profile.domain.ServiceProfile;
 import org.springframework.stereotype.Component;
 
 @Component
-public class ServiceExternalIpPolicy implements SecurityPolicy<ServiceProfile> {
+public class ServiceExternalIpPolicy implements SecurityPolicy<ServiceProfile>, EdgeEvaluablePolicy {
 
     @Override
     public Policy.ResourceType getSupportedType() {
@@ -21,11 +22,21 @@ public class ServiceExternalIpPolicy implements SecurityPolicy<ServiceProfile> {
         return Policy.RuleType.EXTERNAL_IP_DENY;
     }
 
+    @Override
+    public Alert.Severity getSeverity() {
+        return Alert.Severity.MEDIUM;
+    }
+
+    @Override
+    public String getMessageTemplate() {
+        return "Service exposed externally (%s)";
+    }
+
     @Override
     public PolicyEvaluationResult evaluate(ServiceProfile service, SecurityPolicyContext context) {
         if (context.isPolicyEnabled(getSupportedType(), getRuleType()) && 
             ("LoadBalancer".equals(service.getType()) || "NodePort".equals(service.getType()))) {
-            return PolicyEvaluationResult.failure(Alert.Severity.MEDIUM, "Service exposed externally (" + service.getType() + ")");
+            return PolicyEvaluationResult.failure(getSeverity(), String.format(getMessageTemplate(), service.getType()));
         }
         return PolicyEvaluationResult.success();
     }
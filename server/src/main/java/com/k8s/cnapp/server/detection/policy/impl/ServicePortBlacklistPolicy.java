@@ -1,6 +1,7 @@
 package com.k8s.cnapp.server.detection.policy.impl;
 
 import com.k8s.cnapp.server.alert.domain.Alert;
+import com.k8s.cnapp.server.detection.policy.EdgeEvaluablePolicy;
 import com.k8s.cnapp.server.detection.policy.PolicyEvaluationResult;
 import com.k8s.cnapp.server.detection.policy.SecurityPolicy;
 import com.k8s.cnapp.server.detection.policy.SecurityPolicyContext;
@@ -13,7 +14,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Component
-public class ServicePortBlacklistPolicy implements SecurityPolicy<ServiceProfile> {
+public class ServicePortBlacklistPolicy implements SecurityPolicy<ServiceProfile>, EdgeEvaluablePolicy {
 
     @Override
     public Policy.ResourceType getSupportedType() {
@@ -25,6 +26,16 @@ public class ServicePortBlacklistPolicy implements SecurityPolicy<ServiceProfile
         return Policy.RuleType.PORT_BLACKLIST;
     }
 
+    @Override
+    public Alert.Severity getSeverity() {
+        return Alert.Severity.HIGH;
+    }
+
+    @Override
+    public String getMessageTemplate() {
+        return "Dangerous port exposed: %s (%s)";
+    }
+
     @Override
     public PolicyEvaluationResult evaluate(ServiceProfile service, SecurityPolicyContext context) {
         // External IP가 아니어도 Port 검사를 하는지 기존 로직 확인:
@@ -43,8 +54,8 @@ public class ServicePortBlacklistPolicy implements SecurityPolicy<ServiceProfile
 
         for (ServicePortProfile port : service.getPorts()) {
             if (port.getPort() != null && dangerousPorts.contains(port.getPort())) {
-                return PolicyEvaluationResult.failure(Alert.Severity.HIGH, 
-                    "Dangerous port exposed: " + port.getPort() + " (" + port.getProtocol() + ")");
+                return PolicyEvaluationResult.failure(getSeverity(),
+                    String.format(getMessageTemplate(), port.getPort(), port.getProtocol()));
             }
         }
 
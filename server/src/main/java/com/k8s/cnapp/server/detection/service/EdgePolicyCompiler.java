@@ -0,0 +1,108 @@
+package com.k8s.cnapp.server.detection.service;
+
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import com.k8s.cnapp.server.detection.policy.EdgeEvaluablePolicy;
+import com.k8s.cnapp.server.detection.policy.SecurityPolicy;
+import com.k8s.cnapp.server.ingestion.dto.EdgePolicyRule;
+import com.k8s.cnapp.server.ingestion.dto.EdgePolicySet;
+import com.k8s.cnapp.server.policy.domain.Policy;
+import com.k8s.cnapp.server.policy.event.PolicyChangedEvent;
+import com.k8s.cnapp.server.policy.service.PolicyService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 테넌트의 정책 중 단일 객체 정책(EdgeEvaluablePolicy)을 Agent가 평가할 수 있는 규칙 묶음으로 만듭니다.
+ * 비활성화된 정책은 포함하지 않으며, 규칙 내용이 같으면 같은 버전(해시)이 나옵니다.
+ * 컴파일 결과는 테넌트별로 캐시하고 정책이 바뀌면(PolicyChangedEvent, 커밋 후) 버립니다.
+ * 다른 서버 인스턴스에서 바뀐 정책은 cache-ttl-seconds가 지나야 반영되며, 그 사이 버전이 어긋난 스냅샷은 정밀 스캔으로 처리됩니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EdgePolicyCompiler {
+
+    private final List<SecurityPolicy<?>> allPolicies;
+    private final PolicyService policyService;
+
+    private final List<SecurityPolicy<?>> edgePolicies = new ArrayList<>();
+    // 모든 정책이 Agent에서 평가 가능한 타입. 이 타입은 Agent 평가 결과만으로 정밀 스캔을 대신할 수 있음
+    private final Set<Policy.ResourceType> edgeEvaluatedTypes = EnumSet.noneOf(Policy.ResourceType.class);
+    // 테넌트 ID -> 컴파일 결과
+    private final Map<Long, Compiled> compiled = new ConcurrentHashMap<>();
+
+    @Value("${cnapp.edge-policy.cache-ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    @PostConstruct
+    public void init() {
+        allPolicies.stream()
+                .filter(policy -> policy instanceof EdgeEvaluablePolicy)
+                .sorted(Comparator.comparing((SecurityPolicy<?> p) -> p.getSupportedType()).thenComparing(SecurityPolicy::getRuleType))
+                .forEach(edgePolicies::add);
+
+        for (Policy.ResourceType type : Policy.ResourceType.values()) {
+            List<SecurityPolicy<?>> policies = allPolicies.stream().filter(p -> p.getSupportedType() == type).toList();
+            if (!policies.isEmpty() && policies.stream().allMatch(p -> p instanceof EdgeEvaluablePolicy)) {
+                edgeEvaluatedTypes.add(type);
+            }
+        }
+        log.info("Edge Policy Compiler: {} agent-evaluable policies, fully covered types: {}", edgePolicies.size(), edgeEvaluatedTypes);
+    }
+
+    public EdgePolicySet compile(Tenant tenant) {
+        long now = System.currentTimeMillis();
+        // compute가 같은 테넌트의 컴파일을 하나로 묶고, 진행 중인 컴파일이 끝난 뒤에 무효화가 적용되게 함
+        return compiled.compute(tenant.getId(), (id, cached) ->
+                cached != null && now - cached.compiledAt() < cacheTtlSeconds * 1000
+                        ? cached
+                        : new Compiled(build(tenant), now)).policySet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPolicyChanged(PolicyChangedEvent event) {
+        compiled.remove(event.tenantId());
+    }
+
+    private EdgePolicySet build(Tenant tenant) {
+        List<EdgePolicyRule> rules = new ArrayList<>();
+        for (SecurityPolicy<?> policy : edgePolicies) {
+            String value = policyService.getPolicyValueForTenant(tenant, policy.getSupportedType(), policy.getRuleType());
+            if (value == null || value.isBlank()) continue;
+            EdgeEvaluablePolicy edge = (EdgeEvaluablePolicy) policy;
+            rules.add(new EdgePolicyRule(policy.getSupportedType().name(), policy.getRuleType().name(), value,
+                    edge.getSeverity().name(), edge.getMessageTemplate()));
+        }
+        return new EdgePolicySet(version(rules), rules);
+    }
+
+    public Set<Policy.ResourceType> getEdgeEvaluatedTypes() {
+        return Collections.unmodifiableSet(edgeEvaluatedTypes);
+    }
+
+    private String version(List<EdgePolicyRule> rules) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (EdgePolicyRule rule : rules) {
+                md.update(String.join("\u0000", rule.resourceType(), rule.ruleType(), rule.value(), rule.severity(),
+                        rule.messageTemplate(), "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(md.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Compiled(EdgePolicySet policySet, long compiledAt) {}
+}
@@ -0,0 +1,125 @@
+package com.k8s.cnapp.server.detection.service;
+
+import com.k8s.cnapp.server.alert.domain.Alert;
+import com.k8s.cnapp.server.alert.repository.AlertRepository;
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import com.k8s.cnapp.server.auth.repository.TenantRepository;
+import com.k8s.cnapp.server.detection.event.EdgeViolationEvent;
+import com.k8s.cnapp.server.ingestion.dto.ClusterSnapshot;
+import com.k8s.cnapp.server.ingestion.dto.EdgePolicyRule;
+import com.k8s.cnapp.server.ingestion.dto.EdgePolicySet;
+import com.k8s.cnapp.server.ingestion.dto.EdgeViolation;
+import com.k8s.cnapp.server.policy.domain.Policy;
+import com.k8s.cnapp.server.profile.repository.PodProfileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Agent가 전송 전에 평가한 정책 위반(EdgeViolation)을 받아 정밀 스캔 없이 Alert로 기록합니다.
+ * Agent가 사용한 정책 버전이 현재 테넌트 정책과 같을 때만 신뢰하며, 다르면 기존처럼 정밀 스캔에 맡깁니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EdgeViolationService {
+
+    private final EdgePolicyCompiler edgePolicyCompiler;
+    private final PodProfileRepository podProfileRepository;
+    private final AlertRepository alertRepository;
+    private final TenantRepository tenantRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 스냅샷의 위반을 Alert 이벤트로 발행합니다. (수집 트랜잭션 안에서 호출, 프로필 저장 이후)
+     * @return Agent 평가로 정밀 스캔을 대신할 수 있는 리소스 타입. 정책 버전이 없거나 다르면 빈 Set
+     */
+    public Set<Policy.ResourceType> accept(Tenant tenant, ClusterSnapshot snapshot) {
+        if (snapshot.policyVersion() == null) return Set.of();
+
+        EdgePolicySet policySet = edgePolicyCompiler.compile(tenant);
+        if (!policySet.version().equals(snapshot.policyVersion())) {
+            log.debug("Tenant {}: edge policy version mismatch (agent: {}, server: {}). Falling back to targeted scan.",
+                    tenant.getName(), snapshot.policyVersion(), policySet.version());
+            return Set.of();
+        }
+
+        List<EdgeViolation> violations = snapshot.violations() != null ? snapshot.violations() : List.of();
+        if (!violations.isEmpty()) {
+            Map<String, Alert.Severity> severities = policySet.rules().stream()
+                    .collect(Collectors.toMap(EdgePolicyRule::ruleType, r -> Alert.Severity.valueOf(r.severity()), (a, b) -> a));
+            Map<String, String> podNames = resolvePodNames(tenant, violations);
+
+            List<EdgeViolationEvent.Violation> resolved = new ArrayList<>();
+            for (EdgeViolation v : violations) {
+                Alert.Severity severity = severities.get(v.ruleType());
+                if (severity == null) continue;
+                boolean pod = "Pod".equals(v.resourceType());
+                String resourceName = pod ? podNames.get(v.resourceKey()) : v.resourceKey();
+                if (resourceName == null) continue;
+                resolved.add(new EdgeViolationEvent.Violation(severity, v.message(),
+                        pod ? Policy.ResourceType.POD.name() : Policy.ResourceType.SERVICE.name(), resourceName));
+            }
+
+            if (!resolved.isEmpty()) {
+                eventPublisher.publishEvent(EdgeViolationEvent.builder()
+                        .tenantId(tenant.getId())
+                        .violations(resolved)
+                        .build());
+            }
+        }
+        return edgePolicyCompiler.getEdgeEvaluatedTypes();
+    }
+
+    /**
+     * 수집 트랜잭션이 커밋된 뒤 Alert를 기록합니다. 중복 판정 키는 SecurityScannerService와 같습니다.
+     */
+    @Async("scanExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEdgeViolations(EdgeViolationEvent event) {
+        tenantRepository.findById(event.getTenantId()).ifPresent(tenant -> {
+            List<String> names = event.getViolations().stream().map(EdgeViolationEvent.Violation::resourceName).distinct().toList();
+            Set<String> existing = alertRepository.findByStatusAndResourceNameIn(Alert.Status.OPEN, names).stream()
+                    .filter(a -> a.getTenant().getId().equals(tenant.getId()))
+                    .map(a -> a.getResourceType() + "/" + a.getResourceName() + "/" + a.getMessage())
+                    .collect(Collectors.toCollection(HashSet::new));
+
+            List<Alert> newAlerts = new ArrayList<>();
+            for (EdgeViolationEvent.Violation v : event.getViolations()) {
+                if (existing.add(v.resourceType() + "/" + v.resourceName() + "/" + v.message())) {
+                    newAlerts.add(new Alert(tenant, v.severity(), Alert.Category.CSPM, v.message(), v.resourceType(), v.resourceName()));
+                    log.warn("[ALERT] [{}] {} - {} ({})", v.severity(), Alert.Category.CSPM, v.message(), v.resourceName());
+                }
+            }
+            if (newAlerts.isEmpty()) return;
+
+            try {
+                alertRepository.saveAll(newAlerts);
+                log.info("Tenant {}: Generated {} new alerts from agent evaluation.", tenant.getName(), newAlerts.size());
+            } catch (DataIntegrityViolationException e) {
+                log.info("Tenant {}: Duplicate alerts detected and skipped.", tenant.getName());
+            }
+        });
+    }
+
+    // Pod Alert는 스캐너와 같이 자산 식별자(namespace/워크로드)로 기록
+    private Map<String, String> resolvePodNames(Tenant tenant, List<EdgeViolation> violations) {
+        List<String> podKeys = violations.stream()
+                .filter(v -> "Pod".equals(v.resourceType()))
+                .map(EdgeViolation::resourceKey)
+                .distinct()
+                .toList();
+        if (podKeys.isEmpty()) return Map.of();
+        return podProfileRepository.findAllByTenantAndKeys(tenant, podKeys).stream()
+                .collect(Collectors.toMap(p -> p.getAssetContext().getLookupKey(),
+                        p -> p.getAssetContext().getAssetKey(), (a, b) -> a));
+    }
+}
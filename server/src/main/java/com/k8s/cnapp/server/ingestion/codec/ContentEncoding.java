@@ -0,0 +1,46 @@
+package com.k8s.cnapp.server.ingestion.codec;
+
+import com.github.luben.zstd.ZstdInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Agent 전송 본문의 Content-Encoding. 압축 해제는 스트림 단위로 수행되어
+ * 원본 JSON 전체를 메모리에 펼치지 않고 곧바로 파서에 공급됩니다.
+ */
+public enum ContentEncoding {
+    IDENTITY("identity"),
+    GZIP("gzip"),
+    ZSTD("zstd");
+
+    private final String headerValue;
+
+    ContentEncoding(String headerValue) {
+        this.headerValue = headerValue;
+    }
+
+    public String headerValue() {
+        return headerValue;
+    }
+
+    public InputStream decode(InputStream in) throws IOException {
+        return switch (this) {
+            case IDENTITY -> in;
+            case GZIP -> new GZIPInputStream(in, 8192);
+            case ZSTD -> new ZstdInputStream(in);
+        };
+    }
+
+    /**
+     * @throws IllegalArgumentException 지원하지 않는 인코딩
+     */
+    public static ContentEncoding fromHeader(String header) {
+        if (header == null || header.isBlank()) return IDENTITY;
+        for (ContentEncoding encoding : values()) {
+            if (encoding.headerValue.equalsIgnoreCase(header.trim())) return encoding;
+        }
+        throw new IllegalArgumentException("Unsupported Content-Encoding: " + header);
+    }
+}
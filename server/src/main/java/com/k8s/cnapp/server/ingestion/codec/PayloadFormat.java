@@ -0,0 +1,53 @@
+package com.k8s.cnapp.server.ingestion.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Agent 전송 본문의 직렬화 형식 (Content-Type). 두 형식 모두 같은 ClusterSnapshot 스키마를 가지며
+ * 파싱 결과 트리도 동일하므로, 트리 이후의 처리(Delta 복원, 역직렬화)는 형식과 무관합니다.
+ */
+public enum PayloadFormat {
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR);
+
+    private static final ObjectMapper CBOR_MAPPER = new CBORMapper();
+
+    private final MediaType mediaType;
+
+    PayloadFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaTypeValue() {
+        return mediaType.toString();
+    }
+
+    /**
+     * @param jsonMapper JSON 본문 파싱에 사용할 애플리케이션 ObjectMapper
+     */
+    public JsonNode readTree(ObjectMapper jsonMapper, InputStream in) throws IOException {
+        return switch (this) {
+            case JSON -> jsonMapper.readTree(in);
+            case CBOR -> CBOR_MAPPER.readTree(in);
+        };
+    }
+
+    /**
+     * Content-Type 헤더가 없으면 기존 Agent와의 호환을 위해 JSON으로 간주합니다.
+     * @throws IllegalArgumentException 지원하지 않는 형식
+     */
+    public static PayloadFormat fromContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) return JSON;
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        for (PayloadFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(mediaType)) return format;
+        }
+        throw new IllegalArgumentException("Unsupported Content-Type: " + contentType);
+    }
+}
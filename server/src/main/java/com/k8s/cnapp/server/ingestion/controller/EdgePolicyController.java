@@ -0,0 +1,46 @@
+package com.k8s.cnapp.server.ingestion.controller;
+
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import com.k8s.cnapp.server.auth.service.AuthService;
+import com.k8s.cnapp.server.detection.service.EdgePolicyCompiler;
+import com.k8s.cnapp.server.ingestion.dto.EdgePolicySet;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Agent가 전송 전에 직접 평가할 단일 객체 정책 묶음을 제공합니다.
+ * 정책 버전을 ETag로 사용하므로 Agent가 이미 최신 버전을 가지고 있으면 304만 응답합니다.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/ingestion/policies")
+@RequiredArgsConstructor
+public class EdgePolicyController {
+
+    private final AuthService authService;
+    private final EdgePolicyCompiler edgePolicyCompiler;
+
+    @GetMapping
+    public ResponseEntity<EdgePolicySet> getPolicies(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Tenant tenant = authService.getCurrentTenant();
+        if (tenant == null) {
+            log.warn("Unauthorized edge policy request attempt.");
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        }
+
+        EdgePolicySet policySet = edgePolicyCompiler.compile(tenant);
+        String etag = "\"" + policySet.version() + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(policySet);
+    }
+}
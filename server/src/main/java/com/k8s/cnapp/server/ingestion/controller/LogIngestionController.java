@@ -3,15 +3,31 @@ package com.k8s.cnapp.server.ingestion.controller;
 import com.k8s.cnapp.server.auth.domain.Tenant;
 import com.k8s.cnapp.server.auth.service.AuthService;
 import com.k8s.cnapp.server.config.RabbitConfig;
+import com.k8s.cnapp.server.ingestion.codec.ContentEncoding;
+import com.k8s.cnapp.server.ingestion.codec.PayloadFormat;
 import com.k8s.cnapp.server.ingestion.dto.IngestionRequestMessage;
+import com.k8s.cnapp.server.ingestion.dto.IngestionResponse;
+import com.k8s.cnapp.server.ingestion.dto.SnapshotChunk;
 import com.k8s.cnapp.server.ingestion.port.LogIngestionPort;
+import com.k8s.cnapp.server.ingestion.service.IngestionBackpressure;
+import com.k8s.cnapp.server.ingestion.service.ResourceStateService;
+import com.k8s.cnapp.server.ingestion.service.SnapshotUploadService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
 
 @Slf4j
 @RestController
@@ -21,20 +37,86 @@ public class LogIngestionController implements LogIngestionPort {
 
     private final RabbitTemplate rabbitTemplate;
     private final AuthService authService;
+    private final ResourceStateService resourceStateService;
+    private final IngestionBackpressure backpressure;
+    private final SnapshotUploadService snapshotUploadService;
+
+    // 요청 본문(압축 후)과 큐에 넣는 메시지(직렬화 후)의 최대 크기. 넘으면 413으로 거절 -> Agent가 나눠서 재전송
+    @Value("${cnapp.ingestion.max-request-bytes:8388608}")
+    private int maxRequestBytes;
+
+    @Value("${cnapp.ingestion.max-message-bytes:12582912}")
+    private int maxMessageBytes;
 
     @PostMapping("/raw")
+    public IngestionResponse ingestRaw(@RequestBody byte[] body,
+                                       @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+                                       @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                       @RequestHeader(value = SnapshotChunk.ID_HEADER, required = false) String snapshotId,
+                                       @RequestHeader(value = SnapshotChunk.FULL_HEADER, defaultValue = "false") boolean snapshotFull,
+                                       @RequestHeader(value = SnapshotChunk.SEQ_HEADER, required = false) Integer snapshotSeq,
+                                       @RequestHeader(value = SnapshotChunk.LAST_HEADER, defaultValue = "false") boolean snapshotLast) {
+        SnapshotChunk chunk = null;
+        if (snapshotId != null) {
+            if (snapshotSeq == null || snapshotSeq < 0 || snapshotId.isBlank() || snapshotId.length() > 64) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid snapshot chunk headers");
+            }
+            chunk = new SnapshotChunk(snapshotId, snapshotFull, snapshotSeq, snapshotLast);
+        }
+        return ingest(body, contentEncoding, contentType, chunk);
+    }
+
     @Override
-    public void ingest(@RequestBody String rawData) {
+    public IngestionResponse ingest(byte[] body, String contentEncoding, String contentType, SnapshotChunk chunk) {
         Tenant tenant = authService.getCurrentTenant();
         if (tenant == null) {
             log.warn("Unauthorized ingestion request attempt.");
-            return;
+            return null;
+        }
+
+        if (body.length > maxRequestBytes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Request body of " + body.length + " bytes exceeds " + maxRequestBytes + " bytes");
+        }
+
+        // 이미 큐에 넣은 조각의 재전송(응답 유실, Agent 재시작)은 다시 처리하지 않고 수신만 확인
+        if (chunk != null && snapshotUploadService.isReceived(tenant, chunk)) {
+            log.debug("Snapshot {} chunk {} already received for tenant: {}", chunk.snapshotId(), chunk.seq(), tenant.getName());
+            return new IngestionResponse(resourceStateService.drainResyncRequests(tenant), chunk.seq());
+        }
+
+        // 적체/처리 지연 시 429·503 + Retry-After로 Agent가 전송 속도를 줄이도록 알림
+        backpressure.checkCapacity();
+
+        ContentEncoding encoding;
+        PayloadFormat format;
+        try {
+            encoding = ContentEncoding.fromHeader(contentEncoding);
+            format = PayloadFormat.fromContentType(contentType);
+        } catch (IllegalArgumentException e) {
+            // 415를 받은 Agent는 JSON/비압축으로 되돌아가 재전송
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, e.getMessage());
         }
 
         // 1. 비동기 처리를 위해 RabbitMQ 큐로 데이터 전송
-        IngestionRequestMessage message = new IngestionRequestMessage(tenant.getId(), rawData);
-        rabbitTemplate.convertAndSend(RabbitConfig.INGESTION_RAW_QUEUE, message);
+        // 압축/바이너리 본문은 그대로 적재 -> Worker가 스트림으로 해제하며 바로 파싱
+        IngestionRequestMessage message = (encoding == ContentEncoding.IDENTITY && format == PayloadFormat.JSON)
+                ? new IngestionRequestMessage(tenant.getId(), new String(body, StandardCharsets.UTF_8))
+                : new IngestionRequestMessage(tenant.getId(), null, body, encoding.headerValue(), format.mediaTypeValue());
+        // JSON 메시지 변환 시 본문이 늘어나므로(문자열 escape, base64) 변환된 크기로 한 번 더 확인
+        Message amqpMessage = rabbitTemplate.getMessageConverter().toMessage(message, new MessageProperties());
+        if (amqpMessage.getBody().length > maxMessageBytes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Queue message of " + amqpMessage.getBody().length + " bytes exceeds " + maxMessageBytes + " bytes");
+        }
+        rabbitTemplate.send(RabbitConfig.INGESTION_RAW_QUEUE, amqpMessage);
+        if (chunk != null) {
+            snapshotUploadService.markReceived(tenant, chunk);
+        }
         
         log.debug("Ingestion request queued for tenant: {}", tenant.getName());
+
+        // 2. 이전 요청에서 Delta 적용에 실패한 리소스의 전체 재전송 요청, 조각 수신 확인
+        return new IngestionResponse(resourceStateService.drainResyncRequests(tenant), chunk != null ? chunk.seq() : null);
     }
 }
@@ -0,0 +1,43 @@
+package com.k8s.cnapp.server.ingestion.controller;
+
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import com.k8s.cnapp.server.auth.service.AuthService;
+import com.k8s.cnapp.server.ingestion.dto.PodUsageReport;
+import com.k8s.cnapp.server.ingestion.service.PodUsageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Agent가 집계한 Pod 사용량 구간(min/avg/max) 수신 API. 인벤토리 스냅샷 큐를 거치지 않고 바로 배치 적재합니다.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/ingestion/usage")
+@RequiredArgsConstructor
+public class PodUsageController {
+
+    private final AuthService authService;
+    private final PodUsageService podUsageService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void ingestUsage(@RequestBody PodUsageReport report) {
+        Tenant tenant = authService.getCurrentTenant();
+        if (tenant == null) {
+            log.warn("Unauthorized usage ingestion attempt.");
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        }
+        try {
+            podUsageService.record(tenant, report);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
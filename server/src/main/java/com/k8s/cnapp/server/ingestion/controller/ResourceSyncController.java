@@ -0,0 +1,60 @@
+package com.k8s.cnapp.server.ingestion.controller;
+
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import com.k8s.cnapp.server.auth.service.AuthService;
+import com.k8s.cnapp.server.ingestion.dto.BucketDigestRequest;
+import com.k8s.cnapp.server.ingestion.dto.BucketDigestResponse;
+import com.k8s.cnapp.server.ingestion.dto.DigestRootsRequest;
+import com.k8s.cnapp.server.ingestion.dto.DigestRootsResponse;
+import com.k8s.cnapp.server.ingestion.service.ResourceDigestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Agent-서버 Anti-entropy 동기화 API.
+ * Agent는 먼저 타입별 해시 트리 루트를 보내고, 루트가 다른 타입에 대해서만 버킷 해시를 보내 어긋난 리소스를 찾습니다.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/ingestion/sync")
+@RequiredArgsConstructor
+public class ResourceSyncController {
+
+    private final AuthService authService;
+    private final ResourceDigestService resourceDigestService;
+
+    @PostMapping("/roots")
+    public DigestRootsResponse compareRoots(@RequestBody DigestRootsRequest request) {
+        Tenant tenant = currentTenant();
+        try {
+            return resourceDigestService.compareRoots(tenant, request);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @PostMapping("/buckets")
+    public BucketDigestResponse compareBuckets(@RequestBody BucketDigestRequest request) {
+        Tenant tenant = currentTenant();
+        try {
+            return resourceDigestService.compareBuckets(tenant, request);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private Tenant currentTenant() {
+        Tenant tenant = authService.getCurrentTenant();
+        if (tenant == null) {
+            log.warn("Unauthorized anti-entropy request attempt.");
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        }
+        return tenant;
+    }
+}
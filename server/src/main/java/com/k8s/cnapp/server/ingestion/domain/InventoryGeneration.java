@@ -0,0 +1,43 @@
+package com.k8s.cnapp.server.ingestion.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 서버가 스냅샷 식별자마다 부여한 인벤토리 세대. 처음 본 스냅샷 식별자(조각 또는 변경분에 붙은 inventoryId)에 증가하는 번호를 부여합니다.
+ * 자산 행의 sync_generation과 비교해 전체 스냅샷에서 확인되지 않은 행을 찾으므로 Agent 시계에 의존하지 않습니다.
+ * 적재는 InventoryGenerationService의 JDBC(ON CONFLICT)로 합니다.
+ * 보존 기간이 지난 세대는 바로 지우지 않고 purged_at을 기록해 두어, 늦게 도착한 같은 식별자가 새 세대를 받지 않게 합니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "inventory_generations", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_inventory_generation_snapshot", columnNames = {"tenant_id", "snapshot_id"})
+}, indexes = {
+        @Index(name = "idx_inventory_generation_created_at", columnList = "created_at")
+})
+public class InventoryGeneration {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "generation")
+    private Long generation;
+
+    @Column(name = "tenant_id", nullable = false)
+    private Long tenantId;
+
+    @Column(name = "snapshot_id", nullable = false, length = 64)
+    private String snapshotId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // 보존 기간이 지나 더 이상 자산 행에 기록하지 않는 시각 (null이면 유효)
+    @Column(name = "purged_at")
+    private LocalDateTime purgedAt;
+}
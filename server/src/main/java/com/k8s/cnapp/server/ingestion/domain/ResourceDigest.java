@@ -0,0 +1,49 @@
+package com.k8s.cnapp.server.ingestion.domain;
+
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Agent가 마지막으로 보낸 리소스의 지문. 서버가 실제로 처리한 리소스만 기록되므로,
+ * Agent의 Informer 캐시와 비교해 전송 유실로 어긋난 리소스를 찾는 데 사용합니다. (Anti-entropy)
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "resource_digests", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_resource_digest_key", columnNames = {"tenant_id", "resource_type", "resource_key"})
+})
+public class ResourceDigest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "resource_digest_seq")
+    @SequenceGenerator(name = "resource_digest_seq", sequenceName = "resource_digest_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tenant_id", nullable = false)
+    private Tenant tenant;
+
+    @Column(name = "resource_type", nullable = false)
+    private String resourceType;
+
+    @Column(name = "resource_key", nullable = false)
+    private String resourceKey;
+
+    @Column(name = "fingerprint", nullable = false)
+    private long fingerprint;
+
+    public ResourceDigest(Tenant tenant, String resourceType, String resourceKey, long fingerprint) {
+        this.tenant = tenant;
+        this.resourceType = resourceType;
+        this.resourceKey = resourceKey;
+        this.fingerprint = fingerprint;
+    }
+
+    public void update(long fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+}
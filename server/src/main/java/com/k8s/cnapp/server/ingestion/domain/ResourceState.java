@@ -0,0 +1,99 @@
+package com.k8s.cnapp.server.ingestion.domain;
+
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Delta(JSON Merge Patch) 적용을 위한 리소스별 마지막 수신 상태.
+ * Agent가 보낸 JSON 중 서버가 자산 프로필로 옮기는 필드만 남겨 보관하며 (ResourceStateService.STATE_FIELDS),
+ * resourceVersion이 patch의 baseVersion과 일치할 때만 patch를 적용합니다.
+ * 기준 전송본보다 먼저 처리된 patch는 deferred_patches에 보관했다가 기준 전송본이 처리되면 이어서 적용합니다.
+ * 행은 ResourceStateService가 네이티브 INSERT(ON CONFLICT)로 만들고 잠가서(FOR UPDATE) 갱신합니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "resource_states", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_resource_state_key", columnNames = {"tenant_id", "resource_type", "resource_key"})
+}, indexes = {
+        @Index(name = "idx_resource_state_resync", columnList = "tenant_id, resync_requested"),
+        @Index(name = "idx_resource_state_deferred", columnList = "tenant_id, deferred_since")
+})
+public class ResourceState {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "resource_state_seq")
+    @SequenceGenerator(name = "resource_state_seq", sequenceName = "resource_state_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "tenant_id", nullable = false)
+    private Tenant tenant;
+
+    @Column(name = "resource_type", nullable = false)
+    private String resourceType;
+
+    @Column(name = "resource_key", nullable = false)
+    private String resourceKey;
+
+    @Column(name = "resource_version")
+    private String resourceVersion;
+
+    @Column(name = "body", columnDefinition = "TEXT")
+    private String body;
+
+    // baseVersion 불일치 등으로 Agent에 전체 재전송을 요청해야 하는 상태
+    @Column(name = "resync_requested", nullable = false)
+    private boolean resyncRequested;
+
+    // 기준 전송본이 아직 처리되지 않아 보류한 patch 목록 (JSON 배열: baseVersion, version, patch)
+    @Column(name = "deferred_patches", columnDefinition = "TEXT")
+    private String deferredPatches;
+
+    // 가장 오래 보류 중인 patch를 보관한 시각. 기다림이 길어지면 재전송 요청으로 바꿈
+    @Column(name = "deferred_since")
+    private LocalDateTime deferredSince;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    public ResourceState(Tenant tenant, String resourceType, String resourceKey) {
+        this.tenant = tenant;
+        this.resourceType = resourceType;
+        this.resourceKey = resourceKey;
+    }
+
+    public void update(String resourceVersion, String body) {
+        this.resourceVersion = resourceVersion;
+        this.body = body;
+        this.resyncRequested = false;
+    }
+
+    public void requestResync() {
+        this.resyncRequested = true;
+        // 전체 객체가 다시 오므로 보류한 patch는 필요 없음
+        updateDeferredPatches(null);
+    }
+
+    /**
+     * @param deferredPatches 남은 보류 patch 목록 (JSON 배열). null이면 보류 해제
+     */
+    public void updateDeferredPatches(String deferredPatches) {
+        if (deferredPatches == null) {
+            this.deferredSince = null;
+        } else if (this.deferredPatches == null) {
+            this.deferredSince = LocalDateTime.now();
+        }
+        this.deferredPatches = deferredPatches;
+    }
+
+    public void clearResyncRequest() {
+        this.resyncRequested = false;
+    }
+}
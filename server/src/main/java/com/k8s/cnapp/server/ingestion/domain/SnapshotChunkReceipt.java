@@ -0,0 +1,61 @@
+package com.k8s.cnapp.server.ingestion.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Agent가 분할 전송한 전체 스냅샷 조각의 수신/처리 기록.
+ * 수신(큐 적재) 시 행을 만들어 같은 조각의 재전송을 거르고, Worker가 처리하면 processed_at을 채웁니다.
+ * 마지막 조각 행의 completed_at은 모든 조각이 처리되어 스냅샷이 완료된 시각입니다.
+ * 적재/갱신은 SnapshotUploadService의 JDBC(ON CONFLICT)로 합니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@IdClass(SnapshotChunkReceipt.Key.class)
+@Table(name = "snapshot_chunks", indexes = {
+        @Index(name = "idx_snapshot_chunk_received_at", columnList = "received_at")
+})
+public class SnapshotChunkReceipt {
+
+    @Id
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Id
+    @Column(name = "snapshot_id", length = 64)
+    private String snapshotId;
+
+    @Id
+    @Column(name = "seq")
+    private int seq;
+
+    @Column(name = "last_chunk", nullable = false)
+    private boolean lastChunk;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long tenantId;
+        private String snapshotId;
+        private int seq;
+    }
+}
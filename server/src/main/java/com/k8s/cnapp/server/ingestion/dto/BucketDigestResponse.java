@@ -0,0 +1,13 @@
+package com.k8s.cnapp.server.ingestion.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @param mismatchedBuckets 해시가 다른 버킷 번호
+ * @param entries           해당 버킷들에 대해 서버가 보관 중인 (리소스 키 -> 지문)
+ */
+public record BucketDigestResponse(
+        List<Integer> mismatchedBuckets,
+        Map<String, Long> entries
+) {}
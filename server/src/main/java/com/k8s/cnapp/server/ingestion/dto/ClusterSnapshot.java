@@ -16,5 +16,12 @@ public record ClusterSnapshot(
         List<V1ReplicaSet> replicaSets,
         List<V1NetworkPolicy> networkPolicies,
         List<V1Ingress> ingresses,
-        Map<String, List<String>> deletedResources // "Pod" -> ["namespace/pod1", ...]
+        Map<String, List<String>> deletedResources, // "Pod" -> ["namespace/pod1", ...]
+        List<ResourcePatch> patches, // 변경분만 전송된 리소스 (ResourceStateService에서 전체 객체로 복원)
+        Map<String, Map<String, Long>> fingerprints, // "Pod" -> {"namespace/pod/container" -> 지문} (Anti-entropy 비교용)
+        String policyVersion, // Agent가 정책 평가에 사용한 EdgePolicySet 버전 (평가하지 않았으면 null)
+        List<EdgeViolation> violations, // Agent가 평가한 정책 위반
+        SnapshotChunk chunk, // 분할 전송된 전체 스냅샷의 조각 정보 (일반 변경분은 null)
+        Map<String, List<String>> unchangedResources, // 전체 스냅샷에서 지문이 같아 본문 없이 키만 보낸 리소스 (세대만 기록)
+        String inventoryId // 조각은 자신의 스냅샷, 변경분은 Agent가 큐에 넣을 때 진행 중이던 최근 스냅샷 식별자
 ) {}
@@ -0,0 +1,10 @@
+package com.k8s.cnapp.server.ingestion.dto;
+
+import java.util.List;
+
+/**
+ * @param mismatchedTypes 서버의 루트 해시가 다른 리소스 타입 (버킷 단위 비교 대상)
+ */
+public record DigestRootsResponse(
+        List<String> mismatchedTypes
+) {}
@@ -0,0 +1,17 @@
+package com.k8s.cnapp.server.ingestion.dto;
+
+/**
+ * Agent에 내려보내는 단일 객체 정책 규칙.
+ * @param resourceType    Policy.ResourceType 이름 ("POD", "SERVICE")
+ * @param ruleType        Policy.RuleType 이름
+ * @param value           테넌트의 정책 값 ("true", "22,3306" ...)
+ * @param severity        위반 시 Alert 심각도
+ * @param messageTemplate 위반 메시지 (String.format 형식)
+ */
+public record EdgePolicyRule(
+        String resourceType,
+        String ruleType,
+        String value,
+        String severity,
+        String messageTemplate
+) {}
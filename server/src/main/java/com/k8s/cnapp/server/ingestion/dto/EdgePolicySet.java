@@ -0,0 +1,11 @@
+package com.k8s.cnapp.server.ingestion.dto;
+
+import java.util.List;
+
+/**
+ * 테넌트의 Agent 평가용 정책 묶음. version은 규칙 내용의 해시로, 응답 ETag로도 사용됩니다.
+ */
+public record EdgePolicySet(
+        String version,
+        List<EdgePolicyRule> rules
+) {}
@@ -0,0 +1,15 @@
+package com.k8s.cnapp.server.ingestion.dto;
+
+/**
+ * Agent가 평가해 스냅샷에 담아 보낸 정책 위반.
+ * @param resourceType 리소스 타입 ("Pod", "Service")
+ * @param resourceKey  리소스 키 (Pod: namespace/pod/container, Service: namespace/name)
+ * @param ruleType     위반한 규칙 (Policy.RuleType 이름)
+ * @param message      위반 메시지
+ */
+public record EdgeViolation(
+        String resourceType,
+        String resourceKey,
+        String ruleType,
+        String message
+) {}
@@ -2,7 +2,21 @@ package com.k8s.cnapp.server.ingestion.dto;
 
 import java.io.Serializable;
 
+/**
+ * @param rawData         비압축 JSON 본문
+ * @param payload         압축되었거나 바이너리(CBOR)인 본문 (그대로 큐에 적재하고 Worker에서 스트림으로 해제/파싱)
+ * @param contentEncoding payload의 Content-Encoding (gzip, zstd, identity)
+ * @param contentType     payload의 직렬화 형식 (application/json, application/cbor). null이면 JSON
+ */
 public record IngestionRequestMessage(
         Long tenantId,
-        String rawData
-) implements Serializable {}
+        String rawData,
+        byte[] payload,
+        String contentEncoding,
+        String contentType
+) implements Serializable {
+
+    public IngestionRequestMessage(Long tenantId, String rawData) {
+        this(tenantId, rawData, null, null, null);
+    }
+}
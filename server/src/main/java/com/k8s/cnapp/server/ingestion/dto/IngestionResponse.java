@@ -0,0 +1,14 @@
+package com.k8s.cnapp.server.ingestion.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ingestion API 응답.
+ * @param resyncRequests  서버가 patch를 적용하지 못해 전체 재전송이 필요한 리소스 ("Pod" -> ["namespace/pod/container", ...])
+ * @param acknowledgedSeq 큐 적재(또는 이미 수신)를 확인한 스냅샷 조각 순번. 조각이 아닌 요청이면 null
+ */
+public record IngestionResponse(
+        Map<String, List<String>> resyncRequests,
+        Integer acknowledgedSeq
+) {}
@@ -0,0 +1,14 @@
+package com.k8s.cnapp.server.ingestion.dto;
+
+import java.util.List;
+
+/**
+ * Agent가 집계 구간 단위로 보낸 Pod 사용량 묶음
+ * @param windowStart   구간 시작 시각 (epoch ms, window-seconds 단위로 정렬)
+ * @param windowSeconds 구간 길이
+ */
+public record PodUsageReport(
+        long windowStart,
+        int windowSeconds,
+        List<PodUsageRollup> pods
+) {}
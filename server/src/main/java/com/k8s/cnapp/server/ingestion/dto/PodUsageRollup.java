@@ -0,0 +1,17 @@
+package com.k8s.cnapp.server.ingestion.dto;
+
+/**
+ * 한 집계 구간 동안의 Pod 사용량 (컨테이너 합계). CPU는 millicore, 메모리는 byte 단위.
+ * @param samples 구간 안에서 수집한 샘플 수
+ */
+public record PodUsageRollup(
+        String namespace,
+        String pod,
+        int samples,
+        long cpuMin,
+        long cpuAvg,
+        long cpuMax,
+        long memoryMin,
+        long memoryAvg,
+        long memoryMax
+) {}
@@ -0,0 +1,15 @@
+package com.k8s.cnapp.server.ingestion.dto;
+
+/**
+ * 이전 전송본 대비 변경분 (RFC 7386 JSON Merge Patch).
+ * @param baseVersion patch가 기준으로 삼는 metadata.resourceVersion
+ * @param version     patch를 적용한 결과의 metadata.resourceVersion
+ * @param patch       JSON Merge Patch 문서 (삭제 필드는 null로 표현되므로 문자열로 전달)
+ */
+public record ResourcePatch(
+        String type,
+        String key,
+        String baseVersion,
+        String version,
+        String patch
+) {}
@@ -0,0 +1,20 @@
+package com.k8s.cnapp.server.ingestion.dto;
+
+/**
+ * Agent가 전체 스냅샷을 나눠 보낸 조각의 식별 정보.
+ * @param snapshotId 전체 스냅샷 식별자
+ * @param full       테넌트 전체를 담은 스냅샷 여부. 샤드 분할 등 일부만 담은 스냅샷은 완료되어도 이전 세대를 정리하지 않음
+ * @param seq        0부터 시작하는 조각 순번
+ * @param last       마지막 조각 여부 (리소스 없이 전체 조각 수 seq + 1을 알림)
+ */
+public record SnapshotChunk(
+        String snapshotId,
+        boolean full,
+        int seq,
+        boolean last
+) {
+    public static final String ID_HEADER = "X-Snapshot-Id";
+    public static final String FULL_HEADER = "X-Snapshot-Full";
+    public static final String SEQ_HEADER = "X-Snapshot-Seq";
+    public static final String LAST_HEADER = "X-Snapshot-Last";
+}
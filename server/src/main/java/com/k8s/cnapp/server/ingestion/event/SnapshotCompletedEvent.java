@@ -0,0 +1,10 @@
+package com.k8s.cnapp.server.ingestion.event;
+
+/**
+ * Agent가 분할 전송한 전체 스냅샷의 모든 조각이 처리되었음을 알리는 이벤트 (마지막 조각을 처리한 트랜잭션 안에서 발행)
+ * @param tenantId   테넌트 ID
+ * @param snapshotId 전체 스냅샷 식별자
+ * @param generation 서버가 부여한 스냅샷 세대. null이면 테넌트 전체를 담지 않은 스냅샷이라 이전 세대 정리 대상이 아님
+ * @param chunks     전체 조각 수 (마지막 조각 포함)
+ */
+public record SnapshotCompletedEvent(Long tenantId, String snapshotId, Long generation, int chunks) {}
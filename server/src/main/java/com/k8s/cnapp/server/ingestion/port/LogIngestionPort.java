@@ -1,5 +1,7 @@
 package com.k8s.cnapp.server.ingestion.port;
 
+import com.k8s.cnapp.server.ingestion.dto.IngestionResponse;
+import com.k8s.cnapp.server.ingestion.dto.SnapshotChunk;
 import com.k8s.cnapp.server.profile.domain.PodProfile;
 
 /**
@@ -10,9 +12,13 @@ public interface LogIngestionPort {
 
     /**
      * 원본 로그(또는 이미 가공된 프로필)를 수신하여 처리.
-     * @param rawData 원본 데이터 (JSON String 등)
+     * @param body            원본 데이터 (JSON 등, 압축되어 있을 수 있음)
+     * @param contentEncoding body의 압축 방식 (null이면 비압축)
+     * @param contentType     body의 직렬화 형식 (JSON, CBOR. null이면 JSON)
+     * @param chunk           분할 전송된 전체 스냅샷의 조각 정보 (null이면 일반 변경분)
+     * @return 수신 측이 Agent에 돌려줄 응답 (재전송 요청, 조각 수신 확인 등)
      */
-    void ingest(String rawData);
+    IngestionResponse ingest(byte[] body, String contentEncoding, String contentType, SnapshotChunk chunk);
 
 
 }
@@ -0,0 +1,21 @@
+package com.k8s.cnapp.server.ingestion.repository;
+
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import com.k8s.cnapp.server.ingestion.domain.ResourceDigest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ResourceDigestRepository extends JpaRepository<ResourceDigest, Long> {
+
+    List<ResourceDigest> findByTenantAndResourceType(Tenant tenant, String resourceType);
+
+    List<ResourceDigest> findByTenantAndResourceTypeAndResourceKeyIn(Tenant tenant, String resourceType, Collection<String> keys);
+
+    @Modifying
+    void deleteByTenantAndResourceTypeAndResourceKeyIn(Tenant tenant, String resourceType, Collection<String> keys);
+}
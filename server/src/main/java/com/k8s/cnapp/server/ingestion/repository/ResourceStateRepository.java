@@ -0,0 +1,31 @@
+package com.k8s.cnapp.server.ingestion.repository;
+
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import com.k8s.cnapp.server.ingestion.domain.ResourceState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ResourceStateRepository extends JpaRepository<ResourceState, Long> {
+
+    List<ResourceState> findByTenantAndResourceTypeAndResourceKeyIn(Tenant tenant, String resourceType, Collection<String> keys);
+
+    // 같은 키를 담은 메시지를 동시에 처리하는 Worker끼리 순서대로 갱신하도록 키 순서로 잠금 (교착 방지)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ResourceState> findByTenantAndResourceTypeAndResourceKeyInOrderByResourceKey(Tenant tenant, String resourceType, Collection<String> keys);
+
+    // 한 번의 응답에 실어 보낼 재전송 요청 수 제한
+    List<ResourceState> findTop500ByTenantAndResyncRequestedTrue(Tenant tenant);
+
+    List<ResourceState> findTop500ByTenantAndDeferredSinceBefore(Tenant tenant, LocalDateTime cutoff);
+
+    @Modifying
+    void deleteByTenantAndResourceTypeAndResourceKeyIn(Tenant tenant, String resourceType, Collection<String> keys);
+}
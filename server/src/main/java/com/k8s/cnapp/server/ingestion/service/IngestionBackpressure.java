@@ -0,0 +1,105 @@
+package com.k8s.cnapp.server.ingestion.service;
+
+import com.k8s.cnapp.server.config.RabbitConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * ingestion.raw.queue 적체량과 Worker 처리 시간(EWMA)으로 수집 과부하를 판단합니다.
+ * - 적체량이 reject-depth 이상: 503 (새 요청 거부)
+ * - 적체량이 throttle-depth 이상이거나, 대기 중인 메시지가 있고 처리 시간이 max-worker-latency-ms 이상: 429 (속도 줄이기)
+ * 처리 시간은 Worker가 메시지를 처리할 때만 갱신되므로 큐가 비면 버립니다.
+ * (느린 메시지 하나로 높아진 값이 새 요청을 계속 막으면 처리할 메시지가 없어 값이 다시 내려가지 않음)
+ * Retry-After는 현재 적체량을 소비자들이 처리하는 데 걸리는 예상 시간입니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IngestionBackpressure {
+
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final AmqpAdmin amqpAdmin;
+
+    @Value("${cnapp.ingestion.backpressure.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cnapp.ingestion.backpressure.throttle-depth:1000}")
+    private long throttleDepth;
+
+    @Value("${cnapp.ingestion.backpressure.reject-depth:5000}")
+    private long rejectDepth;
+
+    @Value("${cnapp.ingestion.backpressure.max-worker-latency-ms:10000}")
+    private long maxWorkerLatencyMs;
+
+    @Value("${cnapp.ingestion.backpressure.max-retry-after-seconds:60}")
+    private long maxRetryAfterSeconds;
+
+    private volatile long queueDepth;
+    private volatile int consumerCount;
+    private volatile double workerLatencyMs;
+
+    // 요청마다 브로커를 조회하지 않도록 주기적으로 갱신
+    @Scheduled(fixedDelayString = "${cnapp.ingestion.backpressure.poll-interval-ms:1000}")
+    public void refreshQueueDepth() {
+        if (!enabled) return;
+        try {
+            QueueInformation info = amqpAdmin.getQueueInfo(RabbitConfig.INGESTION_RAW_QUEUE);
+            if (info != null) {
+                queueDepth = info.getMessageCount();
+                consumerCount = info.getConsumerCount();
+                if (queueDepth == 0) resetProcessingTime();
+            }
+        } catch (Exception e) {
+            log.debug("Failed to read ingestion queue depth: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void recordProcessingTime(long millis) {
+        workerLatencyMs = (workerLatencyMs == 0) ? millis : EWMA_ALPHA * millis + (1 - EWMA_ALPHA) * workerLatencyMs;
+    }
+
+    // 다음 처리 시간 기록이 EWMA를 새로 시작
+    private synchronized void resetProcessingTime() {
+        workerLatencyMs = 0;
+    }
+
+    /**
+     * @throws IngestionOverloadedException 과부하 상태인 경우
+     */
+    public void checkCapacity() {
+        if (!enabled) return;
+        long depth = queueDepth;
+        double latency = workerLatencyMs;
+
+        if (depth >= rejectDepth) {
+            throw new IngestionOverloadedException(HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds(depth, latency),
+                    "Ingestion backlog is full (" + depth + " queued)");
+        }
+        if (depth >= throttleDepth || (depth > 0 && latency >= maxWorkerLatencyMs)) {
+            throw new IngestionOverloadedException(HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(depth, latency),
+                    "Ingestion is overloaded (" + depth + " queued, " + Math.round(latency) + " ms per message)");
+        }
+    }
+
+    public long getQueueDepth() {
+        return queueDepth;
+    }
+
+    public double getWorkerLatencyMs() {
+        return workerLatencyMs;
+    }
+
+    private long retryAfterSeconds(long depth, double latency) {
+        double drainMs = depth * Math.max(latency, 1.0) / Math.max(consumerCount, 1);
+        long seconds = (long) Math.ceil(drainMs / 1000);
+        return Math.max(1, Math.min(seconds, maxRetryAfterSeconds));
+    }
+}
@@ -0,0 +1,27 @@
+package com.k8s.cnapp.server.ingestion.service;
+
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 수집 파이프라인 과부하 시 Agent에 보내는 응답 (429/503 + Retry-After).
+ */
+@Getter
+public class IngestionOverloadedException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public IngestionOverloadedException(HttpStatus status, long retryAfterSeconds, String reason) {
+        super(status, reason);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
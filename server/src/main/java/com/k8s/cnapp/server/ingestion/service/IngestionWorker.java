@@ -3,12 +3,17 @@ package com.k8s.cnapp.server.ingestion.service;
 import com.k8s.cnapp.server.auth.domain.Tenant;
 import com.k8s.cnapp.server.auth.repository.TenantRepository;
 import com.k8s.cnapp.server.config.RabbitConfig;
+import com.k8s.cnapp.server.ingestion.codec.ContentEncoding;
+import com.k8s.cnapp.server.ingestion.codec.PayloadFormat;
 import com.k8s.cnapp.server.ingestion.dto.IngestionRequestMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -16,6 +21,7 @@ public class IngestionWorker {
 
     private final LogProcessingService logProcessingService;
     private final TenantRepository tenantRepository;
+    private final IngestionBackpressure backpressure;
 
     @RabbitListener(queues = RabbitConfig.INGESTION_RAW_QUEUE, concurrency = "3-5")
     public void processIngestion(IngestionRequestMessage message) {
@@ -23,10 +29,20 @@ public class IngestionWorker {
         
         tenantRepository.findById(message.tenantId()).ifPresentOrElse(
             tenant -> {
+                long start = System.currentTimeMillis();
                 try {
-                    logProcessingService.processRawData(tenant, message.rawData());
+                    if (message.payload() != null) {
+                        // 압축 해제 스트림을 그대로 JSON/CBOR 파서에 연결 (중간 String 생성 없음)
+                        InputStream payload = ContentEncoding.fromHeader(message.contentEncoding())
+                                .decode(new ByteArrayInputStream(message.payload()));
+                        logProcessingService.processPayload(tenant, payload, PayloadFormat.fromContentType(message.contentType()));
+                    } else {
+                        logProcessingService.processRawData(tenant, message.rawData());
+                    }
                 } catch (Exception e) {
                     log.error("Failed to process background ingestion for tenant: {}", tenant.getName(), e);
+                } finally {
+                    backpressure.recordProcessingTime(System.currentTimeMillis() - start);
                 }
             },
             () -> log.warn("Tenant not found for ID: {}. Skipping ingestion.", message.tenantId())
@@ -0,0 +1,97 @@
+package com.k8s.cnapp.server.ingestion.service;
+
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 스냅샷 식별자를 서버가 부여한 세대(inventory_generations)로 바꿉니다.
+ * 같은 스냅샷의 조각과 그 스냅샷 수집 중 보낸 변경분은 모두 같은 세대로 자산 행에 기록됩니다.
+ * 여러 Worker가 같은 스냅샷을 동시에 처리하므로 부여는 별도 트랜잭션으로 바로 커밋합니다.
+ * (처리 트랜잭션 안에서 INSERT하면 다른 Worker가 커밋을 기다리며 막힘)
+ * 처음 보는 식별자에는 새 세대를 부여합니다. 변경분이 자기 스냅샷의 첫 조각보다 먼저 처리될 수 있으므로 변경분도 부여할 수 있어야 합니다.
+ * 보존 기간이 지나 정리된(purged) 식별자에는 새 세대를 부여하지 않습니다.
+ * 1. 변경분: 테넌트의 현재(가장 최근) 세대로 기록. 다음 전체 스냅샷에 없으면 그때 정리됨
+ * 2. 조각: 세대 없음(null). 앞 조각의 처리 기록도 같은 기간에 삭제되어 그 스냅샷은 완료될 수 없고 정리를 일으키지 않음
+ * 정리 기록(purged_at)은 tombstone-hours 뒤에 삭제되며, 그보다 늦게 도착한 식별자는 처음 보는 식별자로 취급됩니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventoryGenerationService {
+
+    private static final String ASSIGN_SQL = "INSERT INTO inventory_generations (tenant_id, snapshot_id, created_at) " +
+            "VALUES (?, ?, ?) ON CONFLICT (tenant_id, snapshot_id) DO NOTHING";
+    private static final String CURRENT_SQL = "SELECT max(generation) FROM inventory_generations " +
+            "WHERE tenant_id = ? AND purged_at IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    // 테넌트별 가장 최근에 조회한 스냅샷의 세대 (조각과 변경분은 대부분 같은 스냅샷을 가리킴)
+    private final Map<Long, Assigned> recent = new ConcurrentHashMap<>();
+
+    @Value("${cnapp.ingestion.snapshot.retention-hours:24}")
+    private int retentionHours;
+
+    @Value("${cnapp.ingestion.snapshot.tombstone-hours:168}")
+    private int tombstoneHours;
+
+    /**
+     * @param chunk 전체 스냅샷 조각의 식별자이면 true, 변경분에 붙은 inventoryId이면 false
+     * @return 스냅샷 식별자의 세대. 식별자가 없거나 정리된 조각 식별자이면 null (세대를 기록하지 않음)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Long generationOf(Tenant tenant, String snapshotId, boolean chunk) {
+        if (snapshotId == null) return null;
+        Assigned cached = recent.get(tenant.getId());
+        if (cached != null && cached.snapshotId().equals(snapshotId)) return cached.generation();
+
+        // 정리된 식별자는 남아 있는 기록과 충돌하므로 새 세대가 부여되지 않음
+        jdbcTemplate.update(ASSIGN_SQL, tenant.getId(), snapshotId, Timestamp.valueOf(LocalDateTime.now()));
+        Assigned assigned = jdbcTemplate.queryForObject(
+                "SELECT generation, purged_at FROM inventory_generations WHERE tenant_id = ? AND snapshot_id = ?",
+                (rs, rowNum) -> new Assigned(snapshotId, rs.getLong("generation"), rs.getTimestamp("purged_at") != null),
+                tenant.getId(), snapshotId);
+        if (assigned.purged()) {
+            log.debug("Tenant {}: late {} for purged snapshot {}.", tenant.getName(), chunk ? "chunk" : "delta", snapshotId);
+            return chunk ? null : jdbcTemplate.queryForObject(CURRENT_SQL, Long.class, tenant.getId());
+        }
+        recent.put(tenant.getId(), assigned);
+        return assigned.generation();
+    }
+
+    /**
+     * 보존 기간이 지난 세대를 정리 표시하고, 표시 후 tombstone-hours가 지난 기록을 삭제합니다.
+     * 테넌트마다 가장 최근 세대는 남겨 늦게 도착한 변경분을 기록할 현재 세대가 항상 있도록 합니다.
+     */
+    @Scheduled(cron = "${cnapp.ingestion.snapshot.retention-cron:0 45 * * * *}")
+    @SchedulerLock(name = "inventoryGenerationRetention")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = jdbcTemplate.update("UPDATE inventory_generations g SET purged_at = ? " +
+                "WHERE g.purged_at IS NULL AND g.created_at < ? " +
+                "AND g.generation < (SELECT max(l.generation) FROM inventory_generations l WHERE l.tenant_id = g.tenant_id)",
+                Timestamp.valueOf(now), Timestamp.valueOf(now.minusHours(retentionHours)));
+        int deleted = jdbcTemplate.update("DELETE FROM inventory_generations WHERE purged_at < ?",
+                Timestamp.valueOf(now.minusHours(tombstoneHours)));
+        // 이 인스턴스가 정리된 세대를 계속 돌려주지 않도록 조회 캐시도 비움
+        recent.clear();
+        if (purged > 0 || deleted > 0) {
+            log.info("Purged {} inventory generations older than {} hours, deleted {} tombstones.", purged, retentionHours, deleted);
+        }
+    }
+
+    private record Assigned(String snapshotId, Long generation, boolean purged) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.k8s.cnapp.server.ingestion.service;
+
+import com.k8s.cnapp.server.ingestion.event.SnapshotCompletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 전체 스냅샷이 완료되면 그 스냅샷에 없던 자산 행을 테이블마다 한 번의 DELETE로 정리합니다 (mark-and-sweep).
+ * 조각을 처리할 때 저장하거나 본문 없이 키만 확인한 모든 행에 서버가 부여한 스냅샷 세대(sync_generation)가 기록되므로,
+ * 세대가 더 오래된 행은 Agent가 중단된 사이 삭제되었거나 삭제 전송이 유실된 리소스입니다.
+ * 스냅샷 수집 중 변경분(Informer)으로 저장된 행도 Agent가 붙인 진행 중 스냅샷의 세대로 기록되어 남습니다.
+ * 정리 후 자산이 없어진 OPEN Alert도 함께 삭제합니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventorySweepService {
+
+    private static final String STALE_CONDITION = "tenant_id = ? AND (sync_generation IS NULL OR sync_generation < ?)";
+
+    // 세대를 기록하는 자산 테이블
+    private static final List<String> PROFILE_TABLES = List.of(
+            "pod_profiles", "service_profiles", "node_profiles", "namespace_profiles", "deployment_profiles", "event_profiles");
+
+    // Alert 리소스 타입 -> 같은 테넌트에 해당 자산이 남아 있는지 확인하는 조건 (resource_name 형식은 SecurityScannerService와 같음)
+    private static final Map<String, String> ALERT_RESOURCES = new LinkedHashMap<>();
+
+    static {
+        ALERT_RESOURCES.put("POD", "SELECT 1 FROM pod_profiles p WHERE p.tenant_id = a.tenant_id " +
+                "AND p.namespace || '/' || COALESCE(p.deployment_name, p.pod_name) = a.resource_name");
+        ALERT_RESOURCES.put("SERVICE", "SELECT 1 FROM service_profiles p WHERE p.tenant_id = a.tenant_id " +
+                "AND p.namespace || '/' || p.name = a.resource_name");
+        ALERT_RESOURCES.put("DEPLOYMENT", "SELECT 1 FROM deployment_profiles p WHERE p.tenant_id = a.tenant_id " +
+                "AND p.namespace || '/' || p.name = a.resource_name");
+        ALERT_RESOURCES.put("NODE", "SELECT 1 FROM node_profiles p WHERE p.tenant_id = a.tenant_id AND p.name = a.resource_name");
+        ALERT_RESOURCES.put("NAMESPACE", "SELECT 1 FROM namespace_profiles p WHERE p.tenant_id = a.tenant_id AND p.name = a.resource_name");
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${cnapp.ingestion.snapshot.sweep-enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 마지막 조각을 처리한 트랜잭션이 커밋된 뒤(모든 조각의 세대 기록이 커밋된 뒤) 정리합니다.
+     * 늦게 완료된 이전 스냅샷은 자신보다 오래된 세대만 지우므로, 더 최근 스냅샷이 기록한 행은 남습니다.
+     * 발행한 트랜잭션은 이미 커밋되었으므로 정리는 새 트랜잭션에서 합니다. (REQUIRED는 트랜잭션 이벤트 리스너에 허용되지 않음)
+     */
+    @Async("scanExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onSnapshotCompleted(SnapshotCompletedEvent event) {
+        if (!enabled || event.generation() == null) return;
+
+        Long tenantId = event.tenantId();
+        long generation = event.generation();
+
+        int total = 0;
+        Map<String, Integer> swept = new LinkedHashMap<>();
+        // service_ports는 service_profiles를 참조하므로 먼저 삭제
+        jdbcTemplate.update("DELETE FROM service_ports WHERE service_profile_id IN " +
+                "(SELECT id FROM service_profiles WHERE " + STALE_CONDITION + ")", tenantId, generation);
+        for (String table : PROFILE_TABLES) {
+            int deleted = jdbcTemplate.update("DELETE FROM " + table + " WHERE " + STALE_CONDITION, tenantId, generation);
+            if (deleted > 0) swept.put(table, deleted);
+            total += deleted;
+        }
+
+        int alerts = 0;
+        for (Map.Entry<String, String> entry : ALERT_RESOURCES.entrySet()) {
+            alerts += jdbcTemplate.update("DELETE FROM alerts a WHERE a.tenant_id = ? AND a.status = 'OPEN' AND a.resource_type = ? " +
+                    "AND NOT EXISTS (" + entry.getValue() + ")", tenantId, entry.getKey());
+        }
+
+        if (total > 0 || alerts > 0) {
+            log.info("Swept tenant {} after snapshot {} (generation {}): {} stale resources {}, {} orphaned alerts.",
+                    tenantId, event.snapshotId(), generation, total, swept, alerts);
+        } else {
+            log.debug("Snapshot {} of tenant {} left no stale resources.", event.snapshotId(), tenantId);
+        }
+    }
+}
@@ -2,9 +2,12 @@ package com.k8s.cnapp.server.ingestion.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.k8s.cnapp.server.auth.domain.Tenant;
+import com.k8s.cnapp.server.ingestion.codec.PayloadFormat;
 import com.k8s.cnapp.server.detection.event.ScanRequestEvent;
 import com.k8s.cnapp.server.detection.event.SecurityEventPublisher;
+import com.k8s.cnapp.server.detection.service.EdgeViolationService;
 import com.k8s.cnapp.server.ingestion.dto.ClusterSnapshot;
 import com.k8s.cnapp.server.policy.domain.Policy;
 import com.k8s.cnapp.server.profile.domain.*;
@@ -17,6 +20,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
@@ -30,6 +34,9 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class LogProcessingService {
 
+    // 세대만 기록하는 UPDATE 한 번에 넣는 키 수 (IN 절 크기 제한)
+    private static final int UNCHANGED_BATCH_SIZE = 1000;
+
     private final ObjectMapper objectMapper;
     private final PodProfileRepository podProfileRepository;
     private final ServiceProfileRepository serviceProfileRepository;
@@ -38,43 +45,111 @@ public class LogProcessingService {
     private final EventProfileRepository eventProfileRepository;
     private final DeploymentProfileRepository deploymentProfileRepository;
     private final SecurityEventPublisher securityEventPublisher; // MQ 퍼블리셔로 교체
+    private final ResourceStateService resourceStateService;
+    private final ResourceDigestService resourceDigestService;
+    private final EdgeViolationService edgeViolationService;
+    private final SnapshotUploadService snapshotUploadService;
+    private final InventoryGenerationService inventoryGenerationService;
 
     @Transactional
     public void processRawData(Tenant tenant, String rawData) {
         try {
             if (tenant == null) return;
+            process(tenant, (ObjectNode) objectMapper.readTree(rawData));
+        } catch (Exception e) {
+            log.error("Log Ingestion failed", e);
+        }
+    }
 
-            ClusterSnapshot snapshot = objectMapper.readValue(rawData, ClusterSnapshot.class);
-            Map<Policy.ResourceType, List<Long>> updatedMap = new EnumMap<>(Policy.ResourceType.class);
-
-            // 1. 삭제된 리소스 처리
-            processDeletions(snapshot.deletedResources(), tenant);
-
-            // 2. 6대 핵심 자산 처리 및 변경 ID 수집
-            updatedMap.put(Policy.ResourceType.POD, processPods(snapshot.pods(), tenant));
-            updatedMap.put(Policy.ResourceType.SERVICE, processServices(snapshot.services(), tenant));
-            updatedMap.put(Policy.ResourceType.NODE, processNodes(snapshot.nodes(), tenant));
-            updatedMap.put(Policy.ResourceType.DEPLOYMENT, processDeployments(snapshot.deployments(), tenant));
-            updatedMap.put(Policy.ResourceType.NAMESPACE, processNamespaces(snapshot.namespaces(), tenant));
-            updatedMap.put(Policy.ResourceType.EVENT, processEvents(snapshot.events(), tenant));
-
-            boolean hasChanges = updatedMap.entrySet().stream()
-                    .filter(e -> e.getKey() != Policy.ResourceType.EVENT) // NAMESPACE 제외 로직 제거
-                    .anyMatch(e -> !e.getValue().isEmpty());
-
-            if (hasChanges) {
-                log.info("Significant changes detected for tenant: {}. Publishing MQ scan request.", tenant.getName());
-                securityEventPublisher.publishScanRequest(ScanRequestEvent.builder()
-                        .tenantId(tenant.getId())
-                        .updatedResourceIds(updatedMap)
-                        .targetedScan(true)
-                        .build());
-            }
+    /**
+     * 압축 해제 스트림 등 InputStream으로 전달된 스냅샷을 중간 String 없이 바로 파싱해 처리합니다.
+     * @param format 본문 직렬화 형식 (JSON, CBOR)
+     */
+    @Transactional
+    public void processPayload(Tenant tenant, InputStream payload, PayloadFormat format) {
+        try (InputStream in = payload) {
+            if (tenant == null) return;
+            process(tenant, (ObjectNode) format.readTree(objectMapper, in));
         } catch (Exception e) {
             log.error("Log Ingestion failed", e);
         }
     }
 
+    private void process(Tenant tenant, ObjectNode root) throws Exception {
+        // Delta(patch)로 수신된 리소스를 전체 객체로 복원한 뒤 역직렬화
+        resourceStateService.reconcile(tenant, root);
+        ClusterSnapshot snapshot = objectMapper.treeToValue(root, ClusterSnapshot.class);
+        Map<Policy.ResourceType, List<Long>> updatedMap = new EnumMap<>(Policy.ResourceType.class);
+        // 저장하는 모든 행에 스냅샷 세대를 기록 (완료 후 이전 세대 행 정리에 사용)
+        // 조각은 자신의 스냅샷, 변경분은 Agent가 큐에 넣을 때 진행 중이던 스냅샷의 세대
+        String inventoryId = snapshot.chunk() != null ? snapshot.chunk().snapshotId() : snapshot.inventoryId();
+        Long generation = inventoryGenerationService.generationOf(tenant, inventoryId, snapshot.chunk() != null);
+
+        // 1. 삭제된 리소스 처리
+        processDeletions(snapshot.deletedResources(), tenant);
+        processUnchanged(snapshot.unchangedResources(), tenant, generation);
+
+        // 2. 6대 핵심 자산 처리 및 변경 ID 수집
+        updatedMap.put(Policy.ResourceType.POD, processPods(snapshot.pods(), tenant, generation));
+        updatedMap.put(Policy.ResourceType.SERVICE, processServices(snapshot.services(), tenant, generation));
+        updatedMap.put(Policy.ResourceType.NODE, processNodes(snapshot.nodes(), tenant, generation));
+        updatedMap.put(Policy.ResourceType.DEPLOYMENT, processDeployments(snapshot.deployments(), tenant, generation));
+        updatedMap.put(Policy.ResourceType.NAMESPACE, processNamespaces(snapshot.namespaces(), tenant, generation));
+        updatedMap.put(Policy.ResourceType.EVENT, processEvents(snapshot.events(), tenant, generation));
+
+        // 3. 처리한 리소스의 Agent 지문 기록 (Anti-entropy)
+        resourceDigestService.record(tenant, snapshot.fingerprints());
+
+        // 4. Agent가 현재 정책 버전으로 평가한 타입은 위반을 바로 기록하고 정밀 스캔 대상에서 제외
+        edgeViolationService.accept(tenant, snapshot).forEach(updatedMap::remove);
+
+        boolean hasChanges = updatedMap.entrySet().stream()
+                .filter(e -> e.getKey() != Policy.ResourceType.EVENT) // NAMESPACE 제외 로직 제거
+                .anyMatch(e -> !e.getValue().isEmpty());
+
+        if (hasChanges) {
+            log.info("Significant changes detected for tenant: {}. Publishing MQ scan request.", tenant.getName());
+            securityEventPublisher.publishScanRequest(ScanRequestEvent.builder()
+                    .tenantId(tenant.getId())
+                    .updatedResourceIds(updatedMap)
+                    .targetedScan(true)
+                    .build());
+        }
+
+        // 5. 전체 스냅샷 조각이면 처리 완료 기록 (모든 조각이 처리되면 스냅샷 완료 이벤트 발행)
+        if (snapshot.chunk() != null) {
+            snapshotUploadService.markProcessed(tenant, snapshot.chunk(), generation);
+        }
+    }
+
+    /**
+     * 지문이 같아 본문 없이 키만 온 리소스는 행을 읽지 않고 세대만 기록합니다. (정리 대상에서 제외)
+     */
+    private void processUnchanged(Map<String, List<String>> unchangedResources, Tenant tenant, Long generation) {
+        if (unchangedResources == null || unchangedResources.isEmpty() || generation == null) return;
+
+        for (Map.Entry<String, List<String>> entry : unchangedResources.entrySet()) {
+            List<String> keys = entry.getValue();
+            if (keys == null || keys.isEmpty()) continue;
+
+            int marked = 0;
+            for (int from = 0; from < keys.size(); from += UNCHANGED_BATCH_SIZE) {
+                List<String> batch = keys.subList(from, Math.min(keys.size(), from + UNCHANGED_BATCH_SIZE));
+                marked += switch (entry.getKey().toUpperCase()) {
+                    case "POD" -> podProfileRepository.markSynced(tenant, batch, generation);
+                    case "SERVICE" -> serviceProfileRepository.markSynced(tenant, batch, generation);
+                    case "NODE" -> nodeProfileRepository.markSynced(tenant, batch, generation);
+                    case "DEPLOYMENT" -> deploymentProfileRepository.markSynced(tenant, batch, generation);
+                    case "NAMESPACE" -> namespaceProfileRepository.markSynced(tenant, batch, generation);
+                    case "EVENT" -> eventProfileRepository.markSynced(tenant, batch, generation);
+                    default -> 0;
+                };
+            }
+            log.debug("Marked {} of {} unchanged {} resources with generation {} for tenant {}",
+                    marked, keys.size(), entry.getKey(), generation, tenant.getName());
+        }
+    }
+
     private void processDeletions(Map<String, List<String>> deletedResources, Tenant tenant) {
         if (deletedResources == null || deletedResources.isEmpty()) return;
 
@@ -89,6 +164,8 @@ public class LogProcessingService {
             log.debug("Checking deletion for {} entries of type {} with keys: {}", keys.size(), type, keys);
 
             try {
+                resourceStateService.forget(tenant, type, keys);
+                resourceDigestService.forget(tenant, type, keys);
                 switch (type.toUpperCase()) {
                     case "POD":
                         List<PodProfile> pods = podProfileRepository.findAllByTenantAndKeys(tenant, keys);
@@ -143,7 +220,7 @@ public class LogProcessingService {
         }
     }
 
-    private List<Long> processPods(List<V1Pod> pods, Tenant tenant) {
+    private List<Long> processPods(List<V1Pod> pods, Tenant tenant, Long generation) {
         if (pods == null || pods.isEmpty()) return Collections.emptyList();
         List<Long> changedIds = new ArrayList<>();
         List<String> keys = pods.stream()
@@ -178,6 +255,7 @@ public class LogProcessingService {
             PodProfile existing = profileMap.get(key);
 
             if (existing != null) {
+                existing.markSynced(generation);
                 String existingHash = generateHash(existing.getAssetContext().getImage(), existing.getPrivileged(), existing.getRunAsUser(), existing.getAllowPrivilegeEscalation(), existing.getReadOnlyRootFilesystem(), existing.getAssetContext().getStatus(), existing.getAssetContext().getPodIp(), existing.getAssetContext().getNodeName());
                 boolean dataChanged = !newHash.equals(existingHash);
                 if (dataChanged || existing.getLastSeenAt() == null || existing.getLastSeenAt().isBefore(now.minusMinutes(1))) {
@@ -191,6 +269,7 @@ public class LogProcessingService {
             } else {
                 PodProfile newPod = new PodProfile(tenant, new AssetContext(pod.getMetadata().getNamespace(), pod.getMetadata().getName(), container.getName(), container.getImage(), extractDeploymentName(pod), status, podIp, nodeName), privileged, runAsUser, allowPrivEsc, roRootFs, "0m", "0Mi");
                 newPod.updateLastSeenAt(now);
+                newPod.markSynced(generation);
                 toSave.add(newPod);
             }
         }
@@ -198,7 +277,7 @@ public class LogProcessingService {
         return changedIds;
     }
 
-    private List<Long> processServices(List<V1Service> services, Tenant tenant) {
+    private List<Long> processServices(List<V1Service> services, Tenant tenant, Long generation) {
         if (services == null || services.isEmpty()) return Collections.emptyList();
         List<Long> changedIds = new ArrayList<>();
         List<String> keys = services.stream().filter(s -> s.getMetadata() != null).map(s -> s.getMetadata().getNamespace() + "/" + s.getMetadata().getName()).toList();
@@ -218,6 +297,7 @@ public class LogProcessingService {
             ServiceProfile existing = profileMap.get(key);
 
             if (existing != null) {
+                existing.markSynced(generation);
                 String existingPorts = existing.getPorts().stream().map(p -> p.getProtocol() + ":" + p.getPort()).sorted().collect(Collectors.joining(","));
                 String existingHash = generateHash(existing.getType(), existing.getClusterIp(), existing.getExternalIps(), existingPorts);
                 boolean dataChanged = !newHash.equals(existingHash);
@@ -233,6 +313,7 @@ public class LogProcessingService {
                 ServiceProfile ns = new ServiceProfile(tenant, service.getMetadata().getNamespace(), service.getMetadata().getName(), type, cIp, eIps);
                 if (service.getSpec().getPorts() != null) service.getSpec().getPorts().forEach(p -> ns.addPort(new ServicePortProfile(p.getName(), p.getProtocol(), p.getPort(), p.getTargetPort() != null ? p.getTargetPort().toString() : null, p.getNodePort())));
                 ns.updateLastSeenAt(now);
+                ns.markSynced(generation);
                 toSave.add(ns);
             }
         }
@@ -240,7 +321,7 @@ public class LogProcessingService {
         return changedIds;
     }
 
-    private List<Long> processNodes(List<V1Node> nodes, Tenant tenant) {
+    private List<Long> processNodes(List<V1Node> nodes, Tenant tenant, Long generation) {
         if (nodes == null || nodes.isEmpty()) return Collections.emptyList();
         List<Long> changedIds = new ArrayList<>();
         List<String> keys = nodes.stream().filter(n -> n.getMetadata() != null).map(n -> n.getMetadata().getName()).toList();
@@ -257,6 +338,7 @@ public class LogProcessingService {
             NodeProfile existing = profileMap.get(node.getMetadata().getName());
 
             if (existing != null) {
+                existing.markSynced(generation);
                 String existingHash = generateHash(existing.getOsImage(), existing.getKernelVersion(), existing.getKubeletVersion(), existing.getCpuCapacity(), existing.getMemoryCapacity());
                 boolean changed = !newHash.equals(existingHash);
                 if (changed || existing.getLastSeenAt() == null || existing.getLastSeenAt().isBefore(now.minusMinutes(1))) {
@@ -269,6 +351,7 @@ public class LogProcessingService {
             } else {
                 NodeProfile nn = new NodeProfile(tenant, node.getMetadata().getName(), info.getOsImage(), info.getKernelVersion(), info.getContainerRuntimeVersion(), info.getKubeletVersion(), cpu, mem);
                 nn.updateLastSeenAt(now);
+                nn.markSynced(generation);
                 toSave.add(nn);
             }
         }
@@ -276,7 +359,7 @@ public class LogProcessingService {
         return changedIds;
     }
 
-    private List<Long> processNamespaces(List<V1Namespace> namespaces, Tenant tenant) {
+    private List<Long> processNamespaces(List<V1Namespace> namespaces, Tenant tenant, Long generation) {
         if (namespaces == null || namespaces.isEmpty()) return Collections.emptyList();
         List<Long> changedIds = new ArrayList<>();
         List<String> names = namespaces.stream().filter(n -> n.getMetadata() != null).map(n -> n.getMetadata().getName()).toList();
@@ -289,6 +372,7 @@ public class LogProcessingService {
             String status = ns.getStatus().getPhase();
             NamespaceProfile existing = profileMap.get(ns.getMetadata().getName());
             if (existing != null) {
+                existing.markSynced(generation);
                 boolean changed = !Objects.equals(existing.getStatus(), status);
                 if (changed || existing.getLastSeenAt() == null || existing.getLastSeenAt().isBefore(now.minusMinutes(1))) {
                     existing.updateLastSeenAt(now);
@@ -297,6 +381,7 @@ public class LogProcessingService {
             } else {
                 NamespaceProfile nns = new NamespaceProfile(tenant, ns.getMetadata().getName(), status);
                 nns.updateLastSeenAt(now);
+                nns.markSynced(generation);
                 toSave.add(nns);
             }
         }
@@ -304,7 +389,7 @@ public class LogProcessingService {
         return changedIds;
     }
 
-    private List<Long> processEvents(List<CoreV1Event> events, Tenant tenant) {
+    private List<Long> processEvents(List<CoreV1Event> events, Tenant tenant, Long generation) {
         if (events == null || events.isEmpty()) return Collections.emptyList();
         List<Long> changedIds = new ArrayList<>();
         List<String> uids = events.stream().filter(e -> e.getMetadata() != null && e.getMetadata().getUid() != null).map(e -> e.getMetadata().getUid()).toList();
@@ -320,6 +405,7 @@ public class LogProcessingService {
             EventProfile existing = profileMap.get(uid);
 
             if (existing != null) {
+                existing.markSynced(generation);
                 String existingHash = generateHash(existing.getCount(), existing.getMessage());
                 boolean changed = !newHash.equals(existingHash);
                 if (changed || existing.getLastSeenAt() == null || existing.getLastSeenAt().isBefore(now.minusMinutes(1))) {
@@ -329,6 +415,7 @@ public class LogProcessingService {
             } else {
                 EventProfile ne = new EventProfile(tenant, event.getInvolvedObject().getNamespace(), event.getInvolvedObject().getKind(), event.getInvolvedObject().getName(), event.getReason(), msg, event.getType(), event.getLastTimestamp(), event.getCount(), uid);
                 ne.updateLastSeenAt(now);
+                ne.markSynced(generation);
                 toSave.add(ne);
             }
         }
@@ -336,7 +423,7 @@ public class LogProcessingService {
         return changedIds;
     }
 
-    private List<Long> processDeployments(List<V1Deployment> deployments, Tenant tenant) {
+    private List<Long> processDeployments(List<V1Deployment> deployments, Tenant tenant, Long generation) {
         if (deployments == null || deployments.isEmpty()) return Collections.emptyList();
         List<Long> changedIds = new ArrayList<>();
         List<String> keys = deployments.stream().filter(d -> d.getMetadata() != null).map(d -> d.getMetadata().getNamespace() + "/" + d.getMetadata().getName()).toList();
@@ -352,6 +439,7 @@ public class LogProcessingService {
             DeploymentProfile existing = profileMap.get(dep.getMetadata().getNamespace() + "/" + dep.getMetadata().getName());
 
             if (existing != null) {
+                existing.markSynced(generation);
                 String existingHash = generateHash(existing.getReplicas(), existing.getStrategyType());
                 boolean changed = !newHash.equals(existingHash);
                 if (changed || existing.getLastSeenAt() == null || existing.getLastSeenAt().isBefore(now.minusMinutes(1))) {
@@ -364,6 +452,7 @@ public class LogProcessingService {
             } else {
                 DeploymentProfile nd = new DeploymentProfile(tenant, dep.getMetadata().getNamespace(), dep.getMetadata().getName(), reps, dep.getStatus() != null ? dep.getStatus().getAvailableReplicas() : 0, strategy, toJson(dep.getSpec().getSelector()));
                 nd.updateLastSeenAt(now);
+                nd.markSynced(generation);
                 toSave.add(nd);
             }
         }
@@ -0,0 +1,83 @@
+package com.k8s.cnapp.server.ingestion.service;
+
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import com.k8s.cnapp.server.ingestion.dto.PodUsageReport;
+import com.k8s.cnapp.server.ingestion.dto.PodUsageRollup;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Agent가 구간별로 집계한 Pod 사용량을 pod_usage_windows 시계열 테이블에 적재합니다.
+ * 행 수가 많고 추가만 하므로 JPA 엔티티 저장 대신 JDBC 배치 INSERT를 사용하며,
+ * 같은 구간을 다시 받으면(Agent 재전송) 기본 키 충돌을 무시합니다. (PostgreSQL ON CONFLICT)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PodUsageService {
+
+    private static final String INSERT_SQL = "INSERT INTO pod_usage_windows " +
+            "(tenant_id, namespace, pod_name, window_start, window_seconds, samples, " +
+            "cpu_min, cpu_avg, cpu_max, memory_min, memory_avg, memory_max) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (tenant_id, namespace, pod_name, window_start) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${cnapp.usage.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cnapp.usage.retention-days:7}")
+    private int retentionDays;
+
+    @Transactional
+    public void record(Tenant tenant, PodUsageReport report) {
+        if (report.windowSeconds() <= 0) {
+            throw new IllegalArgumentException("windowSeconds must be positive");
+        }
+        List<PodUsageRollup> pods = report.pods();
+        if (pods == null || pods.isEmpty()) return;
+
+        Timestamp windowStart = Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(report.windowStart()), ZoneId.systemDefault()));
+        jdbcTemplate.batchUpdate(INSERT_SQL, pods, batchSize, (ps, pod) -> {
+            ps.setLong(1, tenant.getId());
+            ps.setString(2, pod.namespace());
+            ps.setString(3, pod.pod());
+            ps.setTimestamp(4, windowStart);
+            ps.setInt(5, report.windowSeconds());
+            ps.setInt(6, pod.samples());
+            ps.setLong(7, pod.cpuMin());
+            ps.setLong(8, pod.cpuAvg());
+            ps.setLong(9, pod.cpuMax());
+            ps.setLong(10, pod.memoryMin());
+            ps.setLong(11, pod.memoryAvg());
+            ps.setLong(12, pod.memoryMax());
+        });
+        log.debug("Tenant {}: stored usage rollups for {} pods (window {}).", tenant.getName(), pods.size(), windowStart);
+    }
+
+    /**
+     * 보존 기간이 지난 사용량 구간을 삭제합니다. (여러 서버 인스턴스 중 한 곳에서만 실행)
+     */
+    @Scheduled(cron = "${cnapp.usage.retention-cron:0 15 * * * *}")
+    @SchedulerLock(name = "podUsageRetention")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int deleted = jdbcTemplate.update("DELETE FROM pod_usage_windows WHERE window_start < ?", Timestamp.valueOf(cutoff));
+        if (deleted > 0) {
+            log.info("Purged {} pod usage windows older than {} days.", deleted, retentionDays);
+        }
+    }
+}
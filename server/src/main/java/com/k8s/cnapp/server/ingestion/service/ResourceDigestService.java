@@ -0,0 +1,121 @@
+package com.k8s.cnapp.server.ingestion.service;
+
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import com.k8s.cnapp.server.ingestion.domain.ResourceDigest;
+import com.k8s.cnapp.server.ingestion.dto.BucketDigestRequest;
+import com.k8s.cnapp.server.ingestion.dto.BucketDigestResponse;
+import com.k8s.cnapp.server.ingestion.dto.DigestRootsRequest;
+import com.k8s.cnapp.server.ingestion.dto.DigestRootsResponse;
+import com.k8s.cnapp.server.ingestion.repository.ResourceDigestRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Agent와의 Anti-entropy 비교를 위한 리소스 지문 관리.
+ * - 스냅샷 처리 시 Agent가 함께 보낸 지문을 저장하고, 삭제 시 제거
+ * - Agent가 보낸 해시 트리 루트/버킷 해시를 저장된 지문으로 계산한 값과 비교 (MerkleBuckets)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResourceDigestService {
+
+    private static final int MAX_BUCKET_COUNT = 65536;
+
+    private final ResourceDigestRepository resourceDigestRepository;
+
+    /**
+     * @param fingerprints 리소스 타입 -> 리소스 키 -> 지문
+     */
+    @Transactional
+    public void record(Tenant tenant, Map<String, Map<String, Long>> fingerprints) {
+        if (fingerprints == null || fingerprints.isEmpty()) return;
+
+        for (Map.Entry<String, Map<String, Long>> typeEntry : fingerprints.entrySet()) {
+            String type = typeEntry.getKey();
+            Map<String, Long> byKey = typeEntry.getValue();
+            if (byKey == null || byKey.isEmpty()) continue;
+
+            Map<String, ResourceDigest> existing = resourceDigestRepository.findByTenantAndResourceTypeAndResourceKeyIn(tenant, type, byKey.keySet()).stream()
+                    .collect(Collectors.toMap(ResourceDigest::getResourceKey, Function.identity()));
+            List<ResourceDigest> toSave = new ArrayList<>();
+            byKey.forEach((key, fingerprint) -> {
+                ResourceDigest digest = existing.get(key);
+                if (digest == null) {
+                    toSave.add(new ResourceDigest(tenant, type, key, fingerprint));
+                } else {
+                    digest.update(fingerprint);
+                }
+            });
+            if (!toSave.isEmpty()) resourceDigestRepository.saveAll(toSave);
+        }
+    }
+
+    public void forget(Tenant tenant, String type, List<String> keys) {
+        resourceDigestRepository.deleteByTenantAndResourceTypeAndResourceKeyIn(tenant, type, keys);
+    }
+
+    /**
+     * @return 저장된 지문으로 계산한 루트가 Agent의 루트와 다른 타입
+     */
+    @Transactional(readOnly = true)
+    public DigestRootsResponse compareRoots(Tenant tenant, DigestRootsRequest request) {
+        int bucketCount = validBucketCount(request.bucketCount());
+        List<String> mismatched = new ArrayList<>();
+        if (request.roots() != null) {
+            request.roots().forEach((type, root) -> {
+                long serverRoot = MerkleBuckets.root(MerkleBuckets.bucketHashes(load(tenant, type), bucketCount));
+                if (serverRoot != root) mismatched.add(type);
+            });
+        }
+        if (!mismatched.isEmpty()) {
+            log.info("Anti-entropy root mismatch for tenant {}: {}", tenant.getName(), mismatched);
+        }
+        return new DigestRootsResponse(mismatched);
+    }
+
+    /**
+     * @return 해시가 다른 버킷 번호와 그 버킷들에 속한 서버 측 (리소스 키 -> 지문)
+     */
+    @Transactional(readOnly = true)
+    public BucketDigestResponse compareBuckets(Tenant tenant, BucketDigestRequest request) {
+        int bucketCount = validBucketCount(request.bucketCount());
+        if (request.bucketHashes() == null || request.bucketHashes().length != bucketCount) {
+            throw new IllegalArgumentException("bucketHashes length must equal bucketCount");
+        }
+
+        Map<String, Long> stored = load(tenant, request.type());
+        long[] serverBuckets = MerkleBuckets.bucketHashes(stored, bucketCount);
+        Set<Integer> mismatched = new TreeSet<>();
+        for (int i = 0; i < bucketCount; i++) {
+            if (serverBuckets[i] != request.bucketHashes()[i]) mismatched.add(i);
+        }
+
+        Map<String, Long> entries = new HashMap<>();
+        stored.forEach((key, fingerprint) -> {
+            if (mismatched.contains(MerkleBuckets.bucketOf(key, bucketCount))) entries.put(key, fingerprint);
+        });
+        return new BucketDigestResponse(new ArrayList<>(mismatched), entries);
+    }
+
+    private Map<String, Long> load(Tenant tenant, String type) {
+        Map<String, Long> result = new HashMap<>();
+        for (ResourceDigest digest : resourceDigestRepository.findByTenantAndResourceType(tenant, type)) {
+            result.put(digest.getResourceKey(), digest.getFingerprint());
+        }
+        return result;
+    }
+
+    private int validBucketCount(int bucketCount) {
+        if (bucketCount < 1 || bucketCount > MAX_BUCKET_COUNT) {
+            throw new IllegalArgumentException("bucketCount must be between 1 and " + MAX_BUCKET_COUNT);
+        }
+        return bucketCount;
+    }
+}
@@ -0,0 +1,323 @@
+package com.k8s.cnapp.server.ingestion.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import com.k8s.cnapp.server.ingestion.domain.ResourceState;
+import com.k8s.cnapp.server.ingestion.repository.ResourceStateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Agent의 Delta 전송(JSON Merge Patch)을 처리합니다.
+ * - 전체 객체로 수신된 리소스는 다음 patch의 기준 상태로 저장. 자산 프로필로 옮기는 필드(STATE_FIELDS)만 남겨 저장하므로
+ *   patch로 복원한 객체에는 그 필드와 patch로 바뀐 필드만 있습니다.
+ * - patch는 저장된 상태의 resourceVersion이 baseVersion과 일치할 때만 적용하여 스냅샷 배열에 전체 객체로 복원
+ * - Agent는 서버가 메시지를 큐에 넣은(HTTP 200) 시점에 기준 전송본을 바꾸지만, 큐의 메시지는 여러 Worker가 순서 없이 처리합니다.
+ *   따라서 기준이 맞지 않는 patch는 기준 전송본이 아직 처리 중인 것으로 보고 보류했다가, 그 기준 전송본(또는 앞선 patch)이
+ *   처리될 때 이어서 적용합니다. 같은 키를 담은 메시지는 상태 행 잠금으로 한 Worker씩 처리합니다.
+ * - base-wait-seconds 안에 기준이 오지 않은 보류 patch(기준 메시지 처리 실패 등)와 적용 실패는 재전송 요청으로 표시하고,
+ *   다음 Ingestion 응답으로 Agent에 전달
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResourceStateService {
+
+    // 리소스 타입 -> ClusterSnapshot JSON 배열 필드명
+    private static final Map<String, String> SNAPSHOT_FIELDS = Map.ofEntries(
+            Map.entry("Pod", "pods"), Map.entry("Service", "services"), Map.entry("Node", "nodes"),
+            Map.entry("Namespace", "namespaces"), Map.entry("Event", "events"), Map.entry("Deployment", "deployments"),
+            Map.entry("StatefulSet", "statefulSets"), Map.entry("DaemonSet", "daemonSets"), Map.entry("ReplicaSet", "replicaSets"),
+            Map.entry("NetworkPolicy", "networkPolicies"), Map.entry("Ingress", "ingresses")
+    );
+
+    // 타입별 기준 상태로 보관할 필드 (LogProcessingService가 읽는 필드). 배열은 원소마다 같은 필드만 남김
+    // 정의가 없는 타입(cnapp.ingestion.delta.types에 추가한 타입)은 수신한 JSON 전체를 보관
+    // 상태 행이 없으면 만듦. 동시에 같은 키를 만드는 Worker는 먼저 만든 쪽의 커밋을 기다린 뒤 건너뜀
+    // (JPA persist는 한쪽이 유일 제약 위반으로 롤백되므로 쓰지 않음. 이 테이블의 id는 모두 이 INSERT가 발급)
+    private static final String ENSURE_STATE_SQL = "INSERT INTO resource_states (id, tenant_id, resource_type, resource_key, resync_requested, updated_at) " +
+            "VALUES (nextval('resource_state_seq'), ?, ?, ?, false, now()) ON CONFLICT (tenant_id, resource_type, resource_key) DO NOTHING";
+
+    // 키마다 보류할 수 있는 patch 수. 넘으면 기다리지 않고 재전송 요청
+    private static final int MAX_DEFERRED_PATCHES = 8;
+
+    private static final Map<String, Map<String, Map<String, ?>>> STATE_FIELDS = Map.of(
+            "Pod", fieldTree(
+                    "metadata.name", "metadata.namespace", "metadata.resourceVersion",
+                    "metadata.ownerReferences.kind", "metadata.ownerReferences.name",
+                    "spec.nodeName", "spec.securityContext.runAsUser",
+                    "spec.containers.name", "spec.containers.image",
+                    "spec.containers.securityContext.privileged", "spec.containers.securityContext.runAsUser",
+                    "spec.containers.securityContext.allowPrivilegeEscalation",
+                    "spec.containers.securityContext.readOnlyRootFilesystem",
+                    "status.phase", "status.podIP"),
+            "Node", fieldTree(
+                    "metadata.name", "metadata.resourceVersion",
+                    "status.nodeInfo.osImage", "status.nodeInfo.kernelVersion",
+                    "status.nodeInfo.containerRuntimeVersion", "status.nodeInfo.kubeletVersion",
+                    "status.capacity.cpu", "status.capacity.memory")
+    );
+
+    private final ObjectMapper objectMapper;
+    private final ResourceStateRepository resourceStateRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${cnapp.ingestion.delta.types:Pod,Node}")
+    private Set<String> deltaTypes;
+
+    @Value("${cnapp.ingestion.delta.base-wait-seconds:60}")
+    private long baseWaitSeconds;
+
+    /**
+     * 스냅샷 트리에 포함된 patch를 전체 객체로 복원해 해당 타입 배열에 추가하고, 기준 상태를 갱신합니다.
+     */
+    @Transactional
+    public void reconcile(Tenant tenant, ObjectNode root) {
+        Map<String, List<JsonNode>> patchesByType = new HashMap<>();
+        JsonNode patches = root.get("patches");
+        if (patches != null && patches.isArray()) {
+            for (JsonNode patch : patches) {
+                patchesByType.computeIfAbsent(patch.path("type").asText(), t -> new ArrayList<>()).add(patch);
+            }
+        }
+
+        // 여러 타입의 상태 행을 잠그므로 Worker마다 같은 순서로
+        Set<String> types = new TreeSet<>(deltaTypes);
+        types.addAll(patchesByType.keySet());
+
+        for (String type : types) {
+            String field = SNAPSHOT_FIELDS.get(type);
+            if (field == null) {
+                log.warn("Unknown resource type '{}' in delta payload. Skipping.", type);
+                continue;
+            }
+            List<JsonNode> typePatches = patchesByType.getOrDefault(type, Collections.emptyList());
+            JsonNode existingItems = root.get(field);
+            if (typePatches.isEmpty() && (existingItems == null || existingItems.isEmpty())) continue;
+
+            ArrayNode items = existingItems instanceof ArrayNode array ? array : root.putArray(field);
+            reconcileType(tenant, type, items, typePatches);
+        }
+    }
+
+    private void reconcileType(Tenant tenant, String type, ArrayNode items, List<JsonNode> patches) {
+        Map<String, JsonNode> fullObjects = new LinkedHashMap<>();
+        for (JsonNode item : items) {
+            String key = resourceKey(type, item);
+            if (key != null) fullObjects.put(key, item);
+        }
+
+        Set<String> keys = new TreeSet<>(fullObjects.keySet());
+        patches.forEach(p -> keys.add(p.path("key").asText()));
+        jdbcTemplate.batchUpdate(ENSURE_STATE_SQL, keys.stream()
+                .map(key -> new Object[]{tenant.getId(), type, key})
+                .toList());
+        Map<String, ResourceState> stateMap = resourceStateRepository.findByTenantAndResourceTypeAndResourceKeyInOrderByResourceKey(tenant, type, keys).stream()
+                .collect(Collectors.toMap(ResourceState::getResourceKey, Function.identity()));
+
+        // 1. 전체 객체: 다음 patch의 기준 상태로 저장하고, 이 객체를 기다리던 patch를 이어서 적용
+        int applied = 0;
+        for (Map.Entry<String, JsonNode> entry : fullObjects.entrySet()) {
+            ResourceState state = stateMap.get(entry.getKey());
+            if (state == null) continue;
+            state.update(resourceVersion(entry.getValue()), stateBody(type, entry.getValue()));
+            applied += applyDeferred(type, state, entry.getValue());
+        }
+
+        // 2. patch: baseVersion 일치 시에만 적용, 아니면 기준 전송본이 처리될 때까지 보류
+        int deferred = 0;
+        for (JsonNode patch : patches) {
+            String key = patch.path("key").asText();
+            String baseVersion = patch.path("baseVersion").asText(null);
+            ResourceState state = stateMap.get(key);
+            if (state == null) continue;
+
+            if (state.getBody() == null || !Objects.equals(state.getResourceVersion(), baseVersion)) {
+                log.debug("Delta base not yet processed for {} {} (stored: {}, base: {}). Deferring.", type, key, state.getResourceVersion(), baseVersion);
+                defer(type, state, patch);
+                deferred++;
+                continue;
+            }
+            try {
+                JsonNode merged = mergePatch(objectMapper.readTree(state.getBody()), objectMapper.readTree(patch.path("patch").asText()));
+                items.add(merged);
+                state.update(resourceVersion(merged), stateBody(type, merged));
+                applied += 1 + applyDeferred(type, state, merged);
+            } catch (Exception e) {
+                log.warn("Failed to apply delta for {} {}: {}. Requesting full resend.", type, key, e.getMessage());
+                state.requestResync();
+            }
+        }
+
+        if (!patches.isEmpty() || applied > 0) {
+            log.debug("Applied {} and deferred {} of {} {} deltas for tenant {}", applied, deferred, patches.size(), type, tenant.getName());
+        }
+    }
+
+    // 기준 전송본보다 먼저 처리된 patch 보관
+    private void defer(String type, ResourceState state, JsonNode patch) {
+        try {
+            ArrayNode deferred = state.getDeferredPatches() == null
+                    ? objectMapper.createArrayNode() : (ArrayNode) objectMapper.readTree(state.getDeferredPatches());
+            if (deferred.size() >= MAX_DEFERRED_PATCHES) {
+                log.warn("Too many deltas waiting for their base for {} {}. Requesting full resend.", type, state.getResourceKey());
+                state.requestResync();
+                return;
+            }
+            ObjectNode entry = deferred.addObject();
+            entry.put("baseVersion", patch.path("baseVersion").asText(null));
+            entry.put("version", patch.path("version").asText(null));
+            entry.put("patch", patch.path("patch").asText());
+            state.updateDeferredPatches(deferred.toString());
+        } catch (Exception e) {
+            log.warn("Failed to defer delta for {} {}: {}. Requesting full resend.", type, state.getResourceKey(), e.getMessage());
+            state.requestResync();
+        }
+    }
+
+    /**
+     * 상태가 갱신된 뒤 그 버전을 기준으로 하는 보류 patch를 차례로 적용합니다. (item은 스냅샷 배열의 객체로, 제자리에서 갱신)
+     * @return 적용한 patch 수
+     */
+    private int applyDeferred(String type, ResourceState state, JsonNode item) {
+        if (state.getDeferredPatches() == null) return 0;
+        try {
+            ArrayNode deferred = (ArrayNode) objectMapper.readTree(state.getDeferredPatches());
+            int applied = 0;
+            boolean progressed = true;
+            while (progressed && !deferred.isEmpty()) {
+                progressed = false;
+                for (int i = 0; i < deferred.size(); i++) {
+                    JsonNode entry = deferred.get(i);
+                    if (!Objects.equals(state.getResourceVersion(), entry.path("baseVersion").asText(null))) continue;
+                    JsonNode merged = mergePatch(item, objectMapper.readTree(entry.path("patch").asText()));
+                    state.update(resourceVersion(merged), stateBody(type, merged));
+                    deferred.remove(i);
+                    applied++;
+                    progressed = true;
+                    break;
+                }
+            }
+            state.updateDeferredPatches(deferred.isEmpty() ? null : deferred.toString());
+            return applied;
+        } catch (Exception e) {
+            log.warn("Failed to apply deferred deltas for {} {}: {}. Requesting full resend.", type, state.getResourceKey(), e.getMessage());
+            state.requestResync();
+            return 0;
+        }
+    }
+
+    /**
+     * Agent에 돌려줄 재전송 요청 목록을 꺼내고 요청 표시를 해제합니다.
+     */
+    @Transactional
+    public Map<String, List<String>> drainResyncRequests(Tenant tenant) {
+        // 기준 전송본을 기다리다 지친 patch는 재전송으로 (기준 메시지의 처리 실패 등)
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(baseWaitSeconds);
+        List<ResourceState> expired = resourceStateRepository.findTop500ByTenantAndDeferredSinceBefore(tenant, cutoff);
+        if (!expired.isEmpty()) {
+            log.warn("{} deltas of tenant {} waited more than {}s for their base. Requesting full resend.",
+                    expired.size(), tenant.getName(), baseWaitSeconds);
+            expired.forEach(ResourceState::requestResync);
+        }
+
+        List<ResourceState> requested = resourceStateRepository.findTop500ByTenantAndResyncRequestedTrue(tenant);
+        if (requested.isEmpty()) return Collections.emptyMap();
+
+        Map<String, List<String>> result = new HashMap<>();
+        for (ResourceState state : requested) {
+            state.clearResyncRequest();
+            result.computeIfAbsent(state.getResourceType(), t -> new ArrayList<>()).add(state.getResourceKey());
+        }
+        log.info("Requesting full resend of {} resources from agent of tenant {}", requested.size(), tenant.getName());
+        return result;
+    }
+
+    /**
+     * 삭제된 리소스의 기준 상태 제거 (같은 키로 재생성되면 Agent는 전체 객체부터 다시 보냄)
+     */
+    public void forget(Tenant tenant, String type, List<String> keys) {
+        if (!deltaTypes.contains(type)) return;
+        resourceStateRepository.deleteByTenantAndResourceTypeAndResourceKeyIn(tenant, type, keys);
+    }
+
+    // 기준 상태로 저장할 JSON (타입에 정의된 필드만)
+    String stateBody(String type, JsonNode item) {
+        Map<String, Map<String, ?>> fields = STATE_FIELDS.get(type);
+        return fields == null ? item.toString() : project(item, fields).toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private JsonNode project(JsonNode node, Map<String, Map<String, ?>> fields) {
+        if (node.isArray()) {
+            ArrayNode result = objectMapper.createArrayNode();
+            node.forEach(element -> result.add(project(element, fields)));
+            return result;
+        }
+        if (!node.isObject()) return node;
+        ObjectNode result = objectMapper.createObjectNode();
+        fields.forEach((name, children) -> {
+            JsonNode value = node.get(name);
+            if (value == null) return;
+            result.set(name, children.isEmpty() ? value : project(value, (Map<String, Map<String, ?>>) children));
+        });
+        return result;
+    }
+
+    // "a.b.c" 경로 목록을 필드 트리로 변환 (빈 Map은 값 전체를 보관하는 말단)
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, ?>> fieldTree(String... paths) {
+        Map<String, Map<String, ?>> root = new LinkedHashMap<>();
+        for (String path : paths) {
+            Map<String, Map<String, ?>> node = root;
+            for (String name : path.split("\\.")) {
+                node = (Map<String, Map<String, ?>>) node.computeIfAbsent(name, n -> new LinkedHashMap<String, Map<String, ?>>());
+            }
+        }
+        return root;
+    }
+
+    // RFC 7386 JSON Merge Patch
+    private JsonNode mergePatch(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) return patch;
+        ObjectNode result = (target != null && target.isObject()) ? (ObjectNode) target : objectMapper.createObjectNode();
+        patch.fields().forEachRemaining(entry -> {
+            if (entry.getValue().isNull()) {
+                result.remove(entry.getKey());
+            } else {
+                result.set(entry.getKey(), mergePatch(result.get(entry.getKey()), entry.getValue()));
+            }
+        });
+        return result;
+    }
+
+    private String resourceVersion(JsonNode item) {
+        return item.path("metadata").path("resourceVersion").asText(null);
+    }
+
+    // Agent의 resourceKey와 동일한 규칙 (LogProcessingService 조회 키와도 일치)
+    private String resourceKey(String type, JsonNode item) {
+        JsonNode meta = item.path("metadata");
+        if (meta.isMissingNode()) return null;
+        String name = meta.path("name").asText();
+        String namespace = meta.path("namespace").asText();
+        return switch (type) {
+            case "Pod" -> namespace + "/" + name + "/" + item.path("spec").path("containers").path(0).path("name").asText();
+            case "Node", "Namespace" -> name;
+            case "Event" -> meta.path("uid").asText();
+            default -> namespace + "/" + name;
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.k8s.cnapp.server.ingestion.service;
+
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import com.k8s.cnapp.server.ingestion.dto.SnapshotChunk;
+import com.k8s.cnapp.server.ingestion.event.SnapshotCompletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Agent가 분할 전송한 전체 스냅샷 조각의 수신/처리 상태를 snapshot_chunks에 기록합니다.
+ * - 수신: Controller가 큐에 넣은 조각을 기록해 재전송된 같은 조각(응답 유실, Agent 재시작)은 다시 큐에 넣지 않음
+ * - 처리: Worker가 조각을 처리한 트랜잭션에서 기록하고, 마지막 조각까지 모든 조각이 처리되면 SnapshotCompletedEvent 발행
+ * Worker는 여러 개가 동시에 조각을 처리하므로 완료 판정은 스냅샷별 advisory lock으로 직렬화합니다.
+ * (잠금 없이 세는 경우 동시에 커밋된 두 조각이 서로를 보지 못해 완료가 누락될 수 있음)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SnapshotUploadService {
+
+    private static final String RECEIVED_SQL = "INSERT INTO snapshot_chunks (tenant_id, snapshot_id, seq, last_chunk, received_at) " +
+            "VALUES (?, ?, ?, ?, ?) ON CONFLICT (tenant_id, snapshot_id, seq) DO NOTHING";
+
+    private static final String PROCESSED_SQL = "INSERT INTO snapshot_chunks (tenant_id, snapshot_id, seq, last_chunk, received_at, processed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (tenant_id, snapshot_id, seq) DO UPDATE SET processed_at = EXCLUDED.processed_at";
+
+    // 마지막 조각의 순번 + 1 만큼 처리되었으면 완료 시각을 한 번만 기록
+    private static final String COMPLETE_SQL = "UPDATE snapshot_chunks c SET completed_at = ? " +
+            "WHERE c.tenant_id = ? AND c.snapshot_id = ? AND c.last_chunk = true AND c.completed_at IS NULL " +
+            "AND (SELECT count(*) FROM snapshot_chunks p WHERE p.tenant_id = c.tenant_id AND p.snapshot_id = c.snapshot_id " +
+            "AND p.processed_at IS NOT NULL) = c.seq + 1 " +
+            "RETURNING c.seq + 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${cnapp.ingestion.snapshot.retention-hours:24}")
+    private int retentionHours;
+
+    public boolean isReceived(Tenant tenant, SnapshotChunk chunk) {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM snapshot_chunks WHERE tenant_id = ? AND snapshot_id = ? AND seq = ?)",
+                Boolean.class, tenant.getId(), chunk.snapshotId(), chunk.seq());
+        return Boolean.TRUE.equals(exists);
+    }
+
+    public void markReceived(Tenant tenant, SnapshotChunk chunk) {
+        jdbcTemplate.update(RECEIVED_SQL, tenant.getId(), chunk.snapshotId(), chunk.seq(), chunk.last(),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * 조각 처리를 기록하고 스냅샷이 완료되었으면 이벤트를 발행합니다. 호출한 처리 트랜잭션 안에서 실행되어야 합니다.
+     * @param generation 스냅샷에 부여된 세대 (InventoryGenerationService)
+     */
+    @Transactional
+    public void markProcessed(Tenant tenant, SnapshotChunk chunk, Long generation) {
+        // 같은 스냅샷의 완료 판정은 트랜잭션이 끝날 때까지 한 Worker씩 (다른 스냅샷은 영향 없음)
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, hashtext(?))", rs -> {
+        }, tenant.getId().intValue(), chunk.snapshotId());
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(PROCESSED_SQL, tenant.getId(), chunk.snapshotId(), chunk.seq(), chunk.last(), now, now);
+
+        jdbcTemplate.query(COMPLETE_SQL, rs -> {
+            int chunks = rs.getInt(1);
+            log.info("Snapshot {} of tenant {} completed ({} chunks, generation {}, full {}).",
+                    chunk.snapshotId(), tenant.getName(), chunks, generation, chunk.full());
+            eventPublisher.publishEvent(new SnapshotCompletedEvent(tenant.getId(), chunk.snapshotId(),
+                    chunk.full() ? generation : null, chunks));
+        }, now, tenant.getId(), chunk.snapshotId());
+    }
+
+    /**
+     * 보존 기간이 지난 조각 기록을 삭제합니다. 완료되지 않은 스냅샷(수집 실패, Agent 교체)도 함께 정리됩니다.
+     */
+    @Scheduled(cron = "${cnapp.ingestion.snapshot.retention-cron:0 45 * * * *}")
+    @SchedulerLock(name = "snapshotChunkRetention")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(retentionHours);
+        int deleted = jdbcTemplate.update("DELETE FROM snapshot_chunks WHERE received_at < ?", Timestamp.valueOf(cutoff));
+        if (deleted > 0) {
+            log.info("Purged {} snapshot chunk receipts older than {} hours.", deleted, retentionHours);
+        }
+    }
+}
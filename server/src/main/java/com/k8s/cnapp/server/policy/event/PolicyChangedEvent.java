@@ -0,0 +1,7 @@
+package com.k8s.cnapp.server.policy.event;
+
+/**
+ * 테넌트의 정책 값/활성화 여부가 바뀌었음을 알리는 이벤트 (변경한 트랜잭션 안에서 발행)
+ * @param tenantId 테넌트 ID
+ */
+public record PolicyChangedEvent(Long tenantId) {}
@@ -4,9 +4,11 @@ import com.k8s.cnapp.server.auth.domain.Tenant;
 import com.k8s.cnapp.server.auth.repository.TenantRepository;
 import com.k8s.cnapp.server.auth.service.AuthService;
 import com.k8s.cnapp.server.policy.domain.Policy;
+import com.k8s.cnapp.server.policy.event.PolicyChangedEvent;
 import com.k8s.cnapp.server.policy.repository.PolicyRepository;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +21,7 @@ public class PolicyService {
     private final PolicyRepository policyRepository;
     private final TenantRepository tenantRepository;
     private final AuthService authService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PostConstruct
     @Transactional
@@ -46,6 +49,8 @@ public class PolicyService {
         // Node Policies
         createIfNotExists(tenant, Policy.ResourceType.NODE, Policy.RuleType.CPU_LIMIT_CORES, "8", "Node CPU capacity limit (cores)");
         createIfNotExists(tenant, Policy.ResourceType.NODE, Policy.RuleType.MEMORY_LIMIT_BYTES, "34359738368", "Node Memory capacity limit (32GB)");
+
+        eventPublisher.publishEvent(new PolicyChangedEvent(tenant.getId()));
     }
 
     private void createIfNotExists(Tenant tenant, Policy.ResourceType resourceType, Policy.RuleType ruleType, String value, String description) {
@@ -75,6 +80,7 @@ public class PolicyService {
         }
 
         policy.update(value, enabled);
+        eventPublisher.publishEvent(new PolicyChangedEvent(currentTenant.getId()));
         return policy;
     }
     
@@ -28,6 +28,10 @@ public abstract class BaseResourceProfile {
     @Column(name = "last_seen_at")
     protected LocalDateTime lastSeenAt;
 
+    // 이 행을 마지막으로 확인한 스냅샷의 세대 (서버가 부여, InventoryGenerationService). 스냅샷 완료 후 더 오래된 세대의 행은 삭제됨 (InventorySweepService)
+    @Column(name = "sync_generation")
+    protected Long syncGeneration;
+
     protected BaseResourceProfile(Tenant tenant) {
         this.tenant = tenant;
     }
@@ -35,4 +39,11 @@ public abstract class BaseResourceProfile {
     public void updateLastSeenAt(LocalDateTime lastSeenAt) {
         this.lastSeenAt = lastSeenAt;
     }
+
+    /**
+     * 스냅샷 세대에서 확인된 행으로 표시합니다. 세대가 없거나 이미 더 최근 세대로 확인된 행이면 기존 값을 유지합니다.
+     */
+    public void markSynced(Long generation) {
+        if (generation != null && (syncGeneration == null || syncGeneration < generation)) this.syncGeneration = generation;
+    }
 }
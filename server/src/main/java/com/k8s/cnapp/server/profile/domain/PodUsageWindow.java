@@ -0,0 +1,76 @@
+package com.k8s.cnapp.server.profile.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Pod 사용량 시계열 (Agent가 집계한 구간별 min/avg/max). CPU는 millicore, 메모리는 byte 단위.
+ * 구간마다 행을 추가만 하므로 pod_profiles를 갱신하지 않으며, 적재는 PodUsageService의 JDBC 배치 INSERT로 합니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@IdClass(PodUsageWindow.Key.class)
+@Table(name = "pod_usage_windows", indexes = {
+        @Index(name = "idx_pod_usage_window_start", columnList = "window_start")
+})
+public class PodUsageWindow {
+
+    @Id
+    @Column(name = "tenant_id")
+    private Long tenantId;
+
+    @Id
+    @Column(name = "namespace")
+    private String namespace;
+
+    @Id
+    @Column(name = "pod_name")
+    private String podName;
+
+    @Id
+    @Column(name = "window_start")
+    private LocalDateTime windowStart;
+
+    @Column(name = "window_seconds", nullable = false)
+    private int windowSeconds;
+
+    @Column(name = "samples", nullable = false)
+    private int samples;
+
+    @Column(name = "cpu_min", nullable = false)
+    private long cpuMin;
+
+    @Column(name = "cpu_avg", nullable = false)
+    private long cpuAvg;
+
+    @Column(name = "cpu_max", nullable = false)
+    private long cpuMax;
+
+    @Column(name = "memory_min", nullable = false)
+    private long memoryMin;
+
+    @Column(name = "memory_avg", nullable = false)
+    private long memoryAvg;
+
+    @Column(name = "memory_max", nullable = false)
+    private long memoryMax;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long tenantId;
+        private String namespace;
+        private String podName;
+        private LocalDateTime windowStart;
+    }
+}
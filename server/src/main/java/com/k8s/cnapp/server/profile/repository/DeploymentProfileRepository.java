@@ -22,4 +22,10 @@ public interface DeploymentProfileRepository extends JpaRepository<DeploymentPro
     // 스냅샷에 없는 데이터 삭제 (Tenant 격리)
     @Modifying
     void deleteAllByLastSeenAtBefore(java.time.LocalDateTime time);
+
+    // 전체 스냅샷에서 본문 없이 키만 확인된 행의 세대 기록 (이미 더 최근 세대로 확인된 행은 그대로)
+    @Modifying
+    @Query("UPDATE DeploymentProfile d SET d.syncGeneration = :generation WHERE d.tenant = :tenant " +
+            "AND (d.syncGeneration IS NULL OR d.syncGeneration < :generation) AND CONCAT(d.namespace, '/', d.name) IN :keys")
+    int markSynced(@Param("tenant") Tenant tenant, @Param("keys") List<String> keys, @Param("generation") Long generation);
 }
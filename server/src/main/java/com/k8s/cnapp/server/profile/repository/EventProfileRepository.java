@@ -19,4 +19,10 @@ public interface EventProfileRepository extends JpaRepository<EventProfile, Long
 
     @Modifying
     void deleteAllByLastSeenAtBefore(java.time.LocalDateTime time);
+
+    // 전체 스냅샷에서 본문 없이 키만 확인된 행의 세대 기록 (이미 더 최근 세대로 확인된 행은 그대로)
+    @Modifying
+    @Query("UPDATE EventProfile e SET e.syncGeneration = :generation WHERE e.tenant = :tenant " +
+            "AND (e.syncGeneration IS NULL OR e.syncGeneration < :generation) AND e.uid IN :keys")
+    int markSynced(@Param("tenant") Tenant tenant, @Param("keys") List<String> keys, @Param("generation") Long generation);
 }
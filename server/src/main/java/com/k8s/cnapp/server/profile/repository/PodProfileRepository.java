@@ -23,4 +23,10 @@ public interface PodProfileRepository extends JpaRepository<PodProfile, Long>, P
     // GC용: 일정 시간 동안 생존 보고가 없는 데이터 삭제
     @Modifying
     void deleteAllByLastSeenAtBefore(java.time.LocalDateTime time);
+
+    // 전체 스냅샷에서 본문 없이 키만 확인된 행의 세대 기록 (이미 더 최근 세대로 확인된 행은 그대로)
+    @Modifying
+    @Query("UPDATE PodProfile p SET p.syncGeneration = :generation WHERE p.tenant = :tenant " +
+            "AND (p.syncGeneration IS NULL OR p.syncGeneration < :generation) AND CONCAT(p.assetContext.namespace, '/', p.assetContext.podName, '/', p.assetContext.containerName) IN :keys")
+    int markSynced(@Param("tenant") Tenant tenant, @Param("keys") List<String> keys, @Param("generation") Long generation);
 }
@@ -0,0 +1,70 @@
+package com.k8s.cnapp.server.detection.service;
+
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import com.k8s.cnapp.server.detection.policy.impl.PodPrivilegedPolicy;
+import com.k8s.cnapp.server.ingestion.dto.EdgePolicySet;
+import com.k8s.cnapp.server.policy.domain.Policy;
+import com.k8s.cnapp.server.policy.event.PolicyChangedEvent;
+import com.k8s.cnapp.server.policy.service.PolicyService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EdgePolicyCompilerTest {
+
+    private final PolicyService policyService = mock(PolicyService.class);
+    private final Tenant tenant = mock(Tenant.class);
+    private EdgePolicyCompiler compiler;
+
+    @BeforeEach
+    void setUp() {
+        compiler = new EdgePolicyCompiler(List.of(new PodPrivilegedPolicy()), policyService);
+        compiler.init();
+        ReflectionTestUtils.setField(compiler, "cacheTtlSeconds", 60L);
+        when(tenant.getId()).thenReturn(1L);
+        when(policyService.getPolicyValueForTenant(any(), any(), any())).thenReturn("true");
+    }
+
+    @Test
+    void compiledSetIsReusedUntilPoliciesChange() {
+        EdgePolicySet first = compiler.compile(tenant);
+        assertThat(compiler.compile(tenant)).isSameAs(first);
+        verify(policyService, times(1)).getPolicyValueForTenant(tenant, Policy.ResourceType.POD, Policy.RuleType.PRIVILEGED_DENY);
+
+        // 정책 비활성화 커밋 -> 다음 컴파일은 새 규칙과 새 버전
+        when(policyService.getPolicyValueForTenant(any(), any(), any())).thenReturn(null);
+        compiler.onPolicyChanged(new PolicyChangedEvent(1L));
+
+        EdgePolicySet changed = compiler.compile(tenant);
+        assertThat(changed.rules()).isEmpty();
+        assertThat(changed.version()).isNotEqualTo(first.version());
+    }
+
+    @Test
+    void otherTenantsChangeKeepsCache() {
+        EdgePolicySet first = compiler.compile(tenant);
+
+        compiler.onPolicyChanged(new PolicyChangedEvent(2L));
+
+        assertThat(compiler.compile(tenant)).isSameAs(first);
+    }
+
+    @Test
+    void expiredEntryIsRecompiled() {
+        ReflectionTestUtils.setField(compiler, "cacheTtlSeconds", 0L);
+
+        compiler.compile(tenant);
+        compiler.compile(tenant);
+
+        verify(policyService, times(2)).getPolicyValueForTenant(tenant, Policy.ResourceType.POD, Policy.RuleType.PRIVILEGED_DENY);
+    }
+}
@@ -0,0 +1,96 @@
+package com.k8s.cnapp.server.ingestion.service;
+
+import com.k8s.cnapp.server.config.RabbitConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IngestionBackpressureTest {
+
+    private final AmqpAdmin amqpAdmin = mock(AmqpAdmin.class);
+    private IngestionBackpressure backpressure;
+
+    @BeforeEach
+    void setUp() {
+        backpressure = new IngestionBackpressure(amqpAdmin);
+        ReflectionTestUtils.setField(backpressure, "enabled", true);
+        ReflectionTestUtils.setField(backpressure, "throttleDepth", 1000L);
+        ReflectionTestUtils.setField(backpressure, "rejectDepth", 5000L);
+        ReflectionTestUtils.setField(backpressure, "maxWorkerLatencyMs", 10_000L);
+        ReflectionTestUtils.setField(backpressure, "maxRetryAfterSeconds", 60L);
+    }
+
+    @Test
+    void rejectsAndThrottlesByQueueDepth() {
+        queue(5000, 2);
+        assertThatThrownBy(backpressure::checkCapacity).isInstanceOfSatisfying(IngestionOverloadedException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        queue(1000, 2);
+        assertThatThrownBy(backpressure::checkCapacity).isInstanceOfSatisfying(IngestionOverloadedException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+
+        queue(999, 2);
+        assertThatCode(backpressure::checkCapacity).doesNotThrowAnyException();
+    }
+
+    @Test
+    void throttlesSlowWorkersWhileMessagesWait() {
+        queue(10, 1);
+        backpressure.recordProcessingTime(12_000);
+
+        assertThatThrownBy(backpressure::checkCapacity).isInstanceOfSatisfying(IngestionOverloadedException.class, e -> {
+            assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+            assertThat(e.getRetryAfterSeconds()).isEqualTo(60); // 10 x 12s, 상한 60s
+        });
+    }
+
+    @Test
+    void slowMessageOnIdleServerDoesNotThrottle() {
+        queue(0, 1);
+        backpressure.recordProcessingTime(15_000);
+
+        assertThatCode(backpressure::checkCapacity).doesNotThrowAnyException();
+    }
+
+    @Test
+    void recoversAfterQueueDrains() {
+        queue(5, 1);
+        backpressure.recordProcessingTime(15_000);
+        assertThatThrownBy(backpressure::checkCapacity).isInstanceOf(IngestionOverloadedException.class);
+
+        // 유휴 구간: 큐가 비면 처리 시간을 버림
+        queue(0, 1);
+        assertThat(backpressure.getWorkerLatencyMs()).isZero();
+
+        // 다음 요청이 쌓여도 이전의 느린 처리 시간으로 막지 않고 새 측정값으로 판단
+        queue(3, 1);
+        assertThatCode(backpressure::checkCapacity).doesNotThrowAnyException();
+        backpressure.recordProcessingTime(200);
+        assertThat(backpressure.getWorkerLatencyMs()).isEqualTo(200);
+        assertThatCode(backpressure::checkCapacity).doesNotThrowAnyException();
+    }
+
+    @Test
+    void latencyIsSmoothed() {
+        backpressure.recordProcessingTime(1000);
+        backpressure.recordProcessingTime(2000);
+
+        assertThat(backpressure.getWorkerLatencyMs()).isEqualTo(1200);
+    }
+
+    private void queue(int depth, int consumers) {
+        when(amqpAdmin.getQueueInfo(RabbitConfig.INGESTION_RAW_QUEUE))
+                .thenReturn(new QueueInformation(RabbitConfig.INGESTION_RAW_QUEUE, depth, consumers));
+        backpressure.refreshQueueDepth();
+    }
+}
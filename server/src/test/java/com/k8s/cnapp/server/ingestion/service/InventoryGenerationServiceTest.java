@@ -0,0 +1,90 @@
+package com.k8s.cnapp.server.ingestion.service;
+
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 세대 부여와 보존 기간 정리를 H2(PostgreSQL 모드)로 확인합니다.
+ * H2는 충돌 대상 컬럼을 지정한 ON CONFLICT를 지원하지 않아 대상만 빼고 실행합니다. (유일 제약이 하나라 의미는 같음)
+ */
+class InventoryGenerationServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:inventory-generations;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")) {
+        @Override
+        public int update(String sql, Object... args) {
+            return super.update(sql.replace("ON CONFLICT (tenant_id, snapshot_id)", "ON CONFLICT"), args);
+        }
+    };
+    private final Tenant tenant = mock(Tenant.class);
+    private InventoryGenerationService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE inventory_generations (generation BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "tenant_id BIGINT NOT NULL, snapshot_id VARCHAR(64) NOT NULL, created_at TIMESTAMP NOT NULL, purged_at TIMESTAMP, " +
+                "CONSTRAINT uk_inventory_generation_snapshot UNIQUE (tenant_id, snapshot_id))");
+        service = new InventoryGenerationService(jdbcTemplate);
+        ReflectionTestUtils.setField(service, "retentionHours", 24);
+        ReflectionTestUtils.setField(service, "tombstoneHours", 168);
+        when(tenant.getId()).thenReturn(1L);
+        when(tenant.getName()).thenReturn("acme");
+    }
+
+    @Test
+    void sameSnapshotKeepsItsGeneration() {
+        Long first = service.generationOf(tenant, "s-1", true);
+        Long next = service.generationOf(tenant, "s-2", false);
+
+        assertThat(next).isGreaterThan(first);
+        assertThat(service.generationOf(tenant, "s-1", false)).isEqualTo(first);
+        assertThat(service.generationOf(tenant, null, false)).isNull();
+    }
+
+    @Test
+    void lateDeltaForPurgedSnapshotGetsCurrentGeneration() {
+        Long old = service.generationOf(tenant, "s-old", true);
+        Long current = service.generationOf(tenant, "s-current", true);
+        age("s-old", 25);
+        age("s-current", 25);
+
+        service.purgeExpired();
+
+        // 가장 최근 세대는 유지, 늦게 온 변경분은 새 세대 대신 현재 세대
+        assertThat(service.generationOf(tenant, "s-old", false)).isEqualTo(current).isNotEqualTo(old);
+        assertThat(service.generationOf(tenant, "s-old", true)).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT max(generation) FROM inventory_generations", Long.class)).isEqualTo(current);
+    }
+
+    @Test
+    void tombstonesAreDeletedAfterTheirRetention() {
+        service.generationOf(tenant, "s-old", true);
+        service.generationOf(tenant, "s-current", true);
+        age("s-old", 25);
+        service.purgeExpired();
+        jdbcTemplate.update("UPDATE inventory_generations SET purged_at = ? WHERE snapshot_id = 's-old'",
+                Timestamp.valueOf(LocalDateTime.now().minusHours(169)));
+
+        service.purgeExpired();
+
+        assertThat(jdbcTemplate.queryForList("SELECT snapshot_id FROM inventory_generations", String.class))
+                .containsExactly("s-current");
+    }
+
+    private void age(String snapshotId, int hours) {
+        jdbcTemplate.update("UPDATE inventory_generations SET created_at = ? WHERE snapshot_id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusHours(hours)), snapshotId);
+    }
+}
@@ -0,0 +1,143 @@
+package com.k8s.cnapp.server.ingestion.service;
+
+import com.k8s.cnapp.server.ingestion.event.SnapshotCompletedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 스냅샷 완료 이벤트 리스너 등록(트랜잭션 이벤트 리스너 제약 검사 포함)과 세대 기준 정리를 H2로 확인합니다.
+ * 자산 테이블은 정리 쿼리가 쓰는 컬럼만 만듭니다.
+ */
+@SpringJUnitConfig(InventorySweepServiceTest.Config.class)
+class InventorySweepServiceTest {
+
+    private static final long TENANT = 1L;
+    private static final long OTHER_TENANT = 2L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE pod_profiles (id BIGINT PRIMARY KEY, tenant_id BIGINT, sync_generation BIGINT, " +
+                "namespace VARCHAR(255), pod_name VARCHAR(255), deployment_name VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE service_profiles (id BIGINT PRIMARY KEY, tenant_id BIGINT, sync_generation BIGINT, " +
+                "namespace VARCHAR(255), name VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE service_ports (id BIGINT PRIMARY KEY, service_profile_id BIGINT REFERENCES service_profiles (id))");
+        jdbcTemplate.execute("CREATE TABLE deployment_profiles (id BIGINT PRIMARY KEY, tenant_id BIGINT, sync_generation BIGINT, " +
+                "namespace VARCHAR(255), name VARCHAR(255))");
+        for (String table : List.of("node_profiles", "namespace_profiles", "event_profiles")) {
+            jdbcTemplate.execute("CREATE TABLE " + table + " (id BIGINT PRIMARY KEY, tenant_id BIGINT, sync_generation BIGINT, name VARCHAR(255))");
+        }
+        jdbcTemplate.execute("CREATE TABLE alerts (id BIGINT PRIMARY KEY, tenant_id BIGINT, status VARCHAR(32), " +
+                "resource_type VARCHAR(32), resource_name VARCHAR(255))");
+    }
+
+    @Test
+    void sweepsRowsOlderThanCompletedGenerationAfterCommit() {
+        pod(1, TENANT, 5L, "web");      // 이번 스냅샷에서 확인
+        pod(2, TENANT, 6L, "fresh");    // 수집 중 변경분으로 더 최근 세대
+        pod(3, TENANT, 4L, "gone");     // 이전 세대
+        pod(4, TENANT, null, "orphan"); // 세대 없음
+        pod(5, OTHER_TENANT, 1L, "web");
+        service(10, TENANT, 4L, "old-svc");
+        jdbcTemplate.update("INSERT INTO service_ports VALUES (100, 10)");
+        alert(1, TENANT, "POD", "default/web");
+        alert(2, TENANT, "POD", "default/gone");
+        alert(3, TENANT, "SERVICE", "default/old-svc");
+
+        publishCommitted(new SnapshotCompletedEvent(TENANT, "s-5", 5L, 3));
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM pod_profiles ORDER BY id", Long.class)).containsExactly(1L, 2L, 5L);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM service_profiles", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM service_ports", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM alerts", Long.class)).containsExactly(1L);
+    }
+
+    @Test
+    void partialSnapshotDoesNotSweep() {
+        pod(1, TENANT, 1L, "web");
+
+        publishCommitted(new SnapshotCompletedEvent(TENANT, "s-shard", null, 2));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM pod_profiles", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void rolledBackCompletionDoesNotSweep() {
+        pod(1, TENANT, 1L, "web");
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new SnapshotCompletedEvent(TENANT, "s-5", 5L, 3));
+            status.setRollbackOnly();
+        });
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM pod_profiles", Integer.class)).isEqualTo(1);
+    }
+
+    private void publishCommitted(SnapshotCompletedEvent event) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> eventPublisher.publishEvent(event));
+    }
+
+    private void pod(long id, long tenantId, Long generation, String name) {
+        jdbcTemplate.update("INSERT INTO pod_profiles VALUES (?, ?, ?, 'default', ?, NULL)", id, tenantId, generation, name);
+    }
+
+    private void service(long id, long tenantId, Long generation, String name) {
+        jdbcTemplate.update("INSERT INTO service_profiles VALUES (?, ?, ?, 'default', ?)", id, tenantId, generation, name);
+    }
+
+    private void alert(long id, long tenantId, String type, String name) {
+        jdbcTemplate.update("INSERT INTO alerts VALUES (?, ?, 'OPEN', ?, ?)", id, tenantId, type, name);
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Config {
+
+        @Bean
+        DataSource dataSource() {
+            return new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        InventorySweepService inventorySweepService(JdbcTemplate jdbcTemplate) {
+            return new InventorySweepService(jdbcTemplate);
+        }
+    }
+}
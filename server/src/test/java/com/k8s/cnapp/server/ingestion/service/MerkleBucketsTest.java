@@ -0,0 +1,78 @@
+package com.k8s.cnapp.server.ingestion.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 고정 입력에 대한 기대값(Agent MerkleBucketsTest와 같은 값)으로 Agent와 서버 구현이 같은 해시를 내는지 확인합니다.
+ * 기대값은 Java 구현과 별도로 계산했으며, 키 해시는 FNV-1a 64비트 공개 테스트 벡터("a")와 일치합니다.
+ */
+class MerkleBucketsTest {
+
+    private static final int BUCKETS = 16;
+
+    @Test
+    void keysMapToFixedBuckets() {
+        // FNV-1a("a") = 0xaf63dc4c8601ec8c
+        assertThat(MerkleBuckets.bucketOf("a", 256)).isEqualTo((int) Long.remainderUnsigned(0xaf63dc4c8601ec8cL, 256));
+        assertThat(MerkleBuckets.bucketOf("default/nginx", BUCKETS)).isEqualTo(5);
+        assertThat(MerkleBuckets.bucketOf("kube-system/coredns", BUCKETS)).isEqualTo(7);
+        assertThat(MerkleBuckets.bucketOf("worker-1", BUCKETS)).isEqualTo(13);
+        assertThat(MerkleBuckets.bucketOf("worker-1", 256)).isEqualTo(237);
+    }
+
+    @Test
+    void entryHashMatchesKnownVector() {
+        assertThat(MerkleBuckets.entryHash("default/nginx", 42L)).isEqualTo(0xf6c2b2ef62f24240L);
+    }
+
+    @Test
+    void bucketHashesAndRootMatchKnownVectors() {
+        long[] buckets = MerkleBuckets.bucketHashes(entries(), BUCKETS);
+
+        long[] expected = new long[BUCKETS];
+        expected[5] = 0xf6c2b2ef62f24240L;
+        expected[7] = 0x29fb66b16de21476L;
+        expected[13] = 0x3866ab6a1fa880dcL;
+        assertThat(buckets).containsExactly(expected);
+        assertThat(MerkleBuckets.root(buckets)).isEqualTo(0x108058727deaf21aL);
+        assertThat(MerkleBuckets.root(new long[BUCKETS])).isEqualTo(0x8421ae126c7ced25L);
+    }
+
+    @Test
+    void rootDoesNotDependOnEntryOrder() {
+        Map<String, Long> reversed = new LinkedHashMap<>();
+        reversed.put("worker-1", 123456789L);
+        reversed.put("kube-system/coredns", 7L);
+        reversed.put("default/nginx", 42L);
+
+        assertThat(MerkleBuckets.root(MerkleBuckets.bucketHashes(reversed, BUCKETS)))
+                .isEqualTo(MerkleBuckets.root(MerkleBuckets.bucketHashes(entries(), BUCKETS)));
+    }
+
+    @Test
+    void changedFingerprintChangesOnlyItsBucket() {
+        Map<String, Long> changed = entries();
+        changed.put("kube-system/coredns", 8L);
+
+        long[] before = MerkleBuckets.bucketHashes(entries(), BUCKETS);
+        long[] after = MerkleBuckets.bucketHashes(changed, BUCKETS);
+        for (int i = 0; i < BUCKETS; i++) {
+            if (i == 7) assertThat(after[i]).isNotEqualTo(before[i]);
+            else assertThat(after[i]).isEqualTo(before[i]);
+        }
+        assertThat(MerkleBuckets.root(after)).isNotEqualTo(MerkleBuckets.root(before));
+    }
+
+    private static Map<String, Long> entries() {
+        Map<String, Long> entries = new LinkedHashMap<>();
+        entries.put("default/nginx", 42L);
+        entries.put("kube-system/coredns", 7L);
+        entries.put("worker-1", 123456789L);
+        return entries;
+    }
+}
@@ -0,0 +1,177 @@
+package com.k8s.cnapp.server.ingestion.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import com.k8s.cnapp.server.ingestion.domain.ResourceState;
+import com.k8s.cnapp.server.ingestion.repository.ResourceStateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Delta 복원 규칙. 상태 행 저장소는 키별 ResourceState를 메모리에 두는 mock으로 대신합니다.
+ * (Worker가 메시지를 순서 없이 처리하는 상황은 reconcile 호출 순서로 재현)
+ */
+class ResourceStateServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ResourceStateRepository repository = mock(ResourceStateRepository.class);
+    private final Tenant tenant = mock(Tenant.class);
+    private final Map<String, ResourceState> states = new HashMap<>();
+    private ResourceStateService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        service = new ResourceStateService(objectMapper, repository, mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(service, "deltaTypes", Set.of("Pod"));
+        ReflectionTestUtils.setField(service, "baseWaitSeconds", 60L);
+        when(tenant.getId()).thenReturn(1L);
+        when(repository.findByTenantAndResourceTypeAndResourceKeyInOrderByResourceKey(eq(tenant), anyString(), any()))
+                .thenAnswer(invocation -> ((Collection<String>) invocation.getArgument(2)).stream()
+                        .map(key -> states.computeIfAbsent(key, k -> new ResourceState(tenant, invocation.getArgument(1), k)))
+                        .toList());
+    }
+
+    @Test
+    void patchOnMatchingBaseIsRestored() throws Exception {
+        service.reconcile(tenant, snapshot(pod("1", "Pending")));
+
+        ObjectNode root = snapshot();
+        root.putArray("patches").add(patch("1", "2", "{\"metadata\":{\"resourceVersion\":\"2\"},\"status\":{\"phase\":\"Running\"}}"));
+        service.reconcile(tenant, root);
+
+        assertThat(root.get("pods")).hasSize(1);
+        assertThat(root.at("/pods/0/status/phase").asText()).isEqualTo("Running");
+        assertThat(root.at("/pods/0/spec/containers/0/image").asText()).isEqualTo("nginx");
+        assertThat(state().getResourceVersion()).isEqualTo("2");
+    }
+
+    @Test
+    void patchProcessedBeforeItsBaseIsAppliedWhenBaseArrives() throws Exception {
+        // patch가 먼저 처리됨: 재전송을 요청하지 않고 보류
+        ObjectNode early = snapshot();
+        early.putArray("patches").add(patch("1", "2", "{\"metadata\":{\"resourceVersion\":\"2\"},\"status\":{\"phase\":\"Running\"}}"));
+        service.reconcile(tenant, early);
+
+        assertThat(early.get("pods")).isEmpty();
+        assertThat(state().isResyncRequested()).isFalse();
+        assertThat(state().getDeferredPatches()).isNotNull();
+
+        // 기준 전송본 처리: 보류한 patch까지 적용한 최신 상태로 저장
+        ObjectNode base = snapshot(pod("1", "Pending"));
+        service.reconcile(tenant, base);
+
+        assertThat(base.at("/pods/0/status/phase").asText()).isEqualTo("Running");
+        assertThat(state().getResourceVersion()).isEqualTo("2");
+        assertThat(state().getDeferredPatches()).isNull();
+        assertThat(state().getDeferredSince()).isNull();
+    }
+
+    @Test
+    void deferredPatchesAreAppliedInChainOrder() throws Exception {
+        ObjectNode second = snapshot();
+        second.putArray("patches").add(patch("2", "3", "{\"metadata\":{\"resourceVersion\":\"3\"},\"status\":{\"podIP\":\"10.0.0.9\"}}"));
+        service.reconcile(tenant, second);
+        ObjectNode first = snapshot();
+        first.putArray("patches").add(patch("1", "2", "{\"metadata\":{\"resourceVersion\":\"2\"},\"status\":{\"phase\":\"Running\"}}"));
+        service.reconcile(tenant, first);
+
+        ObjectNode base = snapshot(pod("1", "Pending"));
+        service.reconcile(tenant, base);
+
+        assertThat(base.at("/pods/0/status/phase").asText()).isEqualTo("Running");
+        assertThat(base.at("/pods/0/status/podIP").asText()).isEqualTo("10.0.0.9");
+        assertThat(state().getResourceVersion()).isEqualTo("3");
+        assertThat(state().getDeferredPatches()).isNull();
+    }
+
+    @Test
+    void deferredPatchesAreAppliedAfterAnAppliedPatch() throws Exception {
+        service.reconcile(tenant, snapshot(pod("1", "Pending")));
+        ObjectNode later = snapshot();
+        later.putArray("patches").add(patch("2", "3", "{\"metadata\":{\"resourceVersion\":\"3\"},\"status\":{\"podIP\":\"10.0.0.9\"}}"));
+        service.reconcile(tenant, later);
+
+        ObjectNode root = snapshot();
+        root.putArray("patches").add(patch("1", "2", "{\"metadata\":{\"resourceVersion\":\"2\"},\"status\":{\"phase\":\"Running\"}}"));
+        service.reconcile(tenant, root);
+
+        assertThat(root.get("pods")).hasSize(1);
+        assertThat(root.at("/pods/0/status/podIP").asText()).isEqualTo("10.0.0.9");
+        assertThat(state().getResourceVersion()).isEqualTo("3");
+    }
+
+    @Test
+    void baseThatNeverArrivesTurnsIntoResyncRequest() throws Exception {
+        ObjectNode early = snapshot();
+        early.putArray("patches").add(patch("1", "2", "{\"status\":{\"phase\":\"Running\"}}"));
+        service.reconcile(tenant, early);
+        ResourceState state = state();
+        ReflectionTestUtils.setField(state, "deferredSince", LocalDateTime.now().minusSeconds(61));
+
+        when(repository.findTop500ByTenantAndDeferredSinceBefore(eq(tenant), any())).thenReturn(List.of(state));
+        when(repository.findTop500ByTenantAndResyncRequestedTrue(tenant))
+                .thenAnswer(invocation -> state.isResyncRequested() ? List.of(state) : List.of());
+
+        assertThat(service.drainResyncRequests(tenant)).isEqualTo(Map.of("Pod", List.of("default/web/app")));
+        assertThat(state.getDeferredPatches()).isNull();
+        assertThat(state.isResyncRequested()).isFalse();
+    }
+
+    @Test
+    void stateKeepsOnlyProfileFields() throws Exception {
+        ObjectNode pod = pod("1", "Running");
+        ((ObjectNode) pod.get("metadata")).putObject("annotations").put("large", "x".repeat(1000));
+
+        JsonNode body = objectMapper.readTree(service.stateBody("Pod", pod));
+
+        assertThat(body.at("/metadata/annotations").isMissingNode()).isTrue();
+        assertThat(body.at("/spec/containers/0/image").asText()).isEqualTo("nginx");
+    }
+
+    private ResourceState state() {
+        return states.get("default/web/app");
+    }
+
+    private ObjectNode snapshot(ObjectNode... pods) {
+        ObjectNode root = objectMapper.createObjectNode();
+        for (ObjectNode pod : pods) root.withArray("pods").add(pod);
+        if (pods.length == 0) root.putArray("pods");
+        return root;
+    }
+
+    private ObjectNode pod(String version, String phase) throws Exception {
+        return (ObjectNode) objectMapper.readTree("""
+                {"metadata":{"name":"web","namespace":"default","resourceVersion":"%s"},
+                 "spec":{"nodeName":"worker-1","containers":[{"name":"app","image":"nginx"}]},
+                 "status":{"phase":"%s"}}""".formatted(version, phase));
+    }
+
+    private ObjectNode patch(String baseVersion, String version, String patch) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("type", "Pod");
+        node.put("key", "default/web/app");
+        node.put("baseVersion", baseVersion);
+        node.put("version", version);
+        node.put("patch", patch);
+        return node;
+    }
+}
@@ -0,0 +1,85 @@
+package com.k8s.cnapp.server.ingestion.service;
+
+import com.k8s.cnapp.server.auth.domain.Tenant;
+import com.k8s.cnapp.server.ingestion.dto.SnapshotChunk;
+import com.k8s.cnapp.server.ingestion.event.SnapshotCompletedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 조각 처리 기록과 완료 이벤트 발행. 완료 판정 SQL(Postgres)의 결과는 JdbcTemplate mock으로 대신합니다.
+ */
+class SnapshotUploadServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final Tenant tenant = mock(Tenant.class);
+    private final SnapshotUploadService service = new SnapshotUploadService(jdbcTemplate, eventPublisher);
+
+    @BeforeEach
+    void setUp() {
+        when(tenant.getId()).thenReturn(7L);
+        when(tenant.getName()).thenReturn("acme");
+    }
+
+    @Test
+    void completionPublishesGenerationOfFullSnapshot() throws Exception {
+        completes(4);
+
+        service.markProcessed(tenant, new SnapshotChunk("s-1", true, 3, true), 42L);
+
+        verify(eventPublisher).publishEvent(new SnapshotCompletedEvent(7L, "s-1", 42L, 4));
+    }
+
+    @Test
+    void partialSnapshotCompletesWithoutGeneration() throws Exception {
+        completes(2);
+
+        service.markProcessed(tenant, new SnapshotChunk("s-shard", false, 1, true), 42L);
+
+        verify(eventPublisher).publishEvent(new SnapshotCompletedEvent(7L, "s-shard", null, 2));
+    }
+
+    @Test
+    void incompleteSnapshotPublishesNothing() {
+        service.markProcessed(tenant, new SnapshotChunk("s-1", true, 0, false), 42L);
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void completionIsCheckedUnderSnapshotLockAfterRecordingTheChunk() {
+        service.markProcessed(tenant, new SnapshotChunk("s-1", true, 2, false), 42L);
+
+        var order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).query(contains("pg_advisory_xact_lock"), any(RowCallbackHandler.class), eq(7), eq("s-1"));
+        order.verify(jdbcTemplate).update(contains("processed_at"), eq(7L), eq("s-1"), eq(2), eq(false), any(), any());
+        order.verify(jdbcTemplate).query(contains("completed_at"), any(RowCallbackHandler.class), any(), eq(7L), eq("s-1"));
+    }
+
+    // 완료 판정 UPDATE ... RETURNING이 전체 조각 수 한 행을 돌려줌
+    private void completes(int chunks) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getInt(1)).thenReturn(chunks);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(contains("completed_at"), any(RowCallbackHandler.class), any(), eq(7L), anyString());
+    }
+}